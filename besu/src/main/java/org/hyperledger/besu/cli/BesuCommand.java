@@ -56,6 +56,7 @@ import org.hyperledger.besu.cli.options.stable.P2PTLSConfigOptions;
 import org.hyperledger.besu.cli.options.stable.PermissionsOptions;
 import org.hyperledger.besu.cli.options.stable.PluginsConfigurationOptions;
 import org.hyperledger.besu.cli.options.stable.RpcWebsocketOptions;
+import org.hyperledger.besu.cli.options.unstable.AncientStoreOptions;
 import org.hyperledger.besu.cli.options.unstable.ChainPruningOptions;
 import org.hyperledger.besu.cli.options.unstable.DnsOptions;
 import org.hyperledger.besu.cli.options.unstable.EthProtocolOptions;
@@ -134,6 +135,7 @@ import org.hyperledger.besu.ethereum.privacy.storage.keyvalue.PrivacyKeyValueSto
 import org.hyperledger.besu.ethereum.privacy.storage.keyvalue.PrivacyKeyValueStorageProviderBuilder;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProviderBuilder;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
@@ -296,6 +298,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
   private final EvmOptions unstableEvmOptions = EvmOptions.create();
   private final IpcOptions unstableIpcOptions = IpcOptions.create();
   private final ChainPruningOptions unstableChainPruningOptions = ChainPruningOptions.create();
+  private final AncientStoreOptions unstableAncientStoreOptions = AncientStoreOptions.create();
 
   // stable CLI options
   final DataStorageOptions dataStorageOptions = DataStorageOptions.create();
@@ -1215,6 +1218,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
             .put("EVM Options", unstableEvmOptions)
             .put("IPC Options", unstableIpcOptions)
             .put("Chain Data Pruning Options", unstableChainPruningOptions)
+            .put("Ancient Store Options", unstableAncientStoreOptions)
             .build();
 
     UnstableOptionsSubCommand.createUnstableOptions(commandLine, unstableOptions);
@@ -1485,6 +1489,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
     validateRpcOptionsParams();
     validateRpcWsOptions();
     validateChainDataPruningParams();
+    validateAncientStoreParams();
     validatePostMergeCheckpointBlockRequirements();
     validateTransactionPoolOptions();
     validateDataStorageOptions();
@@ -1650,6 +1655,19 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
     }
   }
 
+  private void validateAncientStoreParams() {
+    if (unstableAncientStoreOptions.getAncientStoreEnabled()
+        && unstableChainPruningOptions.getChainDataPruningEnabled()) {
+      throw new ParameterException(
+          this.commandLine,
+          "--Xancient-store-enabled cannot be used together with --Xchain-pruning-enabled");
+    }
+    if (unstableAncientStoreOptions.getAncientStoreBlocksRetained() < 0) {
+      throw new ParameterException(
+          this.commandLine, "--Xancient-store-blocks-retained must be >= 0");
+    }
+  }
+
   private GenesisConfigFile readGenesisConfigFile() {
     return genesisFile != null
         ? GenesisConfigFile.fromSource(genesisConfigSource(genesisFile))
@@ -1867,6 +1885,7 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
         .maxRemotelyInitiatedPeers(maxRemoteInitiatedPeers)
         .randomPeerPriority(p2PDiscoveryOptionGroup.randomPeerPriority)
         .chainPruningConfiguration(unstableChainPruningOptions.toDomainObject())
+        .ancientStoreConfiguration(unstableAncientStoreOptions.toDomainObject())
         .cacheLastBlocks(numberOfblocksToCache)
         .genesisStateHashCacheEnabled(genesisStateHashCacheEnabled);
   }
@@ -2674,6 +2693,17 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
     if (!unstableChainPruningOptions.getChainDataPruningEnabled()) {
       rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.CHAIN_PRUNER_STATE);
     }
+    if (dataStorageOptions.toDomainObject().getUnstable().getBonsaiFlatDbFilterSize() == 0) {
+      rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.FLAT_DB_FILTER);
+    }
+    if (!dataStorageOptions.toDomainObject().getUnstable().isBonsaiHistoricalStateIndexEnabled()) {
+      rocksDBPlugin.addIgnorableSegmentIdentifier(
+          KeyValueSegmentIdentifier.HISTORICAL_STATE_INDEX);
+    }
+    if (!dataStorageOptions.toDomainObject().getUnstable().isBlockchainSegmentsEnabled()) {
+      KeyValueStoragePrefixedKeyBlockchainStorage.BLOCKCHAIN_SEGMENTS.forEach(
+          rocksDBPlugin::addIgnorableSegmentIdentifier);
+    }
   }
 
   private void validatePostMergeCheckpointBlockRequirements() {
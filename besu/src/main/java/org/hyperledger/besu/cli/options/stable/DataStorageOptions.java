@@ -16,14 +16,25 @@ package org.hyperledger.besu.cli.options.stable;
 
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_LIMIT_TRIE_LOGS_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_TRIE_CACHE_SIZE;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_TRIE_LOG_PRUNING_WINDOW_SIZE;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_RECEIPT_COMPACTION_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.MINIMUM_BONSAI_TRIE_LOG_RETENTION_LIMIT;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BLOCKCHAIN_SEGMENTS_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_CODE_USING_CODE_HASH_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_FLAT_DB_FILTER_SIZE;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_FLAT_DB_READ_CACHE_SIZE;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_FULL_FLAT_DB_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_HISTORICAL_STATE_INDEX_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_SHARED_HEAD_SNAPSHOT_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_STATE_PREFETCH_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_STATE_ROOT_PARALLELISM;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_BONSAI_TRIE_LOG_COMPACT_FORMAT_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.Unstable.DEFAULT_RECEIPT_COMPACT_FORMAT_ENABLED;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.cli.util.CommandLineUtils;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache.TrieNodeCache;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.ImmutableDataStorageConfiguration;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
@@ -93,6 +104,17 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
           "The max number of blocks to load and prune trie logs for at startup. (default: ${DEFAULT-VALUE})")
   private Integer bonsaiTrieLogPruningWindowSize = DEFAULT_BONSAI_TRIE_LOG_PRUNING_WINDOW_SIZE;
 
+  /** The bonsai trie node cache size option name. */
+  public static final String BONSAI_TRIE_CACHE_SIZE = "--bonsai-trie-cache-size";
+
+  @Option(
+      names = {BONSAI_TRIE_CACHE_SIZE},
+      paramLabel = "<LONG>",
+      description =
+          "Size in bytes of the off-heap cache of account and storage trie nodes used with BONSAI. Its off-heap index adds 17 bytes for every 256 bytes of cache, and both are limited by -XX:MaxDirectMemorySize (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private Long bonsaiTrieCacheSize = DEFAULT_BONSAI_TRIE_CACHE_SIZE;
+
   @Option(
       names = "--receipt-compaction-enabled",
       description = "Enables compact storing of receipts (default: ${DEFAULT-VALUE}).",
@@ -136,6 +158,80 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
             "Enables parallelization of transactions to optimize processing speed by concurrently loading and executing necessary data in advance. (default: ${DEFAULT-VALUE})")
     private Boolean isParallelTxProcessingEnabled = false;
 
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-state-root-parallelism"},
+        arity = "1",
+        description =
+            "Number of threads updating and hashing the storage tries of modified accounts when calculating the state root, 1 to update them sequentially. (default: ${DEFAULT-VALUE})")
+    private Integer bonsaiStateRootParallelism = DEFAULT_BONSAI_STATE_ROOT_PARALLELISM;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-state-prefetch-enabled"},
+        arity = "1",
+        description =
+            "Enables loading the accounts and storage slots declared by the transactions of a block in the background before it is executed. (default: ${DEFAULT-VALUE})")
+    private Boolean bonsaiStatePrefetchEnabled = DEFAULT_BONSAI_STATE_PREFETCH_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-flat-db-filter-size"},
+        arity = "1",
+        description =
+            "Size in bytes of the filter used to skip flat database reads of accounts and storage slots that do not exist, 0 to disable it. (default: ${DEFAULT-VALUE})")
+    private Long bonsaiFlatDbFilterSize = DEFAULT_BONSAI_FLAT_DB_FILTER_SIZE;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-log-compact-format-enabled"},
+        arity = "1",
+        description =
+            "Enables writing new trie logs in the compressed compact format, trie logs in either format are always readable. (default: ${DEFAULT-VALUE})")
+    private Boolean bonsaiTrieLogCompactFormatEnabled =
+        DEFAULT_BONSAI_TRIE_LOG_COMPACT_FORMAT_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-historical-state-index-enabled"},
+        arity = "1",
+        description =
+            "Enables indexing the prior state of the accounts and storage slots changed by each block, to answer historical state queries without rolling the world state back. (default: ${DEFAULT-VALUE})")
+    private Boolean bonsaiHistoricalStateIndexEnabled =
+        DEFAULT_BONSAI_HISTORICAL_STATE_INDEX_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-flat-db-read-cache-size"},
+        arity = "1",
+        description =
+            "Maximum number of storage slots read from the flat database kept in memory across blocks, with a quarter as many accounts, 0 to disable it. (default: ${DEFAULT-VALUE})")
+    private Long bonsaiFlatDbReadCacheSize = DEFAULT_BONSAI_FLAT_DB_READ_CACHE_SIZE;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xbonsai-shared-head-snapshot-enabled"},
+        arity = "1",
+        description =
+            "Enables taking the world state snapshot of the chain head only when a query first reads it, shared by the queries at that block, and releasing it when the next block is imported. Queries at older blocks roll that snapshot back in memory. (default: ${DEFAULT-VALUE})")
+    private Boolean bonsaiSharedHeadSnapshotEnabled = DEFAULT_BONSAI_SHARED_HEAD_SNAPSHOT_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xblockchain-segments-enabled"},
+        arity = "1",
+        description =
+            "Enables storing headers, bodies, receipts, canonical hashes, total difficulties and transaction locations each in a dedicated column family. An existing database must first be converted with the `storage migrate-blockchain-segments` subcommand. (default: ${DEFAULT-VALUE})")
+    private Boolean blockchainSegmentsEnabled = DEFAULT_BLOCKCHAIN_SEGMENTS_ENABLED;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xreceipt-compact-format-enabled"},
+        arity = "1",
+        description =
+            "Enables writing transaction receipts in the compact format, without logs blooms and with the gas used by each transaction instead of the cumulative gas used. Receipts in either format are always readable, and existing receipts are converted in the background. (default: ${DEFAULT-VALUE})")
+    private Boolean receiptCompactFormatEnabled = DEFAULT_RECEIPT_COMPACT_FORMAT_ENABLED;
+
     /** Default Constructor. */
     Unstable() {}
   }
@@ -155,7 +251,34 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
    * @param commandLine the full commandLine to check all the options specified by the user
    */
   public void validate(final CommandLine commandLine) {
+    if (bonsaiTrieCacheSize < TrieNodeCache.MINIMUM_SIZE) {
+      throw new CommandLine.ParameterException(
+          commandLine,
+          String.format(
+              BONSAI_TRIE_CACHE_SIZE + " minimum value is %d", TrieNodeCache.MINIMUM_SIZE));
+    }
     if (DataStorageFormat.BONSAI == dataStorageFormat) {
+      if (unstableOptions.bonsaiStateRootParallelism <= 0) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-state-root-parallelism=%d must be greater than 0",
+                unstableOptions.bonsaiStateRootParallelism));
+      }
+      if (unstableOptions.bonsaiFlatDbFilterSize < 0) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-flat-db-filter-size=%d must not be negative",
+                unstableOptions.bonsaiFlatDbFilterSize));
+      }
+      if (unstableOptions.bonsaiFlatDbReadCacheSize < 0) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-flat-db-read-cache-size=%d must not be negative",
+                unstableOptions.bonsaiFlatDbReadCacheSize));
+      }
       if (bonsaiLimitTrieLogsEnabled) {
         if (bonsaiMaxLayersToLoad < MINIMUM_BONSAI_TRIE_LOG_RETENTION_LIMIT) {
           throw new CommandLine.ParameterException(
@@ -206,12 +329,31 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
     dataStorageOptions.bonsaiLimitTrieLogsEnabled = domainObject.getBonsaiLimitTrieLogsEnabled();
     dataStorageOptions.bonsaiTrieLogPruningWindowSize =
         domainObject.getBonsaiTrieLogPruningWindowSize();
+    dataStorageOptions.bonsaiTrieCacheSize = domainObject.getBonsaiTrieCacheSize();
     dataStorageOptions.unstableOptions.bonsaiFullFlatDbEnabled =
         domainObject.getUnstable().getBonsaiFullFlatDbEnabled();
     dataStorageOptions.unstableOptions.bonsaiCodeUsingCodeHashEnabled =
         domainObject.getUnstable().getBonsaiCodeStoredByCodeHashEnabled();
     dataStorageOptions.unstableOptions.isParallelTxProcessingEnabled =
         domainObject.getUnstable().isParallelTxProcessingEnabled();
+    dataStorageOptions.unstableOptions.bonsaiStateRootParallelism =
+        domainObject.getUnstable().getBonsaiStateRootParallelism();
+    dataStorageOptions.unstableOptions.bonsaiStatePrefetchEnabled =
+        domainObject.getUnstable().isBonsaiStatePrefetchEnabled();
+    dataStorageOptions.unstableOptions.bonsaiFlatDbFilterSize =
+        domainObject.getUnstable().getBonsaiFlatDbFilterSize();
+    dataStorageOptions.unstableOptions.bonsaiTrieLogCompactFormatEnabled =
+        domainObject.getUnstable().isBonsaiTrieLogCompactFormatEnabled();
+    dataStorageOptions.unstableOptions.bonsaiHistoricalStateIndexEnabled =
+        domainObject.getUnstable().isBonsaiHistoricalStateIndexEnabled();
+    dataStorageOptions.unstableOptions.bonsaiFlatDbReadCacheSize =
+        domainObject.getUnstable().getBonsaiFlatDbReadCacheSize();
+    dataStorageOptions.unstableOptions.bonsaiSharedHeadSnapshotEnabled =
+        domainObject.getUnstable().isBonsaiSharedHeadSnapshotEnabled();
+    dataStorageOptions.unstableOptions.blockchainSegmentsEnabled =
+        domainObject.getUnstable().isBlockchainSegmentsEnabled();
+    dataStorageOptions.unstableOptions.receiptCompactFormatEnabled =
+        domainObject.getUnstable().isReceiptCompactFormatEnabled();
 
     return dataStorageOptions;
   }
@@ -224,11 +366,23 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
         .receiptCompactionEnabled(receiptCompactionEnabled)
         .bonsaiLimitTrieLogsEnabled(bonsaiLimitTrieLogsEnabled)
         .bonsaiTrieLogPruningWindowSize(bonsaiTrieLogPruningWindowSize)
+        .bonsaiTrieCacheSize(bonsaiTrieCacheSize)
         .unstable(
             ImmutableDataStorageConfiguration.Unstable.builder()
                 .bonsaiFullFlatDbEnabled(unstableOptions.bonsaiFullFlatDbEnabled)
                 .bonsaiCodeStoredByCodeHashEnabled(unstableOptions.bonsaiCodeUsingCodeHashEnabled)
                 .isParallelTxProcessingEnabled(unstableOptions.isParallelTxProcessingEnabled)
+                .bonsaiStateRootParallelism(unstableOptions.bonsaiStateRootParallelism)
+                .isBonsaiStatePrefetchEnabled(unstableOptions.bonsaiStatePrefetchEnabled)
+                .bonsaiFlatDbFilterSize(unstableOptions.bonsaiFlatDbFilterSize)
+                .isBonsaiTrieLogCompactFormatEnabled(
+                    unstableOptions.bonsaiTrieLogCompactFormatEnabled)
+                .isBonsaiHistoricalStateIndexEnabled(
+                    unstableOptions.bonsaiHistoricalStateIndexEnabled)
+                .bonsaiFlatDbReadCacheSize(unstableOptions.bonsaiFlatDbReadCacheSize)
+                .isBonsaiSharedHeadSnapshotEnabled(unstableOptions.bonsaiSharedHeadSnapshotEnabled)
+                .isBlockchainSegmentsEnabled(unstableOptions.blockchainSegmentsEnabled)
+                .isReceiptCompactFormatEnabled(unstableOptions.receiptCompactFormatEnabled)
                 .build())
         .build();
   }
@@ -0,0 +1,108 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.options.unstable;
+
+import org.hyperledger.besu.cli.options.CLIOptions;
+import org.hyperledger.besu.ethereum.chain.ancient.AncientStoreConfiguration;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import picocli.CommandLine;
+
+/** The Ancient store CLI options. */
+public class AncientStoreOptions implements CLIOptions<AncientStoreConfiguration> {
+  private static final String ANCIENT_STORE_ENABLED_FLAG = "--Xancient-store-enabled";
+  private static final String ANCIENT_STORE_PATH_FLAG = "--Xancient-store-path";
+  private static final String ANCIENT_STORE_BLOCKS_RETAINED_FLAG =
+      "--Xancient-store-blocks-retained";
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {ANCIENT_STORE_ENABLED_FLAG},
+      description =
+          "Move the bodies and receipts of the finalized blocks to append-only flat files (default: ${DEFAULT-VALUE})")
+  private final Boolean ancientStoreEnabled = Boolean.FALSE;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {ANCIENT_STORE_PATH_FLAG},
+      paramLabel = "<PATH>",
+      description =
+          "Directory of the ancient store, for example on a cheaper disk (default: the ancient directory in the data path)")
+  private final Path ancientStorePath = null;
+
+  @CommandLine.Option(
+      hidden = true,
+      names = {ANCIENT_STORE_BLOCKS_RETAINED_FLAG},
+      description =
+          "The number of blocks before the finalized one kept in the database (default: ${DEFAULT-VALUE})")
+  private final Long ancientStoreBlocksRetained = AncientStoreConfiguration.DEFAULT_BLOCKS_RETAINED;
+
+  /** Default Constructor. */
+  AncientStoreOptions() {}
+
+  /**
+   * Create ancient store options.
+   *
+   * @return the ancient store options
+   */
+  public static AncientStoreOptions create() {
+    return new AncientStoreOptions();
+  }
+
+  /**
+   * Gets ancient store enabled.
+   *
+   * @return the ancient store enabled
+   */
+  public Boolean getAncientStoreEnabled() {
+    return ancientStoreEnabled;
+  }
+
+  /**
+   * Gets ancient store blocks retained.
+   *
+   * @return the ancient store blocks retained
+   */
+  public Long getAncientStoreBlocksRetained() {
+    return ancientStoreBlocksRetained;
+  }
+
+  @Override
+  public AncientStoreConfiguration toDomainObject() {
+    return new AncientStoreConfiguration(
+        ancientStoreEnabled, Optional.ofNullable(ancientStorePath), ancientStoreBlocksRetained);
+  }
+
+  @Override
+  public List<String> getCLIOptions() {
+    final List<String> options =
+        new ArrayList<>(
+            Arrays.asList(
+                ANCIENT_STORE_ENABLED_FLAG,
+                ancientStoreEnabled.toString(),
+                ANCIENT_STORE_BLOCKS_RETAINED_FLAG,
+                ancientStoreBlocksRetained.toString()));
+    if (ancientStorePath != null) {
+      options.add(ANCIENT_STORE_PATH_FLAG);
+      options.add(ancientStorePath.toString());
+    }
+    return options;
+  }
+}
@@ -30,6 +30,9 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
   /** The constant WORLDSTATE_UPDATE_MODE. */
   public static final String WORLDSTATE_UPDATE_MODE = "--Xevm-worldstate-update-mode";
 
+  /** The constant PRECOMPILE_CACHE_SIZE. */
+  public static final String PRECOMPILE_CACHE_SIZE = "--Xevm-precompile-cache-size";
+
   /** Default constructor. */
   EvmOptions() {}
 
@@ -64,13 +67,25 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
       EvmConfiguration.WorldUpdaterMode
           .STACKED; // Stacked Updater.  Years of battle tested correctness.
 
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @CommandLine.Option(
+      names = {PRECOMPILE_CACHE_SIZE},
+      description =
+          "number of results of expensive deterministic precompiles to cache and share between "
+              + "transaction simulation, block building and block import, 0 to disable",
+      fallbackValue = "0",
+      hidden = true,
+      arity = "1")
+  private Long precompileCacheSize = 0L;
+
   @Override
   public EvmConfiguration toDomainObject() {
-    return new EvmConfiguration(jumpDestCacheWeightKilobytes, worldstateUpdateMode);
+    return new EvmConfiguration(
+        jumpDestCacheWeightKilobytes, worldstateUpdateMode, precompileCacheSize);
   }
 
   @Override
   public List<String> getCLIOptions() {
-    return List.of(JUMPDEST_CACHE_WEIGHT, WORLDSTATE_UPDATE_MODE);
+    return List.of(JUMPDEST_CACHE_WEIGHT, WORLDSTATE_UPDATE_MODE, PRECOMPILE_CACHE_SIZE);
   }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.subcommands.storage;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.hyperledger.besu.cli.util.VersionProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.DatabaseMetadata;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.VersionedStorageFormat;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.ParentCommand;
+
+/** The migrate blockchain segments subcommand. */
+@Command(
+    name = "migrate-blockchain-segments",
+    description =
+        "Move the blockchain data to a dedicated column family for each kind of data. "
+            + "Once done the node must be run with --Xblockchain-segments-enabled=true.",
+    mixinStandardHelpOptions = true,
+    versionProvider = VersionProvider.class)
+public class MigrateBlockchainSegmentsSubCommand implements Runnable {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(MigrateBlockchainSegmentsSubCommand.class);
+
+  @SuppressWarnings("unused")
+  @ParentCommand
+  private StorageSubCommand parentCommand;
+
+  @SuppressWarnings("unused")
+  @CommandLine.Spec
+  private CommandLine.Model.CommandSpec spec;
+
+  /** Default Constructor. */
+  public MigrateBlockchainSegmentsSubCommand() {}
+
+  @Override
+  public void run() {
+    checkNotNull(parentCommand);
+
+    final var besuCommand = parentCommand.besuCommand;
+    if (besuCommand.getDataStorageConfiguration().getUnstable().isBlockchainSegmentsEnabled()) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(),
+          "The migration must be run without --Xblockchain-segments-enabled, "
+              + "since the database still stores the blockchain data in a single column family");
+    }
+
+    final Path dataDir = besuCommand.dataDir();
+    final VersionedStorageFormat versionedStorageFormat = lookUpStorageFormat(dataDir);
+    if (versionedStorageFormat.getPrivacyVersion().isPresent()) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(),
+          "Databases with privacy enabled do not support dedicated blockchain column families");
+    }
+    final BaseVersionedStorageFormat targetStorageFormat =
+        BaseVersionedStorageFormat.withBlockchainSegments(versionedStorageFormat.getFormat());
+    if (versionedStorageFormat.getVersion() == targetStorageFormat.getVersion()) {
+      LOG.info("Blockchain data already stored in dedicated column families in {}", dataDir);
+      return;
+    }
+
+    final List<SegmentIdentifier> segments = new ArrayList<>();
+    segments.add(KeyValueSegmentIdentifier.BLOCKCHAIN);
+    segments.addAll(KeyValueStoragePrefixedKeyBlockchainStorage.BLOCKCHAIN_SEGMENTS);
+    final SegmentedKeyValueStorage storage =
+        besuCommand.buildController().getStorageProvider().getStorageBySegmentIdentifiers(segments);
+
+    final long copied = migrate(dataDir, targetStorageFormat, storage);
+
+    final PrintWriter out = spec.commandLine().getOut();
+    out.printf(
+        "Moved %d blockchain entries to dedicated column families, "
+            + "from now on run Besu with --Xblockchain-segments-enabled=true%n",
+        copied);
+  }
+
+  /**
+   * Copies the blockchain data to the dedicated segments, then switches the database metadata to
+   * the target format and drops the data left behind in the blockchain segment.
+   *
+   * @param dataDir the data directory holding the database metadata
+   * @param targetStorageFormat the storage format of the migrated database
+   * @param storage the storage holding the blockchain segment and the dedicated segments
+   * @return the number of entries copied
+   */
+  static long migrate(
+      final Path dataDir,
+      final VersionedStorageFormat targetStorageFormat,
+      final SegmentedKeyValueStorage storage) {
+    // copy first and only then switch the metadata and drop the source. If the migration is
+    // interrupted before the switch, the node still starts as before and the migration can be run
+    // again. After the switch, the node drops the source left behind when it starts.
+    final long copied = KeyValueStoragePrefixedKeyBlockchainStorage.copyFromPrefixedKeys(storage);
+    try {
+      new DatabaseMetadata(targetStorageFormat).writeToDirectory(dataDir);
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    storage.clear(KeyValueSegmentIdentifier.BLOCKCHAIN);
+    return copied;
+  }
+
+  private VersionedStorageFormat lookUpStorageFormat(final Path dataDir) {
+    try {
+      if (!DatabaseMetadata.isPresent(dataDir)) {
+        throw new CommandLine.ParameterException(
+            spec.commandLine(), "Could not find a database to migrate in " + dataDir);
+      }
+      return DatabaseMetadata.lookUpFrom(dataDir).getVersionedStorageFormat();
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+}
@@ -30,6 +30,7 @@ import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldSt
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.trielog.TrieLogFactoryImpl;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogLayer;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -45,8 +46,11 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.slf4j.Logger;
@@ -365,6 +369,8 @@ public class TrieLogHelper {
 
     final IdentityHashMap<byte[], byte[]> trieLogs =
         getTrieLogs(trieLogsKeys, rootWorldStateStorage);
+    // exported trie logs are always RLP so that any besu node can import them
+    trieLogs.replaceAll((key, trieLog) -> TrieLogFactoryImpl.toRlp(trieLog));
     final Bytes rlp =
         RLP.encode(
             o ->
@@ -473,5 +479,50 @@ public class TrieLogHelper {
     saveTrieLogsAsRlpInFile(trieLogHash, rootWorldStateStorage, trieLogFile);
   }
 
+  /**
+   * Rewrites the stored trie logs that are not already in the requested format.
+   *
+   * @param rootWorldStateStorage the world state storage holding the trie logs
+   * @param compactFormat true to convert to the compact format, false to convert back to RLP
+   * @return the number of trie logs rewritten
+   */
+  long migrateTrieLogs(
+      final BonsaiWorldStateKeyValueStorage rootWorldStateStorage, final boolean compactFormat) {
+    final TrieLogFactoryImpl trieLogFactory = new TrieLogFactoryImpl(compactFormat);
+    final AtomicLong migrated = new AtomicLong();
+    final List<Pair<byte[], byte[]>> batch = new ArrayList<>(ROCKSDB_MAX_INSERTS_PER_TRANSACTION);
+    try (final Stream<Pair<byte[], byte[]>> trieLogs =
+        rootWorldStateStorage.getTrieLogStorage().stream()) {
+      trieLogs
+          .filter(
+              trieLog -> TrieLogFactoryImpl.isCompactFormat(trieLog.getValue()) != compactFormat)
+          .forEach(
+              trieLog -> {
+                batch.add(
+                    Pair.of(
+                        trieLog.getKey(),
+                        trieLogFactory.serialize(trieLogFactory.deserialize(trieLog.getValue()))));
+                if (batch.size() == ROCKSDB_MAX_INSERTS_PER_TRANSACTION) {
+                  migrated.addAndGet(writeTrieLogs(rootWorldStateStorage, batch));
+                  LOG.info("Migrated {} trie logs", migrated.get());
+                }
+              });
+    }
+    migrated.addAndGet(writeTrieLogs(rootWorldStateStorage, batch));
+    return migrated.get();
+  }
+
+  private int writeTrieLogs(
+      final BonsaiWorldStateKeyValueStorage rootWorldStateStorage,
+      final List<Pair<byte[], byte[]>> trieLogs) {
+    final KeyValueStorageTransaction transaction =
+        rootWorldStateStorage.getTrieLogStorage().startTransaction();
+    trieLogs.forEach(trieLog -> transaction.put(trieLog.getKey(), trieLog.getValue()));
+    transaction.commit();
+    final int written = trieLogs.size();
+    trieLogs.clear();
+    return written;
+  }
+
   record TrieLogCount(int total, int canonicalCount, int forkCount, int orphanCount) {}
 }
@@ -59,7 +59,8 @@ import picocli.CommandLine.ParentCommand;
       TrieLogSubCommand.CountTrieLog.class,
       TrieLogSubCommand.PruneTrieLog.class,
       TrieLogSubCommand.ExportTrieLog.class,
-      TrieLogSubCommand.ImportTrieLog.class
+      TrieLogSubCommand.ImportTrieLog.class,
+      TrieLogSubCommand.MigrateTrieLog.class
     })
 public class TrieLogSubCommand implements Runnable {
 
@@ -312,6 +313,41 @@ public class TrieLogSubCommand implements Runnable {
     }
   }
 
+  @Command(
+      name = "migrate",
+      description =
+          "This command rewrites all the trie logs in the compact format, or back to RLP with --compact=false",
+      mixinStandardHelpOptions = true,
+      versionProvider = VersionProvider.class)
+  static class MigrateTrieLog implements Runnable {
+
+    @SuppressWarnings("unused")
+    @ParentCommand
+    private TrieLogSubCommand parentCommand;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec; // Picocli injects reference to command spec
+
+    @CommandLine.Option(
+        names = "--compact",
+        description =
+            "Convert the trie logs to the compact format, false to convert them to RLP (default: ${DEFAULT-VALUE})",
+        arity = "1")
+    private Boolean compactFormat = true;
+
+    @Override
+    public void run() {
+      final TrieLogContext context = getTrieLogContext();
+      final TrieLogHelper trieLogHelper = new TrieLogHelper();
+
+      LOG.info("Migrating trie logs to the {} format...", compactFormat ? "compact" : "RLP");
+      final long migrated =
+          trieLogHelper.migrateTrieLogs(context.rootWorldStateStorage(), compactFormat);
+      spec.commandLine().getOut().printf("Migrated %d trie logs\n", migrated);
+    }
+  }
+
   record TrieLogContext(
       DataStorageConfiguration config,
       BonsaiWorldStateKeyValueStorage rootWorldStateStorage,
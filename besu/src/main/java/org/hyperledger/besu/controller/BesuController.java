@@ -58,6 +58,9 @@ public class BesuController implements java.io.Closeable {
   /** The constant CACHE_PATH. */
   public static final String CACHE_PATH = "caches";
 
+  /** The constant ANCIENT_STORE_PATH. */
+  public static final String ANCIENT_STORE_PATH = "ancient";
+
   private final ProtocolSchedule protocolSchedule;
   private final ProtocolContext protocolContext;
   private final EthProtocolManager ethProtocolManager;
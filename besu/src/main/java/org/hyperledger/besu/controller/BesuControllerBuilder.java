@@ -41,6 +41,10 @@ import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
 import org.hyperledger.besu.ethereum.chain.GenesisState;
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.chain.VariablesStorage;
+import org.hyperledger.besu.ethereum.chain.ancient.AncientBlockFreezer;
+import org.hyperledger.besu.ethereum.chain.ancient.AncientBlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.ancient.AncientStore;
+import org.hyperledger.besu.ethereum.chain.ancient.AncientStoreConfiguration;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.core.MiningParameters;
@@ -78,6 +82,7 @@ import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolFactory;
 import org.hyperledger.besu.ethereum.forkid.ForkIdManager;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
@@ -96,6 +101,7 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.permissioning.NodeMessagePermissioningProvider;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 
@@ -110,6 +116,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -195,6 +203,9 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
   /** The Chain pruner configuration. */
   protected ChainPrunerConfiguration chainPrunerConfiguration = ChainPrunerConfiguration.DEFAULT;
 
+  /** The Ancient store configuration. */
+  protected AncientStoreConfiguration ancientStoreConfiguration = AncientStoreConfiguration.DEFAULT;
+
   private NetworkingConfiguration networkingConfiguration;
   private Boolean randomPeerPriority;
 
@@ -481,6 +492,18 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     return this;
   }
 
+  /**
+   * Ancient store configuration besu controller builder.
+   *
+   * @param ancientStoreConfiguration the ancient store configuration
+   * @return the besu controller builder
+   */
+  public BesuControllerBuilder ancientStoreConfiguration(
+      final AncientStoreConfiguration ancientStoreConfiguration) {
+    this.ancientStoreConfiguration = ancientStoreConfiguration;
+    return this;
+  }
+
   /**
    * Sets the number of blocks to cache.
    *
@@ -562,9 +585,16 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     final WorldStateStorageCoordinator worldStateStorageCoordinator =
         storageProvider.createWorldStateStorageCoordinator(dataStorageConfiguration);
 
-    final BlockchainStorage blockchainStorage =
+    final BlockchainStorage recentBlockchainStorage =
         storageProvider.createBlockchainStorage(
             protocolSchedule, variablesStorage, dataStorageConfiguration);
+    final Optional<AncientStore> maybeAncientStore =
+        createAncientStore(protocolSchedule, variablesStorage);
+    final BlockchainStorage blockchainStorage =
+        maybeAncientStore
+            .<BlockchainStorage>map(
+                ancientStore -> new AncientBlockchainStorage(recentBlockchainStorage, ancientStore))
+            .orElse(recentBlockchainStorage);
 
     final var maybeStoredGenesisBlockHash = blockchainStorage.getBlockHash(0L);
 
@@ -581,10 +611,11 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
             reorgLoggingThreshold,
             dataDirectory.toString(),
             numberOfBlocksToCache);
+    // built here rather than taken from the component, which is created before the options are
+    // parsed and so cannot know the configured cache size
     final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader =
-        besuComponent
-            .map(BesuComponent::getCachedMerkleTrieLoader)
-            .orElseGet(() -> new BonsaiCachedMerkleTrieLoader(metricsSystem));
+        new BonsaiCachedMerkleTrieLoader(
+            metricsSystem, dataStorageConfiguration.getBonsaiTrieCacheSize());
 
     final WorldStateArchive worldStateArchive =
         createWorldStateArchive(
@@ -665,6 +696,26 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
               + chainPrunerConfiguration.getChainPruningBlocksFrequency());
     }
 
+    final Optional<ExecutorService> maybeFreezingExecutor =
+        maybeAncientStore.map(
+            ancientStore -> {
+              final ExecutorService freezingExecutor =
+                  MonitoredExecutors.newBoundedThreadPool(
+                      AncientBlockFreezer.class.getSimpleName(), 1, 1, 1, metricsSystem);
+              blockchain.observeBlockAdded(
+                  createAncientBlockFreezer(
+                      blockchain,
+                      recentBlockchainStorage,
+                      variablesStorage,
+                      ancientStore,
+                      freezingExecutor));
+              return freezingExecutor;
+            });
+
+    if (dataStorageConfiguration.getUnstable().isReceiptCompactFormatEnabled()) {
+      convertTransactionReceiptsInBackground(recentBlockchainStorage);
+    }
+
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
             protocolSchedule,
@@ -753,8 +804,12 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     }
 
     final List<Closeable> closeables = new ArrayList<>();
+    // the freezer writes to both the blockchain storage and the ancient store
+    maybeFreezingExecutor.ifPresent(
+        freezingExecutor -> closeables.add(() -> stopAncientBlockFreezer(freezingExecutor)));
     closeables.add(protocolContext.getWorldStateArchive());
     closeables.add(storageProvider);
+    maybeAncientStore.ifPresent(closeables::add);
     if (privacyParameters.getPrivateStorageProvider() != null) {
       closeables.add(privacyParameters.getPrivateStorageProvider());
     }
@@ -1092,13 +1147,32 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
       case BONSAI -> {
         final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage =
             worldStateStorageCoordinator.getStrategy(BonsaiWorldStateKeyValueStorage.class);
-        yield new BonsaiWorldStateProvider(
-            worldStateKeyValueStorage,
-            blockchain,
-            Optional.of(dataStorageConfiguration.getBonsaiMaxLayersToLoad()),
-            bonsaiCachedMerkleTrieLoader,
-            besuComponent.map(BesuComponent::getBesuPluginContext).orElse(null),
-            evmConfiguration);
+        final BonsaiWorldStateProvider bonsaiWorldStateProvider =
+            new BonsaiWorldStateProvider(
+                worldStateKeyValueStorage,
+                blockchain,
+                Optional.of(dataStorageConfiguration.getBonsaiMaxLayersToLoad()),
+                bonsaiCachedMerkleTrieLoader,
+                besuComponent.map(BesuComponent::getBesuPluginContext).orElse(null),
+                evmConfiguration);
+        bonsaiWorldStateProvider.setStateRootParallelism(
+            dataStorageConfiguration.getUnstable().getBonsaiStateRootParallelism());
+        bonsaiWorldStateProvider.setStatePrefetchEnabled(
+            dataStorageConfiguration.getUnstable().isBonsaiStatePrefetchEnabled());
+        bonsaiWorldStateProvider
+            .getTrieLogManager()
+            .setCompactTrieLogFormatEnabled(
+                dataStorageConfiguration.getUnstable().isBonsaiTrieLogCompactFormatEnabled());
+        bonsaiWorldStateProvider
+            .getCachedWorldStorageManager()
+            .setSharedHeadSnapshotEnabled(
+                dataStorageConfiguration.getUnstable().isBonsaiSharedHeadSnapshotEnabled());
+        if (dataStorageConfiguration.getUnstable().isBonsaiHistoricalStateIndexEnabled()) {
+          bonsaiWorldStateProvider.enableHistoricalStateIndex(
+              storageProvider.getStorageBySegmentIdentifiers(
+                  List.of(KeyValueSegmentIdentifier.HISTORICAL_STATE_INDEX)));
+        }
+        yield bonsaiWorldStateProvider;
       }
       case FOREST -> {
         final WorldStatePreimageStorage preimageStorage =
@@ -1128,6 +1202,81 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
             metricsSystem));
   }
 
+  private Optional<AncientStore> createAncientStore(
+      final ProtocolSchedule protocolSchedule, final VariablesStorage variablesStorage) {
+    // once blocks were moved, the database no longer holds their bodies and receipts
+    final boolean ancientStoreInUse = variablesStorage.isAncientStoreInUse();
+    if (!ancientStoreConfiguration.getAncientStoreEnabled()) {
+      if (ancientStoreInUse) {
+        throw new IllegalStateException(
+            "Blocks were moved to an ancient store, which has to stay enabled");
+      }
+      return Optional.empty();
+    }
+    final Path ancientStorePath =
+        ancientStoreConfiguration
+            .getAncientStorePath()
+            .orElseGet(() -> dataDirectory.resolve(BesuController.ANCIENT_STORE_PATH));
+    if (ancientStoreInUse && !AncientStore.exists(ancientStorePath)) {
+      throw new IllegalStateException(
+          "Blocks were moved to an ancient store, which is missing from " + ancientStorePath);
+    }
+    LOG.info(
+        "Ancient store enabled in {}, with the last {} blocks before the finalized one retained in the database",
+        ancientStorePath,
+        ancientStoreConfiguration.getAncientStoreBlocksRetained());
+    return Optional.of(
+        AncientStore.open(
+            ancientStorePath, ScheduleBasedBlockHeaderFunctions.create(protocolSchedule)));
+  }
+
+  private AncientBlockFreezer createAncientBlockFreezer(
+      final Blockchain blockchain,
+      final BlockchainStorage recentBlockchainStorage,
+      final VariablesStorage variablesStorage,
+      final AncientStore ancientStore,
+      final ExecutorService freezingExecutor) {
+    return new AncientBlockFreezer(
+        blockchain,
+        recentBlockchainStorage,
+        variablesStorage,
+        ancientStore,
+        ancientStoreConfiguration.getAncientStoreBlocksRetained(),
+        freezingExecutor);
+  }
+
+  private void stopAncientBlockFreezer(final ExecutorService freezingExecutor) {
+    // a run stops after the batch in progress
+    freezingExecutor.shutdown();
+    try {
+      if (!freezingExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.warn("Moving blocks to the ancient store did not stop in time");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void convertTransactionReceiptsInBackground(final BlockchainStorage blockchainStorage) {
+    final ExecutorService executor =
+        MonitoredExecutors.newBoundedThreadPool("ReceiptsConversion", 1, 1, 1, metricsSystem);
+    executor.execute(
+        () -> {
+          try {
+            final long converted = blockchainStorage.convertTransactionReceiptsToCompactFormat();
+            if (converted > 0) {
+              LOG.info(
+                  "Converted the transaction receipts of {} blocks to the compact format",
+                  converted);
+            }
+          } catch (final StorageException e) {
+            // the storage is closed when stopping before the conversion is done
+            LOG.warn("Conversion of the transaction receipts to the compact format stopped", e);
+          }
+        });
+    executor.shutdown();
+  }
+
   /**
    * Create peer validators list.
    *
@@ -141,5 +141,10 @@ public class BesuConfigurationImpl implements BesuConfiguration {
     public boolean getReceiptCompactionEnabled() {
       return dataStorageConfiguration.getReceiptCompactionEnabled();
     }
+
+    @Override
+    public boolean getBlockchainSegmentsEnabled() {
+      return dataStorageConfiguration.getUnstable().isBlockchainSegmentsEnabled();
+    }
   }
 }
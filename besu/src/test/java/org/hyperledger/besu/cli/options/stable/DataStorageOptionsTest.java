@@ -104,6 +104,22 @@ public class DataStorageOptionsTest
         "511");
   }
 
+  @Test
+  public void bonsaiTrieCacheSizeOption() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getBonsaiTrieCacheSize())
+                .isEqualTo(16L * 1024 * 1024 * 1024),
+        "--bonsai-trie-cache-size",
+        "17179869184");
+  }
+
+  @Test
+  public void bonsaiTrieCacheSizeShouldBeAboveMinimum() {
+    internalTestFailure(
+        "--bonsai-trie-cache-size minimum value is 262144", "--bonsai-trie-cache-size", "1024");
+  }
+
   @Test
   public void bonsaiCodeUsingCodeHashEnabledCanBeEnabled() {
     internalTestSuccess(
@@ -126,6 +142,128 @@ public class DataStorageOptionsTest
         "false");
   }
 
+  @Test
+  public void bonsaiStateRootParallelismCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getBonsaiStateRootParallelism())
+                .isEqualTo(4),
+        "--Xbonsai-state-root-parallelism",
+        "4");
+  }
+
+  @Test
+  public void bonsaiStateRootParallelismIsOffByDefault() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getBonsaiStateRootParallelism())
+                .isEqualTo(1));
+  }
+
+  @Test
+  public void bonsaiStateRootParallelismMustBePositive() {
+    internalTestFailure(
+        "--Xbonsai-state-root-parallelism=0 must be greater than 0",
+        "--Xbonsai-state-root-parallelism",
+        "0");
+  }
+
+  @Test
+  public void bonsaiStatePrefetchCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().isBonsaiStatePrefetchEnabled())
+                .isEqualTo(true),
+        "--Xbonsai-state-prefetch-enabled",
+        "true");
+  }
+
+  @Test
+  public void bonsaiFlatDbFilterSizeCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getBonsaiFlatDbFilterSize())
+                .isEqualTo(67108864L),
+        "--Xbonsai-flat-db-filter-size",
+        "67108864");
+  }
+
+  @Test
+  public void bonsaiFlatDbFilterSizeMustNotBeNegative() {
+    internalTestFailure(
+        "--Xbonsai-flat-db-filter-size=-1 must not be negative",
+        "--Xbonsai-flat-db-filter-size",
+        "-1");
+  }
+
+  @Test
+  public void bonsaiTrieLogCompactFormatCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().isBonsaiTrieLogCompactFormatEnabled())
+                .isEqualTo(true),
+        "--Xbonsai-trie-log-compact-format-enabled",
+        "true");
+  }
+
+  @Test
+  public void bonsaiHistoricalStateIndexCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().isBonsaiHistoricalStateIndexEnabled())
+                .isEqualTo(true),
+        "--Xbonsai-historical-state-index-enabled",
+        "true");
+  }
+
+  @Test
+  public void bonsaiFlatDbReadCacheSizeCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().getBonsaiFlatDbReadCacheSize())
+                .isEqualTo(1000000L),
+        "--Xbonsai-flat-db-read-cache-size",
+        "1000000");
+  }
+
+  @Test
+  public void bonsaiFlatDbReadCacheSizeMustNotBeNegative() {
+    internalTestFailure(
+        "--Xbonsai-flat-db-read-cache-size=-1 must not be negative",
+        "--Xbonsai-flat-db-read-cache-size",
+        "-1");
+  }
+
+  @Test
+  public void bonsaiSharedHeadSnapshotCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().isBonsaiSharedHeadSnapshotEnabled())
+                .isEqualTo(true),
+        "--Xbonsai-shared-head-snapshot-enabled",
+        "true");
+  }
+
+  @Test
+  public void blockchainSegmentsCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().isBlockchainSegmentsEnabled())
+                .isEqualTo(true),
+        "--Xblockchain-segments-enabled",
+        "true");
+  }
+
+  @Test
+  public void receiptCompactFormatCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(dataStorageConfiguration.getUnstable().isReceiptCompactFormatEnabled())
+                .isEqualTo(true),
+        "--Xreceipt-compact-format-enabled",
+        "true");
+  }
+
   @Test
   public void receiptCompactionCanBeEnabled() {
     internalTestSuccess(
@@ -156,6 +294,7 @@ public class DataStorageOptionsTest
         .bonsaiMaxLayersToLoad(513L)
         .bonsaiLimitTrieLogsEnabled(true)
         .bonsaiTrieLogPruningWindowSize(514)
+        .bonsaiTrieCacheSize(256L * 1024 * 1024)
         .build();
   }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.cli.subcommands.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_HIGH_SPEC;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.ProtocolScheduleFixture;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProviderBuilder;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.ImmutableDataStorageConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBKeyValueStorageFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.DatabaseMetadata;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.services.BesuConfigurationImpl;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MigrateBlockchainSegmentsSubCommandTest {
+
+  private static final DataStorageConfiguration SEGMENTS_CONFIG =
+      ImmutableDataStorageConfiguration.copyOf(DataStorageConfiguration.DEFAULT_BONSAI_CONFIG)
+          .withUnstable(
+              ImmutableDataStorageConfiguration.Unstable.builder()
+                  .isBlockchainSegmentsEnabled(true)
+                  .build());
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @TempDir private Path dataDir;
+
+  @Test
+  void migratedBlockchainIsReadFromDedicatedSegments() throws Exception {
+    final List<Block> blocks = gen.blockSequence(5);
+    final List<List<TransactionReceipt>> receipts = blocks.stream().map(gen::receipts).toList();
+
+    try (final RocksDBKeyValueStorageFactory storageFactory = createStorageFactory()) {
+      final KeyValueStorageProvider storageProvider =
+          createStorageProvider(storageFactory, DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+      final BlockchainStorage blockchainStorage =
+          storageProvider.createBlockchainStorage(
+              ProtocolScheduleFixture.MAINNET,
+              storageProvider.createVariablesStorage(),
+              DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+      final BlockchainStorage.Updater updater = blockchainStorage.updater();
+      for (int i = 0; i < blocks.size(); i++) {
+        putBlock(updater, blocks.get(i), receipts.get(i));
+      }
+      updater.commit();
+    }
+
+    final long copied;
+    try (final RocksDBKeyValueStorageFactory storageFactory = createStorageFactory()) {
+      final List<SegmentIdentifier> segments = new ArrayList<>();
+      segments.add(KeyValueSegmentIdentifier.BLOCKCHAIN);
+      segments.addAll(KeyValueStoragePrefixedKeyBlockchainStorage.BLOCKCHAIN_SEGMENTS);
+      copied =
+          MigrateBlockchainSegmentsSubCommand.migrate(
+              dataDir,
+              BaseVersionedStorageFormat.BONSAI_WITH_BLOCKCHAIN_SEGMENTS,
+              createStorageProvider(storageFactory, DataStorageConfiguration.DEFAULT_BONSAI_CONFIG)
+                  .getStorageBySegmentIdentifiers(segments));
+    }
+
+    // header, body, receipts, canonical hash, total difficulty and one location per transaction
+    assertThat(copied)
+        .isEqualTo(
+            blocks.stream().mapToLong(b -> 5 + b.getBody().getTransactions().size()).sum());
+    assertThat(DatabaseMetadata.lookUpFrom(dataDir).getVersionedStorageFormat())
+        .isEqualTo(BaseVersionedStorageFormat.BONSAI_WITH_BLOCKCHAIN_SEGMENTS);
+
+    try (final RocksDBKeyValueStorageFactory storageFactory = createStorageFactory()) {
+      final KeyValueStorageProvider storageProvider =
+          createStorageProvider(storageFactory, SEGMENTS_CONFIG);
+      final BlockchainStorage blockchainStorage =
+          storageProvider.createBlockchainStorage(
+              ProtocolScheduleFixture.MAINNET,
+              storageProvider.createVariablesStorage(),
+              SEGMENTS_CONFIG);
+
+      for (int i = 0; i < blocks.size(); i++) {
+        assertBlockPresent(blockchainStorage, blocks.get(i), receipts.get(i));
+      }
+      assertThat(
+              storageProvider
+                  .getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN)
+                  .streamKeys())
+          .isEmpty();
+    }
+  }
+
+  private RocksDBKeyValueStorageFactory createStorageFactory() {
+    return new RocksDBKeyValueStorageFactory(
+        () ->
+            new RocksDBFactoryConfiguration(
+                DEFAULT_MAX_OPEN_FILES,
+                DEFAULT_BACKGROUND_THREAD_COUNT,
+                DEFAULT_CACHE_CAPACITY,
+                DEFAULT_IS_HIGH_SPEC),
+        Arrays.asList(KeyValueSegmentIdentifier.values()),
+        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+  }
+
+  private KeyValueStorageProvider createStorageProvider(
+      final RocksDBKeyValueStorageFactory storageFactory,
+      final DataStorageConfiguration dataStorageConfiguration) {
+    return new KeyValueStorageProviderBuilder()
+        .withStorageFactory(storageFactory)
+        .withCommonConfiguration(
+            new BesuConfigurationImpl()
+                .init(dataDir, dataDir.resolve("database"), dataStorageConfiguration))
+        .withMetricsSystem(new NoOpMetricsSystem())
+        .build();
+  }
+
+  private static void putBlock(
+      final BlockchainStorage.Updater updater,
+      final Block block,
+      final List<TransactionReceipt> receipts) {
+    final var hash = block.getHash();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockBody(hash, block.getBody());
+    updater.putTransactionReceipts(hash, receipts);
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.putTotalDifficulty(hash, Difficulty.of(42));
+    final var transactions = block.getBody().getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      updater.putTransactionLocation(
+          transactions.get(i).getHash(), new TransactionLocation(hash, i));
+    }
+  }
+
+  private static void assertBlockPresent(
+      final BlockchainStorage blockchainStorage,
+      final Block block,
+      final List<TransactionReceipt> receipts) {
+    final var hash = block.getHash();
+    assertThat(blockchainStorage.getBlockHeader(hash)).contains(block.getHeader());
+    assertThat(blockchainStorage.getBlockBody(hash)).contains(block.getBody());
+    assertThat(blockchainStorage.getTransactionReceipts(hash)).contains(receipts);
+    assertThat(blockchainStorage.getBlockHash(block.getHeader().getNumber())).contains(hash);
+    assertThat(blockchainStorage.getTotalDifficulty(hash)).contains(Difficulty.of(42));
+    final var transactions = block.getBody().getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      assertThat(blockchainStorage.getTransactionLocation(transactions.get(i).getHash()))
+          .contains(new TransactionLocation(hash, i));
+    }
+  }
+}
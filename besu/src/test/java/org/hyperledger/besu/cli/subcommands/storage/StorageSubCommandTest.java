@@ -58,6 +58,23 @@ public class StorageSubCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
   }
 
+  @Test
+  public void storageMigrateBlockchainSegmentsSubCommandExists() {
+    parseCommand("storage", "migrate-blockchain-segments", "--help");
+
+    assertThat(commandOutput.toString(UTF_8))
+        .contains("Move the blockchain data to a dedicated column family");
+    assertThat(commandErrorOutput.toString(UTF_8)).isEmpty();
+  }
+
+  @Test
+  public void migrateBlockchainSegmentsFailsWhenAlreadyEnabled() {
+    parseCommand("--Xblockchain-segments-enabled=true", "storage", "migrate-blockchain-segments");
+
+    assertThat(commandErrorOutput.toString(UTF_8))
+        .contains("The migration must be run without --Xblockchain-segments-enabled");
+  }
+
   @Test
   public void revertVariables() {
     final var kvVariablesSeg = new SegmentedInMemoryKeyValueStorage();
@@ -467,4 +467,21 @@ class TrieLogHelperTest {
     assertThat(inMemoryWorldState2.getTrieLog(blockHeader3.getHash()).get())
         .isEqualTo(inMemoryWorldState.getTrieLog(blockHeader3.getHash()).get());
   }
+
+  @Test
+  public void migratedTrieLogsAreEquivalentAndCanBeMigratedBack() {
+    final TrieLogFactoryImpl trieLogFactory = new TrieLogFactoryImpl();
+    final byte[] rlpTrieLog = inMemoryWorldState.getTrieLog(blockHeader1.getHash()).get();
+
+    assertThat(nonValidatingTrieLogHelper.migrateTrieLogs(inMemoryWorldState, true)).isEqualTo(5);
+    assertThat(nonValidatingTrieLogHelper.migrateTrieLogs(inMemoryWorldState, true)).isEqualTo(0);
+
+    final byte[] compactTrieLog = inMemoryWorldState.getTrieLog(blockHeader1.getHash()).get();
+    assertThat(TrieLogFactoryImpl.isCompactFormat(compactTrieLog)).isTrue();
+    assertThat(trieLogFactory.deserialize(compactTrieLog))
+        .isEqualTo(trieLogFactory.deserialize(rlpTrieLog));
+
+    assertThat(nonValidatingTrieLogHelper.migrateTrieLogs(inMemoryWorldState, false)).isEqualTo(5);
+    assertThat(inMemoryWorldState.getTrieLog(blockHeader1.getHash()).get()).isEqualTo(rlpTrieLog);
+  }
 }
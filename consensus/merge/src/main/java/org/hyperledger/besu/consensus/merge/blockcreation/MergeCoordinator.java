@@ -104,6 +104,8 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
   private final Map<PayloadIdentifier, BlockCreationTask> blockCreationTasks =
       new ConcurrentHashMap<>();
 
+  private final TransactionSenderRecovery transactionSenderRecovery;
+
   /**
    * Instantiates a new Merge coordinator.
    *
@@ -126,6 +128,7 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
     this.protocolContext = protocolContext;
     this.protocolSchedule = protocolSchedule;
     this.ethScheduler = ethScheduler;
+    this.transactionSenderRecovery = new TransactionSenderRecovery(ethScheduler);
     this.mergeContext = protocolContext.getConsensusContext(MergeContext.class);
     this.backwardSyncContext = backwardSyncContext;
 
@@ -176,6 +179,7 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
     this.protocolContext = protocolContext;
     this.protocolSchedule = protocolSchedule;
     this.ethScheduler = ethScheduler;
+    this.transactionSenderRecovery = new TransactionSenderRecovery(ethScheduler);
     this.mergeContext = protocolContext.getConsensusContext(MergeContext.class);
     this.backwardSyncContext = backwardSyncContext;
     if (miningParams.getTargetGasLimit().isEmpty()) {
@@ -542,6 +546,7 @@ public class MergeCoordinator implements MergeMiningCoordinator, BadChainListene
 
   @Override
   public BlockProcessingResult validateBlock(final Block block) {
+    transactionSenderRecovery.recoverSenders(block);
     final var validationResult =
         protocolSchedule
             .getByBlockHeader(block.getHeader())
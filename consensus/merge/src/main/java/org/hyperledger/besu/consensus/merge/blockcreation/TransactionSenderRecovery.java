@@ -0,0 +1,95 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.consensus.merge.blockcreation;
+
+import org.hyperledger.besu.datatypes.SetCodeAuthorization;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recovers the senders and code delegation authorities of a block's transactions in parallel on
+ * the computation executor, so block processing finds them already cached instead of running
+ * ecrecover serially as it executes each transaction.
+ */
+class TransactionSenderRecovery {
+  private static final Logger LOG = LoggerFactory.getLogger(TransactionSenderRecovery.class);
+
+  /** Transactions recovered by each task, smaller blocks are left to lazy recovery. */
+  static final int BATCH_SIZE = 16;
+
+  private final EthScheduler ethScheduler;
+
+  TransactionSenderRecovery(final EthScheduler ethScheduler) {
+    this.ethScheduler = ethScheduler;
+  }
+
+  /**
+   * Recover the signatures of the block's transactions, returning once they are all recovered.
+   *
+   * @param block the block about to be processed
+   */
+  void recoverSenders(final Block block) {
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    if (transactions.size() <= BATCH_SIZE) {
+      return;
+    }
+    final List<List<Transaction>> batches = Lists.partition(transactions, BATCH_SIZE);
+    final List<CompletableFuture<Void>> scheduled = new ArrayList<>(batches.size() - 1);
+    for (final List<Transaction> batch : batches.subList(1, batches.size())) {
+      scheduled.add(
+          ethScheduler.scheduleComputationTask(
+              () -> {
+                recover(batch);
+                return null;
+              }));
+    }
+    RuntimeException failure = null;
+    try {
+      // the calling thread would only wait, so it takes the first batch itself
+      recover(batches.get(0));
+    } catch (final RuntimeException e) {
+      failure = e;
+    }
+    try {
+      // waiting for every batch also makes the recovered senders visible to the processing thread
+      CompletableFuture.allOf(scheduled.toArray(CompletableFuture[]::new)).join();
+    } catch (final CompletionException e) {
+      failure = e;
+    }
+    if (failure != null) {
+      // an invalid signature is reported by transaction validation when the block is processed
+      LOG.debug("Parallel sender recovery failed for block {}", block.toLogString(), failure);
+    }
+  }
+
+  private static void recover(final List<Transaction> transactions) {
+    for (final Transaction transaction : transactions) {
+      transaction.getSender();
+      transaction
+          .getAuthorizationList()
+          .ifPresent(authorizations -> authorizations.forEach(SetCodeAuthorization::authorizer));
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.consensus.merge.blockcreation;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.SetCodeAuthorization;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TransactionSenderRecoveryTest {
+
+  private final EthScheduler ethScheduler = mock(EthScheduler.class);
+  private final TransactionSenderRecovery recovery = new TransactionSenderRecovery(ethScheduler);
+
+  @BeforeEach
+  void setUp() {
+    when(ethScheduler.scheduleComputationTask(any()))
+        .thenAnswer(
+            invocation -> CompletableFuture.supplyAsync(invocation.<Supplier<?>>getArgument(0)));
+  }
+
+  @Test
+  void recoversEverySenderAndAuthorityInBatches() {
+    final List<Transaction> transactions = transactions(3 * TransactionSenderRecovery.BATCH_SIZE);
+    final SetCodeAuthorization authorization = mock(SetCodeAuthorization.class);
+    when(transactions.get(20).getAuthorizationList())
+        .thenReturn(Optional.of(List.of(authorization)));
+
+    recovery.recoverSenders(block(transactions));
+
+    verify(ethScheduler, times(2)).scheduleComputationTask(any());
+    transactions.forEach(transaction -> verify(transaction).getSender());
+    verify(authorization).authorizer();
+  }
+
+  @Test
+  void smallBlocksAreLeftToLazyRecovery() {
+    final List<Transaction> transactions = transactions(TransactionSenderRecovery.BATCH_SIZE);
+
+    recovery.recoverSenders(block(transactions));
+
+    verify(ethScheduler, never()).scheduleComputationTask(any());
+    transactions.forEach(transaction -> verify(transaction, never()).getSender());
+  }
+
+  @Test
+  void invalidSignaturesAreLeftToBlockValidation() {
+    final List<Transaction> transactions = transactions(2 * TransactionSenderRecovery.BATCH_SIZE);
+    when(transactions.get(0).getSender()).thenThrow(new IllegalStateException("invalid"));
+
+    recovery.recoverSenders(block(transactions));
+
+    // the scheduled batch is still recovered and waited for
+    transactions
+        .subList(TransactionSenderRecovery.BATCH_SIZE, transactions.size())
+        .forEach(transaction -> verify(transaction).getSender());
+  }
+
+  private static List<Transaction> transactions(final int count) {
+    final List<Transaction> transactions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      transactions.add(mock(Transaction.class));
+    }
+    return transactions;
+  }
+
+  private static Block block(final List<Transaction> transactions) {
+    return new Block(
+        mock(BlockHeader.class), new BlockBody(transactions, Collections.emptyList()));
+  }
+}
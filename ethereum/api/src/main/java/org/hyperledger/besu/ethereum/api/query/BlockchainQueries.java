@@ -39,6 +39,8 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.BaseFeeMarket;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiHistoricalStateIndex;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.evm.account.Account;
 import org.hyperledger.besu.evm.log.LogsBloomFilter;
@@ -55,6 +57,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -230,8 +233,15 @@ public class BlockchainQueries {
    */
   public Optional<UInt256> storageAt(
       final Address address, final UInt256 storageIndex, final Hash blockHash) {
-    return fromAccount(
-        address, blockHash, account -> account.getStorageValue(storageIndex), UInt256.ZERO);
+    return fromHistoricalStateIndex(
+            blockHash, (index, header) -> index.getStorageValue(address, storageIndex, header))
+        .or(
+            () ->
+                fromAccount(
+                    address,
+                    blockHash,
+                    account -> account.getStorageValue(storageIndex),
+                    UInt256.ZERO));
   }
 
   /**
@@ -255,7 +265,8 @@ public class BlockchainQueries {
    * @return The balance of the account in Wei.
    */
   public Optional<Wei> accountBalance(final Address address, final Hash blockHash) {
-    return fromAccount(address, blockHash, Account::getBalance, Wei.ZERO);
+    return fromHistoricalStateIndex(blockHash, (index, header) -> index.getBalance(address, header))
+        .or(() -> fromAccount(address, blockHash, Account::getBalance, Wei.ZERO));
   }
 
   /**
@@ -279,7 +290,8 @@ public class BlockchainQueries {
    * @return The code associated with this address.
    */
   public Optional<Bytes> getCode(final Address address, final Hash blockHash) {
-    return fromAccount(address, blockHash, Account::getCode, Bytes.EMPTY);
+    return fromHistoricalStateIndex(blockHash, (index, header) -> index.getCode(address, header))
+        .or(() -> fromAccount(address, blockHash, Account::getCode, Bytes.EMPTY));
   }
 
   /**
@@ -1101,6 +1113,22 @@ public class BlockchainQueries {
                 .or(() -> Optional.ofNullable(noAccountValue)));
   }
 
+  /**
+   * Answers a state query from the Bonsai historical state index, which seeks the value at the
+   * block instead of rolling a world state back to it.
+   */
+  private <T> Optional<T> fromHistoricalStateIndex(
+      final Hash blockHash,
+      final BiFunction<BonsaiHistoricalStateIndex, BlockHeader, Optional<T>> query) {
+    if (worldStateArchive instanceof BonsaiWorldStateProvider bonsaiWorldStateProvider) {
+      return bonsaiWorldStateProvider
+          .getHistoricalStateIndex()
+          .flatMap(
+              index -> blockchain.getBlockHeader(blockHash).flatMap(h -> query.apply(index, h)));
+    }
+    return Optional.empty();
+  }
+
   private List<TransactionWithMetadata> formatTransactions(
       final List<Transaction> txs,
       final long blockNumber,
@@ -48,6 +48,15 @@ public interface BlockchainStorage {
 
   Updater updater();
 
+  /**
+   * Rewrites the stored transaction receipts in the compact storage format.
+   *
+   * @return the number of blocks whose transaction receipts were rewritten
+   */
+  default long convertTransactionReceiptsToCompactFormat() {
+    return 0;
+  }
+
   interface Updater {
 
     void putBlockHeader(Hash blockHash, BlockHeader blockHeader);
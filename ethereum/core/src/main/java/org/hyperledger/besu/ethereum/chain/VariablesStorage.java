@@ -30,7 +30,9 @@ public interface VariablesStorage {
     FINALIZED_BLOCK_HASH("finalizedBlockHash"),
     SAFE_BLOCK_HASH("safeBlockHash"),
     SEQ_NO_STORE("local-enr-seqno"),
-    GENESIS_STATE_HASH("genesisStateHash");
+    GENESIS_STATE_HASH("genesisStateHash"),
+    RECEIPTS_COMPACT_FORMAT_CONVERTED("receiptsCompactFormatConverted"),
+    ANCIENT_STORE_IN_USE("ancientStoreInUse");
 
     private final String key;
     private final byte[] byteArray;
@@ -68,6 +70,10 @@ public interface VariablesStorage {
 
   Optional<Hash> getGenesisStateHash();
 
+  boolean isReceiptsCompactFormatConverted();
+
+  boolean isAncientStoreInUse();
+
   Updater updater();
 
   interface Updater {
@@ -84,6 +90,10 @@ public interface VariablesStorage {
 
     void setGenesisStateHash(Hash genesisStateHash);
 
+    void setReceiptsCompactFormatConverted(boolean converted);
+
+    void setAncientStoreInUse(boolean inUse);
+
     void removeAll();
 
     void commit();
@@ -0,0 +1,184 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.VariablesStorage;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the bodies and receipts of the canonical blocks older than the finalized block, minus a
+ * margin, from the recent blockchain storage to the {@link AncientStore}. Blocks are first appended
+ * and synced to the ancient store and only then removed from the recent storage, so a crash at any
+ * point loses nothing. Before the first block is removed, the variables storage records that the
+ * ancient store is in use, since the node can no longer start without it.
+ *
+ * <p>A run stops between batches once the executor is shut down.
+ */
+public class AncientBlockFreezer implements BlockAddedObserver {
+  static final int BLOCKS_PER_BATCH = 1000;
+  private static final Logger LOG = LoggerFactory.getLogger(AncientBlockFreezer.class);
+
+  private final Blockchain blockchain;
+  private final BlockchainStorage recentStorage;
+  private final VariablesStorage variablesStorage;
+  private final AncientStore ancientStore;
+  private final long blocksRetained;
+  private final ExecutorService freezingExecutor;
+  private final AtomicBoolean freezing = new AtomicBoolean(false);
+
+  public AncientBlockFreezer(
+      final Blockchain blockchain,
+      final BlockchainStorage recentStorage,
+      final VariablesStorage variablesStorage,
+      final AncientStore ancientStore,
+      final long blocksRetained,
+      final ExecutorService freezingExecutor) {
+    this.blockchain = blockchain;
+    this.recentStorage = recentStorage;
+    this.variablesStorage = variablesStorage;
+    this.ancientStore = ancientStore;
+    this.blocksRetained = blocksRetained;
+    this.freezingExecutor = freezingExecutor;
+  }
+
+  @Override
+  public void onBlockAdded(final BlockAddedEvent event) {
+    // a single run catches up with all the blocks to freeze, no need to queue another one
+    if (event.isNewCanonicalHead() && freezing.compareAndSet(false, true)) {
+      try {
+        freezingExecutor.execute(
+            () -> {
+              try {
+                freeze();
+              } catch (final RuntimeException e) {
+                LOG.error("Failed to move blocks to the ancient store", e);
+              } finally {
+                freezing.set(false);
+              }
+            });
+      } catch (final RejectedExecutionException e) {
+        // the executor is shut down when stopping
+        freezing.set(false);
+      }
+    }
+  }
+
+  void freeze() {
+    final long freezeLimit = getFreezeLimit();
+    OptionalLong maybeNextBlockNumber = ancientStore.getNextBlockNumber();
+    if (maybeNextBlockNumber.isEmpty()) {
+      maybeNextBlockNumber = findFirstCompleteBlock(freezeLimit);
+    }
+    if (maybeNextBlockNumber.isEmpty()) {
+      return;
+    }
+
+    long nextBlockNumber = maybeNextBlockNumber.getAsLong();
+    while (nextBlockNumber <= freezeLimit && !freezingExecutor.isShutdown()) {
+      final long lastBlockNumber = Math.min(freezeLimit, nextBlockNumber + BLOCKS_PER_BATCH - 1);
+      final List<Hash> frozenBlocks = new ArrayList<>();
+      for (long blockNumber = nextBlockNumber; blockNumber <= lastBlockNumber; blockNumber++) {
+        final Optional<Hash> maybeBlockHash = recentStorage.getBlockHash(blockNumber);
+        final Optional<BlockBody> maybeBlockBody =
+            maybeBlockHash.flatMap(recentStorage::getBlockBody);
+        final Optional<List<TransactionReceipt>> maybeReceipts =
+            maybeBlockHash.flatMap(recentStorage::getTransactionReceipts);
+        if (maybeBlockBody.isEmpty() || maybeReceipts.isEmpty()) {
+          LOG.warn("Cannot move block {} to the ancient store, its data is missing", blockNumber);
+          removeFromRecentStorage(frozenBlocks);
+          return;
+        }
+        ancientStore.append(blockNumber, maybeBlockBody.get(), maybeReceipts.get());
+        frozenBlocks.add(maybeBlockHash.get());
+      }
+      removeFromRecentStorage(frozenBlocks);
+      LOG.debug("Moved blocks {} to {} to the ancient store", nextBlockNumber, lastBlockNumber);
+      nextBlockNumber = lastBlockNumber + 1;
+    }
+  }
+
+  private void removeFromRecentStorage(final List<Hash> frozenBlocks) {
+    if (frozenBlocks.isEmpty()) {
+      return;
+    }
+    ancientStore.sync();
+    if (!variablesStorage.isAncientStoreInUse()) {
+      final VariablesStorage.Updater variablesUpdater = variablesStorage.updater();
+      variablesUpdater.setAncientStoreInUse(true);
+      variablesUpdater.commit();
+    }
+    final BlockchainStorage.Updater updater = recentStorage.updater();
+    for (final Hash blockHash : frozenBlocks) {
+      updater.removeBlockBody(blockHash);
+      updater.removeTransactionReceipts(blockHash);
+    }
+    updater.commit();
+  }
+
+  // blocks older than the finalized one, or than the head for chains without finality, minus
+  // the margin of blocks retained
+  private long getFreezeLimit() {
+    final long lastBlockNumber =
+        blockchain
+            .getFinalized()
+            .flatMap(blockchain::getBlockHeader)
+            .map(BlockHeader::getNumber)
+            .orElseGet(blockchain::getChainHeadBlockNumber);
+    return lastBlockNumber - blocksRetained;
+  }
+
+  // the blocks below a checkpoint, or the pivot of a fast sync, have no body or receipts
+  private OptionalLong findFirstCompleteBlock(final long freezeLimit) {
+    if (freezeLimit < 0 || !hasBlockData(freezeLimit)) {
+      return OptionalLong.empty();
+    }
+    // the genesis block is always stored, even when the blocks following it are not
+    long low = Math.min(1, freezeLimit);
+    long high = freezeLimit;
+    while (low < high) {
+      final long middle = (low + high) >>> 1;
+      if (hasBlockData(middle)) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return OptionalLong.of(low == 1 && hasBlockData(0) ? 0 : low);
+  }
+
+  private boolean hasBlockData(final long blockNumber) {
+    final Optional<Hash> maybeBlockHash = recentStorage.getBlockHash(blockNumber);
+    return maybeBlockHash.flatMap(recentStorage::getBlockBody).isPresent()
+        && maybeBlockHash.flatMap(recentStorage::getTransactionReceipts).isPresent();
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Blockchain storage reading the bodies and receipts of the blocks moved to the {@link
+ * AncientStore} by the {@link AncientBlockFreezer} from there, and everything else, including the
+ * headers used to find the number of a block, from the recent storage it wraps.
+ */
+public class AncientBlockchainStorage implements BlockchainStorage {
+  private final BlockchainStorage recentStorage;
+  private final AncientStore ancientStore;
+
+  public AncientBlockchainStorage(
+      final BlockchainStorage recentStorage, final AncientStore ancientStore) {
+    this.recentStorage = recentStorage;
+    this.ancientStore = ancientStore;
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return recentStorage.getChainHead();
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return recentStorage.getForkHeads();
+  }
+
+  @Override
+  public Optional<Hash> getFinalized() {
+    return recentStorage.getFinalized();
+  }
+
+  @Override
+  public Optional<Hash> getSafeBlock() {
+    return recentStorage.getSafeBlock();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return recentStorage.getBlockHeader(blockHash);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return recentStorage
+        .getBlockBody(blockHash)
+        .or(() -> getCanonicalBlockNumber(blockHash).flatMap(ancientStore::getBlockBody));
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return recentStorage
+        .getTransactionReceipts(blockHash)
+        .or(() -> getCanonicalBlockNumber(blockHash).flatMap(ancientStore::getTransactionReceipts));
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    return recentStorage.getBlockHash(blockNumber);
+  }
+
+  @Override
+  public Optional<Difficulty> getTotalDifficulty(final Hash blockHash) {
+    return recentStorage.getTotalDifficulty(blockHash);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return recentStorage.getTransactionLocation(transactionHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return recentStorage.updater();
+  }
+
+  @Override
+  public long convertTransactionReceiptsToCompactFormat() {
+    return recentStorage.convertTransactionReceiptsToCompactFormat();
+  }
+
+  // only canonical blocks are moved to the ancient store
+  private Optional<Long> getCanonicalBlockNumber(final Hash blockHash) {
+    return recentStorage
+        .getBlockHeader(blockHash)
+        .map(BlockHeader::getNumber)
+        .filter(number -> recentStorage.getBlockHash(number).filter(blockHash::equals).isPresent());
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.storage.keyvalue.TransactionReceiptsStorageCodec;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Flat file store of the bodies and receipts of finalized canonical blocks, moved out of the
+ * blockchain storage once they no longer change. Blocks are appended in order, starting at any
+ * block number, and read by number. Receipts are written in the compact storage format.
+ */
+public class AncientStore implements Closeable {
+  private static final String BODIES_TABLE = "bodies";
+  private static final String RECEIPTS_TABLE = "receipts";
+
+  private final BlockHeaderFunctions blockHeaderFunctions;
+  private final AncientTable bodies;
+  private final AncientTable receipts;
+
+  AncientStore(
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final AncientTable bodies,
+      final AncientTable receipts)
+      throws IOException {
+    this.blockHeaderFunctions = blockHeaderFunctions;
+    this.bodies = bodies;
+    this.receipts = receipts;
+    // a crash can leave the last block in only some of the tables
+    final long blockCount = Math.min(bodies.getItemCount(), receipts.getItemCount());
+    bodies.truncate(blockCount);
+    receipts.truncate(blockCount);
+  }
+
+  /**
+   * Checks whether a directory holds a store.
+   *
+   * @param directory the directory of the store
+   * @return true if the store exists
+   */
+  public static boolean exists(final Path directory) {
+    return Files.exists(directory.resolve(AncientTable.indexFileName(BODIES_TABLE)))
+        && Files.exists(directory.resolve(AncientTable.indexFileName(RECEIPTS_TABLE)));
+  }
+
+  /**
+   * Opens the store in a directory, creating it if needed.
+   *
+   * @param directory the directory of the store
+   * @param blockHeaderFunctions the block header functions used to read the bodies
+   * @return the store
+   */
+  public static AncientStore open(
+      final Path directory, final BlockHeaderFunctions blockHeaderFunctions) {
+    return open(directory, blockHeaderFunctions, AncientTable.MAX_DATA_FILE_SIZE);
+  }
+
+  static AncientStore open(
+      final Path directory,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final long maxDataFileSize) {
+    try {
+      Files.createDirectories(directory);
+      return new AncientStore(
+          blockHeaderFunctions,
+          new AncientTable(directory, BODIES_TABLE, maxDataFileSize),
+          new AncientTable(directory, RECEIPTS_TABLE, maxDataFileSize));
+    } catch (final IOException e) {
+      throw new StorageException("Failed to open the ancient store in " + directory, e);
+    }
+  }
+
+  /**
+   * Gets the number of the block to append next, or empty if no block was ever appended.
+   *
+   * @return the number of the next block
+   */
+  public OptionalLong getNextBlockNumber() {
+    final long firstBlockNumber = bodies.getFirstItem();
+    return firstBlockNumber < 0
+        ? OptionalLong.empty()
+        : OptionalLong.of(firstBlockNumber + bodies.getItemCount());
+  }
+
+  /**
+   * Appends a block, which becomes readable right away but is only durable after {@link #sync()}.
+   *
+   * @param blockNumber the number of the block, following the last block appended
+   * @param blockBody the body of the block
+   * @param transactionReceipts the receipts of the block
+   */
+  public void append(
+      final long blockNumber,
+      final BlockBody blockBody,
+      final List<TransactionReceipt> transactionReceipts) {
+    try {
+      receipts.append(
+          blockNumber, TransactionReceiptsStorageCodec.encodeCompact(transactionReceipts));
+      bodies.append(blockNumber, RLP.encode(blockBody::writeWrappedBodyTo));
+    } catch (final IOException e) {
+      throw new StorageException("Failed to append block " + blockNumber, e);
+    }
+  }
+
+  /** Flushes the blocks appended to disk. */
+  public void sync() {
+    try {
+      receipts.sync();
+      bodies.sync();
+    } catch (final IOException e) {
+      throw new StorageException("Failed to sync the ancient store", e);
+    }
+  }
+
+  /**
+   * Gets the body of a block.
+   *
+   * @param blockNumber the number of the block
+   * @return the body of the block, or empty if the block is not in the store
+   */
+  public Optional<BlockBody> getBlockBody(final long blockNumber) {
+    return get(bodies, blockNumber)
+        .map(bytes -> BlockBody.readWrappedBodyFrom(RLP.input(bytes), blockHeaderFunctions));
+  }
+
+  /**
+   * Gets the receipts of a block.
+   *
+   * @param blockNumber the number of the block
+   * @return the receipts of the block, or empty if the block is not in the store
+   */
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final long blockNumber) {
+    return get(receipts, blockNumber).map(TransactionReceiptsStorageCodec::decode);
+  }
+
+  private static Optional<Bytes> get(final AncientTable table, final long blockNumber) {
+    try {
+      return table.get(blockNumber);
+    } catch (final IOException e) {
+      throw new StorageException("Failed to read block " + blockNumber, e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    bodies.close();
+    receipts.close();
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public class AncientStoreConfiguration {
+  public static final long DEFAULT_BLOCKS_RETAINED = 90_000;
+  public static final AncientStoreConfiguration DEFAULT =
+      new AncientStoreConfiguration(false, Optional.empty(), DEFAULT_BLOCKS_RETAINED);
+  private final boolean enabled;
+  private final Optional<Path> path;
+  private final long blocksRetained;
+
+  public AncientStoreConfiguration(
+      final boolean enabled, final Optional<Path> path, final long blocksRetained) {
+    this.enabled = enabled;
+    this.path = path;
+    this.blocksRetained = blocksRetained;
+  }
+
+  public boolean getAncientStoreEnabled() {
+    return enabled;
+  }
+
+  public Optional<Path> getAncientStorePath() {
+    return path;
+  }
+
+  public long getAncientStoreBlocksRetained() {
+    return blocksRetained;
+  }
+}
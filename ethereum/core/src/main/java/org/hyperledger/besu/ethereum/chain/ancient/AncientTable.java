@@ -0,0 +1,325 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.xerial.snappy.Snappy;
+
+/**
+ * An append-only table of consecutively numbered items. Items are Snappy compressed and appended to
+ * data files of at most {@link #MAX_DATA_FILE_SIZE} bytes, while the index records, for each item,
+ * the data file holding it and the offset where it ends. Data files are memory mapped for reading,
+ * so an item is decompressed straight from the page cache.
+ *
+ * <p>Only one thread appends, while any number of threads read: an item becomes visible once both
+ * its data and its index entry are written.
+ */
+class AncientTable implements Closeable {
+  static final long MAX_DATA_FILE_SIZE = 1 << 30; // 1 GiB max file size
+
+  private static final long NO_ITEM = -1;
+  // the number of the first item
+  private static final int INDEX_HEADER_SIZE = Long.BYTES;
+  // the data file number and the offset where the item ends in that file
+  private static final int INDEX_ENTRY_SIZE = Short.BYTES + Integer.BYTES;
+
+  private final Path directory;
+  private final String name;
+  private final long maxDataFileSize;
+  private final FileChannel index;
+  private final Map<Integer, FileChannel> dataFiles = new ConcurrentHashMap<>();
+  private final Map<Integer, MappedByteBuffer> mappedDataFiles = new ConcurrentHashMap<>();
+  private final Set<Integer> unsyncedDataFiles = new HashSet<>();
+
+  private volatile long firstItem;
+  private volatile long itemCount;
+  private int headFileNumber;
+  private long headFileSize;
+
+  AncientTable(final Path directory, final String name, final long maxDataFileSize)
+      throws IOException {
+    this.directory = directory;
+    this.name = name;
+    this.maxDataFileSize = maxDataFileSize;
+    this.index = FileChannel.open(directory.resolve(indexFileName(name)), CREATE, READ, WRITE);
+    if (index.size() < INDEX_HEADER_SIZE) {
+      index.truncate(0);
+      firstItem = NO_ITEM;
+      truncate(0);
+    } else {
+      final ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+      readFully(index, header, 0);
+      firstItem = header.flip().getLong();
+      // drop a partially written index entry, and the entries whose data did not reach the disk
+      // before a crash, since the index can be flushed before the data files it points into
+      long entryCount = (index.size() - INDEX_HEADER_SIZE) / INDEX_ENTRY_SIZE;
+      while (entryCount > 0 && !isDataWritten(entryCount - 1)) {
+        entryCount--;
+      }
+      truncate(entryCount);
+    }
+  }
+
+  static String indexFileName(final String name) {
+    return name + ".cidx";
+  }
+
+  /**
+   * Gets the number of the first item, or -1 if nothing was ever appended.
+   *
+   * @return the number of the first item
+   */
+  long getFirstItem() {
+    return firstItem;
+  }
+
+  /**
+   * Gets the number of items in the table.
+   *
+   * @return the number of items
+   */
+  long getItemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Appends an item, which has to follow the last one, or can be any number for the first item.
+   *
+   * @param item the number of the item
+   * @param value the value of the item
+   * @throws IOException if the item cannot be written
+   */
+  synchronized void append(final long item, final Bytes value) throws IOException {
+    if (firstItem == NO_ITEM) {
+      writeFully(index, ByteBuffer.allocate(INDEX_HEADER_SIZE).putLong(item).flip(), 0);
+      firstItem = item;
+    } else if (item != firstItem + itemCount) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot append item %d to %s, next item is %d", item, name, firstItem + itemCount));
+    }
+
+    final byte[] compressed = Snappy.compress(value.toArrayUnsafe());
+    if (headFileSize > 0 && headFileSize + compressed.length > maxDataFileSize) {
+      headFileNumber++;
+      headFileSize = 0;
+    }
+    writeFully(dataFile(headFileNumber), ByteBuffer.wrap(compressed), headFileSize);
+    unsyncedDataFiles.add(headFileNumber);
+    headFileSize += compressed.length;
+
+    final ByteBuffer entry =
+        ByteBuffer.allocate(INDEX_ENTRY_SIZE)
+            .putShort((short) headFileNumber)
+            .putInt((int) headFileSize)
+            .flip();
+    writeFully(index, entry, indexPosition(itemCount));
+    itemCount++;
+  }
+
+  /**
+   * Reads an item.
+   *
+   * @param item the number of the item
+   * @return the value of the item, or empty if it is not in the table
+   * @throws IOException if the item cannot be read
+   */
+  Optional<Bytes> get(final long item) throws IOException {
+    final long first = firstItem;
+    final long count = itemCount;
+    if (first == NO_ITEM || item < first || item >= first + count) {
+      return Optional.empty();
+    }
+
+    // the previous entry, if any, tells where the item starts
+    final long position = item - first;
+    final ByteBuffer entries =
+        ByteBuffer.allocate(position == 0 ? INDEX_ENTRY_SIZE : 2 * INDEX_ENTRY_SIZE);
+    readFully(index, entries, indexPosition(Math.max(0, position - 1)));
+    entries.flip();
+    final int previousFileNumber = position == 0 ? -1 : Short.toUnsignedInt(entries.getShort());
+    final int previousEndOffset = position == 0 ? 0 : entries.getInt();
+    final int fileNumber = Short.toUnsignedInt(entries.getShort());
+    final int endOffset = entries.getInt();
+    final int startOffset = previousFileNumber == fileNumber ? previousEndOffset : 0;
+
+    final ByteBuffer compressed =
+        mappedDataFile(fileNumber, endOffset).slice(startOffset, endOffset - startOffset);
+    final ByteBuffer uncompressed =
+        ByteBuffer.allocateDirect(Snappy.uncompressedLength(compressed));
+    Snappy.uncompress(compressed, uncompressed);
+    return Optional.of(Bytes.wrapByteBuffer(uncompressed));
+  }
+
+  /**
+   * Flushes the appended items to disk.
+   *
+   * @throws IOException if the files cannot be flushed
+   */
+  synchronized void sync() throws IOException {
+    for (final int fileNumber : unsyncedDataFiles) {
+      dataFile(fileNumber).force(false);
+    }
+    unsyncedDataFiles.clear();
+    index.force(false);
+  }
+
+  /**
+   * Drops the items after the first {@code newItemCount} ones. Only called while opening the store,
+   * since the data files might be mapped for reading afterwards.
+   *
+   * @param newItemCount the number of items to keep
+   * @throws IOException if the files cannot be truncated
+   */
+  synchronized void truncate(final long newItemCount) throws IOException {
+    itemCount = Math.min(itemCount, newItemCount);
+    if (firstItem != NO_ITEM) {
+      index.truncate(indexPosition(newItemCount));
+    }
+    if (newItemCount == 0) {
+      headFileNumber = 0;
+      headFileSize = 0;
+    } else {
+      final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+      readFully(index, entry, indexPosition(newItemCount - 1));
+      entry.flip();
+      headFileNumber = Short.toUnsignedInt(entry.getShort());
+      headFileSize = entry.getInt();
+    }
+    dataFile(headFileNumber).truncate(headFileSize);
+    mappedDataFiles.remove(headFileNumber);
+    // drop the data files rolled over after the last item kept
+    int fileNumber = headFileNumber + 1;
+    while (Files.exists(dataFilePath(fileNumber))) {
+      final FileChannel dataFile = dataFiles.remove(fileNumber);
+      if (dataFile != null) {
+        dataFile.close();
+      }
+      mappedDataFiles.remove(fileNumber);
+      unsyncedDataFiles.remove(fileNumber);
+      Files.delete(dataFilePath(fileNumber));
+      fileNumber++;
+    }
+    itemCount = newItemCount;
+  }
+
+  // whether the data file holds all of an item, which ends after the item before it
+  private boolean isDataWritten(final long position) throws IOException {
+    final ByteBuffer entries =
+        ByteBuffer.allocate(position == 0 ? INDEX_ENTRY_SIZE : 2 * INDEX_ENTRY_SIZE);
+    readFully(index, entries, indexPosition(Math.max(0, position - 1)));
+    entries.flip();
+    final int previousFileNumber = position == 0 ? 0 : Short.toUnsignedInt(entries.getShort());
+    final int previousEndOffset = position == 0 ? 0 : entries.getInt();
+    final int fileNumber = Short.toUnsignedInt(entries.getShort());
+    final int endOffset = entries.getInt();
+    final int startOffset = previousFileNumber == fileNumber ? previousEndOffset : 0;
+    final Path dataFilePath = dataFilePath(fileNumber);
+    return fileNumber >= previousFileNumber
+        && endOffset > startOffset
+        && Files.exists(dataFilePath)
+        && Files.size(dataFilePath) >= endOffset;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    index.close();
+    for (final FileChannel dataFile : dataFiles.values()) {
+      dataFile.close();
+    }
+    dataFiles.clear();
+    mappedDataFiles.clear();
+  }
+
+  private MappedByteBuffer mappedDataFile(final int fileNumber, final int minSize) {
+    final MappedByteBuffer mapped = mappedDataFiles.get(fileNumber);
+    if (mapped != null && mapped.capacity() >= minSize) {
+      return mapped;
+    }
+    // the head data file grew since it was mapped
+    return mappedDataFiles.compute(
+        fileNumber,
+        (key, current) -> {
+          if (current != null && current.capacity() >= minSize) {
+            return current;
+          }
+          try {
+            final FileChannel dataFile = dataFile(key);
+            return dataFile.map(FileChannel.MapMode.READ_ONLY, 0, dataFile.size());
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  private FileChannel dataFile(final int fileNumber) {
+    return dataFiles.computeIfAbsent(
+        fileNumber,
+        key -> {
+          try {
+            return FileChannel.open(dataFilePath(key), CREATE, READ, WRITE);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  private Path dataFilePath(final int fileNumber) {
+    return directory.resolve(String.format("%s-%04d.cdat", name, fileNumber));
+  }
+
+  private static long indexPosition(final long position) {
+    return INDEX_HEADER_SIZE + position * INDEX_ENTRY_SIZE;
+  }
+
+  private static void writeFully(
+      final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+  }
+
+  private static void readFully(
+      final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      final int read = channel.read(buffer, offset);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of " + channel);
+      }
+      offset += read;
+    }
+  }
+}
@@ -28,10 +28,12 @@ import org.hyperledger.besu.evm.log.LogsBloomFilter;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Suppliers;
 import org.apache.tuweni.bytes.Bytes;
 
 /**
@@ -53,7 +55,8 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
   private final Hash stateRoot;
   private final long cumulativeGasUsed;
   private final List<Log> logs;
-  private final LogsBloomFilter bloomFilter;
+  // computed from the logs only when needed for receipts read without it
+  private final Supplier<LogsBloomFilter> bloomFilter;
   private final int status;
   private final TransactionReceiptType transactionReceiptType;
   private final Optional<Bytes> revertReason;
@@ -77,24 +80,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
         NONEXISTENT,
         cumulativeGasUsed,
         logs,
-        LogsBloomFilter.builder().insertLogs(logs).build(),
-        revertReason);
-  }
-
-  private TransactionReceipt(
-      final TransactionType transactionType,
-      final Hash stateRoot,
-      final long cumulativeGasUsed,
-      final List<Log> logs,
-      final LogsBloomFilter bloomFilter,
-      final Optional<Bytes> revertReason) {
-    this(
-        transactionType,
-        stateRoot,
-        NONEXISTENT,
-        cumulativeGasUsed,
-        logs,
-        bloomFilter,
+        lazyBloomFilter(logs),
         revertReason);
   }
 
@@ -117,7 +103,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
         status,
         cumulativeGasUsed,
         logs,
-        LogsBloomFilter.builder().insertLogs(logs).build(),
+        lazyBloomFilter(logs),
         revertReason);
   }
 
@@ -128,7 +114,14 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
       final List<Log> logs,
       final LogsBloomFilter bloomFilter,
       final Optional<Bytes> revertReason) {
-    this(transactionType, null, status, cumulativeGasUsed, logs, bloomFilter, revertReason);
+    this(
+        transactionType,
+        null,
+        status,
+        cumulativeGasUsed,
+        logs,
+        Suppliers.ofInstance(bloomFilter),
+        revertReason);
   }
 
   public TransactionReceipt(
@@ -139,10 +132,11 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
       final Optional<Bytes> maybeRevertReason) {
     this(
         transactionType,
+        null,
         status,
         cumulativeGasUsed,
         logs,
-        LogsBloomFilter.builder().insertLogs(logs).build(),
+        lazyBloomFilter(logs),
         maybeRevertReason);
   }
 
@@ -152,7 +146,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
       final int status,
       final long cumulativeGasUsed,
       final List<Log> logs,
-      final LogsBloomFilter bloomFilter,
+      final Supplier<LogsBloomFilter> bloomFilter,
       final Optional<Bytes> revertReason) {
     this.transactionType = transactionType;
     this.stateRoot = stateRoot;
@@ -178,18 +172,46 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     writeTo(out, true, compacted);
   }
 
+  /**
+   * Write a compacted RLP representation for storage, with the gas used by the transaction in
+   * place of the cumulative gas used in the block, which is rebuilt when reading the receipts of
+   * the block in order.
+   *
+   * @param out The RLP output to write to
+   * @param previousCumulativeGasUsed the cumulative gas used of the previous receipt of the block
+   */
+  public void writeToForCompactStorage(final RLPOutput out, final long previousCumulativeGasUsed) {
+    writeTo(out, true, true, cumulativeGasUsed - previousCumulativeGasUsed);
+  }
+
   @VisibleForTesting
   void writeTo(final RLPOutput rlpOutput, final boolean withRevertReason, final boolean compacted) {
+    writeTo(rlpOutput, withRevertReason, compacted, cumulativeGasUsed);
+  }
+
+  private void writeTo(
+      final RLPOutput rlpOutput,
+      final boolean withRevertReason,
+      final boolean compacted,
+      final long gasUsed) {
     if (transactionType.equals(TransactionType.FRONTIER)) {
-      writeToForReceiptTrie(rlpOutput, withRevertReason, compacted);
+      writeToForReceiptTrie(rlpOutput, withRevertReason, compacted, gasUsed);
     } else {
       rlpOutput.writeBytes(
-          RLP.encode(out -> writeToForReceiptTrie(out, withRevertReason, compacted)));
+          RLP.encode(out -> writeToForReceiptTrie(out, withRevertReason, compacted, gasUsed)));
     }
   }
 
   public void writeToForReceiptTrie(
       final RLPOutput rlpOutput, final boolean withRevertReason, final boolean compacted) {
+    writeToForReceiptTrie(rlpOutput, withRevertReason, compacted, cumulativeGasUsed);
+  }
+
+  private void writeToForReceiptTrie(
+      final RLPOutput rlpOutput,
+      final boolean withRevertReason,
+      final boolean compacted,
+      final long gasUsed) {
     if (!transactionType.equals(TransactionType.FRONTIER)) {
       rlpOutput.writeIntScalar(transactionType.getSerializedType());
     }
@@ -203,9 +225,9 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     } else {
       rlpOutput.writeLongScalar(status);
     }
-    rlpOutput.writeLongScalar(cumulativeGasUsed);
+    rlpOutput.writeLongScalar(gasUsed);
     if (!compacted) {
-      rlpOutput.writeBytes(bloomFilter);
+      rlpOutput.writeBytes(bloomFilter.get());
     }
     rlpOutput.writeList(logs, (log, logOutput) -> log.writeTo(logOutput, compacted));
     if (withRevertReason && revertReason.isPresent()) {
@@ -233,6 +255,25 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
    */
   public static TransactionReceipt readFrom(
       final RLPInput rlpInput, final boolean revertReasonAllowed) {
+    return readFrom(rlpInput, revertReasonAllowed, 0);
+  }
+
+  /**
+   * Creates a transaction receipt for the RLP written by {@link #writeToForCompactStorage}
+   *
+   * @param rlpInput the RLP-encoded transaction receipt
+   * @param previousCumulativeGasUsed the cumulative gas used of the previous receipt of the block
+   * @return the transaction receipt
+   */
+  public static TransactionReceipt readFromCompactStorage(
+      final RLPInput rlpInput, final long previousCumulativeGasUsed) {
+    return readFrom(rlpInput, true, previousCumulativeGasUsed);
+  }
+
+  private static TransactionReceipt readFrom(
+      final RLPInput rlpInput,
+      final boolean revertReasonAllowed,
+      final long previousCumulativeGasUsed) {
     RLPInput input = rlpInput;
     TransactionType transactionType = TransactionType.FRONTIER;
     if (!rlpInput.nextIsList()) {
@@ -245,21 +286,20 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
     // Get the first element to check later to determine the
     // correct transaction receipt encoding to use.
     final RLPInput firstElement = input.readAsRlp();
-    final long cumulativeGas = input.readLongScalar();
+    final long cumulativeGas = previousCumulativeGasUsed + input.readLongScalar();
 
-    LogsBloomFilter bloomFilter = null;
+    LogsBloomFilter storedBloomFilter = null;
 
     final boolean hasLogs = !input.nextIsList() && input.nextSize() == LogsBloomFilter.BYTE_SIZE;
     if (hasLogs) {
       // The logs below will populate the bloom filter upon construction.
-      bloomFilter = LogsBloomFilter.readFrom(input);
+      storedBloomFilter = LogsBloomFilter.readFrom(input);
     }
     // TODO consider validating that the logs and bloom filter match.
     final boolean compacted = !hasLogs;
     final List<Log> logs = input.readList(logInput -> Log.readFrom(logInput, compacted));
-    if (compacted) {
-      bloomFilter = LogsBloomFilter.builder().insertLogs(logs).build();
-    }
+    final Supplier<LogsBloomFilter> bloomFilter =
+        compacted ? lazyBloomFilter(logs) : Suppliers.ofInstance(storedBloomFilter);
 
     final Optional<Bytes> revertReason;
     if (input.isEndOfCurrentList()) {
@@ -277,15 +317,19 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
       final int status = firstElement.readIntScalar();
       input.leaveList();
       return new TransactionReceipt(
-          transactionType, status, cumulativeGas, logs, bloomFilter, revertReason);
+          transactionType, null, status, cumulativeGas, logs, bloomFilter, revertReason);
     } else {
       final Hash stateRoot = Hash.wrap(firstElement.readBytes32());
       input.leaveList();
       return new TransactionReceipt(
-          transactionType, stateRoot, cumulativeGas, logs, bloomFilter, revertReason);
+          transactionType, stateRoot, NONEXISTENT, cumulativeGas, logs, bloomFilter, revertReason);
     }
   }
 
+  private static Supplier<LogsBloomFilter> lazyBloomFilter(final List<Log> logs) {
+    return Suppliers.memoize(() -> LogsBloomFilter.builder().insertLogs(logs).build());
+  }
+
   /**
    * Returns the state root for a state root-encoded transaction receipt
    *
@@ -331,7 +375,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
    */
   @Override
   public LogsBloomFilter getBloomFilter() {
-    return bloomFilter;
+    return bloomFilter.get();
   }
 
   /**
@@ -379,7 +423,7 @@ public class TransactionReceipt implements org.hyperledger.besu.plugin.data.Tran
         .add("stateRoot", stateRoot)
         .add("cumulativeGasUsed", cumulativeGasUsed)
         .add("logs", logs)
-        .add("bloomFilter", bloomFilter)
+        .add("bloomFilter", bloomFilter.get())
         .add("status", status)
         .add("transactionReceiptType", transactionReceiptType)
         .toString();
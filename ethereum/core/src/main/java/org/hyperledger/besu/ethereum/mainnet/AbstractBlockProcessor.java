@@ -17,7 +17,9 @@ package org.hyperledger.besu.ethereum.mainnet;
 import static org.hyperledger.besu.ethereum.mainnet.feemarket.ExcessBlobGasCalculator.calculateExcessBlobGasForParent;
 import static org.hyperledger.besu.evm.operation.BlockHashOperation.BlockHashLookup;
 
+import org.hyperledger.besu.datatypes.AccessListEntry;
 import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.BlockProcessingOutputs;
@@ -45,9 +47,17 @@ import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,6 +123,8 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
     final Address miningBeneficiary = miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
 
+    prefetchState(worldState, transactions, miningBeneficiary, maybeWithdrawals);
+
     Optional<BlockHeader> maybeParentHeader =
         blockchain.getBlockHeader(blockHeader.getParentHash());
 
@@ -257,6 +269,41 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     return Optional.empty();
   }
 
+  /**
+   * Starts loading the accounts and storage slots the block declares it will access, so that
+   * executing it does not wait on reading them from the database: the senders and recipients of
+   * its transactions, their access lists, the withdrawal recipients and the mining beneficiary.
+   */
+  @VisibleForTesting
+  static void prefetchState(
+      final MutableWorldState worldState,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final Optional<List<Withdrawal>> maybeWithdrawals) {
+    if (!(worldState instanceof BonsaiWorldState bonsaiWorldState)
+        || !bonsaiWorldState.isStatePrefetchEnabled()) {
+      return;
+    }
+    final Set<Address> accounts = new LinkedHashSet<>();
+    final Map<Address, Set<StorageSlotKey>> storageSlots = new HashMap<>();
+    accounts.add(miningBeneficiary);
+    for (final Transaction transaction : transactions) {
+      accounts.add(transaction.getSender());
+      transaction.getTo().ifPresent(accounts::add);
+      for (final AccessListEntry entry : transaction.getAccessList().orElse(List.of())) {
+        accounts.add(entry.address());
+        final Set<StorageSlotKey> slotKeys =
+            storageSlots.computeIfAbsent(entry.address(), address -> new HashSet<>());
+        for (final Bytes32 storageKey : entry.storageKeys()) {
+          slotKeys.add(new StorageSlotKey(UInt256.fromBytes(storageKey)));
+        }
+      }
+    }
+    maybeWithdrawals.ifPresent(
+        withdrawals -> withdrawals.forEach(withdrawal -> accounts.add(withdrawal.getAddress())));
+    bonsaiWorldState.prefetch(accounts, storageSlots);
+  }
+
   protected TransactionProcessingResult getTransactionProcessingResult(
       final Optional<PreprocessingContext> preProcessingContext,
       final MutableWorldState worldState,
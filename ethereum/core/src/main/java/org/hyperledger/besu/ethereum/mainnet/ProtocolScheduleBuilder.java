@@ -21,7 +21,10 @@ import org.hyperledger.besu.ethereum.core.MiningParameters;
 import org.hyperledger.besu.ethereum.core.PrivacyParameters;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionValidator;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.precompile.PrecompileResultCache;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -51,6 +54,7 @@ public class ProtocolScheduleBuilder {
   private final BadBlockManager badBlockManager;
   private final boolean isParallelTxProcessingEnabled;
   private final MetricsSystem metricsSystem;
+  private final Optional<PrecompileResultCache> precompileResultCache;
 
   public ProtocolScheduleBuilder(
       final GenesisConfigOptions config,
@@ -120,6 +124,33 @@ public class ProtocolScheduleBuilder {
     this.badBlockManager = badBlockManager;
     this.isParallelTxProcessingEnabled = isParallelTxProcessingEnabled;
     this.metricsSystem = metricsSystem;
+    this.precompileResultCache = createPrecompileResultCache();
+  }
+
+  private Optional<PrecompileResultCache> createPrecompileResultCache() {
+    if (evmConfiguration.precompileResultCacheSize() <= 0) {
+      return Optional.empty();
+    }
+    // one bounded cache for every spec, keyed by the precompile instances of each spec
+    final Counter hits =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCK_PROCESSING,
+            "precompile_result_cache_hits",
+            "Number of precompile calls answered from the result cache");
+    final Counter misses =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCK_PROCESSING,
+            "precompile_result_cache_misses",
+            "Number of cacheable precompile calls that had to be computed");
+    final PrecompileResultCache cache =
+        new PrecompileResultCache(
+            evmConfiguration.precompileResultCacheSize(), hits::inc, misses::inc);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCK_PROCESSING,
+        "precompile_result_cache_size",
+        "Number of results in the precompile result cache",
+        cache::size);
+    return Optional.of(cache);
   }
 
   public ProtocolSchedule createProtocolSchedule() {
@@ -518,7 +549,10 @@ public class ProtocolScheduleBuilder {
         .privateTransactionValidatorBuilder(
             () -> new PrivateTransactionValidator(protocolSchedule.getChainId()));
 
-    return modifier.apply(definition).build(protocolSchedule);
+    final ProtocolSpec protocolSpec = modifier.apply(definition).build(protocolSchedule);
+    precompileResultCache.ifPresent(
+        cache -> protocolSpec.getPrecompileContractRegistry().enableResultCaching(cache));
+    return protocolSpec;
   }
 
   private void addProtocolSpec(
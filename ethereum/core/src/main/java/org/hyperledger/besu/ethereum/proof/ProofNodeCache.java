@@ -0,0 +1,80 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.proof;
+
+import org.hyperledger.besu.ethereum.trie.NodeLoader;
+
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A bounded cache of the trie nodes loaded to build proofs, keyed by node hash.
+ *
+ * <p>A node hash identifies its content, so a cached node stays valid whatever the state root it
+ * was loaded for. Proofs requested for the same accounts at consecutive blocks share most of their
+ * nodes, which are then served without reading the world state storage again.
+ */
+public class ProofNodeCache {
+
+  /** The number of nodes kept by default. */
+  public static final long DEFAULT_MAXIMUM_SIZE = 16_384;
+
+  private final Cache<Bytes32, Bytes> nodes;
+
+  /** Instantiates a new proof node cache keeping the default number of nodes. */
+  public ProofNodeCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Instantiates a new proof node cache.
+   *
+   * @param maximumSize the maximum number of nodes to keep
+   */
+  public ProofNodeCache(final long maximumSize) {
+    this.nodes = Caffeine.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Wraps a node loader so that the nodes it loads are served from and added to this cache.
+   *
+   * @param nodeLoader the loader reading the nodes from storage
+   * @return the caching node loader
+   */
+  public NodeLoader cached(final NodeLoader nodeLoader) {
+    return (location, hash) -> {
+      final Bytes cachedNode = nodes.getIfPresent(hash);
+      if (cachedNode != null) {
+        return Optional.of(cachedNode);
+      }
+      final Optional<Bytes> node = nodeLoader.getNode(location, hash);
+      node.ifPresent(value -> nodes.put(hash, value));
+      return node;
+    };
+  }
+
+  /**
+   * Gets the approximate number of cached nodes.
+   *
+   * @return the size
+   */
+  public long size() {
+    return nodes.estimatedSize();
+  }
+}
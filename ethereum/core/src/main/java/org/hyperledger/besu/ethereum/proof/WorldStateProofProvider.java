@@ -21,6 +21,7 @@ import org.hyperledger.besu.ethereum.trie.InnerNodeDiscoveryManager;
 import org.hyperledger.besu.ethereum.trie.InnerNodeDiscoveryManager.InnerNode;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
+import org.hyperledger.besu.ethereum.trie.NodeLoader;
 import org.hyperledger.besu.ethereum.trie.Proof;
 import org.hyperledger.besu.ethereum.trie.patricia.RemoveVisitor;
 import org.hyperledger.besu.ethereum.trie.patricia.SimpleMerklePatriciaTrie;
@@ -52,10 +53,25 @@ import org.slf4j.LoggerFactory;
 public class WorldStateProofProvider {
 
   private final WorldStateStorageCoordinator worldStateStorageCoordinator;
+  private final Optional<ProofNodeCache> proofNodeCache;
   private static final Logger LOG = LoggerFactory.getLogger(WorldStateProofProvider.class);
 
   public WorldStateProofProvider(final WorldStateStorageCoordinator worldStateStorageCoordinator) {
     this.worldStateStorageCoordinator = worldStateStorageCoordinator;
+    this.proofNodeCache = Optional.empty();
+  }
+
+  /**
+   * Creates a proof provider that loads the trie nodes through a cache shared between proofs.
+   *
+   * @param worldStateStorageCoordinator The world state storage to read the trie nodes from.
+   * @param proofNodeCache The cache of the trie nodes already loaded for proofs.
+   */
+  public WorldStateProofProvider(
+      final WorldStateStorageCoordinator worldStateStorageCoordinator,
+      final ProofNodeCache proofNodeCache) {
+    this.worldStateStorageCoordinator = worldStateStorageCoordinator;
+    this.proofNodeCache = Optional.of(proofNodeCache);
   }
 
   public Optional<WorldStateProof> getAccountProof(
@@ -127,19 +143,28 @@ public class WorldStateProofProvider {
 
   private MerkleTrie<Bytes, Bytes> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorageCoordinator::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        maybeCached(worldStateStorageCoordinator::getAccountStateTrieNode),
+        rootHash,
+        b -> b,
+        b -> b);
   }
 
   private MerkleTrie<Bytes32, Bytes> newAccountStorageTrie(
       final Hash accountHash, final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        (location, hash) ->
-            worldStateStorageCoordinator.getAccountStorageTrieNode(accountHash, location, hash),
+        maybeCached(
+            (location, hash) ->
+                worldStateStorageCoordinator.getAccountStorageTrieNode(
+                    accountHash, location, hash)),
         rootHash,
         b -> b,
         b -> b);
   }
 
+  private NodeLoader maybeCached(final NodeLoader nodeLoader) {
+    return proofNodeCache.map(cache -> cache.cached(nodeLoader)).orElse(nodeLoader);
+  }
+
   /**
    * Checks if a range proof is valid for a given range of keys.
    *
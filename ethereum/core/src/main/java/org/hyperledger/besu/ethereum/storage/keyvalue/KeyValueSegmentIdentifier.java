@@ -46,7 +46,15 @@ public enum KeyValueSegmentIdentifier implements SegmentIdentifier {
   BACKWARD_SYNC_CHAIN(new byte[] {15}),
   SNAPSYNC_MISSING_ACCOUNT_RANGE(new byte[] {16}),
   SNAPSYNC_ACCOUNT_TO_FIX(new byte[] {17}),
-  CHAIN_PRUNER_STATE(new byte[] {18});
+  CHAIN_PRUNER_STATE(new byte[] {18}),
+  FLAT_DB_FILTER(new byte[] {19}, EnumSet.of(BONSAI)),
+  HISTORICAL_STATE_INDEX(new byte[] {20}, EnumSet.of(BONSAI)),
+  BLOCKCHAIN_HEADERS(new byte[] {21}, true, true),
+  BLOCKCHAIN_BODIES(new byte[] {22}, true, false),
+  BLOCKCHAIN_RECEIPTS(new byte[] {23}, true, false),
+  BLOCKCHAIN_CANONICAL_HASHES(new byte[] {24}, false, true),
+  BLOCKCHAIN_TOTAL_DIFFICULTY(new byte[] {25}),
+  BLOCKCHAIN_TRANSACTION_LOCATIONS(new byte[] {26}, false, true);
 
   private final byte[] id;
   private final EnumSet<DataStorageFormat> formats;
@@ -19,6 +19,13 @@ import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.FINALIZE
 import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.FORK_HEADS;
 import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.SAFE_BLOCK_HASH;
 import static org.hyperledger.besu.ethereum.chain.VariablesStorage.Keys.SEQ_NO_STORE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_BODIES;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_CANONICAL_HASHES;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_HEADERS;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_RECEIPTS;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_TOTAL_DIFFICULTY;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_TRANSACTION_LOCATIONS;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
@@ -32,17 +39,34 @@ import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Blockchain storage keeping headers, bodies, receipts, canonical hashes, total difficulties and
+ * transaction locations under a one byte prefix in a single key value storage. It can also keep
+ * each of them in a dedicated segment instead, where it is compacted on its own and its column
+ * family is tuned for the size of its values and the way they are read.
+ */
 public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainStorage {
   private static final Logger LOG =
       LoggerFactory.getLogger(KeyValueStoragePrefixedKeyBlockchainStorage.class);
@@ -50,27 +74,120 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Deprecated(since = "23.4.2", forRemoval = true)
   private static final Bytes VARIABLES_PREFIX = Bytes.of(1);
 
-  private static final Bytes BLOCK_HEADER_PREFIX = Bytes.of(2);
-  private static final Bytes BLOCK_BODY_PREFIX = Bytes.of(3);
-  private static final Bytes TRANSACTION_RECEIPTS_PREFIX = Bytes.of(4);
-  private static final Bytes BLOCK_HASH_PREFIX = Bytes.of(5);
-  private static final Bytes TOTAL_DIFFICULTY_PREFIX = Bytes.of(6);
-  private static final Bytes TRANSACTION_LOCATION_PREFIX = Bytes.of(7);
-  final KeyValueStorage blockchainStorage;
+  static final Bytes BLOCK_HEADER_PREFIX = Bytes.of(2);
+  static final Bytes BLOCK_BODY_PREFIX = Bytes.of(3);
+  static final Bytes TRANSACTION_RECEIPTS_PREFIX = Bytes.of(4);
+  static final Bytes BLOCK_HASH_PREFIX = Bytes.of(5);
+  static final Bytes TOTAL_DIFFICULTY_PREFIX = Bytes.of(6);
+  static final Bytes TRANSACTION_LOCATION_PREFIX = Bytes.of(7);
+
+  /** The dedicated segments of the blockchain data. */
+  public static final List<SegmentIdentifier> BLOCKCHAIN_SEGMENTS =
+      List.of(
+          BLOCKCHAIN_HEADERS,
+          BLOCKCHAIN_BODIES,
+          BLOCKCHAIN_RECEIPTS,
+          BLOCKCHAIN_CANONICAL_HASHES,
+          BLOCKCHAIN_TOTAL_DIFFICULTY,
+          BLOCKCHAIN_TRANSACTION_LOCATIONS);
+
+  private static final Map<Bytes, SegmentIdentifier> SEGMENT_BY_PREFIX =
+      Map.of(
+          BLOCK_HEADER_PREFIX,
+          BLOCKCHAIN_HEADERS,
+          BLOCK_BODY_PREFIX,
+          BLOCKCHAIN_BODIES,
+          TRANSACTION_RECEIPTS_PREFIX,
+          BLOCKCHAIN_RECEIPTS,
+          BLOCK_HASH_PREFIX,
+          BLOCKCHAIN_CANONICAL_HASHES,
+          TOTAL_DIFFICULTY_PREFIX,
+          BLOCKCHAIN_TOTAL_DIFFICULTY,
+          TRANSACTION_LOCATION_PREFIX,
+          BLOCKCHAIN_TRANSACTION_LOCATIONS);
+
+  private static final int MIGRATION_BATCH_SIZE = 10_000;
+  private static final int RECEIPTS_CONVERSION_LOG_INTERVAL = 10_000;
+  static final int RECEIPTS_CONVERSION_BATCH_SIZE = 1_000;
+  private final ReentrantLock lock = new ReentrantLock();
+  final KeyMapping blockchainStorage;
   final VariablesStorage variablesStorage;
   final BlockHeaderFunctions blockHeaderFunctions;
   final boolean receiptCompaction;
+  final boolean receiptCompactFormat;
 
   public KeyValueStoragePrefixedKeyBlockchainStorage(
       final KeyValueStorage blockchainStorage,
       final VariablesStorage variablesStorage,
       final BlockHeaderFunctions blockHeaderFunctions,
       final boolean receiptCompaction) {
+    this(blockchainStorage, variablesStorage, blockHeaderFunctions, receiptCompaction, false);
+  }
+
+  /**
+   * Creates a blockchain storage, transaction receipts in both formats can always be read.
+   *
+   * @param blockchainStorage the storage of the blockchain data
+   * @param variablesStorage the storage of the blockchain variables
+   * @param blockHeaderFunctions the block header functions
+   * @param receiptCompaction write the transaction receipts without their logs blooms
+   * @param receiptCompactFormat write the transaction receipts in the compact format
+   */
+  public KeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyValueStorage blockchainStorage,
+      final VariablesStorage variablesStorage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean receiptCompaction,
+      final boolean receiptCompactFormat) {
+    this(
+        new PrefixedKeys(blockchainStorage),
+        variablesStorage,
+        blockHeaderFunctions,
+        receiptCompaction,
+        receiptCompactFormat);
+    migrateVariables();
+  }
+
+  /**
+   * Creates a blockchain storage keeping each kind of data in its dedicated segment.
+   *
+   * @param blockchainStorage the storage holding the dedicated blockchain segments
+   * @param variablesStorage the storage of the blockchain variables
+   * @param blockHeaderFunctions the block header functions
+   * @param receiptCompaction write the transaction receipts without their logs blooms
+   * @param receiptCompactFormat write the transaction receipts in the compact format
+   */
+  public KeyValueStoragePrefixedKeyBlockchainStorage(
+      final SegmentedKeyValueStorage blockchainStorage,
+      final VariablesStorage variablesStorage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean receiptCompaction,
+      final boolean receiptCompactFormat) {
+    this(
+        new DedicatedSegments(blockchainStorage),
+        variablesStorage,
+        blockHeaderFunctions,
+        receiptCompaction,
+        receiptCompactFormat);
+  }
+
+  private KeyValueStoragePrefixedKeyBlockchainStorage(
+      final KeyMapping blockchainStorage,
+      final VariablesStorage variablesStorage,
+      final BlockHeaderFunctions blockHeaderFunctions,
+      final boolean receiptCompaction,
+      final boolean receiptCompactFormat) {
     this.blockchainStorage = blockchainStorage;
     this.variablesStorage = variablesStorage;
     this.blockHeaderFunctions = blockHeaderFunctions;
     this.receiptCompaction = receiptCompaction;
-    migrateVariables();
+    this.receiptCompactFormat = receiptCompactFormat;
+    if (!receiptCompactFormat && variablesStorage.isReceiptsCompactFormatConverted()) {
+      // receipts are written in the legacy format again and must be converted once more
+      final VariablesStorage.Updater variablesUpdater = variablesStorage.updater();
+      variablesUpdater.setReceiptsCompactFormatConverted(false);
+      variablesUpdater.commit();
+    }
   }
 
   @Override
@@ -107,7 +224,7 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
   @Override
   public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
-    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::rlpDecodeTransactionReceipts);
+    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(TransactionReceiptsStorageCodec::decode);
   }
 
   @Override
@@ -129,11 +246,128 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   @Override
   public Updater updater() {
     return new Updater(
-        blockchainStorage.startTransaction(), variablesStorage.updater(), receiptCompaction);
+        lock,
+        blockchainStorage.startTransaction(),
+        variablesStorage.updater(),
+        receiptCompaction,
+        receiptCompactFormat);
   }
 
-  private List<TransactionReceipt> rlpDecodeTransactionReceipts(final Bytes bytes) {
-    return RLP.input(bytes).readList(TransactionReceipt::readFrom);
+  /**
+   * Rewrites the transaction receipts stored in the legacy format in the compact format. The
+   * receipts are scanned in batches of {@link #RECEIPTS_CONVERSION_BATCH_SIZE} blocks, each scan
+   * starting after the last block of the previous one, so no iterator is held for the whole run.
+   * The blocks of a batch still in the legacy format are read again and rewritten in a single
+   * commit while holding the lock of the updaters, so receipts removed while the conversion runs
+   * are not written back. Once done it is recorded in the variables storage and later calls return
+   * immediately.
+   *
+   * @return the number of blocks whose transaction receipts were rewritten
+   */
+  @Override
+  public long convertTransactionReceiptsToCompactFormat() {
+    if (variablesStorage.isReceiptsCompactFormatConverted()) {
+      return 0;
+    }
+    long converted = 0;
+    Bytes startKey = Bytes.EMPTY;
+    boolean done = false;
+    while (!done) {
+      final List<Bytes> legacyBlockHashes = new ArrayList<>();
+      int scanned = 0;
+      try (final Stream<Pair<Bytes, byte[]>> entries =
+          blockchainStorage.streamTransactionReceipts(startKey)) {
+        final Iterator<Pair<Bytes, byte[]>> iterator = entries.iterator();
+        while (scanned < RECEIPTS_CONVERSION_BATCH_SIZE && iterator.hasNext()) {
+          final Pair<Bytes, byte[]> entry = iterator.next();
+          if (entry.getKey().equals(startKey)) {
+            // converted with the previous batch
+            continue;
+          }
+          scanned++;
+          startKey = entry.getKey();
+          if (!TransactionReceiptsStorageCodec.isCompactFormat(Bytes.wrap(entry.getValue()))) {
+            legacyBlockHashes.add(entry.getKey());
+          }
+        }
+        done = !iterator.hasNext();
+      }
+      final long convertedBefore = converted;
+      converted += convertToCompactFormat(legacyBlockHashes);
+      if (converted / RECEIPTS_CONVERSION_LOG_INTERVAL
+          > convertedBefore / RECEIPTS_CONVERSION_LOG_INTERVAL) {
+        LOG.debug("Converted the transaction receipts of {} blocks", converted);
+      }
+    }
+    final VariablesStorage.Updater variablesUpdater = variablesStorage.updater();
+    variablesUpdater.setReceiptsCompactFormatConverted(true);
+    variablesUpdater.commit();
+    return converted;
+  }
+
+  private int convertToCompactFormat(final List<Bytes> blockHashes) {
+    if (blockHashes.isEmpty()) {
+      return 0;
+    }
+    lock.lock();
+    try {
+      final KeyMappingTransaction transaction = blockchainStorage.startTransaction();
+      int converted = 0;
+      for (final Bytes blockHash : blockHashes) {
+        final Optional<Bytes> maybeReceipts =
+            get(TRANSACTION_RECEIPTS_PREFIX, blockHash)
+                .filter(receipts -> !TransactionReceiptsStorageCodec.isCompactFormat(receipts));
+        if (maybeReceipts.isPresent()) {
+          transaction.put(
+              TRANSACTION_RECEIPTS_PREFIX,
+              blockHash,
+              TransactionReceiptsStorageCodec.encodeCompact(
+                  TransactionReceiptsStorageCodec.decode(maybeReceipts.get())));
+          converted++;
+        }
+      }
+      transaction.commit();
+      return converted;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Copies the blockchain data written behind a prefix in the {@link
+   * KeyValueSegmentIdentifier#BLOCKCHAIN} segment to the dedicated segments. The prefixed entries
+   * are left in place, so an interrupted copy can simply be run again.
+   *
+   * @param storage the storage holding the blockchain segment and the dedicated segments
+   * @return the number of entries copied
+   */
+  public static long copyFromPrefixedKeys(final SegmentedKeyValueStorage storage) {
+    long copied = 0;
+    SegmentedKeyValueStorageTransaction transaction = storage.startTransaction();
+    try (final Stream<Pair<byte[], byte[]>> entries = storage.stream(BLOCKCHAIN)) {
+      final Iterator<Pair<byte[], byte[]>> iterator = entries.iterator();
+      while (iterator.hasNext()) {
+        final Pair<byte[], byte[]> entry = iterator.next();
+        final byte[] prefixedKey = entry.getKey();
+        if (prefixedKey.length == 0) {
+          continue;
+        }
+        final SegmentIdentifier segment = SEGMENT_BY_PREFIX.get(Bytes.of(prefixedKey[0]));
+        if (segment == null) {
+          // leftover variables, already migrated to the variables storage
+          continue;
+        }
+        transaction.put(
+            segment, Arrays.copyOfRange(prefixedKey, 1, prefixedKey.length), entry.getValue());
+        if (++copied % MIGRATION_BATCH_SIZE == 0) {
+          transaction.commit();
+          transaction = storage.startTransaction();
+          LOG.info("Copied {} blockchain entries", copied);
+        }
+      }
+    }
+    transaction.commit();
+    return copied;
   }
 
   private Hash bytesToHash(final Bytes bytes) {
@@ -141,7 +375,7 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   }
 
   Optional<Bytes> get(final Bytes prefix, final Bytes key) {
-    return blockchainStorage.get(Bytes.concatenate(prefix, key).toArrayUnsafe()).map(Bytes::wrap);
+    return blockchainStorage.get(prefix, key).map(Bytes::wrap);
   }
 
   /**
@@ -255,17 +489,23 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
   public static class Updater implements BlockchainStorage.Updater {
 
-    private final KeyValueStorageTransaction blockchainTransaction;
+    private final Lock lock;
+    private final KeyMappingTransaction blockchainTransaction;
     private final VariablesStorage.Updater variablesUpdater;
     private final boolean receiptCompaction;
+    private final boolean receiptCompactFormat;
 
     Updater(
-        final KeyValueStorageTransaction blockchainTransaction,
+        final Lock lock,
+        final KeyMappingTransaction blockchainTransaction,
         final VariablesStorage.Updater variablesUpdater,
-        final boolean receiptCompaction) {
+        final boolean receiptCompaction,
+        final boolean receiptCompactFormat) {
+      this.lock = lock;
       this.blockchainTransaction = blockchainTransaction;
       this.variablesUpdater = variablesUpdater;
       this.receiptCompaction = receiptCompaction;
+      this.receiptCompactFormat = receiptCompactFormat;
     }
 
     @Override
@@ -352,8 +592,13 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
 
     @Override
     public void commit() {
-      blockchainTransaction.commit();
-      variablesUpdater.commit();
+      lock.lock();
+      try {
+        blockchainTransaction.commit();
+        variablesUpdater.commit();
+      } finally {
+        lock.unlock();
+      }
     }
 
     @Override
@@ -363,19 +608,17 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     }
 
     void set(final Bytes prefix, final Bytes key, final Bytes value) {
-      blockchainTransaction.put(
-          Bytes.concatenate(prefix, key).toArrayUnsafe(), value.toArrayUnsafe());
+      blockchainTransaction.put(prefix, key, value);
     }
 
     private void remove(final Bytes prefix, final Bytes key) {
-      blockchainTransaction.remove(Bytes.concatenate(prefix, key).toArrayUnsafe());
+      blockchainTransaction.remove(prefix, key);
     }
 
     private Bytes rlpEncode(final List<TransactionReceipt> receipts) {
-      return RLP.encode(
-          o ->
-              o.writeList(
-                  receipts, (r, rlpOutput) -> r.writeToForStorage(rlpOutput, receiptCompaction)));
+      return receiptCompactFormat
+          ? TransactionReceiptsStorageCodec.encodeCompact(receipts)
+          : TransactionReceiptsStorageCodec.encode(receipts, receiptCompaction);
     }
 
     private void removeVariables() {
@@ -386,4 +629,120 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
       remove(Bytes.EMPTY, SEQ_NO_STORE.getBytes());
     }
   }
+
+  /** Where the blockchain entries of each kind are stored, given the prefix of their kind. */
+  interface KeyMapping {
+
+    Optional<byte[]> get(Bytes prefix, Bytes key);
+
+    KeyMappingTransaction startTransaction();
+
+    /** Streams the stored transaction receipts, keyed by block hash, from the given block hash. */
+    Stream<Pair<Bytes, byte[]>> streamTransactionReceipts(Bytes startBlockHash);
+  }
+
+  interface KeyMappingTransaction {
+
+    void put(Bytes prefix, Bytes key, Bytes value);
+
+    void remove(Bytes prefix, Bytes key);
+
+    void commit();
+
+    void rollback();
+  }
+
+  private record PrefixedKeys(KeyValueStorage storage) implements KeyMapping {
+
+    @Override
+    public Optional<byte[]> get(final Bytes prefix, final Bytes key) {
+      return storage.get(Bytes.concatenate(prefix, key).toArrayUnsafe());
+    }
+
+    @Override
+    public KeyMappingTransaction startTransaction() {
+      final KeyValueStorageTransaction transaction = storage.startTransaction();
+      return new KeyMappingTransaction() {
+        @Override
+        public void put(final Bytes prefix, final Bytes key, final Bytes value) {
+          transaction.put(Bytes.concatenate(prefix, key).toArrayUnsafe(), value.toArrayUnsafe());
+        }
+
+        @Override
+        public void remove(final Bytes prefix, final Bytes key) {
+          transaction.remove(Bytes.concatenate(prefix, key).toArrayUnsafe());
+        }
+
+        @Override
+        public void commit() {
+          transaction.commit();
+        }
+
+        @Override
+        public void rollback() {
+          transaction.rollback();
+        }
+      };
+    }
+
+    @Override
+    public Stream<Pair<Bytes, byte[]>> streamTransactionReceipts(final Bytes startBlockHash) {
+      final byte[] lastReceiptsKey =
+          Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, Bytes32.ZERO.not()).toArrayUnsafe();
+      return storage
+          .streamFromKey(
+              Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, startBlockHash).toArrayUnsafe(),
+              lastReceiptsKey)
+          .map(entry -> Pair.of(Bytes.wrap(entry.getKey()).slice(1), entry.getValue()));
+    }
+  }
+
+  private record DedicatedSegments(SegmentedKeyValueStorage storage) implements KeyMapping {
+
+    @Override
+    public Optional<byte[]> get(final Bytes prefix, final Bytes key) {
+      return storage.get(segment(prefix), key.toArrayUnsafe());
+    }
+
+    @Override
+    public KeyMappingTransaction startTransaction() {
+      final SegmentedKeyValueStorageTransaction transaction = storage.startTransaction();
+      return new KeyMappingTransaction() {
+        @Override
+        public void put(final Bytes prefix, final Bytes key, final Bytes value) {
+          transaction.put(segment(prefix), key.toArrayUnsafe(), value.toArrayUnsafe());
+        }
+
+        @Override
+        public void remove(final Bytes prefix, final Bytes key) {
+          transaction.remove(segment(prefix), key.toArrayUnsafe());
+        }
+
+        @Override
+        public void commit() {
+          transaction.commit();
+        }
+
+        @Override
+        public void rollback() {
+          transaction.rollback();
+        }
+      };
+    }
+
+    @Override
+    public Stream<Pair<Bytes, byte[]>> streamTransactionReceipts(final Bytes startBlockHash) {
+      return storage
+          .streamFromKey(BLOCKCHAIN_RECEIPTS, startBlockHash.toArrayUnsafe())
+          .map(entry -> Pair.of(Bytes.wrap(entry.getKey()), entry.getValue()));
+    }
+
+    private static SegmentIdentifier segment(final Bytes prefix) {
+      final SegmentIdentifier segment = SEGMENT_BY_PREFIX.get(prefix);
+      if (segment == null) {
+        throw new IllegalArgumentException("No dedicated segment for the prefix " + prefix);
+      }
+      return segment;
+    }
+  }
 }
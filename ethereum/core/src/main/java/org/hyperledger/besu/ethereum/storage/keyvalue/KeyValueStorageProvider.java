@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,11 +73,39 @@ public class KeyValueStorageProvider implements StorageProvider {
       final ProtocolSchedule protocolSchedule,
       final VariablesStorage variablesStorage,
       final DataStorageConfiguration dataStorageConfiguration) {
+    if (dataStorageConfiguration.getUnstable().isBlockchainSegmentsEnabled()) {
+      clearPrefixedBlockchainData();
+      return new KeyValueStoragePrefixedKeyBlockchainStorage(
+          getStorageBySegmentIdentifiers(
+              KeyValueStoragePrefixedKeyBlockchainStorage.BLOCKCHAIN_SEGMENTS),
+          variablesStorage,
+          ScheduleBasedBlockHeaderFunctions.create(protocolSchedule),
+          dataStorageConfiguration.getReceiptCompactionEnabled(),
+          dataStorageConfiguration.getUnstable().isReceiptCompactFormatEnabled());
+    }
     return new KeyValueStoragePrefixedKeyBlockchainStorage(
         getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN),
         variablesStorage,
         ScheduleBasedBlockHeaderFunctions.create(protocolSchedule),
-        dataStorageConfiguration.getReceiptCompactionEnabled());
+        dataStorageConfiguration.getReceiptCompactionEnabled(),
+        dataStorageConfiguration.getUnstable().isReceiptCompactFormatEnabled());
+  }
+
+  /**
+   * Finishes a blockchain segments migration interrupted after the database was switched to the
+   * dedicated segments, by dropping the prefixed data it had copied and not yet removed.
+   */
+  private void clearPrefixedBlockchainData() {
+    final KeyValueStorage prefixedStorage =
+        getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.BLOCKCHAIN);
+    final boolean hasPrefixedData;
+    try (final Stream<byte[]> keys = prefixedStorage.streamKeys()) {
+      hasPrefixedData = keys.findAny().isPresent();
+    }
+    if (hasPrefixedData) {
+      LOG.info("Removing the prefixed blockchain data left behind by the segments migration");
+      prefixedStorage.clear();
+    }
   }
 
   @Override
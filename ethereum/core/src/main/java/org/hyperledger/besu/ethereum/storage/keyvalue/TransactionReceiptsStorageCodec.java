@@ -0,0 +1,104 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Storage encoding of the transaction receipts of a block.
+ *
+ * <p>The legacy format is the RLP list of the receipts, with or without their logs blooms. The
+ * compact format is a version byte followed by the RLP list of the receipts without their logs
+ * blooms, each with the gas used by its transaction in place of the cumulative gas used in the
+ * block. The version byte cannot be mistaken for the list prefix of the legacy format, so both
+ * formats are always readable, and the logs blooms are only computed when they are first needed.
+ */
+public final class TransactionReceiptsStorageCodec {
+  static final byte COMPACT_FORMAT_VERSION = 1;
+
+  private TransactionReceiptsStorageCodec() {}
+
+  /**
+   * Encodes the transaction receipts of a block in the legacy format.
+   *
+   * @param receipts the transaction receipts of the block
+   * @param compacted whether to leave out the logs blooms
+   * @return the encoded receipts
+   */
+  public static Bytes encode(final List<TransactionReceipt> receipts, final boolean compacted) {
+    return RLP.encode(
+        o -> o.writeList(receipts, (r, rlpOutput) -> r.writeToForStorage(rlpOutput, compacted)));
+  }
+
+  /**
+   * Encodes the transaction receipts of a block in the compact format.
+   *
+   * @param receipts the transaction receipts of the block
+   * @return the encoded receipts
+   */
+  public static Bytes encodeCompact(final List<TransactionReceipt> receipts) {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+    long previousCumulativeGasUsed = 0;
+    for (final TransactionReceipt receipt : receipts) {
+      receipt.writeToForCompactStorage(out, previousCumulativeGasUsed);
+      previousCumulativeGasUsed = receipt.getCumulativeGasUsed();
+    }
+    out.endList();
+    return Bytes.concatenate(Bytes.of(COMPACT_FORMAT_VERSION), out.encoded());
+  }
+
+  /**
+   * Decodes the transaction receipts of a block stored in either format.
+   *
+   * @param bytes the encoded receipts
+   * @return the transaction receipts of the block
+   */
+  public static List<TransactionReceipt> decode(final Bytes bytes) {
+    if (!isCompactFormat(bytes)) {
+      return RLP.input(bytes).readList(TransactionReceipt::readFrom);
+    }
+    final RLPInput input = RLP.input(bytes.slice(1));
+    final List<TransactionReceipt> receipts = new ArrayList<>();
+    input.enterList();
+    long previousCumulativeGasUsed = 0;
+    while (!input.isEndOfCurrentList()) {
+      final TransactionReceipt receipt =
+          TransactionReceipt.readFromCompactStorage(input, previousCumulativeGasUsed);
+      receipts.add(receipt);
+      previousCumulativeGasUsed = receipt.getCumulativeGasUsed();
+    }
+    input.leaveList();
+    return receipts;
+  }
+
+  /**
+   * Whether the transaction receipts are encoded in the compact format.
+   *
+   * @param bytes the encoded receipts
+   * @return true if the receipts are in the compact format, false if in the legacy one
+   */
+  public static boolean isCompactFormat(final Bytes bytes) {
+    return !bytes.isEmpty() && bytes.get(0) == COMPACT_FORMAT_VERSION;
+  }
+}
@@ -72,6 +72,16 @@ public class VariablesKeyValueStorage implements VariablesStorage {
     return getVariable(Keys.GENESIS_STATE_HASH).map(this::bytesToHash);
   }
 
+  @Override
+  public boolean isReceiptsCompactFormatConverted() {
+    return getVariable(Keys.RECEIPTS_COMPACT_FORMAT_CONVERTED).isPresent();
+  }
+
+  @Override
+  public boolean isAncientStoreInUse() {
+    return getVariable(Keys.ANCIENT_STORE_IN_USE).isPresent();
+  }
+
   @Override
   public Updater updater() {
     return new Updater(variables.startTransaction());
@@ -125,6 +135,24 @@ public class VariablesKeyValueStorage implements VariablesStorage {
       setVariable(Keys.GENESIS_STATE_HASH, genesisStateHash);
     }
 
+    @Override
+    public void setReceiptsCompactFormatConverted(final boolean converted) {
+      if (converted) {
+        setVariable(Keys.RECEIPTS_COMPACT_FORMAT_CONVERTED, Bytes.of(1));
+      } else {
+        removeVariable(Keys.RECEIPTS_COMPACT_FORMAT_CONVERTED);
+      }
+    }
+
+    @Override
+    public void setAncientStoreInUse(final boolean inUse) {
+      if (inUse) {
+        setVariable(Keys.ANCIENT_STORE_IN_USE, Bytes.of(1));
+      } else {
+        removeVariable(Keys.ANCIENT_STORE_IN_USE);
+      }
+    }
+
     @Override
     public void removeAll() {
       removeVariable(CHAIN_HEAD_HASH);
@@ -20,6 +20,7 @@ import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache.BonsaiCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiHistoricalStateIndex;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedWorldStateProvider;
@@ -29,6 +30,7 @@ import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
 import org.hyperledger.besu.plugin.BesuContext;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 
 import java.util.HashSet;
 import java.util.Optional;
@@ -44,6 +46,7 @@ public class BonsaiWorldStateProvider extends DiffBasedWorldStateProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(BonsaiWorldStateProvider.class);
   private final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader;
+  private Optional<BonsaiHistoricalStateIndex> historicalStateIndex = Optional.empty();
 
   public BonsaiWorldStateProvider(
       final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
@@ -82,6 +85,24 @@ public class BonsaiWorldStateProvider extends DiffBasedWorldStateProvider {
     return bonsaiCachedMerkleTrieLoader;
   }
 
+  /**
+   * Enables indexing the state changed by each canonical block, to answer historical state queries
+   * without rolling the world state back.
+   *
+   * @param indexStorage the storage of the historical state index segment
+   */
+  public void enableHistoricalStateIndex(final SegmentedKeyValueStorage indexStorage) {
+    final BonsaiHistoricalStateIndex index =
+        new BonsaiHistoricalStateIndex(
+            indexStorage, getBonsaiWorldStateKeyValueStorage(), blockchain, trieLogManager);
+    blockchain.observeBlockAdded(index);
+    historicalStateIndex = Optional.of(index);
+  }
+
+  public Optional<BonsaiHistoricalStateIndex> getHistoricalStateIndex() {
+    return historicalStateIndex;
+  }
+
   private BonsaiWorldStateKeyValueStorage getBonsaiWorldStateKeyValueStorage() {
     return (BonsaiWorldStateKeyValueStorage) worldStateKeyValueStorage;
   }
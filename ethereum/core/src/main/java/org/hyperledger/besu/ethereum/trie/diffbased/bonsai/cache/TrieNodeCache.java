@@ -0,0 +1,427 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A cache of trie nodes keyed by their hash, bounded by the number of bytes it holds and kept in
+ * direct memory outside of the Java heap.
+ *
+ * <p>The memory is split in fixed size segments that nodes are appended to, organised as two
+ * logs. New nodes go to a small probation log and only those read again before their segment is
+ * recycled are promoted to the main log. When the main log needs room, its oldest segment is
+ * recycled by moving the nodes read since they were last moved and dropping the others. A one-off
+ * walk of the trie therefore only churns the probation log, and does not flush the nodes that are
+ * read over and over again.
+ *
+ * <p>Nodes are located through an open addressing table, also kept in direct memory, of 17 bytes
+ * per slot with one slot per 256 bytes of cache size. Reads are lock free: a read is only answered
+ * if the segment was not recycled while the node was copied and the stored hash matches. Writes
+ * are serialised.
+ *
+ * <p>The heap only holds the bookkeeping of the segments, a few bytes per segment. Segments are
+ * allocated on demand, and together with the index the direct memory they use is limited by {@code
+ * -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ */
+public class TrieNodeCache {
+
+  /** The smallest cache size, enough for four segments of the minimum size. */
+  public static final long MINIMUM_SIZE = 256 * 1024;
+
+  private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+  private static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final int TARGET_SEGMENT_COUNT = 64;
+  private static final int MAX_SEGMENT_COUNT = 1 << 20;
+  // a direct buffer holds less than 2 GiB, which bounds the 8 byte keys and locations
+  private static final int MAX_INDEX_CAPACITY = 1 << 27;
+  // the index is sized for nodes of about 256 bytes, and is never more than 3/4 full
+  private static final int INDEX_BYTES_PER_SLOT = 256;
+
+  private static final int HEADER_SIZE = Bytes32.SIZE + Short.BYTES;
+  private static final int MAX_NODE_SIZE = 0xFFFF;
+  private static final byte MAX_FREQUENCY = 3;
+
+  private static final int OFFSET_BITS = 24;
+  private static final int SEGMENT_BITS = 20;
+  private static final int EPOCH_MASK = (1 << 20) - 1;
+
+  private static final long EMPTY = 0;
+  private static final VarHandle SLOT =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final long maximumSize;
+  private final int segmentSize;
+  private final ByteBuffer[] segments;
+  private final int[] segmentLimits;
+  private final AtomicIntegerArray epochs;
+  private final Log probation;
+  private final Log main;
+
+  private final ByteBuffer keys;
+  private final ByteBuffer locations;
+  private final ByteBuffer frequencies;
+  private final int mask;
+  private final int maxEntries;
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicInteger entries = new AtomicInteger();
+  private final AtomicLong usedBytes = new AtomicLong();
+
+  private static final class Log {
+    private final ArrayDeque<Integer> unused = new ArrayDeque<>();
+    private final ArrayDeque<Integer> full = new ArrayDeque<>();
+    private int head = -1;
+    private int headOffset;
+    // only the main log recycles into itself, so only it needs an empty segment to move nodes to
+    private int spare = -1;
+  }
+
+  public TrieNodeCache(final long maximumSize) {
+    if (maximumSize < MINIMUM_SIZE) {
+      throw new IllegalArgumentException(
+          "Trie node cache size must be at least " + MINIMUM_SIZE + " bytes");
+    }
+    this.maximumSize = maximumSize;
+    final long targetSegmentSize = Long.highestOneBit(maximumSize / TARGET_SEGMENT_COUNT);
+    this.segmentSize =
+        (int) Math.max(MIN_SEGMENT_SIZE, Math.min(MAX_SEGMENT_SIZE, targetSegmentSize));
+    final int segmentCount = (int) Math.min(MAX_SEGMENT_COUNT, maximumSize / segmentSize);
+    this.segments = new ByteBuffer[segmentCount];
+    this.segmentLimits = new int[segmentCount];
+    this.epochs = new AtomicIntegerArray(segmentCount);
+
+    final int probationCount = Math.max(1, segmentCount / 10);
+    this.probation = new Log();
+    for (int segment = 0; segment < probationCount; segment++) {
+      probation.unused.add(segment);
+    }
+    this.main = new Log();
+    for (int segment = probationCount; segment < segmentCount - 1; segment++) {
+      main.unused.add(segment);
+    }
+    main.spare = segmentCount - 1;
+
+    final long slots = Math.max(1024, maximumSize / INDEX_BYTES_PER_SLOT);
+    final int capacity = (int) Math.min(MAX_INDEX_CAPACITY, Long.highestOneBit(slots - 1) << 1);
+    this.keys = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+    this.locations = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+    this.frequencies = ByteBuffer.allocateDirect(capacity);
+    this.mask = capacity - 1;
+    this.maxEntries = capacity - capacity / 4;
+  }
+
+  public Optional<Bytes> get(final Bytes32 hash) {
+    final long key = key(hash);
+    int slot = home(key);
+    for (int probe = 0; probe <= mask; probe++) {
+      final long candidate = (long) SLOT.getAcquire(keys, slot * Long.BYTES);
+      if (candidate == EMPTY) {
+        break;
+      }
+      if (candidate == key) {
+        final Bytes node = read((long) SLOT.getAcquire(locations, slot * Long.BYTES), hash);
+        if (node != null) {
+          // racy on purpose, the frequency only has to be approximate
+          final byte frequency = frequencies.get(slot);
+          if (frequency < MAX_FREQUENCY) {
+            frequencies.put(slot, (byte) (frequency + 1));
+          }
+          hits.increment();
+          return Optional.of(node);
+        }
+      }
+      slot = (slot + 1) & mask;
+    }
+    misses.increment();
+    return Optional.empty();
+  }
+
+  public void put(final Bytes32 hash, final Bytes node) {
+    final int entrySize = HEADER_SIZE + node.size();
+    if (node.size() > MAX_NODE_SIZE || entrySize > segmentSize) {
+      return;
+    }
+    writeLock.lock();
+    try {
+      final long key = key(hash);
+      if (findSlot(key, hash) >= 0) {
+        return;
+      }
+      while (entries.get() >= maxEntries) {
+        if (!evictOldestSegment()) {
+          return;
+        }
+      }
+      final long location = reserve(probation, entrySize);
+      final ByteBuffer buffer = segments[segmentOf(location)];
+      final int offset = offsetOf(location);
+      buffer.put(offset, hash.toArrayUnsafe());
+      buffer.putShort(offset + Bytes32.SIZE, (short) node.size());
+      buffer.put(offset + HEADER_SIZE, node.toArrayUnsafe());
+      insertSlot(key, location);
+      usedBytes.addAndGet(entrySize);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public double getHitRate() {
+    final long hitCount = hits.sum();
+    final long requestCount = hitCount + misses.sum();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public long getEntryCount() {
+    return entries.get();
+  }
+
+  public long getUsedBytes() {
+    return usedBytes.get();
+  }
+
+  private Bytes read(final long location, final Bytes32 hash) {
+    final int segment = segmentOf(location);
+    final int epoch = epochOf(location);
+    if ((epochs.get(segment) & EPOCH_MASK) != epoch) {
+      return null;
+    }
+    final ByteBuffer buffer = segments[segment];
+    final int offset = offsetOf(location);
+    final byte[] storedHash = new byte[Bytes32.SIZE];
+    buffer.get(offset, storedHash);
+    final int length = Short.toUnsignedInt(buffer.getShort(offset + Bytes32.SIZE));
+    if (offset + HEADER_SIZE + length > segmentSize) {
+      return null;
+    }
+    final byte[] node = new byte[length];
+    buffer.get(offset + HEADER_SIZE, node);
+    // the segment may have been recycled while it was read
+    VarHandle.loadLoadFence();
+    if ((epochs.get(segment) & EPOCH_MASK) != epoch || !hash.equals(Bytes32.wrap(storedHash))) {
+      return null;
+    }
+    return Bytes.wrap(node);
+  }
+
+  private long reserve(final Log log, final int entrySize) {
+    while (log.head < 0 || log.headOffset + entrySize > segmentSize) {
+      nextHead(log);
+    }
+    final long location = location(log.head, log.headOffset, epochs.get(log.head));
+    log.headOffset += entrySize;
+    return location;
+  }
+
+  private void nextHead(final Log log) {
+    if (log.head >= 0) {
+      segmentLimits[log.head] = log.headOffset;
+      log.full.addLast(log.head);
+    }
+    final Integer unused = log.unused.pollFirst();
+    if (unused != null) {
+      startSegment(log, unused);
+      return;
+    }
+    final int oldest = log.full.removeFirst();
+    if (log == main) {
+      startSegment(log, log.spare);
+      recycle(log, oldest);
+      log.spare = oldest;
+    } else {
+      recycle(log, oldest);
+      startSegment(log, oldest);
+    }
+  }
+
+  private void startSegment(final Log log, final int segment) {
+    if (segments[segment] == null) {
+      segments[segment] = ByteBuffer.allocateDirect(segmentSize);
+    }
+    log.head = segment;
+    log.headOffset = 0;
+  }
+
+  private boolean evictOldestSegment() {
+    final Log log = probation.full.isEmpty() ? main : probation;
+    final Integer oldest = log.full.pollFirst();
+    if (oldest == null) {
+      return false;
+    }
+    recycle(log, oldest);
+    log.unused.addLast(oldest);
+    return true;
+  }
+
+  private void recycle(final Log log, final int segment) {
+    final ByteBuffer buffer = segments[segment];
+    final int epoch = epochs.get(segment);
+    int offset = 0;
+    while (offset < segmentLimits[segment]) {
+      final byte[] hash = new byte[Bytes32.SIZE];
+      buffer.get(offset, hash);
+      final int entrySize =
+          HEADER_SIZE + Short.toUnsignedInt(buffer.getShort(offset + Bytes32.SIZE));
+      final long key = key(Bytes32.wrap(hash));
+      final long location = location(segment, offset, epoch);
+      final int slot = findSlot(key, location);
+      // nodes no longer in the index were already evicted
+      if (slot >= 0) {
+        final byte frequency = frequencies.get(slot);
+        if (frequency > 0) {
+          final byte[] entry = new byte[entrySize];
+          buffer.get(offset, entry);
+          final long target = reserve(main, entrySize);
+          segments[segmentOf(target)].put(offsetOf(target), entry);
+          // reserving may have recycled other segments and moved the slot
+          final int movedSlot = findSlot(key, location);
+          frequencies.put(movedSlot, log == probation ? 0 : (byte) (frequency - 1));
+          SLOT.setRelease(locations, movedSlot * Long.BYTES, target);
+        } else {
+          removeSlot(slot);
+          usedBytes.addAndGet(-entrySize);
+          evictions.increment();
+        }
+      }
+      offset += entrySize;
+    }
+    segmentLimits[segment] = 0;
+    // readers that copied from this segment must see the new epoch before it is overwritten
+    epochs.incrementAndGet(segment);
+    VarHandle.storeStoreFence();
+  }
+
+  private int findSlot(final long key, final Bytes32 hash) {
+    for (int slot = home(key); keyAt(slot) != EMPTY; slot = (slot + 1) & mask) {
+      if (keyAt(slot) == key && hash.equals(hashAt(locationAt(slot)))) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private int findSlot(final long key, final long location) {
+    for (int slot = home(key); keyAt(slot) != EMPTY; slot = (slot + 1) & mask) {
+      if (keyAt(slot) == key && locationAt(slot) == location) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private Bytes32 hashAt(final long location) {
+    final byte[] hash = new byte[Bytes32.SIZE];
+    segments[segmentOf(location)].get(offsetOf(location), hash);
+    return Bytes32.wrap(hash);
+  }
+
+  private void insertSlot(final long key, final long location) {
+    int slot = home(key);
+    while (keyAt(slot) != EMPTY) {
+      slot = (slot + 1) & mask;
+    }
+    frequencies.put(slot, (byte) 0);
+    // readers that see the key must see its location
+    SLOT.setRelease(locations, slot * Long.BYTES, location);
+    SLOT.setRelease(keys, slot * Long.BYTES, key);
+    entries.incrementAndGet();
+  }
+
+  private void removeSlot(final int slot) {
+    // backward shift deletion, so lookups never need tombstones
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    long key;
+    while ((key = keyAt(next)) != EMPTY) {
+      if (((next - home(key)) & mask) >= ((next - hole) & mask)) {
+        frequencies.put(hole, frequencies.get(next));
+        SLOT.setRelease(locations, hole * Long.BYTES, locationAt(next));
+        SLOT.setRelease(keys, hole * Long.BYTES, key);
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    SLOT.setRelease(keys, hole * Long.BYTES, EMPTY);
+    entries.decrementAndGet();
+  }
+
+  // plain reads, for the writer that holds the write lock
+  private long keyAt(final int slot) {
+    return (long) SLOT.get(keys, slot * Long.BYTES);
+  }
+
+  private long locationAt(final int slot) {
+    return (long) SLOT.get(locations, slot * Long.BYTES);
+  }
+
+  private int home(final long key) {
+    return (int) (key ^ (key >>> 32)) & mask;
+  }
+
+  private static long key(final Bytes32 hash) {
+    final long key = hash.getLong(0);
+    return key == EMPTY ? 1 : key;
+  }
+
+  private static long location(final int segment, final int offset, final int epoch) {
+    return ((long) (epoch & EPOCH_MASK) << (SEGMENT_BITS + OFFSET_BITS))
+        | ((long) segment << OFFSET_BITS)
+        | offset;
+  }
+
+  private static int segmentOf(final long location) {
+    return (int) (location >>> OFFSET_BITS) & ((1 << SEGMENT_BITS) - 1);
+  }
+
+  private static int offsetOf(final long location) {
+    return (int) location & ((1 << OFFSET_BITS) - 1);
+  }
+
+  private static int epochOf(final long location) {
+    return (int) (location >>> (SEGMENT_BITS + OFFSET_BITS)) & EPOCH_MASK;
+  }
+}
@@ -0,0 +1,454 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.HISTORICAL_STATE_INDEX;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the accounts, storage slots and code changed by each canonical block, written from
+ * the trie logs as blocks are added to the chain, that answers state queries at historical blocks
+ * with a seek instead of rolling the world state back.
+ *
+ * <p>Each change is keyed by the account or slot followed by the complemented block number, and
+ * holds the value from before that block. The value at a block is then the prior value of the first
+ * change after it, which is the key nearest before the one of the following block, or the value in
+ * the flat database when the key has not changed since. The index is unwound when a reorg removes
+ * blocks.
+ *
+ * <p>When the index cannot follow the chain, for example when a block was imported without a trie
+ * log, it stops at the last indexed block and records the highest block it may hold changes for.
+ * Nothing is removed on the import path. The changes it already holds are left in place and the
+ * index starts again from a later chain head above that block, where the changes left behind are
+ * never the first change after a block it answers for.
+ */
+public class BonsaiHistoricalStateIndex implements BlockAddedObserver {
+  private static final Logger LOG = LoggerFactory.getLogger(BonsaiHistoricalStateIndex.class);
+
+  private static final Bytes HEAD_KEY = Bytes.of(0);
+  private static final Bytes ACCOUNT_PREFIX = Bytes.of(1);
+  private static final Bytes STORAGE_PREFIX = Bytes.of(2);
+  private static final Bytes CODE_PREFIX = Bytes.of(3);
+
+  /**
+   * The blocks the index can answer for, from the first one to the last indexed block, and the
+   * highest block the index may hold changes for, which it has to start again above after a gap.
+   */
+  record Head(long firstBlockNumber, long blockNumber, Hash blockHash, long highestBlockNumber) {
+
+    Head withGapUpTo(final long gapBlockNumber) {
+      return new Head(
+          firstBlockNumber, blockNumber, blockHash, Math.max(highestBlockNumber, gapBlockNumber));
+    }
+
+    Bytes encode() {
+      return Bytes.concatenate(
+          Bytes.ofUnsignedLong(firstBlockNumber),
+          Bytes.ofUnsignedLong(blockNumber),
+          blockHash,
+          Bytes.ofUnsignedLong(highestBlockNumber));
+    }
+
+    static Head decode(final Bytes bytes) {
+      return new Head(
+          bytes.getLong(0),
+          bytes.getLong(8),
+          Hash.wrap(Bytes32.wrap(bytes.slice(16, 32))),
+          bytes.getLong(48));
+    }
+  }
+
+  private final SegmentedKeyValueStorage indexStorage;
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage;
+  private final Blockchain blockchain;
+  private final TrieLogManager trieLogManager;
+
+  public BonsaiHistoricalStateIndex(
+      final SegmentedKeyValueStorage indexStorage,
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final Blockchain blockchain,
+      final TrieLogManager trieLogManager) {
+    this.indexStorage = indexStorage;
+    this.worldStateStorage = worldStateStorage;
+    this.blockchain = blockchain;
+    this.trieLogManager = trieLogManager;
+  }
+
+  @Override
+  public synchronized void onBlockAdded(final BlockAddedEvent event) {
+    if (!event.isNewCanonicalHead()) {
+      return;
+    }
+    final BlockHeader chainHead = event.getBlock().getHeader();
+    try {
+      moveHead(chainHead, event.getCommonAncestorHash());
+    } catch (final RuntimeException e) {
+      LOG.warn(
+          "Failed to index the state of block {}, stopping the historical state index",
+          chainHead.toLogString(),
+          e);
+      try {
+        stop(chainHead);
+      } catch (final RuntimeException stopException) {
+        LOG.warn("Failed to record where the historical state index stopped", stopException);
+      }
+    }
+  }
+
+  /**
+   * Gets the balance of an account at a historical block.
+   *
+   * @param address the account address
+   * @param blockHeader the header of a canonical block
+   * @return the balance, or empty if the index does not cover the block
+   */
+  public Optional<Wei> getBalance(final Address address, final BlockHeader blockHeader) {
+    return read(blockHeader, () -> getAccount(address.addressHash(), blockHeader.getNumber()))
+        .map(account -> account.isEmpty() ? Wei.ZERO : readAccount(account).getBalance());
+  }
+
+  /**
+   * Gets the value of a storage slot at a historical block.
+   *
+   * @param address the account address
+   * @param slot the storage slot
+   * @param blockHeader the header of a canonical block
+   * @return the slot value, or empty if the index does not cover the block
+   */
+  public Optional<UInt256> getStorageValue(
+      final Address address, final UInt256 slot, final BlockHeader blockHeader) {
+    final Hash accountHash = address.addressHash();
+    final StorageSlotKey slotKey = new StorageSlotKey(slot);
+    return read(
+            blockHeader,
+            () ->
+                valueAt(
+                    Bytes.concatenate(STORAGE_PREFIX, accountHash, slotKey.getSlotHash()),
+                    blockHeader.getNumber(),
+                    () -> worldStateStorage.getStorageValueByStorageSlotKey(accountHash, slotKey)))
+        .map(UInt256::fromBytes);
+  }
+
+  /**
+   * Gets the code of an account at a historical block.
+   *
+   * @param address the account address
+   * @param blockHeader the header of a canonical block
+   * @return the code, or empty if the index does not cover the block
+   */
+  public Optional<Bytes> getCode(final Address address, final BlockHeader blockHeader) {
+    final Hash accountHash = address.addressHash();
+    return read(
+        blockHeader,
+        () -> {
+          if (getAccount(accountHash, blockHeader.getNumber()).isEmpty()) {
+            return Bytes.EMPTY;
+          }
+          return valueAt(
+              Bytes.concatenate(CODE_PREFIX, accountHash),
+              blockHeader.getNumber(),
+              () ->
+                  worldStateStorage
+                      .getAccount(accountHash)
+                      .map(account -> readAccount(account).getCodeHash())
+                      .flatMap(codeHash -> worldStateStorage.getCode(codeHash, accountHash)));
+        });
+  }
+
+  Optional<Head> getHead() {
+    return indexStorage
+        .get(HISTORICAL_STATE_INDEX, HEAD_KEY.toArrayUnsafe())
+        .map(Bytes::wrap)
+        .map(Head::decode);
+  }
+
+  private void moveHead(final BlockHeader chainHead, final Hash commonAncestorHash) {
+    final Optional<BlockHeader> commonAncestor = blockchain.getBlockHeader(commonAncestorHash);
+    Optional<Head> head = getHead();
+    // unwind the blocks that are no longer canonical
+    while (head.isPresent()
+        && commonAncestor.isPresent()
+        && head.get().blockNumber() > commonAncestor.get().getNumber()
+        && head.get().blockNumber() > head.get().firstBlockNumber()) {
+      final Optional<Head> parent = unindexBlock(head.get());
+      if (parent.isEmpty()) {
+        stop(chainHead);
+        return;
+      }
+      head = parent;
+    }
+    if (head.isEmpty() || !head.get().blockHash().equals(commonAncestorHash)) {
+      restart(head, chainHead);
+      return;
+    }
+
+    final Deque<BlockHeader> addedBlocks = new ArrayDeque<>();
+    BlockHeader header = chainHead;
+    while (!header.getHash().equals(commonAncestorHash)) {
+      addedBlocks.push(header);
+      header = blockchain.getBlockHeader(header.getParentHash()).orElseThrow();
+    }
+    for (final BlockHeader addedBlock : addedBlocks) {
+      final Optional<TrieLog> trieLog = trieLogManager.getTrieLogLayer(addedBlock.getHash());
+      if (trieLog.isEmpty()) {
+        LOG.info(
+            "No trie log for block {}, stopping the historical state index at block {}",
+            addedBlock.toLogString(),
+            head.get().blockNumber());
+        stop(chainHead);
+        return;
+      }
+      head =
+          Optional.of(
+              indexBlock(
+                  head.get().firstBlockNumber(),
+                  head.get().highestBlockNumber(),
+                  addedBlock,
+                  trieLog.get()));
+    }
+  }
+
+  private void restart(final Optional<Head> head, final BlockHeader chainHead) {
+    // changes left behind by blocks at or below the highest one are never the first change after a
+    // block above it
+    if (head.isPresent() && chainHead.getNumber() <= head.get().highestBlockNumber()) {
+      return;
+    }
+    // the flat database holds the state of the chain head, so the index can answer for its parent
+    final Optional<TrieLog> trieLog = trieLogManager.getTrieLogLayer(chainHead.getHash());
+    if (trieLog.isEmpty()) {
+      stop(chainHead);
+      return;
+    }
+    head.ifPresent(
+        stopped ->
+            LOG.info(
+                "Restarting the historical state index from block {}, after a gap from block {}",
+                chainHead.toLogString(),
+                stopped.blockNumber() + 1));
+    indexBlock(chainHead.getNumber() - 1, chainHead.getNumber(), chainHead, trieLog.get());
+  }
+
+  private void stop(final BlockHeader chainHead) {
+    // the gap runs from the block after the index head to the chain head, the index only starts
+    // again above it
+    getHead()
+        .map(head -> head.withGapUpTo(chainHead.getNumber()))
+        .ifPresent(
+            head -> {
+              final SegmentedKeyValueStorageTransaction tx = indexStorage.startTransaction();
+              tx.put(
+                  HISTORICAL_STATE_INDEX, HEAD_KEY.toArrayUnsafe(), head.encode().toArrayUnsafe());
+              tx.commit();
+            });
+  }
+
+  private Head indexBlock(
+      final long firstBlockNumber,
+      final long highestBlockNumber,
+      final BlockHeader blockHeader,
+      final TrieLog trieLog) {
+    final Bytes suffix = blockSuffix(blockHeader.getNumber());
+    final SegmentedKeyValueStorageTransaction tx = indexStorage.startTransaction();
+    trieLog
+        .getAccountChanges()
+        .forEach(
+            (address, change) -> {
+              if (!Objects.equals(change.getPrior(), change.getUpdated())) {
+                tx.put(
+                    HISTORICAL_STATE_INDEX,
+                    Bytes.concatenate(ACCOUNT_PREFIX, address.addressHash(), suffix)
+                        .toArrayUnsafe(),
+                    encodeAccount(change.getPrior()));
+              }
+            });
+    trieLog
+        .getCodeChanges()
+        .forEach(
+            (address, change) -> {
+              if (!Objects.equals(change.getPrior(), change.getUpdated())) {
+                tx.put(
+                    HISTORICAL_STATE_INDEX,
+                    Bytes.concatenate(CODE_PREFIX, address.addressHash(), suffix).toArrayUnsafe(),
+                    change.getPrior() == null ? new byte[0] : change.getPrior().toArrayUnsafe());
+              }
+            });
+    trieLog
+        .getStorageChanges()
+        .forEach(
+            (address, slots) ->
+                slots.forEach(
+                    (slotKey, change) -> {
+                      if (!Objects.equals(change.getPrior(), change.getUpdated())) {
+                        tx.put(
+                            HISTORICAL_STATE_INDEX,
+                            Bytes.concatenate(
+                                    STORAGE_PREFIX,
+                                    address.addressHash(),
+                                    slotKey.getSlotHash(),
+                                    suffix)
+                                .toArrayUnsafe(),
+                            change.getPrior() == null
+                                ? new byte[0]
+                                : change.getPrior().toMinimalBytes().toArrayUnsafe());
+                      }
+                    }));
+    final Head head =
+        new Head(
+            firstBlockNumber,
+            blockHeader.getNumber(),
+            blockHeader.getBlockHash(),
+            Math.max(highestBlockNumber, blockHeader.getNumber()));
+    tx.put(HISTORICAL_STATE_INDEX, HEAD_KEY.toArrayUnsafe(), head.encode().toArrayUnsafe());
+    tx.commit();
+    return head;
+  }
+
+  private Optional<Head> unindexBlock(final Head head) {
+    final Optional<TrieLog> maybeTrieLog = trieLogManager.getTrieLogLayer(head.blockHash());
+    final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(head.blockHash());
+    if (maybeTrieLog.isEmpty() || maybeHeader.isEmpty()) {
+      return Optional.empty();
+    }
+    final TrieLog trieLog = maybeTrieLog.get();
+    final Bytes suffix = blockSuffix(head.blockNumber());
+    final SegmentedKeyValueStorageTransaction tx = indexStorage.startTransaction();
+    trieLog
+        .getAccountChanges()
+        .keySet()
+        .forEach(
+            address ->
+                tx.remove(
+                    HISTORICAL_STATE_INDEX,
+                    Bytes.concatenate(ACCOUNT_PREFIX, address.addressHash(), suffix)
+                        .toArrayUnsafe()));
+    trieLog
+        .getCodeChanges()
+        .keySet()
+        .forEach(
+            address ->
+                tx.remove(
+                    HISTORICAL_STATE_INDEX,
+                    Bytes.concatenate(CODE_PREFIX, address.addressHash(), suffix).toArrayUnsafe()));
+    trieLog
+        .getStorageChanges()
+        .forEach(
+            (address, slots) ->
+                slots
+                    .keySet()
+                    .forEach(
+                        slotKey ->
+                            tx.remove(
+                                HISTORICAL_STATE_INDEX,
+                                Bytes.concatenate(
+                                        STORAGE_PREFIX,
+                                        address.addressHash(),
+                                        slotKey.getSlotHash(),
+                                        suffix)
+                                    .toArrayUnsafe())));
+    final Head parent =
+        new Head(
+            head.firstBlockNumber(),
+            head.blockNumber() - 1,
+            maybeHeader.get().getParentHash(),
+            head.highestBlockNumber());
+    tx.put(HISTORICAL_STATE_INDEX, HEAD_KEY.toArrayUnsafe(), parent.encode().toArrayUnsafe());
+    tx.commit();
+    return Optional.of(parent);
+  }
+
+  private <T> Optional<T> read(final BlockHeader blockHeader, final Supplier<T> reader) {
+    final Optional<Head> head = getHead();
+    if (head.isEmpty()
+        || blockHeader.getNumber() < head.get().firstBlockNumber()
+        || blockHeader.getNumber() > head.get().blockNumber()
+        || !isCanonical(blockHeader.getNumber(), blockHeader.getHash())
+        || !isAtHead(head.get())) {
+      return Optional.empty();
+    }
+    final T value = reader.get();
+    // a block imported while reading can move the flat database away from the index
+    return getHead().equals(head) && isAtHead(head.get()) ? Optional.of(value) : Optional.empty();
+  }
+
+  private boolean isAtHead(final Head head) {
+    return isCanonical(head.blockNumber(), head.blockHash())
+        && worldStateStorage.getWorldStateBlockHash().filter(head.blockHash()::equals).isPresent();
+  }
+
+  private boolean isCanonical(final long blockNumber, final Hash blockHash) {
+    return blockchain.getBlockHashByNumber(blockNumber).filter(blockHash::equals).isPresent();
+  }
+
+  private Bytes getAccount(final Hash accountHash, final long blockNumber) {
+    return valueAt(
+        Bytes.concatenate(ACCOUNT_PREFIX, accountHash),
+        blockNumber,
+        () -> worldStateStorage.getAccount(accountHash));
+  }
+
+  private Bytes valueAt(
+      final Bytes key, final long blockNumber, final Supplier<Optional<Bytes>> currentValue) {
+    final Bytes seekKey = Bytes.concatenate(key, blockSuffix(blockNumber + 1));
+    return indexStorage
+        .getNearestTo(HISTORICAL_STATE_INDEX, seekKey)
+        .filter(
+            nearest ->
+                nearest.key().size() == seekKey.size()
+                    && nearest.key().slice(0, key.size()).equals(key))
+        .map(nearest -> nearest.value().map(Bytes::wrap).orElse(Bytes.EMPTY))
+        .orElseGet(() -> currentValue.get().orElse(Bytes.EMPTY));
+  }
+
+  private static Bytes blockSuffix(final long blockNumber) {
+    // complemented so that the first change after a block sorts right before it
+    return Bytes.ofUnsignedLong(~blockNumber);
+  }
+
+  private static byte[] encodeAccount(final AccountValue account) {
+    return account == null ? new byte[0] : RLP.encode(account::writeTo).toArrayUnsafe();
+  }
+
+  private static StateTrieAccountValue readAccount(final Bytes account) {
+    return StateTrieAccountValue.readFrom(RLP.input(account));
+  }
+}
@@ -25,6 +25,8 @@ import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbFilter;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbReadCache;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbStrategy;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbStrategyProvider;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -39,7 +41,9 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -50,6 +54,7 @@ import org.apache.tuweni.bytes.Bytes32;
 public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValueStorage
     implements WorldStateKeyValueStorage {
   protected final FlatDbStrategyProvider flatDbStrategyProvider;
+  private final Optional<FlatDbReadCache> flatDbReadCache;
 
   public BonsaiWorldStateKeyValueStorage(
       final StorageProvider provider,
@@ -62,6 +67,23 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
         provider.getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.TRIE_LOG_STORAGE));
     this.flatDbStrategyProvider =
         new FlatDbStrategyProvider(metricsSystem, dataStorageConfiguration);
+    final long flatDbFilterSize =
+        dataStorageConfiguration.getUnstable().getBonsaiFlatDbFilterSize();
+    if (flatDbFilterSize > 0) {
+      final FlatDbFilter flatDbFilter =
+          new FlatDbFilter(
+              flatDbFilterSize,
+              composedWorldStateStorage,
+              provider.getStorageBySegmentIdentifier(KeyValueSegmentIdentifier.FLAT_DB_FILTER));
+      flatDbStrategyProvider.setFlatDbFilter(flatDbFilter);
+      flatDbFilter.start();
+    }
+    final long flatDbReadCacheSize =
+        dataStorageConfiguration.getUnstable().getBonsaiFlatDbReadCacheSize();
+    this.flatDbReadCache =
+        flatDbReadCacheSize > 0
+            ? Optional.of(new FlatDbReadCache(flatDbReadCacheSize, metricsSystem))
+            : Optional.empty();
     flatDbStrategyProvider.loadFlatDbStrategy(composedWorldStateStorage);
   }
 
@@ -71,6 +93,7 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
       final KeyValueStorage trieLogStorage) {
     super(composedWorldStateStorage, trieLogStorage);
     this.flatDbStrategyProvider = flatDbStrategyProvider;
+    this.flatDbReadCache = Optional.empty();
   }
 
   @Override
@@ -94,6 +117,13 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
   }
 
   public Optional<Bytes> getAccount(final Hash accountHash) {
+    if (flatDbReadCache.isPresent()) {
+      return flatDbReadCache.get().getAccount(accountHash, () -> getFlatAccount(accountHash));
+    }
+    return getFlatAccount(accountHash);
+  }
+
+  private Optional<Bytes> getFlatAccount(final Hash accountHash) {
     return flatDbStrategyProvider
         .getFlatDbStrategy(composedWorldStateStorage)
         .getFlatAccount(
@@ -130,6 +160,55 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
     return composedWorldStateStorage.get(TRIE_BRANCH_STORAGE, key.toArrayUnsafe()).map(Bytes::wrap);
   }
 
+  public List<Optional<Bytes>> getTrieNodesUnsafe(final List<Bytes> keys) {
+    return composedWorldStateStorage
+        .multiGet(TRIE_BRANCH_STORAGE, keys.stream().map(Bytes::toArrayUnsafe).toList())
+        .stream()
+        .map(value -> value.map(Bytes::wrap))
+        .toList();
+  }
+
+  /**
+   * Reads the flat database entries of these accounts in one batch through the flat database
+   * strategy, and adds the values it knows to the read cache.
+   *
+   * @param accountHashes the hashes of the accounts to read
+   */
+  public void prefetchFlatAccounts(final List<Hash> accountHashes) {
+    final long readGeneration = flatDbReadCache.map(FlatDbReadCache::getGeneration).orElse(0L);
+    final Map<Hash, Optional<Bytes>> accounts =
+        getFlatDbStrategy().getFlatAccounts(accountHashes, composedWorldStateStorage);
+    flatDbReadCache.ifPresent(
+        cache ->
+            accounts.forEach(
+                (accountHash, accountValue) ->
+                    cache.putAccountIfUnchanged(readGeneration, accountHash, accountValue)));
+  }
+
+  /**
+   * Reads the flat database entries of these storage slots of an account in one batch through the
+   * flat database strategy, and adds the values it knows to the read cache.
+   *
+   * @param accountHash the hash of the account
+   * @param storageSlots the storage slots to read
+   */
+  public void prefetchFlatStorage(
+      final Hash accountHash, final Collection<StorageSlotKey> storageSlots) {
+    final long readGeneration = flatDbReadCache.map(FlatDbReadCache::getGeneration).orElse(0L);
+    final Map<Hash, Optional<Bytes>> storageValues =
+        getFlatDbStrategy()
+            .getFlatStorageValues(
+                accountHash,
+                storageSlots.stream().map(StorageSlotKey::getSlotHash).toList(),
+                composedWorldStateStorage);
+    flatDbReadCache.ifPresent(
+        cache ->
+            storageValues.forEach(
+                (slotHash, value) ->
+                    cache.putStorageValueIfUnchanged(
+                        readGeneration, accountHash, slotHash, value)));
+  }
+
   public Optional<Bytes> getStorageValueByStorageSlotKey(
       final Hash accountHash, final StorageSlotKey storageSlotKey) {
     return getStorageValueByStorageSlotKey(
@@ -148,6 +227,21 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
       final Supplier<Optional<Hash>> storageRootSupplier,
       final Hash accountHash,
       final StorageSlotKey storageSlotKey) {
+    if (flatDbReadCache.isPresent()) {
+      return flatDbReadCache
+          .get()
+          .getStorageValue(
+              accountHash,
+              storageSlotKey.getSlotHash(),
+              () -> getFlatStorageValue(storageRootSupplier, accountHash, storageSlotKey));
+    }
+    return getFlatStorageValue(storageRootSupplier, accountHash, storageSlotKey);
+  }
+
+  private Optional<Bytes> getFlatStorageValue(
+      final Supplier<Optional<Hash>> storageRootSupplier,
+      final Hash accountHash,
+      final StorageSlotKey storageSlotKey) {
     return flatDbStrategyProvider
         .getFlatDbStrategy(composedWorldStateStorage)
         .getFlatStorageValueByStorageSlotKey(
@@ -175,10 +269,26 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
   @Override
   public void clear() {
     super.clear();
+    flatDbReadCache.ifPresent(FlatDbReadCache::invalidateAll);
     flatDbStrategyProvider.loadFlatDbStrategy(
         composedWorldStateStorage); // force reload of flat db reader strategy
   }
 
+  @Override
+  public void clearFlatDatabase() {
+    super.clearFlatDatabase();
+    flatDbReadCache.ifPresent(FlatDbReadCache::invalidateAll);
+  }
+
+  @Override
+  protected synchronized void doClose() throws Exception {
+    if (!isClosed.get()) {
+      // save the filter while the world state it describes is still open
+      flatDbStrategyProvider.getFlatDbFilter().ifPresent(FlatDbFilter::close);
+    }
+    super.doClose();
+  }
+
   @Override
   public FlatDbStrategy getFlatDbStrategy() {
     return flatDbStrategyProvider.getFlatDbStrategy(composedWorldStateStorage);
@@ -189,7 +299,8 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
     return new Updater(
         composedWorldStateStorage.startTransaction(),
         trieLogStorage.startTransaction(),
-        flatDbStrategyProvider.getFlatDbStrategy(composedWorldStateStorage));
+        flatDbStrategyProvider.getFlatDbStrategy(composedWorldStateStorage),
+        flatDbReadCache.map(FlatDbReadCache::newChanges));
   }
 
   public static class Updater implements DiffBasedWorldStateKeyValueStorage.Updater {
@@ -197,15 +308,29 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
     private final SegmentedKeyValueStorageTransaction composedWorldStateTransaction;
     private final KeyValueStorageTransaction trieLogStorageTransaction;
     private final FlatDbStrategy flatDbStrategy;
+    private final Optional<FlatDbReadCache.Changes> flatDbReadCacheChanges;
 
     public Updater(
         final SegmentedKeyValueStorageTransaction composedWorldStateTransaction,
         final KeyValueStorageTransaction trieLogStorageTransaction,
         final FlatDbStrategy flatDbStrategy) {
+      this(
+          composedWorldStateTransaction,
+          trieLogStorageTransaction,
+          flatDbStrategy,
+          Optional.empty());
+    }
+
+    Updater(
+        final SegmentedKeyValueStorageTransaction composedWorldStateTransaction,
+        final KeyValueStorageTransaction trieLogStorageTransaction,
+        final FlatDbStrategy flatDbStrategy,
+        final Optional<FlatDbReadCache.Changes> flatDbReadCacheChanges) {
 
       this.composedWorldStateTransaction = composedWorldStateTransaction;
       this.trieLogStorageTransaction = trieLogStorageTransaction;
       this.flatDbStrategy = flatDbStrategy;
+      this.flatDbReadCacheChanges = flatDbReadCacheChanges;
     }
 
     public Updater removeCode(final Hash accountHash, final Hash codeHash) {
@@ -230,6 +355,7 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
 
     public Updater removeAccountInfoState(final Hash accountHash) {
       flatDbStrategy.removeFlatAccount(composedWorldStateTransaction, accountHash);
+      flatDbReadCacheChanges.ifPresent(changes -> changes.removeAccount(accountHash));
       return this;
     }
 
@@ -239,6 +365,7 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
         return this;
       }
       flatDbStrategy.putFlatAccount(composedWorldStateTransaction, accountHash, accountValue);
+      flatDbReadCacheChanges.ifPresent(changes -> changes.putAccount(accountHash, accountValue));
       return this;
     }
 
@@ -286,6 +413,8 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
         final Hash accountHash, final Hash slotHash, final Bytes storage) {
       flatDbStrategy.putFlatAccountStorageValueByStorageSlotHash(
           composedWorldStateTransaction, accountHash, slotHash, storage);
+      flatDbReadCacheChanges.ifPresent(
+          changes -> changes.putStorageValue(accountHash, slotHash, storage));
       return this;
     }
 
@@ -293,6 +422,8 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
         final Hash accountHash, final Hash slotHash) {
       flatDbStrategy.removeFlatAccountStorageValueByStorageSlotHash(
           composedWorldStateTransaction, accountHash, slotHash);
+      flatDbReadCacheChanges.ifPresent(
+          changes -> changes.removeStorageValue(accountHash, slotHash));
     }
 
     @Override
@@ -310,12 +441,14 @@ public class BonsaiWorldStateKeyValueStorage extends DiffBasedWorldStateKeyValue
       // write the log ahead, then the worldstate
       trieLogStorageTransaction.commit();
       composedWorldStateTransaction.commit();
+      flatDbReadCacheChanges.ifPresent(FlatDbReadCache.Changes::committed);
     }
 
     @Override
     public void rollback() {
       composedWorldStateTransaction.rollback();
       trieLogStorageTransaction.rollback();
+      flatDbReadCacheChanges.ifPresent(FlatDbReadCache.Changes::clear);
     }
   }
 }
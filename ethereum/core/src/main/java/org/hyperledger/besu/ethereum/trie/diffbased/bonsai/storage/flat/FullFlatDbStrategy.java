@@ -21,12 +21,16 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.trie.NodeLoader;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.CodeStorageStrategy;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbFilter;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbStrategy;
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -38,9 +42,20 @@ public class FullFlatDbStrategy extends FlatDbStrategy {
 
   protected final Counter getStorageValueNotFoundInFlatDatabaseCounter;
 
+  protected final Counter getAccountFilteredFromFlatDatabaseCounter;
+
+  protected final Counter getStorageValueFilteredFromFlatDatabaseCounter;
+
   public FullFlatDbStrategy(
       final MetricsSystem metricsSystem, final CodeStorageStrategy codeStorageStrategy) {
-    super(metricsSystem, codeStorageStrategy);
+    this(metricsSystem, codeStorageStrategy, Optional.empty());
+  }
+
+  public FullFlatDbStrategy(
+      final MetricsSystem metricsSystem,
+      final CodeStorageStrategy codeStorageStrategy,
+      final Optional<FlatDbFilter> flatDbFilter) {
+    super(metricsSystem, codeStorageStrategy, flatDbFilter);
 
     getAccountNotFoundInFlatDatabaseCounter =
         metricsSystem.createCounter(
@@ -53,6 +68,18 @@ public class FullFlatDbStrategy extends FlatDbStrategy {
             BesuMetricCategory.BLOCKCHAIN,
             "get_storagevalue_missing_flat_database",
             "Number of storage slots not found in the flat database");
+
+    getAccountFilteredFromFlatDatabaseCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "get_account_filtered_flat_database",
+            "Number of accounts known to be missing from the flat database without reading it");
+
+    getStorageValueFilteredFromFlatDatabaseCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "get_storagevalue_filtered_flat_database",
+            "Number of storage slots known to be missing from the flat database without reading it");
   }
 
   @Override
@@ -62,6 +89,11 @@ public class FullFlatDbStrategy extends FlatDbStrategy {
       final Hash accountHash,
       final SegmentedKeyValueStorage storage) {
     getAccountCounter.inc();
+    if (flatDbFilter.isPresent() && !flatDbFilter.get().mightContainAccount(storage, accountHash)) {
+      getAccountFilteredFromFlatDatabaseCounter.inc();
+      getAccountNotFoundInFlatDatabaseCounter.inc();
+      return Optional.empty();
+    }
     final Optional<Bytes> accountFound =
         storage.get(ACCOUNT_INFO_STATE, accountHash.toArrayUnsafe()).map(Bytes::wrap);
     if (accountFound.isPresent()) {
@@ -81,6 +113,14 @@ public class FullFlatDbStrategy extends FlatDbStrategy {
       final StorageSlotKey storageSlotKey,
       final SegmentedKeyValueStorage storage) {
     getStorageValueCounter.inc();
+    if (flatDbFilter.isPresent()
+        && !flatDbFilter
+            .get()
+            .mightContainStorage(storage, accountHash, storageSlotKey.getSlotHash())) {
+      getStorageValueFilteredFromFlatDatabaseCounter.inc();
+      getStorageValueNotFoundInFlatDatabaseCounter.inc();
+      return Optional.empty();
+    }
     final Optional<Bytes> storageFound =
         storage
             .get(
@@ -96,6 +136,44 @@ public class FullFlatDbStrategy extends FlatDbStrategy {
     return storageFound;
   }
 
+  @Override
+  public Map<Hash, Optional<Bytes>> getFlatAccounts(
+      final List<Hash> accountHashes, final SegmentedKeyValueStorage storage) {
+    // the accounts missing from the full flat database do not exist, so they are known as well
+    final Map<Hash, Optional<Bytes>> accounts = new HashMap<>();
+    accountHashes.forEach(accountHash -> accounts.put(accountHash, Optional.empty()));
+    accounts.putAll(
+        super.getFlatAccounts(
+            accountHashes.stream()
+                .filter(
+                    accountHash ->
+                        flatDbFilter.isEmpty()
+                            || flatDbFilter.get().mightContainAccount(storage, accountHash))
+                .toList(),
+            storage));
+    return accounts;
+  }
+
+  @Override
+  public Map<Hash, Optional<Bytes>> getFlatStorageValues(
+      final Hash accountHash, final List<Hash> slotHashes, final SegmentedKeyValueStorage storage) {
+    final Map<Hash, Optional<Bytes>> storageValues = new HashMap<>();
+    slotHashes.forEach(slotHash -> storageValues.put(slotHash, Optional.empty()));
+    storageValues.putAll(
+        super.getFlatStorageValues(
+            accountHash,
+            slotHashes.stream()
+                .filter(
+                    slotHash ->
+                        flatDbFilter.isEmpty()
+                            || flatDbFilter
+                                .get()
+                                .mightContainStorage(storage, accountHash, slotHash))
+                .toList(),
+            storage));
+    return storageValues;
+  }
+
   @Override
   public void resetOnResync(final SegmentedKeyValueStorage storage) {
     // NOOP
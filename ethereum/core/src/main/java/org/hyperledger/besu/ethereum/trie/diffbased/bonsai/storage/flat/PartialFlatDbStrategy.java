@@ -21,6 +21,7 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.trie.NodeLoader;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.CodeStorageStrategy;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbFilter;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat.FlatDbStrategy;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredNodeFactory;
@@ -55,7 +56,14 @@ public class PartialFlatDbStrategy extends FlatDbStrategy {
 
   public PartialFlatDbStrategy(
       final MetricsSystem metricsSystem, final CodeStorageStrategy codeStorageStrategy) {
-    super(metricsSystem, codeStorageStrategy);
+    this(metricsSystem, codeStorageStrategy, Optional.empty());
+  }
+
+  public PartialFlatDbStrategy(
+      final MetricsSystem metricsSystem,
+      final CodeStorageStrategy codeStorageStrategy,
+      final Optional<FlatDbFilter> flatDbFilter) {
+    super(metricsSystem, codeStorageStrategy, flatDbFilter);
     getAccountMerkleTrieCounter =
         metricsSystem.createCounter(
             BesuMetricCategory.BLOCKCHAIN,
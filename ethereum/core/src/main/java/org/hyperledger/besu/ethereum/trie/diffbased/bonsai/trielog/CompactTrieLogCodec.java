@@ -0,0 +1,364 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.trielog;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedValue;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogLayer;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compact binary encoding of trie logs.
+ *
+ * <p>The block hash and number are written uncompressed, followed by the snappy compressed changes.
+ * Each distinct code body is written once and referenced by index, an updated account only carries
+ * the fields that differ from its prior value, and the nonce is written as a difference. The first
+ * byte is the format version, which cannot be mistaken for the list prefix of an RLP trie log.
+ */
+class CompactTrieLogCodec {
+  static final byte VERSION = 1;
+
+  private static final int PRIOR = 1;
+  private static final int UPDATED = 1 << 1;
+  private static final int CLEARED = 1 << 2;
+
+  private static final int ACCOUNT_CHANGE = 1;
+  private static final int CODE_CHANGE = 1 << 1;
+  private static final int STORAGE_CHANGES = 1 << 2;
+
+  // fields of an updated account that differ from its prior value
+  private static final int NONCE = 1 << 3;
+  private static final int BALANCE = 1 << 4;
+  private static final int STORAGE_ROOT = 1 << 5;
+  private static final int CODE_HASH = 1 << 6;
+
+  // fields of a full account that have their empty value and are not written
+  private static final int EMPTY_STORAGE_ROOT = 1;
+  private static final int EMPTY_CODE_HASH = 1 << 1;
+
+  private CompactTrieLogCodec() {}
+
+  static boolean isCompact(final byte[] bytes) {
+    return bytes.length > 0 && bytes[0] == VERSION;
+  }
+
+  static byte[] encode(final TrieLog layer) {
+    layer.freeze();
+
+    final Set<Address> addresses = new TreeSet<>();
+    addresses.addAll(layer.getAccountChanges().keySet());
+    addresses.addAll(layer.getCodeChanges().keySet());
+    addresses.addAll(layer.getStorageChanges().keySet());
+
+    final Map<Bytes, Integer> codeIndexes = new HashMap<>();
+    final List<Bytes> codes = new ArrayList<>();
+    for (final TrieLog.LogTuple<Bytes> codeChange : layer.getCodeChanges().values()) {
+      if (!codeChange.isUnchanged()) {
+        for (final Bytes code : new Bytes[] {codeChange.getPrior(), codeChange.getUpdated()}) {
+          if (code != null && codeIndexes.putIfAbsent(code, codes.size()) == null) {
+            codes.add(code);
+          }
+        }
+      }
+    }
+
+    final Output body = new Output();
+    body.writeVarLong(codes.size());
+    codes.forEach(body::writeSizedBytes);
+    body.writeVarLong(addresses.size());
+    for (final Address address : addresses) {
+      final TrieLog.LogTuple<AccountValue> accountChange = layer.getAccountChanges().get(address);
+      final TrieLog.LogTuple<Bytes> codeChange = layer.getCodeChanges().get(address);
+      final Map<StorageSlotKey, TrieLog.LogTuple<UInt256>> storageChanges =
+          layer.getStorageChanges().get(address);
+      final boolean hasAccountChange = accountChange != null && !accountChange.isUnchanged();
+      final boolean hasCodeChange = codeChange != null && !codeChange.isUnchanged();
+
+      body.writeRaw(address);
+      body.write(
+          (hasAccountChange ? ACCOUNT_CHANGE : 0)
+              | (hasCodeChange ? CODE_CHANGE : 0)
+              | (storageChanges != null ? STORAGE_CHANGES : 0));
+      if (hasAccountChange) {
+        writeAccountChange(body, accountChange);
+      }
+      if (hasCodeChange) {
+        body.write(presence(codeChange));
+        if (codeChange.getPrior() != null) {
+          body.writeVarLong(codeIndexes.get(codeChange.getPrior()));
+        }
+        if (codeChange.getUpdated() != null) {
+          body.writeVarLong(codeIndexes.get(codeChange.getUpdated()));
+        }
+      }
+      if (storageChanges != null) {
+        body.writeVarLong(storageChanges.size());
+        for (final Map.Entry<StorageSlotKey, TrieLog.LogTuple<UInt256>> slotChange :
+            storageChanges.entrySet()) {
+          final TrieLog.LogTuple<UInt256> value = slotChange.getValue();
+          body.writeRaw(slotChange.getKey().getSlotHash());
+          body.write(presence(value));
+          if (value.getPrior() != null) {
+            body.writeSizedBytes(value.getPrior().toMinimalBytes());
+          }
+          if (value.getUpdated() != null) {
+            body.writeSizedBytes(value.getUpdated().toMinimalBytes());
+          }
+        }
+      }
+    }
+
+    final Output output = new Output();
+    output.write(VERSION);
+    output.writeRaw(layer.getBlockHash());
+    output.writeVarLong(layer.getBlockNumber().map(number -> number + 1).orElse(0L));
+    try {
+      output.writeRaw(Bytes.wrap(Snappy.compress(body.toByteArray())));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return output.toByteArray();
+  }
+
+  private static void writeAccountChange(
+      final Output output, final TrieLog.LogTuple<AccountValue> accountChange) {
+    final AccountValue prior = accountChange.getPrior();
+    final AccountValue updated = accountChange.getUpdated();
+    if (prior == null || updated == null) {
+      output.write(presence(accountChange));
+      if (prior != null) {
+        writeAccount(output, prior);
+      }
+      if (updated != null) {
+        writeAccount(output, updated);
+      }
+      return;
+    }
+    final boolean nonceChanged = prior.getNonce() != updated.getNonce();
+    final boolean balanceChanged = !prior.getBalance().equals(updated.getBalance());
+    final boolean storageRootChanged = !prior.getStorageRoot().equals(updated.getStorageRoot());
+    final boolean codeHashChanged = !prior.getCodeHash().equals(updated.getCodeHash());
+    output.write(
+        presence(accountChange)
+            | (nonceChanged ? NONCE : 0)
+            | (balanceChanged ? BALANCE : 0)
+            | (storageRootChanged ? STORAGE_ROOT : 0)
+            | (codeHashChanged ? CODE_HASH : 0));
+    writeAccount(output, prior);
+    if (nonceChanged) {
+      output.writeVarLong(zigZag(updated.getNonce() - prior.getNonce()));
+    }
+    if (balanceChanged) {
+      output.writeSizedBytes(updated.getBalance().toMinimalBytes());
+    }
+    if (storageRootChanged) {
+      output.writeRaw(updated.getStorageRoot());
+    }
+    if (codeHashChanged) {
+      output.writeRaw(updated.getCodeHash());
+    }
+  }
+
+  private static void writeAccount(final Output output, final AccountValue account) {
+    final boolean emptyStorageRoot = account.getStorageRoot().equals(Hash.EMPTY_TRIE_HASH);
+    final boolean emptyCodeHash = account.getCodeHash().equals(Hash.EMPTY);
+    output.write(
+        (emptyStorageRoot ? EMPTY_STORAGE_ROOT : 0) | (emptyCodeHash ? EMPTY_CODE_HASH : 0));
+    output.writeVarLong(account.getNonce());
+    output.writeSizedBytes(account.getBalance().toMinimalBytes());
+    if (!emptyStorageRoot) {
+      output.writeRaw(account.getStorageRoot());
+    }
+    if (!emptyCodeHash) {
+      output.writeRaw(account.getCodeHash());
+    }
+  }
+
+  private static int presence(final TrieLog.LogTuple<?> value) {
+    return (value.getPrior() != null ? PRIOR : 0)
+        | (value.getUpdated() != null ? UPDATED : 0)
+        | (value.isLastStepCleared() ? CLEARED : 0);
+  }
+
+  static TrieLogLayer decode(final byte[] bytes) {
+    final ByteBuffer input = ByteBuffer.wrap(bytes);
+    if (input.get() != VERSION) {
+      throw new IllegalArgumentException("Unsupported trie log format version " + bytes[0]);
+    }
+    final TrieLogLayer layer = new TrieLogLayer();
+    layer.setBlockHash(Hash.wrap(readBytes32(input)));
+    final long blockNumber = readVarLong(input);
+    if (blockNumber > 0) {
+      layer.setBlockNumber(blockNumber - 1);
+    }
+
+    final ByteBuffer body;
+    try {
+      body =
+          ByteBuffer.wrap(
+              Snappy.uncompress(Arrays.copyOfRange(bytes, input.position(), bytes.length)));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    final Bytes[] codes = new Bytes[(int) readVarLong(body)];
+    for (int i = 0; i < codes.length; i++) {
+      codes[i] = readSizedBytes(body);
+    }
+    for (long remaining = readVarLong(body); remaining > 0; remaining--) {
+      final byte[] address = new byte[Address.SIZE];
+      body.get(address);
+      final Address accountAddress = Address.wrap(Bytes.wrap(address));
+      final int changes = body.get();
+      if ((changes & ACCOUNT_CHANGE) != 0) {
+        layer.getAccountChanges().put(accountAddress, readAccountChange(body));
+      }
+      if ((changes & CODE_CHANGE) != 0) {
+        final int presence = body.get();
+        final Bytes prior = (presence & PRIOR) != 0 ? codes[(int) readVarLong(body)] : null;
+        final Bytes updated = (presence & UPDATED) != 0 ? codes[(int) readVarLong(body)] : null;
+        layer
+            .getCodeChanges()
+            .put(accountAddress, new DiffBasedValue<>(prior, updated, (presence & CLEARED) != 0));
+      }
+      if ((changes & STORAGE_CHANGES) != 0) {
+        final Map<StorageSlotKey, DiffBasedValue<UInt256>> storageChanges = new TreeMap<>();
+        for (long slots = readVarLong(body); slots > 0; slots--) {
+          final StorageSlotKey slotKey =
+              new StorageSlotKey(Hash.wrap(readBytes32(body)), Optional.empty());
+          final int presence = body.get();
+          final UInt256 prior =
+              (presence & PRIOR) != 0 ? UInt256.fromBytes(readSizedBytes(body)) : null;
+          final UInt256 updated =
+              (presence & UPDATED) != 0 ? UInt256.fromBytes(readSizedBytes(body)) : null;
+          storageChanges.put(
+              slotKey, new DiffBasedValue<>(prior, updated, (presence & CLEARED) != 0));
+        }
+        layer.getStorageChanges().put(accountAddress, storageChanges);
+      }
+    }
+    layer.freeze();
+    return layer;
+  }
+
+  private static DiffBasedValue<AccountValue> readAccountChange(final ByteBuffer input) {
+    final int flags = input.get();
+    final StateTrieAccountValue prior = (flags & PRIOR) != 0 ? readAccount(input) : null;
+    final StateTrieAccountValue updated;
+    if ((flags & UPDATED) == 0) {
+      updated = null;
+    } else if (prior == null) {
+      updated = readAccount(input);
+    } else {
+      final long nonce =
+          (flags & NONCE) != 0 ? prior.getNonce() + unZigZag(readVarLong(input)) : prior.getNonce();
+      final Wei balance =
+          (flags & BALANCE) != 0 ? Wei.wrap(readSizedBytes(input)) : prior.getBalance();
+      final Hash storageRoot =
+          (flags & STORAGE_ROOT) != 0 ? Hash.wrap(readBytes32(input)) : prior.getStorageRoot();
+      final Hash codeHash =
+          (flags & CODE_HASH) != 0 ? Hash.wrap(readBytes32(input)) : prior.getCodeHash();
+      updated = new StateTrieAccountValue(nonce, balance, storageRoot, codeHash);
+    }
+    return new DiffBasedValue<>(prior, updated, (flags & CLEARED) != 0);
+  }
+
+  private static StateTrieAccountValue readAccount(final ByteBuffer input) {
+    final int empty = input.get();
+    final long nonce = readVarLong(input);
+    final Wei balance = Wei.wrap(readSizedBytes(input));
+    final Hash storageRoot =
+        (empty & EMPTY_STORAGE_ROOT) != 0 ? Hash.EMPTY_TRIE_HASH : Hash.wrap(readBytes32(input));
+    final Hash codeHash =
+        (empty & EMPTY_CODE_HASH) != 0 ? Hash.EMPTY : Hash.wrap(readBytes32(input));
+    return new StateTrieAccountValue(nonce, balance, storageRoot, codeHash);
+  }
+
+  private static long zigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static Bytes32 readBytes32(final ByteBuffer input) {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    input.get(bytes);
+    return Bytes32.wrap(bytes);
+  }
+
+  private static Bytes readSizedBytes(final ByteBuffer input) {
+    final byte[] bytes = new byte[(int) readVarLong(input)];
+    input.get(bytes);
+    return Bytes.wrap(bytes);
+  }
+
+  private static long readVarLong(final ByteBuffer input) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      final byte b = input.get();
+      value |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private static class Output extends ByteArrayOutputStream {
+
+    void writeRaw(final Bytes bytes) {
+      write(bytes.toArrayUnsafe(), 0, bytes.size());
+    }
+
+    void writeSizedBytes(final Bytes bytes) {
+      writeVarLong(bytes.size());
+      writeRaw(bytes);
+    }
+
+    void writeVarLong(final long value) {
+      long remaining = value;
+      while ((remaining & ~0x7fL) != 0) {
+        write((int) ((remaining & 0x7f) | 0x80));
+        remaining >>>= 7;
+      }
+      write((int) remaining);
+    }
+  }
+}
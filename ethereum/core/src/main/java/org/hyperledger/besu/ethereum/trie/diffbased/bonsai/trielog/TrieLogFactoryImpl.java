@@ -43,6 +43,44 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class TrieLogFactoryImpl implements TrieLogFactory {
 
+  private volatile boolean compactFormatEnabled;
+
+  public TrieLogFactoryImpl() {
+    this(false);
+  }
+
+  /**
+   * Creates a trie log factory, trie logs in both formats can always be deserialized.
+   *
+   * @param compactFormatEnabled serialize trie logs in the compact format rather than RLP
+   */
+  public TrieLogFactoryImpl(final boolean compactFormatEnabled) {
+    this.compactFormatEnabled = compactFormatEnabled;
+  }
+
+  public void setCompactFormatEnabled(final boolean compactFormatEnabled) {
+    this.compactFormatEnabled = compactFormatEnabled;
+  }
+
+  public static boolean isCompactFormat(final byte[] bytes) {
+    return CompactTrieLogCodec.isCompact(bytes);
+  }
+
+  /**
+   * Re-encodes a serialized trie log to RLP, the format expected outside of this node.
+   *
+   * @param bytes a trie log in either format
+   * @return the trie log in RLP
+   */
+  public static byte[] toRlp(final byte[] bytes) {
+    if (!CompactTrieLogCodec.isCompact(bytes)) {
+      return bytes;
+    }
+    final BytesValueRLPOutput rlpLog = new BytesValueRLPOutput();
+    writeTo(CompactTrieLogCodec.decode(bytes), rlpLog);
+    return rlpLog.encoded().toArrayUnsafe();
+  }
+
   @Override
   public TrieLogLayer create(final TrieLogAccumulator accumulator, final BlockHeader blockHeader) {
     TrieLogLayer layer = new TrieLogLayer();
@@ -85,6 +123,9 @@ public class TrieLogFactoryImpl implements TrieLogFactory {
 
   @Override
   public byte[] serialize(final TrieLog layer) {
+    if (compactFormatEnabled) {
+      return CompactTrieLogCodec.encode(layer);
+    }
     final BytesValueRLPOutput rlpLog = new BytesValueRLPOutput();
     writeTo(layer, rlpLog);
     return rlpLog.encoded().toArrayUnsafe();
@@ -143,6 +184,9 @@ public class TrieLogFactoryImpl implements TrieLogFactory {
 
   @Override
   public TrieLogLayer deserialize(final byte[] bytes) {
+    if (CompactTrieLogCodec.isCompact(bytes)) {
+      return CompactTrieLogCodec.decode(bytes);
+    }
     return readFrom(new BytesValueRLPInput(Bytes.wrap(bytes), false));
   }
 
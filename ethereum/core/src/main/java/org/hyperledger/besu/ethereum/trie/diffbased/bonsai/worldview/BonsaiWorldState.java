@@ -44,9 +44,21 @@ import org.hyperledger.besu.evm.internal.EvmConfiguration;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -62,6 +74,10 @@ public class BonsaiWorldState extends DiffBasedWorldState {
 
   protected final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader;
 
+  // held by running prefetches, taken exclusively on close so none outlives the storage
+  private final ReadWriteLock prefetchLock = new ReentrantReadWriteLock();
+  private boolean prefetchStopped;
+
   public BonsaiWorldState(
       final BonsaiWorldStateProvider archive,
       final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
@@ -141,16 +157,11 @@ public class BonsaiWorldState extends DiffBasedWorldState {
 
     // This must be done before updating the accounts so
     // that we can get the storage state hash
-    Stream<Map.Entry<Address, StorageConsumingMap<StorageSlotKey, DiffBasedValue<UInt256>>>>
-        storageStream = worldStateUpdater.getStorageToUpdate().entrySet().stream();
-    if (maybeStateUpdater.isEmpty()) {
-      storageStream =
-          storageStream
-              .parallel(); // if we are not updating the state updater we can use parallel stream
-    }
-    storageStream.forEach(
-        addressMapEntry ->
-            updateAccountStorageState(maybeStateUpdater, worldStateUpdater, addressMapEntry));
+    final List<Consumer<BonsaiWorldStateKeyValueStorage.Updater>> storageWrites =
+        updateStorageTries(maybeStateUpdater.isEmpty(), worldStateUpdater);
+    // the updater is not thread safe, so the storage tries are persisted sequentially
+    maybeStateUpdater.ifPresent(
+        bonsaiUpdater -> storageWrites.forEach(storageWrite -> storageWrite.accept(bonsaiUpdater)));
 
     // Third update the code.  This has the side effect of ensuring a code hash is calculated.
     updateCode(maybeStateUpdater, worldStateUpdater);
@@ -245,8 +256,39 @@ public class BonsaiWorldState extends DiffBasedWorldState {
     return value == null || value.isEmpty();
   }
 
-  private void updateAccountStorageState(
-      final Optional<BonsaiWorldStateKeyValueStorage.Updater> maybeStateUpdater,
+  private List<Consumer<BonsaiWorldStateKeyValueStorage.Updater>> updateStorageTries(
+      final boolean isReadOnly, final BonsaiWorldStateUpdateAccumulator worldStateUpdater) {
+    final Set<Map.Entry<Address, StorageConsumingMap<StorageSlotKey, DiffBasedValue<UInt256>>>>
+        storageToUpdate = worldStateUpdater.getStorageToUpdate().entrySet();
+    final Optional<ForkJoinPool> stateRootPool = worldStateConfig.getStateRootPool();
+    if (stateRootPool.isPresent() && storageToUpdate.size() > 1) {
+      // a parallel stream started from within the pool runs on the pool's workers
+      return stateRootPool
+          .get()
+          .invoke(
+              ForkJoinTask.adapt(
+                  () ->
+                      storageToUpdate.parallelStream()
+                          .map(
+                              addressMapEntry ->
+                                  updateAccountStorageState(worldStateUpdater, addressMapEntry))
+                          .toList()));
+    }
+    Stream<Map.Entry<Address, StorageConsumingMap<StorageSlotKey, DiffBasedValue<UInt256>>>>
+        storageStream = storageToUpdate.stream();
+    if (isReadOnly) {
+      storageStream =
+          storageStream
+              .parallel(); // if we are not updating the state updater we can use parallel stream
+    }
+    return storageStream
+        .map(addressMapEntry -> updateAccountStorageState(worldStateUpdater, addressMapEntry))
+        .toList();
+  }
+
+  // Updates and hashes the storage trie of an account, only reading from the world state storage
+  // so that accounts can be updated concurrently. Returns the write persisting the changes.
+  private Consumer<BonsaiWorldStateKeyValueStorage.Updater> updateAccountStorageState(
       final BonsaiWorldStateUpdateAccumulator worldStateUpdater,
       final Map.Entry<Address, StorageConsumingMap<StorageSlotKey, DiffBasedValue<UInt256>>>
           storageAccountUpdate) {
@@ -269,49 +311,58 @@ public class BonsaiWorldState extends DiffBasedWorldState {
               storageRoot);
 
       // for manicured tries and composting, collect branches here (not implemented)
+      final Map<Bytes, Optional<Bytes>> storageChanges = new HashMap<>();
       for (final Map.Entry<StorageSlotKey, DiffBasedValue<UInt256>> storageUpdate :
           storageAccountUpdate.getValue().entrySet()) {
         final Hash slotHash = storageUpdate.getKey().getSlotHash();
         final UInt256 updatedStorage = storageUpdate.getValue().getUpdated();
-        try {
-          if (updatedStorage == null || updatedStorage.equals(UInt256.ZERO)) {
-            maybeStateUpdater.ifPresent(
-                bonsaiUpdater ->
-                    bonsaiUpdater.removeStorageValueBySlotHash(updatedAddressHash, slotHash));
-            storageTrie.remove(slotHash);
-          } else {
-            maybeStateUpdater.ifPresent(
-                bonsaiUpdater ->
-                    bonsaiUpdater.putStorageValueBySlotHash(
-                        updatedAddressHash, slotHash, updatedStorage));
-            storageTrie.put(slotHash, encodeTrieValue(updatedStorage));
-          }
-        } catch (MerkleTrieException e) {
-          // need to throw to trigger the heal
-          throw new MerkleTrieException(
-              e.getMessage(),
-              Optional.of(Address.wrap(updatedAddress)),
-              e.getHash(),
-              e.getLocation());
+        if (updatedStorage == null || updatedStorage.equals(UInt256.ZERO)) {
+          storageChanges.put(slotHash, Optional.empty());
+        } else {
+          storageChanges.put(slotHash, Optional.of(encodeTrieValue(updatedStorage)));
         }
       }
+      try {
+        // applying the slots as one batch visits each trie node once for all of them
+        storageTrie.putAll(storageChanges);
+      } catch (MerkleTrieException e) {
+        // need to throw to trigger the heal
+        throw new MerkleTrieException(
+            e.getMessage(),
+            Optional.of(Address.wrap(updatedAddress)),
+            e.getHash(),
+            e.getLocation());
+      }
 
       final BonsaiAccount accountUpdated = accountValue.getUpdated();
       if (accountUpdated != null) {
-        maybeStateUpdater.ifPresent(
-            bonsaiUpdater ->
-                storageTrie.commit(
-                    (location, key, value) ->
-                        writeStorageTrieNode(
-                            bonsaiUpdater, updatedAddressHash, location, key, value)));
         // only use storage root of the trie when trie is enabled
         if (!worldStateConfig.isTrieDisabled()) {
+          // hashing here leaves only writing the encoded nodes to the sequential commit
           final Hash newStorageRoot = Hash.wrap(storageTrie.getRootHash());
           accountUpdated.setStorageRoot(newStorageRoot);
         }
       }
+      return bonsaiUpdater -> {
+        for (final Map.Entry<StorageSlotKey, DiffBasedValue<UInt256>> storageUpdate :
+            storageAccountUpdate.getValue().entrySet()) {
+          final Hash slotHash = storageUpdate.getKey().getSlotHash();
+          final UInt256 updatedStorage = storageUpdate.getValue().getUpdated();
+          if (updatedStorage == null || updatedStorage.equals(UInt256.ZERO)) {
+            bonsaiUpdater.removeStorageValueBySlotHash(updatedAddressHash, slotHash);
+          } else {
+            bonsaiUpdater.putStorageValueBySlotHash(updatedAddressHash, slotHash, updatedStorage);
+          }
+        }
+        if (accountUpdated != null) {
+          storageTrie.commit(
+              (location, key, value) ->
+                  writeStorageTrieNode(bonsaiUpdater, updatedAddressHash, location, key, value));
+        }
+      };
     }
     // for manicured tries and composting, trim and compost here
+    return bonsaiUpdater -> {};
   }
 
   private void clearStorage(
@@ -411,6 +462,95 @@ public class BonsaiWorldState extends DiffBasedWorldState {
     stateUpdater.putAccountStorageTrieNode(accountHash, location, nodeHash, value);
   }
 
+  public boolean isStatePrefetchEnabled() {
+    return worldStateConfig.isStatePrefetchEnabled();
+  }
+
+  /**
+   * Loads the flat database entries and trie paths of accounts and storage slots in the
+   * background, so that executing a block that accesses them finds them already cached. The work
+   * runs on the bounded prefetch executor of the world state configuration. Tasks that do not fit
+   * in its queue are dropped, and tasks not started when this world state is closed are skipped.
+   *
+   * @param accounts the accounts expected to be accessed
+   * @param storageSlots the storage slots expected to be accessed, by account
+   */
+  public void prefetch(
+      final Collection<Address> accounts,
+      final Map<Address, ? extends Collection<StorageSlotKey>> storageSlots) {
+    final Optional<ExecutorService> maybeExecutor = worldStateConfig.getStatePrefetchExecutor();
+    if (maybeExecutor.isEmpty()) {
+      return;
+    }
+    final ExecutorService executor = maybeExecutor.get();
+    final BonsaiWorldStateKeyValueStorage worldStateStorage = getWorldStateStorage();
+    final Hash rootHash = worldStateRootHash;
+    final List<Hash> accountHashes = accounts.stream().map(Address::addressHash).toList();
+    // the flat database entries are read in batches, one for the accounts and one for the slots
+    // of each account, in parallel with each other and with the trie paths
+    submitPrefetch(executor, () -> worldStateStorage.prefetchFlatAccounts(accountHashes));
+    storageSlots.forEach(
+        (account, slotKeys) ->
+            submitPrefetch(
+                executor,
+                () -> worldStateStorage.prefetchFlatStorage(account.addressHash(), slotKeys)));
+    if (worldStateConfig.isTrieDisabled()) {
+      return;
+    }
+    final Set<Address> accountsToWalk = new LinkedHashSet<>(accounts);
+    accountsToWalk.addAll(storageSlots.keySet());
+    for (final Address account : accountsToWalk) {
+      final Collection<StorageSlotKey> slotKeys = storageSlots.get(account);
+      submitPrefetch(
+          executor,
+          () -> {
+            bonsaiCachedMerkleTrieLoader.cacheAccountNodes(worldStateStorage, rootHash, account);
+            if (slotKeys != null) {
+              for (final StorageSlotKey slotKey : slotKeys) {
+                bonsaiCachedMerkleTrieLoader.cacheStorageNodes(
+                    worldStateStorage, account, slotKey);
+              }
+            }
+          });
+    }
+  }
+
+  private void submitPrefetch(final ExecutorService executor, final Runnable prefetch) {
+    try {
+      executor.execute(
+          () -> {
+            // a closing world state waits for the running prefetches and skips the others
+            if (!prefetchLock.readLock().tryLock()) {
+              return;
+            }
+            try {
+              if (!prefetchStopped) {
+                prefetch.run();
+              }
+            } catch (final RuntimeException e) {
+              // a failed prefetch only means the state is read when the block is executed
+            } finally {
+              prefetchLock.readLock().unlock();
+            }
+          });
+    } catch (final RejectedExecutionException e) {
+      // the prefetch queue is full or shut down, the state is read when the block is executed
+    }
+  }
+
+  @Override
+  public void close() {
+    if (!isPersisted()) {
+      prefetchLock.writeLock().lock();
+      try {
+        prefetchStopped = true;
+      } finally {
+        prefetchLock.writeLock().unlock();
+      }
+    }
+    super.close();
+  }
+
   @Override
   public UInt256 getStorageValue(final Address address, final UInt256 storageKey) {
     return getStorageValueByStorageSlotKey(address, new StorageSlotKey(storageKey))
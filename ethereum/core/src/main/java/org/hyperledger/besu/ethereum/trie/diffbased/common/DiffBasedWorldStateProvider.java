@@ -19,12 +19,14 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.proof.ProofNodeCache;
 import org.hyperledger.besu.ethereum.proof.WorldStateProof;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.cache.DiffBasedCachedWorldStorageManager;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogManager;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogMerger;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.DiffBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.DiffBasedWorldStateConfig;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.accumulator.DiffBasedWorldStateUpdateAccumulator;
@@ -37,8 +39,15 @@ import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.slf4j.Logger;
@@ -48,9 +57,15 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
 
   private static final Logger LOG = LoggerFactory.getLogger(DiffBasedWorldStateProvider.class);
 
+  private static final int STATE_PREFETCH_THREADS = 4;
+  private static final int STATE_PREFETCH_QUEUE_SIZE = 1024;
+  private static final long STATE_PREFETCH_SHUTDOWN_SECONDS = 10;
+
   protected final Blockchain blockchain;
 
   protected final TrieLogManager trieLogManager;
+  private final TrieLogMerger trieLogMerger = new TrieLogMerger();
+  private final ProofNodeCache proofNodeCache = new ProofNodeCache();
   protected DiffBasedCachedWorldStorageManager cachedWorldStorageManager;
   protected DiffBasedWorldState persistedState;
 
@@ -140,6 +155,7 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
       }
       return cachedWorldStorageManager
           .getWorldState(blockHeader.getHash())
+          .or(() -> cachedWorldStorageManager.getPersistedWorldState(blockHeader))
           .or(() -> cachedWorldStorageManager.getNearestWorldState(blockHeader))
           .or(() -> cachedWorldStorageManager.getHeadWorldState(blockchain::getBlockHeader))
           .flatMap(worldState -> rollMutableStateToBlockHash(worldState, blockHeader.getHash()))
@@ -159,62 +175,18 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
       return Optional.of(mutableState);
     } else {
       try {
-
-        final Optional<BlockHeader> maybePersistedHeader =
-            blockchain.getBlockHeader(mutableState.blockHash()).map(BlockHeader.class::cast);
-
-        final List<TrieLog> rollBacks = new ArrayList<>();
-        final List<TrieLog> rollForwards = new ArrayList<>();
-        if (maybePersistedHeader.isEmpty()) {
-          trieLogManager.getTrieLogLayer(mutableState.blockHash()).ifPresent(rollBacks::add);
-        } else {
-          BlockHeader targetHeader = blockchain.getBlockHeader(blockHash).get();
-          BlockHeader persistedHeader = maybePersistedHeader.get();
-          // roll back from persisted to even with target
-          Hash persistedBlockHash = persistedHeader.getBlockHash();
-          while (persistedHeader.getNumber() > targetHeader.getNumber()) {
-            LOG.debug("Rollback {}", persistedBlockHash);
-            rollBacks.add(trieLogManager.getTrieLogLayer(persistedBlockHash).get());
-            persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
-            persistedBlockHash = persistedHeader.getBlockHash();
-          }
-          // roll forward to target
-          Hash targetBlockHash = targetHeader.getBlockHash();
-          while (persistedHeader.getNumber() < targetHeader.getNumber()) {
-            LOG.debug("Rollforward {}", targetBlockHash);
-            rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
-            targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
-            targetBlockHash = targetHeader.getBlockHash();
-          }
-
-          // roll back in tandem until we hit a shared state
-          while (!persistedBlockHash.equals(targetBlockHash)) {
-            LOG.debug("Paired Rollback {}", persistedBlockHash);
-            LOG.debug("Paired Rollforward {}", targetBlockHash);
-            rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
-            targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
-
-            rollBacks.add(trieLogManager.getTrieLogLayer(persistedBlockHash).get());
-            persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
-
-            targetBlockHash = targetHeader.getBlockHash();
-            persistedBlockHash = persistedHeader.getBlockHash();
-          }
-        }
+        final Hash persistedBlockHash = mutableState.blockHash();
+        final TrieLog diff =
+            trieLogMerger
+                .getCachedDiff(persistedBlockHash, blockHash)
+                .orElseGet(() -> mergeTrieLogs(persistedBlockHash, blockHash));
 
         // attempt the state rolling
         final DiffBasedWorldStateUpdateAccumulator<?> diffBasedUpdater =
             (DiffBasedWorldStateUpdateAccumulator<?>) mutableState.updater();
         try {
-          for (final TrieLog rollBack : rollBacks) {
-            LOG.debug("Attempting Rollback of {}", rollBack.getBlockHash());
-            diffBasedUpdater.rollBack(rollBack);
-          }
-          for (int i = rollForwards.size() - 1; i >= 0; i--) {
-            final var forward = rollForwards.get(i);
-            LOG.debug("Attempting Rollforward of {}", rollForwards.get(i).getBlockHash());
-            diffBasedUpdater.rollForward(forward);
-          }
+          LOG.debug("Attempting Rolling from {} to {}", persistedBlockHash, blockHash);
+          diffBasedUpdater.rollForward(diff);
           diffBasedUpdater.commit();
 
           mutableState.persist(blockchain.getBlockHeader(blockHash).get());
@@ -251,6 +223,53 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
     }
   }
 
+  private TrieLog mergeTrieLogs(final Hash persistedBlockHash, final Hash blockHash) {
+    final Optional<BlockHeader> maybePersistedHeader =
+        blockchain.getBlockHeader(persistedBlockHash).map(BlockHeader.class::cast);
+
+    final List<TrieLog> rollBacks = new ArrayList<>();
+    final List<TrieLog> rollForwards = new ArrayList<>();
+    if (maybePersistedHeader.isEmpty()) {
+      trieLogManager.getTrieLogLayer(persistedBlockHash).ifPresent(rollBacks::add);
+    } else {
+      BlockHeader targetHeader = blockchain.getBlockHeader(blockHash).get();
+      BlockHeader persistedHeader = maybePersistedHeader.get();
+      // roll back from persisted to even with target
+      Hash rollBackBlockHash = persistedHeader.getBlockHash();
+      while (persistedHeader.getNumber() > targetHeader.getNumber()) {
+        LOG.debug("Rollback {}", rollBackBlockHash);
+        rollBacks.add(trieLogManager.getTrieLogLayer(rollBackBlockHash).get());
+        persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
+        rollBackBlockHash = persistedHeader.getBlockHash();
+      }
+      // roll forward to target
+      Hash targetBlockHash = targetHeader.getBlockHash();
+      while (persistedHeader.getNumber() < targetHeader.getNumber()) {
+        LOG.debug("Rollforward {}", targetBlockHash);
+        rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
+        targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
+        targetBlockHash = targetHeader.getBlockHash();
+      }
+
+      // roll back in tandem until we hit a shared state
+      while (!rollBackBlockHash.equals(targetBlockHash)) {
+        LOG.debug("Paired Rollback {}", rollBackBlockHash);
+        LOG.debug("Paired Rollforward {}", targetBlockHash);
+        rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
+        targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
+
+        rollBacks.add(trieLogManager.getTrieLogLayer(rollBackBlockHash).get());
+        persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
+
+        targetBlockHash = targetHeader.getBlockHash();
+        rollBackBlockHash = persistedHeader.getBlockHash();
+      }
+    }
+    // fold every trie log into one diff so each key is rolled once, whatever the distance
+    return trieLogMerger.merge(
+        persistedBlockHash, blockHash, rollBacks, Lists.reverse(rollForwards));
+  }
+
   @Override
   public MutableWorldState getMutable() {
     return persistedState;
@@ -265,6 +284,43 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
     worldStateKeyValueStorage.clearTrie();
   }
 
+  /**
+   * Sets how many threads update the storage tries of modified accounts when calculating the state
+   * root. With a parallelism of one they are updated sequentially by the calling thread. The pool
+   * is shut down when the provider is closed.
+   *
+   * @param parallelism the number of threads
+   */
+  public void setStateRootParallelism(final int parallelism) {
+    defaultWorldStateConfig.getStateRootPool().ifPresent(ForkJoinPool::shutdown);
+    defaultWorldStateConfig.setStateRootPool(
+        parallelism > 1 ? Optional.of(new ForkJoinPool(parallelism)) : Optional.empty());
+  }
+
+  /**
+   * Sets whether the accounts and storage slots a block declares it will access are prefetched in
+   * the background before the block is executed.
+   *
+   * @param statePrefetchEnabled true to prefetch the state of blocks
+   */
+  public void setStatePrefetchEnabled(final boolean statePrefetchEnabled) {
+    defaultWorldStateConfig.getStatePrefetchExecutor().ifPresent(ExecutorService::shutdownNow);
+    defaultWorldStateConfig.setStatePrefetchExecutor(
+        statePrefetchEnabled ? Optional.of(newStatePrefetchExecutor()) : Optional.empty());
+  }
+
+  private static ExecutorService newStatePrefetchExecutor() {
+    // prefetching is best effort, so a full queue rejects further tasks instead of growing
+    return new ThreadPoolExecutor(
+        STATE_PREFETCH_THREADS,
+        STATE_PREFETCH_THREADS,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(STATE_PREFETCH_QUEUE_SIZE),
+        new ThreadFactoryBuilder().setNameFormat("BonsaiStatePrefetch-%d").setDaemon(true).build(),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
   public DiffBasedWorldStateKeyValueStorage getWorldStateKeyValueStorage() {
     return worldStateKeyValueStorage;
   }
@@ -296,7 +352,7 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
       if (ws != null) {
         final WorldStateProofProvider worldStateProofProvider =
             new WorldStateProofProvider(
-                new WorldStateStorageCoordinator(ws.getWorldStateStorage()));
+                new WorldStateStorageCoordinator(ws.getWorldStateStorage()), proofNodeCache);
         return mapper.apply(
             worldStateProofProvider.getAccountProof(
                 ws.getWorldStateRootHash(), accountAddress, accountStorageKeys));
@@ -314,6 +370,19 @@ public abstract class DiffBasedWorldStateProvider implements WorldStateArchive {
 
   @Override
   public void close() {
+    defaultWorldStateConfig.getStateRootPool().ifPresent(ForkJoinPool::shutdown);
+    defaultWorldStateConfig
+        .getStatePrefetchExecutor()
+        .ifPresent(
+            executor -> {
+              // no prefetch may still be reading once the storage is closed
+              executor.shutdownNow();
+              try {
+                executor.awaitTermination(STATE_PREFETCH_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
     try {
       worldStateKeyValueStorage.close();
     } catch (Exception e) {
@@ -57,6 +57,7 @@ public abstract class DiffBasedCachedWorldStorageManager implements StorageSubsc
 
   private final DiffBasedWorldStateKeyValueStorage rootWorldStateStorage;
   private final Map<Bytes32, DiffBasedCachedWorldView> cachedWorldStatesByHash;
+  private volatile boolean sharedHeadSnapshotEnabled = false;
 
   private DiffBasedCachedWorldStorageManager(
       final DiffBasedWorldStateProvider archive,
@@ -84,10 +85,27 @@ public abstract class DiffBasedCachedWorldStorageManager implements StorageSubsc
         defaultBonsaiWorldStateConfigSupplier);
   }
 
+  /**
+   * Sets whether a snapshot is taken of the persisted state only when a query first reads it at the
+   * chain head, shared by every query at that block, instead of one for every persisted block. The
+   * snapshots of the prior heads are released once a new block is persisted, and queries at those
+   * blocks roll the head snapshot back in memory.
+   *
+   * @param sharedHeadSnapshotEnabled true to only snapshot the head, on demand
+   */
+  public void setSharedHeadSnapshotEnabled(final boolean sharedHeadSnapshotEnabled) {
+    this.sharedHeadSnapshotEnabled = sharedHeadSnapshotEnabled;
+  }
+
   public synchronized void addCachedLayer(
       final BlockHeader blockHeader,
       final Hash worldStateRootHash,
       final DiffBasedWorldState forWorldState) {
+    if (sharedHeadSnapshotEnabled && forWorldState.isPersisted()) {
+      releasePersistedLayers(blockHeader);
+      stateRootToBlockHeaderCache.put(blockHeader.getStateRoot(), blockHeader);
+      return;
+    }
     final Optional<DiffBasedCachedWorldView> cachedDiffBasedWorldView =
         Optional.ofNullable(this.cachedWorldStatesByHash.get(blockHeader.getBlockHash()));
     if (cachedDiffBasedWorldView.isPresent()) {
@@ -131,6 +149,27 @@ public abstract class DiffBasedCachedWorldStorageManager implements StorageSubsc
     scrubCachedLayers(blockHeader.getNumber());
   }
 
+  private void releasePersistedLayers(final BlockHeader newHeadHeader) {
+    // layers over the persisted storage are released too, as they are only valid until it moves on
+    cachedWorldStatesByHash.values().stream()
+        .filter(
+            layer ->
+                layer.getBlockHash().equals(newHeadHeader.getHash())
+                    || !(layer.getWorldStateStorage()
+                        instanceof DiffBasedLayeredWorldStateKeyValueStorage))
+        .toList()
+        .forEach(
+            layer -> {
+              LOG.atDebug()
+                  .setMessage("releasing world state snapshot for block {}")
+                  .addArgument(layer.getBlockHash()::toShortHexString)
+                  .log();
+              cachedWorldStatesByHash.remove(layer.getBlockHash());
+              // the snapshot itself is closed once the last world state reading it is closed
+              layer.close();
+            });
+  }
+
   private synchronized void scrubCachedLayers(final long newMaxHeight) {
     if (cachedWorldStatesByHash.size() > RETAINED_LAYERS) {
       final long waterline = newMaxHeight - RETAINED_LAYERS;
@@ -204,15 +243,48 @@ public abstract class DiffBasedCachedWorldStorageManager implements StorageSubsc
     return rootWorldStateStorage
         .getWorldStateBlockHash()
         .flatMap(hashBlockHeaderFunction)
-        .flatMap(
-            blockHeader -> {
-              // add the head to the cache
-              addCachedLayer(
-                  blockHeader,
-                  blockHeader.getStateRoot(),
-                  createWorldState(archive, rootWorldStateStorage, evmConfiguration));
-              return getWorldState(blockHeader.getHash());
-            });
+        .flatMap(this::getPersistedWorldState);
+  }
+
+  /**
+   * Returns a world state reading a snapshot of the persisted state, if it is at this block. The
+   * snapshot is taken by the first caller and shared with the callers that follow.
+   *
+   * @param blockHeader the header of the block to read the state of
+   * @return the world state, or empty if the persisted state is not at this block
+   */
+  public synchronized Optional<DiffBasedWorldState> getPersistedWorldState(
+      final BlockHeader blockHeader) {
+    final Hash blockHash = blockHeader.getHash();
+    if (!cachedWorldStatesByHash.containsKey(blockHash)) {
+      if (!rootWorldStateStorage.getWorldStateBlockHash().map(blockHash::equals).orElse(false)) {
+        return Optional.empty();
+      }
+      final DiffBasedWorldStateKeyValueStorage snapshot =
+          createSnapshotKeyValueStorage(rootWorldStateStorage);
+      // the persisted state may have moved on before the snapshot was taken
+      if (!snapshot.getWorldStateBlockHash().map(blockHash::equals).orElse(false)) {
+        closeSnapshot(blockHeader, snapshot);
+        return Optional.empty();
+      }
+      LOG.atDebug()
+          .setMessage("adding snapshot world state for block {}")
+          .addArgument(blockHeader::toLogString)
+          .log();
+      cachedWorldStatesByHash.put(blockHash, new DiffBasedCachedWorldView(blockHeader, snapshot));
+      stateRootToBlockHeaderCache.put(blockHeader.getStateRoot(), blockHeader);
+      scrubCachedLayers(blockHeader.getNumber());
+    }
+    return getWorldState(blockHash);
+  }
+
+  private void closeSnapshot(
+      final BlockHeader blockHeader, final DiffBasedWorldStateKeyValueStorage snapshot) {
+    try {
+      snapshot.close();
+    } catch (final Exception e) {
+      LOG.warn("Failed to close worldstate snapshot for block " + blockHeader.toLogString(), e);
+    }
   }
 
   public boolean contains(final Hash blockHash) {
@@ -0,0 +1,97 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * A split block bloom filter over 64-bit key hashes. Each key sets one bit in each of the eight
+ * words of a single 512-bit block, so a lookup touches one cache line. Keys can be added
+ * concurrently with lookups, but never removed.
+ */
+class BlockedBloomFilter {
+  static final int WORDS_PER_BLOCK = 8;
+
+  private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private static final int[] SALTS = {
+    0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+    0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+  };
+
+  private final long[] words;
+  private final long blockCount;
+
+  BlockedBloomFilter(final int wordCount) {
+    final int blocks = Math.max(1, wordCount / WORDS_PER_BLOCK);
+    this.words = new long[blocks * WORDS_PER_BLOCK];
+    this.blockCount = blocks;
+  }
+
+  int getWordCount() {
+    return words.length;
+  }
+
+  void add(final long hash) {
+    final int offset = blockOffset(hash);
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      final long mask = mask(hash, i);
+      if (((long) WORDS.getOpaque(words, offset + i) & mask) == 0) {
+        WORDS.getAndBitwiseOr(words, offset + i, mask);
+      }
+    }
+  }
+
+  boolean mightContain(final long hash) {
+    final int offset = blockOffset(hash);
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      if (((long) WORDS.getOpaque(words, offset + i) & mask(hash, i)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  void clear() {
+    for (int i = 0; i < words.length; i++) {
+      WORDS.setOpaque(words, i, 0L);
+    }
+  }
+
+  byte[] toBytes(final int fromWord, final int wordCount) {
+    final ByteBuffer buffer = ByteBuffer.allocate(wordCount * Long.BYTES);
+    for (int i = fromWord; i < fromWord + wordCount; i++) {
+      buffer.putLong((long) WORDS.getOpaque(words, i));
+    }
+    return buffer.array();
+  }
+
+  void readBytes(final int fromWord, final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    for (int i = fromWord; buffer.remaining() >= Long.BYTES; i++) {
+      WORDS.getAndBitwiseOr(words, i, buffer.getLong());
+    }
+  }
+
+  private int blockOffset(final long hash) {
+    return (int) (((hash >>> 32) * blockCount) >>> 32) * WORDS_PER_BLOCK;
+  }
+
+  private static long mask(final long hash, final int word) {
+    return 1L << (((int) hash * SALTS[word]) >>> 26);
+  }
+}
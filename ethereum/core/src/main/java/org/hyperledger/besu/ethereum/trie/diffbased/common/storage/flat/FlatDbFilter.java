@@ -0,0 +1,260 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
+import static org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage.WORLD_BLOCK_HASH_KEY;
+import static org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage.WORLD_ROOT_HASH_KEY;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filters out flat database reads of accounts and storage slots that do not exist.
+ *
+ * <p>Keys are added as they are written to the flat database and deletions are ignored, so the
+ * filter only ever answers "might exist" for a key that was written. Until it has been rebuilt from
+ * the flat database in the background, or loaded from the copy persisted on a clean shutdown, every
+ * lookup falls through to storage. Only reads against the persisted world state are filtered,
+ * snapshots and layered storages are always read.
+ */
+public class FlatDbFilter implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(FlatDbFilter.class);
+
+  private static final byte VERSION = 1;
+  private static final byte[] METADATA_KEY = {0};
+  private static final byte ACCOUNTS_PREFIX = 1;
+  private static final byte STORAGE_PREFIX = 2;
+  private static final int CHUNK_WORDS = 128 * 1024;
+
+  private final SegmentedKeyValueStorage worldStateStorage;
+  private final KeyValueStorage filterStorage;
+  private final BlockedBloomFilter accounts;
+  private final BlockedBloomFilter storage;
+  private volatile boolean ready = false;
+  private volatile boolean closing = false;
+  private Thread rebuildThread;
+
+  /**
+   * Creates a filter for the flat database of the persisted world state.
+   *
+   * @param sizeInBytes the memory used by the filter, a fifth of it for accounts
+   * @param worldStateStorage the persisted world state storage
+   * @param filterStorage where the filter is saved on close
+   */
+  public FlatDbFilter(
+      final long sizeInBytes,
+      final SegmentedKeyValueStorage worldStateStorage,
+      final KeyValueStorage filterStorage) {
+    final long words = Math.min(sizeInBytes / Long.BYTES, Integer.MAX_VALUE);
+    this.worldStateStorage = worldStateStorage;
+    this.filterStorage = filterStorage;
+    this.accounts = new BlockedBloomFilter((int) (words / 5));
+    this.storage = new BlockedBloomFilter((int) (words - words / 5));
+  }
+
+  /** Loads the filter saved on the last clean shutdown, or rebuilds it in the background. */
+  public synchronized void start() {
+    if (load()) {
+      LOG.info("Loaded the flat database filter");
+      ready = true;
+      return;
+    }
+    rebuildThread = new Thread(this::rebuild, "FlatDbFilterRebuild");
+    rebuildThread.setDaemon(true);
+    rebuildThread.start();
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public boolean mightContainAccount(
+      final SegmentedKeyValueStorage storageToRead, final Hash accountHash) {
+    return !isFiltering(storageToRead) || accounts.mightContain(accountHash.getLong(0));
+  }
+
+  public boolean mightContainStorage(
+      final SegmentedKeyValueStorage storageToRead, final Hash accountHash, final Hash slotHash) {
+    return !isFiltering(storageToRead)
+        || storage.mightContain(storageHash(accountHash.getLong(0), slotHash.getLong(0)));
+  }
+
+  public void addAccount(final Hash accountHash) {
+    accounts.add(accountHash.getLong(0));
+  }
+
+  public void addStorage(final Hash accountHash, final Hash slotHash) {
+    storage.add(storageHash(accountHash.getLong(0), slotHash.getLong(0)));
+  }
+
+  private boolean isFiltering(final SegmentedKeyValueStorage storageToRead) {
+    return ready && storageToRead == worldStateStorage;
+  }
+
+  private static long storageHash(final long accountHash, final long slotHash) {
+    return accountHash ^ slotHash;
+  }
+
+  void rebuild() {
+    LOG.info("Building the flat database filter");
+    final long start = System.currentTimeMillis();
+    try {
+      try (final Stream<byte[]> accountKeys = worldStateStorage.streamKeys(ACCOUNT_INFO_STATE)) {
+        accountKeys
+            .takeWhile(key -> !closing)
+            .forEach(key -> accounts.add(Bytes.wrap(key).getLong(0)));
+      }
+      try (final Stream<byte[]> storageKeys =
+          worldStateStorage.streamKeys(ACCOUNT_STORAGE_STORAGE)) {
+        storageKeys
+            .takeWhile(key -> !closing)
+            .forEach(
+                key -> {
+                  final Bytes slotKey = Bytes.wrap(key);
+                  storage.add(storageHash(slotKey.getLong(0), slotKey.getLong(Hash.SIZE)));
+                });
+      }
+    } catch (final StorageException e) {
+      LOG.warn("Failed to build the flat database filter, lookups will not be filtered", e);
+      return;
+    }
+    if (!closing) {
+      ready = true;
+      LOG.info("Built the flat database filter in {} ms", System.currentTimeMillis() - start);
+    }
+  }
+
+  boolean load() {
+    final Optional<ByteBuffer> metadata = filterStorage.get(METADATA_KEY).map(ByteBuffer::wrap);
+    if (metadata.isEmpty()) {
+      return false;
+    }
+    // the filter is only saved on a clean shutdown, removing it first means a crash rebuilds it
+    final KeyValueStorageTransaction transaction = filterStorage.startTransaction();
+    transaction.remove(METADATA_KEY);
+    transaction.commit();
+
+    final ByteBuffer buffer = metadata.get();
+    if (buffer.remaining() != 1 + 2 * Integer.BYTES + 2 * Hash.SIZE
+        || buffer.get() != VERSION
+        || buffer.getInt() != accounts.getWordCount()
+        || buffer.getInt() != storage.getWordCount()
+        || !matchesWorldState(buffer, WORLD_BLOCK_HASH_KEY)
+        || !matchesWorldState(buffer, WORLD_ROOT_HASH_KEY)) {
+      return false;
+    }
+    return readChunks(ACCOUNTS_PREFIX, accounts) && readChunks(STORAGE_PREFIX, storage);
+  }
+
+  private boolean matchesWorldState(final ByteBuffer buffer, final byte[] key) {
+    final byte[] saved = new byte[Hash.SIZE];
+    buffer.get(saved);
+    return worldStateStorage
+        .get(TRIE_BRANCH_STORAGE, key)
+        .filter(current -> Arrays.equals(current, saved))
+        .isPresent();
+  }
+
+  private boolean readChunks(final byte prefix, final BlockedBloomFilter filter) {
+    for (int word = 0; word < filter.getWordCount(); word += CHUNK_WORDS) {
+      final Optional<byte[]> chunk = filterStorage.get(chunkKey(prefix, word));
+      final int expectedLength = Math.min(CHUNK_WORDS, filter.getWordCount() - word) * Long.BYTES;
+      if (chunk.isEmpty() || chunk.get().length != expectedLength) {
+        filter.clear();
+        return false;
+      }
+      filter.readBytes(word, chunk.get());
+    }
+    return true;
+  }
+
+  private void save() {
+    final Optional<byte[]> blockHash =
+        worldStateStorage
+            .get(TRIE_BRANCH_STORAGE, WORLD_BLOCK_HASH_KEY)
+            .filter(hash -> hash.length == Hash.SIZE);
+    final Optional<byte[]> rootHash =
+        worldStateStorage
+            .get(TRIE_BRANCH_STORAGE, WORLD_ROOT_HASH_KEY)
+            .filter(hash -> hash.length == Hash.SIZE);
+    if (blockHash.isEmpty() || rootHash.isEmpty()) {
+      return;
+    }
+    filterStorage.clear();
+    writeChunks(ACCOUNTS_PREFIX, accounts);
+    writeChunks(STORAGE_PREFIX, storage);
+    final ByteBuffer metadata = ByteBuffer.allocate(1 + 2 * Integer.BYTES + 2 * Hash.SIZE);
+    metadata
+        .put(VERSION)
+        .putInt(accounts.getWordCount())
+        .putInt(storage.getWordCount())
+        .put(blockHash.get())
+        .put(rootHash.get());
+    final KeyValueStorageTransaction transaction = filterStorage.startTransaction();
+    transaction.put(METADATA_KEY, metadata.array());
+    transaction.commit();
+    LOG.info("Saved the flat database filter");
+  }
+
+  private void writeChunks(final byte prefix, final BlockedBloomFilter filter) {
+    for (int word = 0; word < filter.getWordCount(); word += CHUNK_WORDS) {
+      final KeyValueStorageTransaction transaction = filterStorage.startTransaction();
+      transaction.put(
+          chunkKey(prefix, word),
+          filter.toBytes(word, Math.min(CHUNK_WORDS, filter.getWordCount() - word)));
+      transaction.commit();
+    }
+  }
+
+  private static byte[] chunkKey(final byte prefix, final int word) {
+    return ByteBuffer.allocate(1 + Integer.BYTES).put(prefix).putInt(word).array();
+  }
+
+  /** Stops a rebuild in progress and saves the filter if it is complete. */
+  @Override
+  public synchronized void close() {
+    closing = true;
+    if (rebuildThread != null) {
+      try {
+        rebuildThread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+    if (ready) {
+      try {
+        save();
+      } catch (final StorageException e) {
+        LOG.warn("Failed to save the flat database filter", e);
+      }
+    }
+  }
+}
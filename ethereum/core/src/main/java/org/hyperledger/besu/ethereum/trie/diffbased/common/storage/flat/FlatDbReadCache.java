@@ -0,0 +1,200 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A cache of the accounts and storage slots read from the flat database of the persisted world
+ * state, so the contracts used by every block are not read from the database again for each one.
+ *
+ * <p>Absent values are cached too. Every write to the persisted world state, whether it comes from
+ * a block, a reorg rolling the state back and forth or healing, goes through an updater that
+ * refreshes the cached values it changed once it commits. A value being loaded while it changes is
+ * refreshed right after its load, as both lock the same entry. Values read in batches outside of
+ * the cache are only added if no write happened since their read started.
+ */
+public class FlatDbReadCache {
+
+  private record SlotKey(Hash accountHash, Hash slotHash) {}
+
+  private final Cache<Hash, Optional<Bytes>> accounts;
+  private final Cache<SlotKey, Optional<Bytes>> storage;
+  private final Counter accountHits;
+  private final Counter accountMisses;
+  private final Counter storageHits;
+  private final Counter storageMisses;
+  private final AtomicLong generation = new AtomicLong();
+
+  public FlatDbReadCache(final long maximumSize, final MetricsSystem metricsSystem) {
+    // storage slots are read far more often than accounts
+    this.accounts = Caffeine.newBuilder().maximumSize(Math.max(1, maximumSize / 4)).build();
+    this.storage = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    final LabelledMetric<Counter> hits =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "flat_db_read_cache_hits_total",
+            "Number of flat database reads answered by the read cache",
+            "segment");
+    final LabelledMetric<Counter> misses =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "flat_db_read_cache_misses_total",
+            "Number of flat database reads not found in the read cache",
+            "segment");
+    this.accountHits = hits.labels(ACCOUNT_INFO_STATE.getName());
+    this.accountMisses = misses.labels(ACCOUNT_INFO_STATE.getName());
+    this.storageHits = hits.labels(ACCOUNT_STORAGE_STORAGE.getName());
+    this.storageMisses = misses.labels(ACCOUNT_STORAGE_STORAGE.getName());
+  }
+
+  public Optional<Bytes> getAccount(
+      final Hash accountHash, final Supplier<Optional<Bytes>> flatDbRead) {
+    final Optional<Bytes> cached = accounts.getIfPresent(accountHash);
+    if (cached != null) {
+      accountHits.inc();
+      return cached;
+    }
+    accountMisses.inc();
+    return accounts.get(accountHash, __ -> flatDbRead.get());
+  }
+
+  public Optional<Bytes> getStorageValue(
+      final Hash accountHash, final Hash slotHash, final Supplier<Optional<Bytes>> flatDbRead) {
+    final SlotKey key = new SlotKey(accountHash, slotHash);
+    final Optional<Bytes> cached = storage.getIfPresent(key);
+    if (cached != null) {
+      storageHits.inc();
+      return cached;
+    }
+    storageMisses.inc();
+    return storage.get(key, __ -> flatDbRead.get());
+  }
+
+  /**
+   * Returns the generation of the cache, which moves on before the cached values are refreshed or
+   * forgotten. It is taken before reading values to add with the putIfUnchanged methods.
+   *
+   * @return the current generation
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Caches an account read outside of the cache, unless it is cached already or the cache moved on
+   * since the given generation, in which case the value read may be stale.
+   *
+   * @param readGeneration the generation taken before the value was read
+   * @param accountHash the hash of the account
+   * @param accountValue the value read from the flat database
+   */
+  public void putAccountIfUnchanged(
+      final long readGeneration, final Hash accountHash, final Optional<Bytes> accountValue) {
+    accounts
+        .asMap()
+        .computeIfAbsent(
+            accountHash, __ -> generation.get() == readGeneration ? accountValue : null);
+  }
+
+  /**
+   * Caches a storage value read outside of the cache, unless it is cached already or the cache
+   * moved on since the given generation, in which case the value read may be stale.
+   *
+   * @param readGeneration the generation taken before the value was read
+   * @param accountHash the hash of the account
+   * @param slotHash the hash of the storage slot
+   * @param value the value read from the flat database
+   */
+  public void putStorageValueIfUnchanged(
+      final long readGeneration,
+      final Hash accountHash,
+      final Hash slotHash,
+      final Optional<Bytes> value) {
+    storage
+        .asMap()
+        .computeIfAbsent(
+            new SlotKey(accountHash, slotHash),
+            __ -> generation.get() == readGeneration ? value : null);
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    accounts.invalidateAll();
+    storage.invalidateAll();
+  }
+
+  public Changes newChanges() {
+    return new Changes();
+  }
+
+  /** The values written by an updater, refreshed in the cache once the updater commits. */
+  public class Changes {
+    private final Map<Hash, Optional<Bytes>> changedAccounts = new ConcurrentHashMap<>();
+    private final Map<SlotKey, Optional<Bytes>> changedStorage = new ConcurrentHashMap<>();
+
+    private Changes() {}
+
+    public void putAccount(final Hash accountHash, final Bytes accountValue) {
+      changedAccounts.put(accountHash, Optional.of(accountValue));
+    }
+
+    public void removeAccount(final Hash accountHash) {
+      changedAccounts.put(accountHash, Optional.empty());
+    }
+
+    public void putStorageValue(final Hash accountHash, final Hash slotHash, final Bytes value) {
+      changedStorage.put(new SlotKey(accountHash, slotHash), Optional.of(value));
+    }
+
+    public void removeStorageValue(final Hash accountHash, final Hash slotHash) {
+      changedStorage.put(new SlotKey(accountHash, slotHash), Optional.empty());
+    }
+
+    /** Refreshes the cached values that were changed, once they are written to the database. */
+    public void committed() {
+      // moving on first, so a batch read before this commit does not add a value it replaced
+      generation.incrementAndGet();
+      // only values already cached are refreshed, so bulk writes do not flush the hot entries
+      changedAccounts.forEach(
+          (accountHash, value) -> accounts.asMap().computeIfPresent(accountHash, (k, v) -> value));
+      changedStorage.forEach(
+          (key, value) -> storage.asMap().computeIfPresent(key, (k, v) -> value));
+      clear();
+    }
+
+    public void clear() {
+      changedAccounts.clear();
+      changedStorage.clear();
+    }
+  }
+}
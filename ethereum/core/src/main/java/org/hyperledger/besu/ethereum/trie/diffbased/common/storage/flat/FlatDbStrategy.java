@@ -28,6 +28,9 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.TreeMap;
@@ -55,11 +58,20 @@ public abstract class FlatDbStrategy {
   protected final Counter getStorageValueCounter;
   protected final Counter getStorageValueFlatDatabaseCounter;
   protected final CodeStorageStrategy codeStorageStrategy;
+  protected final Optional<FlatDbFilter> flatDbFilter;
 
   public FlatDbStrategy(
       final MetricsSystem metricsSystem, final CodeStorageStrategy codeStorageStrategy) {
+    this(metricsSystem, codeStorageStrategy, Optional.empty());
+  }
+
+  public FlatDbStrategy(
+      final MetricsSystem metricsSystem,
+      final CodeStorageStrategy codeStorageStrategy,
+      final Optional<FlatDbFilter> flatDbFilter) {
     this.metricsSystem = metricsSystem;
     this.codeStorageStrategy = codeStorageStrategy;
+    this.flatDbFilter = flatDbFilter;
 
     getAccountCounter =
         metricsSystem.createCounter(
@@ -107,6 +119,47 @@ public abstract class FlatDbStrategy {
       StorageSlotKey storageSlotKey,
       SegmentedKeyValueStorage storageStorage);
 
+  /*
+   * Reads the flat accounts of the given hashes in one batch. Returns, by account hash, the values known without walking the trie, which are the accounts found in the flat database.
+   */
+  public Map<Hash, Optional<Bytes>> getFlatAccounts(
+      final List<Hash> accountHashes, final SegmentedKeyValueStorage storage) {
+    final Map<Hash, Optional<Bytes>> accounts = new HashMap<>();
+    final List<Optional<byte[]>> values =
+        storage.multiGet(
+            ACCOUNT_INFO_STATE, accountHashes.stream().map(Hash::toArrayUnsafe).toList());
+    for (int i = 0; i < accountHashes.size(); i++) {
+      final Optional<byte[]> value = values.get(i);
+      if (value.isPresent()) {
+        accounts.put(accountHashes.get(i), Optional.of(Bytes.wrap(value.get())));
+      }
+    }
+    return accounts;
+  }
+
+  /*
+   * Reads the flat storage values of the given slots of an account in one batch. Returns, by slot hash, the values known without walking the trie, which are the values found in the flat database.
+   */
+  public Map<Hash, Optional<Bytes>> getFlatStorageValues(
+      final Hash accountHash, final List<Hash> slotHashes, final SegmentedKeyValueStorage storage) {
+    final Map<Hash, Optional<Bytes>> storageValues = new HashMap<>();
+    final List<Optional<byte[]>> values =
+        storage.multiGet(ACCOUNT_STORAGE_STORAGE, storageKeys(accountHash, slotHashes));
+    for (int i = 0; i < slotHashes.size(); i++) {
+      final Optional<byte[]> value = values.get(i);
+      if (value.isPresent()) {
+        storageValues.put(slotHashes.get(i), Optional.of(Bytes.wrap(value.get())));
+      }
+    }
+    return storageValues;
+  }
+
+  private static List<byte[]> storageKeys(final Hash accountHash, final List<Hash> slotHashes) {
+    return slotHashes.stream()
+        .map(slotHash -> Bytes.concatenate(accountHash, slotHash).toArrayUnsafe())
+        .toList();
+  }
+
   public boolean isCodeByCodeHash() {
     return codeStorageStrategy instanceof CodeHashCodeStorageStrategy;
   }
@@ -130,6 +183,7 @@ public abstract class FlatDbStrategy {
       final SegmentedKeyValueStorageTransaction transaction,
       final Hash accountHash,
       final Bytes accountValue) {
+    flatDbFilter.ifPresent(filter -> filter.addAccount(accountHash));
     transaction.put(ACCOUNT_INFO_STATE, accountHash.toArrayUnsafe(), accountValue.toArrayUnsafe());
   }
 
@@ -146,6 +200,7 @@ public abstract class FlatDbStrategy {
       final Hash accountHash,
       final Hash slotHash,
       final Bytes storage) {
+    flatDbFilter.ifPresent(filter -> filter.addStorage(accountHash, slotHash));
     transaction.put(
         ACCOUNT_STORAGE_STORAGE,
         Bytes.concatenate(accountHash, slotHash).toArrayUnsafe(),
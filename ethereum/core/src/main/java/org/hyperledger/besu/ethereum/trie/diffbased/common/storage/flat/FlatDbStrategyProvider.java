@@ -43,6 +43,7 @@ public class FlatDbStrategyProvider {
   private final DataStorageConfiguration dataStorageConfiguration;
   protected FlatDbMode flatDbMode;
   protected FlatDbStrategy flatDbStrategy;
+  protected Optional<FlatDbFilter> flatDbFilter = Optional.empty();
 
   public FlatDbStrategyProvider(
       final MetricsSystem metricsSystem, final DataStorageConfiguration dataStorageConfiguration) {
@@ -62,13 +63,28 @@ public class FlatDbStrategyProvider {
               ? new CodeHashCodeStorageStrategy()
               : new AccountHashCodeStorageStrategy();
       if (flatDbMode == FlatDbMode.FULL) {
-        this.flatDbStrategy = new FullFlatDbStrategy(metricsSystem, codeStorageStrategy);
+        this.flatDbStrategy =
+            new FullFlatDbStrategy(metricsSystem, codeStorageStrategy, flatDbFilter);
       } else {
-        this.flatDbStrategy = new PartialFlatDbStrategy(metricsSystem, codeStorageStrategy);
+        this.flatDbStrategy =
+            new PartialFlatDbStrategy(metricsSystem, codeStorageStrategy, flatDbFilter);
       }
     }
   }
 
+  /**
+   * Filters the flat database reads of the strategies loaded from now on.
+   *
+   * @param flatDbFilter the filter of the persisted world state
+   */
+  public void setFlatDbFilter(final FlatDbFilter flatDbFilter) {
+    this.flatDbFilter = Optional.of(flatDbFilter);
+  }
+
+  public Optional<FlatDbFilter> getFlatDbFilter() {
+    return flatDbFilter;
+  }
+
   @VisibleForTesting
   FlatDbMode deriveFlatDbStrategy(final SegmentedKeyValueStorage composedWorldStateStorage) {
     final FlatDbMode requestedFlatDbMode =
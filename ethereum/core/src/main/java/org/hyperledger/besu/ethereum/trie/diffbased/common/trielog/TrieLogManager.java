@@ -129,6 +129,17 @@ public class TrieLogManager {
     return trieLogObservers.subscribe(sub);
   }
 
+  /**
+   * Serialize new trie logs in the compact format, unless they are created by a plugin.
+   *
+   * @param enabled true to use the compact format, false for RLP
+   */
+  public void setCompactTrieLogFormatEnabled(final boolean enabled) {
+    if (trieLogFactory instanceof TrieLogFactoryImpl defaultTrieLogFactory) {
+      defaultTrieLogFactory.setCompactFormatEnabled(enabled);
+    }
+  }
+
   public synchronized void unsubscribe(final long id) {
     trieLogObservers.unsubscribe(id);
   }
@@ -160,7 +171,15 @@ public class TrieLogManager {
     return new TrieLogProvider() {
       @Override
       public Optional<Bytes> getRawTrieLogLayer(final Hash blockHash) {
-        return rootWorldStateStorage.getTrieLog(blockHash).map(Bytes::wrap);
+        // plugins read raw trie logs as RLP, whatever the format they are stored in
+        return rootWorldStateStorage
+            .getTrieLog(blockHash)
+            .map(
+                trieLog ->
+                    trieLogFactory instanceof TrieLogFactoryImpl
+                        ? TrieLogFactoryImpl.toRlp(trieLog)
+                        : trieLog)
+            .map(Bytes::wrap);
       }
 
       @Override
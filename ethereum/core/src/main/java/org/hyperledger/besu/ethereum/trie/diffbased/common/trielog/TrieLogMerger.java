@@ -0,0 +1,135 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.trielog;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedValue;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Folds the trie logs between two blocks into a single net diff, so a world state can be rolled
+ * across many blocks touching each key once instead of once per block.
+ *
+ * <p>The diff keeps, for every key, the value before the first trie log and the value after the
+ * last one. Trie logs never change once written, so the diff between two blocks is always the same
+ * and the most recently merged diffs are cached, for historical queries that keep targeting the
+ * same block or reorgs that flip between the same forks.
+ */
+public class TrieLogMerger {
+
+  /** Upper bound of the changes held by all the cached diffs together. */
+  static final long DEFAULT_MAX_CACHED_CHANGES = 500_000;
+
+  private record Key(Hash fromBlockHash, Hash toBlockHash) {}
+
+  private final Cache<Key, TrieLogLayer> cache;
+
+  public TrieLogMerger() {
+    this(DEFAULT_MAX_CACHED_CHANGES);
+  }
+
+  TrieLogMerger(final long maxCachedChanges) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxCachedChanges)
+            .weigher((Key key, TrieLogLayer diff) -> changeCount(diff))
+            .build();
+  }
+
+  /**
+   * Gets the diff between two blocks if it was recently merged.
+   *
+   * @param fromBlockHash the block the world state is rolled from
+   * @param toBlockHash the block the world state is rolled to
+   * @return the cached diff, if any
+   */
+  public Optional<TrieLog> getCachedDiff(final Hash fromBlockHash, final Hash toBlockHash) {
+    return Optional.ofNullable(cache.getIfPresent(new Key(fromBlockHash, toBlockHash)));
+  }
+
+  /**
+   * Merges the trie logs between two blocks into a diff that rolls the world state forward from
+   * the first block to the second in a single pass.
+   *
+   * @param fromBlockHash the block the world state is rolled from
+   * @param toBlockHash the block the world state is rolled to
+   * @param rollBacks the trie logs to roll back, newest first
+   * @param rollForwards the trie logs to roll forward, oldest first
+   * @return the frozen net diff
+   */
+  public TrieLog merge(
+      final Hash fromBlockHash,
+      final Hash toBlockHash,
+      final List<TrieLog> rollBacks,
+      final List<TrieLog> rollForwards) {
+    final TrieLogLayer diff = new TrieLogLayer();
+    diff.setBlockHash(toBlockHash);
+    rollBacks.forEach(rollBack -> fold(diff, rollBack, true));
+    rollForwards.forEach(rollForward -> fold(diff, rollForward, false));
+    diff.freeze();
+    if (rollBacks.size() + rollForwards.size() > 1) {
+      cache.put(new Key(fromBlockHash, toBlockHash), diff);
+    }
+    return diff;
+  }
+
+  private static void fold(final TrieLogLayer diff, final TrieLog trieLog, final boolean rollBack) {
+    trieLog
+        .getAccountChanges()
+        .forEach((address, change) -> fold(diff.getAccounts(), address, change, rollBack));
+    trieLog
+        .getCodeChanges()
+        .forEach((address, change) -> fold(diff.getCode(), address, change, rollBack));
+    trieLog
+        .getStorageChanges()
+        .forEach(
+            (address, slots) -> {
+              final var storage = diff.getStorage().computeIfAbsent(address, a -> new TreeMap<>());
+              slots.forEach((slotKey, change) -> fold(storage, slotKey, change, rollBack));
+            });
+  }
+
+  private static <K, T> void fold(
+      final Map<K, DiffBasedValue<T>> diff,
+      final K key,
+      final TrieLog.LogTuple<T> change,
+      final boolean rollBack) {
+    final T from = rollBack ? change.getUpdated() : change.getPrior();
+    final T to = rollBack ? change.getPrior() : change.getUpdated();
+    final DiffBasedValue<T> merged = diff.get(key);
+    if (merged == null) {
+      diff.put(key, new DiffBasedValue<>(from, to, to == null));
+    } else {
+      // the first prior is kept, only the last updated value matters
+      merged.setUpdated(to);
+    }
+  }
+
+  private static int changeCount(final TrieLogLayer diff) {
+    long count = diff.getAccounts().size() + diff.getCode().size();
+    for (final Map<?, ?> slots : diff.getStorage().values()) {
+      count += slots.size();
+    }
+    return (int) Math.min(count, Integer.MAX_VALUE);
+  }
+}
@@ -14,12 +14,20 @@
  */
 package org.hyperledger.besu.ethereum.trie.diffbased.common.worldview;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
 public class DiffBasedWorldStateConfig {
 
   private boolean isFrozen;
 
   private boolean isTrieDisabled;
 
+  private Optional<ForkJoinPool> stateRootPool = Optional.empty();
+
+  private Optional<ExecutorService> statePrefetchExecutor = Optional.empty();
+
   public DiffBasedWorldStateConfig() {
     this(false, false);
   }
@@ -30,6 +38,8 @@ public class DiffBasedWorldStateConfig {
 
   public DiffBasedWorldStateConfig(final DiffBasedWorldStateConfig config) {
     this(config.isFrozen(), config.isTrieDisabled());
+    this.stateRootPool = config.getStateRootPool();
+    this.statePrefetchExecutor = config.getStatePrefetchExecutor();
   }
 
   public DiffBasedWorldStateConfig(final boolean isFrozen, final boolean isTrieDisabled) {
@@ -76,4 +86,52 @@ public class DiffBasedWorldStateConfig {
   public void setTrieDisabled(final boolean trieDisabled) {
     isTrieDisabled = trieDisabled;
   }
+
+  /**
+   * Gets the pool the storage tries of modified accounts are updated in when calculating the state
+   * root. The pool is shared by every world state copied from this configuration.
+   *
+   * @return the pool, or empty if the storage tries are updated by the calling thread.
+   */
+  public Optional<ForkJoinPool> getStateRootPool() {
+    return stateRootPool;
+  }
+
+  /**
+   * Sets the pool the storage tries of modified accounts are updated in when calculating the state
+   * root.
+   *
+   * @param stateRootPool the pool, or empty to update them on the calling thread.
+   */
+  public void setStateRootPool(final Optional<ForkJoinPool> stateRootPool) {
+    this.stateRootPool = stateRootPool;
+  }
+
+  /**
+   * Checks if the state a block is expected to access is prefetched before the block is executed.
+   *
+   * @return true if the state is prefetched, false otherwise.
+   */
+  public boolean isStatePrefetchEnabled() {
+    return statePrefetchExecutor.isPresent();
+  }
+
+  /**
+   * Gets the executor the state a block is expected to access is prefetched in. The executor is
+   * shared by every world state copied from this configuration.
+   *
+   * @return the executor, or empty if the state is not prefetched.
+   */
+  public Optional<ExecutorService> getStatePrefetchExecutor() {
+    return statePrefetchExecutor;
+  }
+
+  /**
+   * Sets the executor the state a block is expected to access is prefetched in.
+   *
+   * @param statePrefetchExecutor the executor, or empty to not prefetch the state.
+   */
+  public void setStatePrefetchExecutor(final Optional<ExecutorService> statePrefetchExecutor) {
+    this.statePrefetchExecutor = statePrefetchExecutor;
+  }
 }
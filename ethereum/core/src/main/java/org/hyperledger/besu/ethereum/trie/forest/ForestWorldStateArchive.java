@@ -18,6 +18,7 @@ import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.proof.ProofNodeCache;
 import org.hyperledger.besu.ethereum.proof.WorldStateProof;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
@@ -51,7 +52,8 @@ public class ForestWorldStateArchive implements WorldStateArchive {
     this.worldStateKeyValueStorage =
         worldStateStorageCoordinator.getStrategy(ForestWorldStateKeyValueStorage.class);
     this.preimageStorage = preimageStorage;
-    this.worldStateProof = new WorldStateProofProvider(worldStateStorageCoordinator);
+    this.worldStateProof =
+        new WorldStateProofProvider(worldStateStorageCoordinator, new ProofNodeCache());
     this.evmConfiguration = evmConfiguration;
   }
 
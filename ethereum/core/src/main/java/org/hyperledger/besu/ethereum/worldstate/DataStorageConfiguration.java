@@ -27,6 +27,7 @@ public interface DataStorageConfiguration {
   long MINIMUM_BONSAI_TRIE_LOG_RETENTION_LIMIT = DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
   int DEFAULT_BONSAI_TRIE_LOG_PRUNING_WINDOW_SIZE = 5_000;
   boolean DEFAULT_RECEIPT_COMPACTION_ENABLED = false;
+  long DEFAULT_BONSAI_TRIE_CACHE_SIZE = 128 * 1024 * 1024;
 
   DataStorageConfiguration DEFAULT_CONFIG =
       ImmutableDataStorageConfiguration.builder()
@@ -74,6 +75,11 @@ public interface DataStorageConfiguration {
     return DEFAULT_RECEIPT_COMPACTION_ENABLED;
   }
 
+  @Value.Default
+  default long getBonsaiTrieCacheSize() {
+    return DEFAULT_BONSAI_TRIE_CACHE_SIZE;
+  }
+
   @Value.Default
   default Unstable getUnstable() {
     return Unstable.DEFAULT;
@@ -87,6 +93,24 @@ public interface DataStorageConfiguration {
 
     boolean DEFAULT_PARALLEL_TRX_ENABLED = false;
 
+    int DEFAULT_BONSAI_STATE_ROOT_PARALLELISM = 1;
+
+    boolean DEFAULT_BONSAI_STATE_PREFETCH_ENABLED = false;
+
+    long DEFAULT_BONSAI_FLAT_DB_FILTER_SIZE = 0;
+
+    boolean DEFAULT_BONSAI_TRIE_LOG_COMPACT_FORMAT_ENABLED = false;
+
+    boolean DEFAULT_BONSAI_HISTORICAL_STATE_INDEX_ENABLED = false;
+
+    long DEFAULT_BONSAI_FLAT_DB_READ_CACHE_SIZE = 0;
+
+    boolean DEFAULT_BONSAI_SHARED_HEAD_SNAPSHOT_ENABLED = false;
+
+    boolean DEFAULT_BLOCKCHAIN_SEGMENTS_ENABLED = false;
+
+    boolean DEFAULT_RECEIPT_COMPACT_FORMAT_ENABLED = false;
+
     DataStorageConfiguration.Unstable DEFAULT =
         ImmutableDataStorageConfiguration.Unstable.builder().build();
 
@@ -107,5 +131,50 @@ public interface DataStorageConfiguration {
     default boolean isParallelTxProcessingEnabled() {
       return DEFAULT_PARALLEL_TRX_ENABLED;
     }
+
+    @Value.Default
+    default int getBonsaiStateRootParallelism() {
+      return DEFAULT_BONSAI_STATE_ROOT_PARALLELISM;
+    }
+
+    @Value.Default
+    default boolean isBonsaiStatePrefetchEnabled() {
+      return DEFAULT_BONSAI_STATE_PREFETCH_ENABLED;
+    }
+
+    @Value.Default
+    default long getBonsaiFlatDbFilterSize() {
+      return DEFAULT_BONSAI_FLAT_DB_FILTER_SIZE;
+    }
+
+    @Value.Default
+    default boolean isBonsaiTrieLogCompactFormatEnabled() {
+      return DEFAULT_BONSAI_TRIE_LOG_COMPACT_FORMAT_ENABLED;
+    }
+
+    @Value.Default
+    default boolean isBonsaiHistoricalStateIndexEnabled() {
+      return DEFAULT_BONSAI_HISTORICAL_STATE_INDEX_ENABLED;
+    }
+
+    @Value.Default
+    default long getBonsaiFlatDbReadCacheSize() {
+      return DEFAULT_BONSAI_FLAT_DB_READ_CACHE_SIZE;
+    }
+
+    @Value.Default
+    default boolean isBonsaiSharedHeadSnapshotEnabled() {
+      return DEFAULT_BONSAI_SHARED_HEAD_SNAPSHOT_ENABLED;
+    }
+
+    @Value.Default
+    default boolean isBlockchainSegmentsEnabled() {
+      return DEFAULT_BLOCKCHAIN_SEGMENTS_ENABLED;
+    }
+
+    @Value.Default
+    default boolean isReceiptCompactFormatEnabled() {
+      return DEFAULT_RECEIPT_COMPACT_FORMAT_ENABLED;
+    }
   }
 }
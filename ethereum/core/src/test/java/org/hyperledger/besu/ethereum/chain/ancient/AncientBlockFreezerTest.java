@@ -0,0 +1,212 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.chain.VariablesStorage;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.VariablesKeyValueStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AncientBlockFreezerTest {
+  private static final long BLOCKS_RETAINED = 10;
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final Map<Long, List<TransactionReceipt>> receiptsByNumber = new HashMap<>();
+  @TempDir private Path tempDir;
+  private final VariablesStorage variablesStorage =
+      new VariablesKeyValueStorage(new InMemoryKeyValueStorage());
+  private final ExecutorService freezingExecutor = MoreExecutors.newDirectExecutorService();
+  private BlockchainStorage recentStorage;
+  private AncientStore ancientStore;
+  private MutableBlockchain blockchain;
+  private AncientBlockFreezer freezer;
+  private List<Block> blocks;
+
+  @BeforeEach
+  public void setup() {
+    recentStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            new InMemoryKeyValueStorage(),
+            variablesStorage,
+            new MainnetBlockHeaderFunctions(),
+            false);
+    ancientStore = AncientStore.open(tempDir, new MainnetBlockHeaderFunctions());
+    final Block genesisBlock = gen.genesisBlock();
+    blockchain =
+        DefaultBlockchain.createMutable(
+            genesisBlock,
+            new AncientBlockchainStorage(recentStorage, ancientStore),
+            new NoOpMetricsSystem(),
+            0);
+    freezer =
+        new AncientBlockFreezer(
+            blockchain,
+            recentStorage,
+            variablesStorage,
+            ancientStore,
+            BLOCKS_RETAINED,
+            freezingExecutor);
+    blocks = gen.blockSequence(genesisBlock, 100);
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    ancientStore.close();
+  }
+
+  @Test
+  public void blocksBeforeFinalizedMinusRetainedAreMoved() {
+    appendBlocks();
+    blockchain.setFinalized(blocks.get(79).getHash());
+
+    freezer.freeze();
+
+    assertThat(ancientStore.getNextBlockNumber()).hasValue(71);
+    assertMovedToAncientStore(blocks.subList(0, 70));
+    assertKeptInRecentStorage(blocks.subList(70, 100));
+    assertReadThroughBlockchain(blocks);
+  }
+
+  @Test
+  public void ancientStoreIsMarkedInUseOnceBlocksAreMoved() {
+    appendBlocks();
+    // not enough blocks behind the finalized one yet
+    blockchain.setFinalized(blocks.get(5).getHash());
+    freezer.freeze();
+    assertThat(variablesStorage.isAncientStoreInUse()).isFalse();
+
+    blockchain.setFinalized(blocks.get(79).getHash());
+    freezer.freeze();
+
+    assertThat(variablesStorage.isAncientStoreInUse()).isTrue();
+  }
+
+  @Test
+  public void nothingIsMovedOnceTheExecutorIsShutDown() {
+    appendBlocks();
+    blockchain.setFinalized(blocks.get(79).getHash());
+    freezingExecutor.shutdown();
+
+    freezer.freeze();
+
+    assertThat(ancientStore.getNextBlockNumber()).isEmpty();
+    assertKeptInRecentStorage(blocks);
+    assertThat(variablesStorage.isAncientStoreInUse()).isFalse();
+  }
+
+  @Test
+  public void chainHeadIsUsedWithoutFinalizedBlock() {
+    blockchain.observeBlockAdded(freezer);
+    appendBlocks();
+
+    assertThat(ancientStore.getNextBlockNumber()).hasValue(91);
+    assertMovedToAncientStore(blocks.subList(0, 90));
+    assertKeptInRecentStorage(blocks.subList(90, 100));
+    assertReadThroughBlockchain(blocks);
+  }
+
+  @Test
+  public void freezingStartsAtFirstBlockWithData() {
+    appendBlocks();
+    blockchain.setFinalized(blocks.get(79).getHash());
+    // as after a checkpoint sync, the oldest blocks have no body nor receipts
+    final BlockchainStorage.Updater updater = recentStorage.updater();
+    blocks
+        .subList(0, 30)
+        .forEach(
+            block -> {
+              updater.removeBlockBody(block.getHash());
+              updater.removeTransactionReceipts(block.getHash());
+            });
+    updater.commit();
+
+    freezer.freeze();
+
+    assertThat(ancientStore.getNextBlockNumber()).hasValue(71);
+    assertThat(ancientStore.getBlockBody(30)).isEmpty();
+    assertMovedToAncientStore(blocks.subList(30, 70));
+    assertKeptInRecentStorage(blocks.subList(70, 100));
+  }
+
+  @Test
+  public void furtherBlocksAreAppendedToAncientStore() {
+    appendBlocks();
+    blockchain.setFinalized(blocks.get(49).getHash());
+    freezer.freeze();
+    assertThat(ancientStore.getNextBlockNumber()).hasValue(41);
+
+    blockchain.setFinalized(blocks.get(89).getHash());
+    freezer.freeze();
+
+    assertThat(ancientStore.getNextBlockNumber()).hasValue(81);
+    assertMovedToAncientStore(blocks.subList(0, 80));
+    assertReadThroughBlockchain(blocks);
+  }
+
+  private void appendBlocks() {
+    for (final Block block : blocks) {
+      final List<TransactionReceipt> receipts = gen.receipts(block);
+      receiptsByNumber.put(block.getHeader().getNumber(), receipts);
+      blockchain.appendBlock(block, receipts);
+    }
+  }
+
+  private void assertMovedToAncientStore(final List<Block> movedBlocks) {
+    for (final Block block : movedBlocks) {
+      assertThat(recentStorage.getBlockBody(block.getHash())).isEmpty();
+      assertThat(recentStorage.getTransactionReceipts(block.getHash())).isEmpty();
+      assertThat(ancientStore.getBlockBody(block.getHeader().getNumber()))
+          .contains(block.getBody());
+    }
+  }
+
+  private void assertKeptInRecentStorage(final List<Block> recentBlocks) {
+    for (final Block block : recentBlocks) {
+      assertThat(recentStorage.getBlockBody(block.getHash())).contains(block.getBody());
+      assertThat(ancientStore.getBlockBody(block.getHeader().getNumber())).isEmpty();
+    }
+  }
+
+  private void assertReadThroughBlockchain(final List<Block> expectedBlocks) {
+    for (final Block block : expectedBlocks) {
+      assertThat(blockchain.getBlockBody(block.getHash())).contains(block.getBody());
+      assertThat(blockchain.getTxReceipts(block.getHash()))
+          .contains(receiptsByNumber.get(block.getHeader().getNumber()));
+    }
+  }
+}
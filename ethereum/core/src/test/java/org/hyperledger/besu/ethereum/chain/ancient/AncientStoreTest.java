@@ -0,0 +1,182 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain.ancient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AncientStoreTest {
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final Map<Long, List<TransactionReceipt>> receiptsByNumber = new HashMap<>();
+  @TempDir private Path tempDir;
+
+  @Test
+  public void appendedBlocksAreReadBack() throws IOException {
+    final List<Block> blocks = gen.blockSequence(10);
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      assertThat(ancientStore.getNextBlockNumber()).isEmpty();
+      appendAll(ancientStore, blocks);
+
+      assertThat(ancientStore.getNextBlockNumber()).hasValue(10);
+      assertBlocksPresent(ancientStore, blocks);
+      assertThat(ancientStore.getBlockBody(10)).isEmpty();
+    }
+  }
+
+  @Test
+  public void blocksCanStartAtAnyNumber() throws IOException {
+    final Block genesisBlock = gen.genesisBlock();
+    final List<Block> blocks = gen.blockSequence(genesisBlock, 5);
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      appendAll(ancientStore, blocks);
+
+      assertThat(ancientStore.getNextBlockNumber()).hasValue(6);
+      assertThat(ancientStore.getBlockBody(0)).isEmpty();
+      assertBlocksPresent(ancientStore, blocks);
+    }
+  }
+
+  @Test
+  public void blocksAreReadAfterReopening() throws IOException {
+    final List<Block> blocks = gen.blockSequence(10);
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      appendAll(ancientStore, blocks.subList(0, 5));
+    }
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      assertThat(ancientStore.getNextBlockNumber()).hasValue(5);
+      appendAll(ancientStore, blocks.subList(5, 10));
+      assertBlocksPresent(ancientStore, blocks);
+    }
+  }
+
+  @Test
+  public void dataFilesRollOverWhenFull() throws IOException {
+    final List<Block> blocks = gen.blockSequence(20);
+    try (final AncientStore ancientStore = open(512)) {
+      appendAll(ancientStore, blocks);
+      assertBlocksPresent(ancientStore, blocks);
+    }
+    try (final Stream<Path> files = Files.list(tempDir)) {
+      assertThat(files.filter(file -> file.toString().endsWith(".cdat")).count()).isGreaterThan(2);
+    }
+    try (final AncientStore ancientStore = open(512)) {
+      assertBlocksPresent(ancientStore, blocks);
+    }
+  }
+
+  @Test
+  public void partiallyAppendedBlockIsDroppedOnOpen() throws IOException {
+    final List<Block> blocks = gen.blockSequence(3);
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      appendAll(ancientStore, blocks.subList(0, 2));
+    }
+    // the receipts of the next block were written but not its body
+    try (final AncientTable receipts =
+        new AncientTable(tempDir, "receipts", AncientTable.MAX_DATA_FILE_SIZE)) {
+      receipts.append(2, Bytes.of(1, 2, 3));
+    }
+
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      assertThat(ancientStore.getNextBlockNumber()).hasValue(2);
+      assertThat(ancientStore.getTransactionReceipts(2)).isEmpty();
+      appendAll(ancientStore, blocks.subList(2, 3));
+      assertBlocksPresent(ancientStore, blocks);
+    }
+  }
+
+  @Test
+  public void blocksWhoseDataDidNotReachTheDiskAreDroppedOnOpen() throws IOException {
+    final List<Block> blocks = gen.blockSequence(5);
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      appendAll(ancientStore, blocks);
+    }
+    // the index was flushed but the end of the last body was lost
+    final Path bodiesDataFile = tempDir.resolve("bodies-0000.cdat");
+    try (final FileChannel dataFile = FileChannel.open(bodiesDataFile, StandardOpenOption.WRITE)) {
+      dataFile.truncate(dataFile.size() - 1);
+    }
+
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      assertThat(ancientStore.getNextBlockNumber()).hasValue(4);
+      assertThat(ancientStore.getBlockBody(4)).isEmpty();
+      assertThat(ancientStore.getTransactionReceipts(4)).isEmpty();
+      assertBlocksPresent(ancientStore, blocks.subList(0, 4));
+      appendAll(ancientStore, blocks.subList(4, 5));
+      assertBlocksPresent(ancientStore, blocks);
+    }
+  }
+
+  @Test
+  public void existsOnceOpened() throws IOException {
+    final Path directory = tempDir.resolve("ancient");
+    assertThat(AncientStore.exists(directory)).isFalse();
+    AncientStore.open(directory, new MainnetBlockHeaderFunctions()).close();
+    assertThat(AncientStore.exists(directory)).isTrue();
+  }
+
+  @Test
+  public void blocksMustBeAppendedInOrder() throws IOException {
+    final List<Block> blocks = gen.blockSequence(3);
+    try (final AncientStore ancientStore = open(AncientTable.MAX_DATA_FILE_SIZE)) {
+      appendAll(ancientStore, blocks.subList(0, 1));
+
+      final Block block = blocks.get(2);
+      assertThatThrownBy(() -> ancientStore.append(2, block.getBody(), gen.receipts(block)))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  private AncientStore open(final long maxDataFileSize) {
+    return AncientStore.open(tempDir, new MainnetBlockHeaderFunctions(), maxDataFileSize);
+  }
+
+  private void appendAll(final AncientStore ancientStore, final List<Block> blocks) {
+    for (final Block block : blocks) {
+      final long blockNumber = block.getHeader().getNumber();
+      final List<TransactionReceipt> receipts = gen.receipts(block);
+      receiptsByNumber.put(blockNumber, receipts);
+      ancientStore.append(blockNumber, block.getBody(), receipts);
+    }
+    ancientStore.sync();
+  }
+
+  private void assertBlocksPresent(final AncientStore ancientStore, final List<Block> blocks) {
+    for (final Block block : blocks) {
+      final long blockNumber = block.getHeader().getNumber();
+      assertThat(ancientStore.getBlockBody(blockNumber)).contains(block.getBody());
+      assertThat(ancientStore.getTransactionReceipts(blockNumber))
+          .contains(receiptsByNumber.get(blockNumber));
+    }
+  }
+}
@@ -73,4 +73,20 @@ public class TransactionReceiptTest {
     assertThat(TransactionReceipt.readFrom(RLP.input(compactedReceipt))).isEqualTo(receipt);
     assertThat(TransactionReceipt.readFrom(RLP.input(unCompactedReceipt))).isEqualTo(receipt);
   }
+
+  @Test
+  public void toFromCompactStorage() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final TransactionReceipt receipt = gen.receipt(Bytes.fromHexString("0x1122334455667788"));
+    final long previousCumulativeGasUsed = receipt.getCumulativeGasUsed() / 2;
+    final TransactionReceipt copy =
+        TransactionReceipt.readFromCompactStorage(
+            RLP.input(
+                RLP.encode(
+                    rlpOut -> receipt.writeToForCompactStorage(rlpOut, previousCumulativeGasUsed))),
+            previousCumulativeGasUsed);
+    assertThat(copy).isEqualTo(receipt);
+    assertThat(copy.getBloomFilter()).isEqualTo(receipt.getBloomFilter());
+    assertThat(copy.getRevertReason()).isEqualTo(receipt.getRevertReason());
+  }
 }
@@ -19,27 +19,36 @@ import static java.util.Collections.emptyMap;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.hyperledger.besu.datatypes.AccessListEntry;
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.GWei;
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.Withdrawal;
 import org.hyperledger.besu.ethereum.mainnet.blockhash.FrontierBlockHashProcessor;
 import org.hyperledger.besu.ethereum.mainnet.requests.RequestsValidatorCoordinator;
 import org.hyperledger.besu.ethereum.referencetests.ReferenceTestBlockchain;
 import org.hyperledger.besu.ethereum.referencetests.ReferenceTestWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldState;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
 import org.apache.tuweni.units.bigints.UInt64;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -133,6 +142,44 @@ abstract class AbstractBlockProcessorTest {
     verify(withdrawalsProcessor, never()).processWithdrawals(any(), any());
   }
 
+  @Test
+  void declaredStateIsPrefetchedForBonsaiWorldState() {
+    final BonsaiWorldState bonsaiWorldState = mock(BonsaiWorldState.class);
+    when(bonsaiWorldState.isStatePrefetchEnabled()).thenReturn(true);
+    final Address coinbase = Address.fromHexString("0x1");
+    final Address sender = Address.fromHexString("0x2");
+    final Address recipient = Address.fromHexString("0x3");
+    final Address accessed = Address.fromHexString("0x4");
+    final Address withdrawalRecipient = Address.fromHexString("0x5");
+    final Transaction transaction = mock(Transaction.class);
+    when(transaction.getSender()).thenReturn(sender);
+    when(transaction.getTo()).thenReturn(Optional.of(recipient));
+    when(transaction.getAccessList())
+        .thenReturn(Optional.of(List.of(new AccessListEntry(accessed, List.of(Bytes32.ZERO)))));
+
+    AbstractBlockProcessor.prefetchState(
+        bonsaiWorldState,
+        List.of(transaction),
+        coinbase,
+        Optional.of(
+            List.of(new Withdrawal(UInt64.ONE, UInt64.ONE, withdrawalRecipient, GWei.ONE))));
+
+    verify(bonsaiWorldState)
+        .prefetch(
+            Set.of(coinbase, sender, recipient, accessed, withdrawalRecipient),
+            Map.of(accessed, Set.of(new StorageSlotKey(UInt256.ZERO))));
+  }
+
+  @Test
+  void stateIsNotPrefetchedWhenDisabled() {
+    final BonsaiWorldState bonsaiWorldState = mock(BonsaiWorldState.class);
+
+    AbstractBlockProcessor.prefetchState(
+        bonsaiWorldState, List.of(mock(Transaction.class)), Address.ZERO, Optional.empty());
+
+    verify(bonsaiWorldState, never()).prefetch(any(), any());
+  }
+
   private static class TestBlockProcessor extends AbstractBlockProcessor {
 
     protected TestBlockProcessor(
@@ -0,0 +1,62 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.proof;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.trie.NodeLoader;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class ProofNodeCacheTest {
+
+  private final Bytes32 nodeHash = Bytes32.fromHexStringLenient("0x01");
+  private final Bytes node = Bytes.of(1, 2, 3);
+  private final AtomicInteger loads = new AtomicInteger();
+  private final NodeLoader storage =
+      (location, hash) -> {
+        loads.incrementAndGet();
+        return Optional.ofNullable(Map.of(nodeHash, node).get(hash));
+      };
+
+  @Test
+  void nodesAreLoadedOnceAcrossLoaders() {
+    final ProofNodeCache proofNodeCache = new ProofNodeCache();
+
+    assertThat(proofNodeCache.cached(storage).getNode(Bytes.EMPTY, nodeHash)).contains(node);
+    assertThat(proofNodeCache.cached(storage).getNode(Bytes.of(1), nodeHash)).contains(node);
+
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(proofNodeCache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void missingNodesAreNotCached() {
+    final ProofNodeCache proofNodeCache = new ProofNodeCache();
+    final NodeLoader cachedStorage = proofNodeCache.cached(storage);
+
+    assertThat(cachedStorage.getNode(Bytes.EMPTY, Bytes32.ZERO)).isEmpty();
+    assertThat(cachedStorage.getNode(Bytes.EMPTY, Bytes32.ZERO)).isEmpty();
+
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(proofNodeCache.size()).isZero();
+  }
+}
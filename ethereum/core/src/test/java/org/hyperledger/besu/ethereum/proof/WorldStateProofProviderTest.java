@@ -128,6 +128,44 @@ public class WorldStateProofProviderTest {
     assertThat(accountProof).isEmpty();
   }
 
+  @Test
+  public void getProofThroughNodeCacheMatchesUncachedProof() {
+    final MerkleTrie<Bytes32, Bytes> worldStateTrie = emptyWorldStateTrie();
+    final MerkleTrie<Bytes32, Bytes> storageTrie = emptyStorageTrie();
+    final ForestWorldStateKeyValueStorage.Updater updater = worldStateKeyValueStorage.updater();
+    for (int i = 1; i <= 20; i++) {
+      writeStorageValue(storageTrie, UInt256.valueOf(i), UInt256.valueOf(i * 2L));
+    }
+    storageTrie.commit((location, hash, value) -> updater.putAccountStorageTrieNode(hash, value));
+    final StateTrieAccountValue accountValue =
+        new StateTrieAccountValue(1L, Wei.of(2L), Hash.wrap(storageTrie.getRootHash()), Hash.EMPTY);
+    worldStateTrie.put(address.addressHash(), RLP.encode(accountValue::writeTo));
+    worldStateTrie.commit((location, hash, value) -> updater.putAccountStateTrieNode(hash, value));
+    updater.commit();
+
+    final ProofNodeCache proofNodeCache = new ProofNodeCache();
+    final WorldStateProofProvider cachingProofProvider =
+        new WorldStateProofProvider(
+            new WorldStateStorageCoordinator(worldStateKeyValueStorage), proofNodeCache);
+    final Hash worldStateRoot = Hash.wrap(worldStateTrie.getRootHash());
+    final List<UInt256> storageKeys = List.of(UInt256.ONE, UInt256.valueOf(7L));
+    final WorldStateProof expectedProof =
+        worldStateProofProvider.getAccountProof(worldStateRoot, address, storageKeys).get();
+
+    for (int i = 0; i < 2; i++) {
+      final WorldStateProof proof =
+          cachingProofProvider.getAccountProof(worldStateRoot, address, storageKeys).get();
+      assertThat(proof.getAccountProof()).isEqualTo(expectedProof.getAccountProof());
+      for (final UInt256 storageKey : storageKeys) {
+        assertThat(proof.getStorageValue(storageKey))
+            .isEqualTo(expectedProof.getStorageValue(storageKey));
+        assertThat(proof.getStorageProof(storageKey))
+            .isEqualTo(expectedProof.getStorageProof(storageKey));
+      }
+    }
+    assertThat(proofNodeCache.size()).isPositive();
+  }
+
   private void writeStorageValue(
       final MerkleTrie<Bytes32, Bytes> storageTrie, final UInt256 key, final UInt256 value) {
     storageTrie.put(storageKeyHash(key), encodeStorageValue(value));
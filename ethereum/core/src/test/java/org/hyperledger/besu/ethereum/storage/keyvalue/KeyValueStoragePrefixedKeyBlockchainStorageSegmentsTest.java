@@ -0,0 +1,272 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_RECEIPTS;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.VARIABLES;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.BLOCK_HEADER_PREFIX;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.RECEIPTS_CONVERSION_BATCH_SIZE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage.TRANSACTION_RECEIPTS_PREFIX;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.chain.VariablesStorage;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.ImmutableDataStorageConfiguration;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class KeyValueStoragePrefixedKeyBlockchainStorageSegmentsTest {
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private SegmentedInMemoryKeyValueStorage storage;
+  private VariablesStorage variablesStorage;
+
+  @BeforeEach
+  public void setup() {
+    final List<SegmentIdentifier> segments = new ArrayList<>();
+    segments.add(BLOCKCHAIN);
+    segments.addAll(KeyValueStoragePrefixedKeyBlockchainStorage.BLOCKCHAIN_SEGMENTS);
+    storage = new SegmentedInMemoryKeyValueStorage(segments);
+    variablesStorage =
+        new VariablesKeyValueStorage(
+            new SegmentedKeyValueStorageAdapter(VARIABLES, new SegmentedInMemoryKeyValueStorage()));
+  }
+
+  @Test
+  public void blockchainDataWrittenIsReadFromDedicatedSegments() {
+    final var blockchainStorage = createSegmentedBlockchainStorage();
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    final var updater = blockchainStorage.updater();
+    putBlock(updater, block, receipts);
+    updater.commit();
+
+    assertBlockPresent(blockchainStorage, block, receipts);
+    assertThat(storage.stream(BLOCKCHAIN)).isEmpty();
+  }
+
+  @Test
+  public void copyFromPrefixedKeysMovesAllTheBlockchainData() {
+    final var prefixedBlockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            new SegmentedKeyValueStorageAdapter(BLOCKCHAIN, storage),
+            variablesStorage,
+            new MainnetBlockHeaderFunctions(),
+            true);
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    final var updater = prefixedBlockchainStorage.updater();
+    putBlock(updater, block, receipts);
+    updater.commit();
+
+    final long copied = KeyValueStoragePrefixedKeyBlockchainStorage.copyFromPrefixedKeys(storage);
+
+    // header, body, receipts, canonical hash, total difficulty and one location per transaction
+    assertThat(copied).isEqualTo(5 + block.getBody().getTransactions().size());
+    assertBlockPresent(createSegmentedBlockchainStorage(), block, receipts);
+    // the source is left untouched, so an interrupted copy can be run again
+    assertThat(storage.stream(BLOCKCHAIN)).hasSize((int) copied);
+  }
+
+  @Test
+  public void prefixedDataLeftByAnInterruptedMigrationIsDroppedOnStartup() {
+    final var storageProvider = new InMemoryKeyValueStorageProvider();
+    final KeyValueStorage prefixedStorage =
+        storageProvider.getStorageBySegmentIdentifier(BLOCKCHAIN);
+    final KeyValueStorageTransaction transaction = prefixedStorage.startTransaction();
+    transaction.put(
+        Bytes.concatenate(BLOCK_HEADER_PREFIX, Bytes32.ZERO).toArrayUnsafe(), new byte[] {1});
+    transaction.commit();
+
+    storageProvider.createBlockchainStorage(
+        mock(ProtocolSchedule.class),
+        variablesStorage,
+        ImmutableDataStorageConfiguration.copyOf(DataStorageConfiguration.DEFAULT_BONSAI_CONFIG)
+            .withUnstable(
+                ImmutableDataStorageConfiguration.Unstable.builder()
+                    .isBlockchainSegmentsEnabled(true)
+                    .build()));
+
+    assertThat(prefixedStorage.streamKeys()).isEmpty();
+  }
+
+  @Test
+  public void receiptsAreConvertedToCompactFormat() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+    final var updater = createSegmentedBlockchainStorage().updater();
+    putBlock(updater, block, receipts);
+    updater.commit();
+
+    final var blockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            storage, variablesStorage, new MainnetBlockHeaderFunctions(), true, true);
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isEqualTo(1);
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isZero();
+
+    assertThat(storage.get(BLOCKCHAIN_RECEIPTS, block.getHash().toArrayUnsafe()))
+        .hasValueSatisfying(
+            bytes ->
+                assertThat(TransactionReceiptsStorageCodec.isCompactFormat(Bytes.wrap(bytes)))
+                    .isTrue());
+    assertBlockPresent(blockchainStorage, block, receipts);
+  }
+
+  @Test
+  public void receiptsAreNotScannedAgainOnceConverted() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+    final var blockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            storage, variablesStorage, new MainnetBlockHeaderFunctions(), true, true);
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isZero();
+    assertThat(variablesStorage.isReceiptsCompactFormatConverted()).isTrue();
+
+    final var transaction = storage.startTransaction();
+    transaction.put(
+        BLOCKCHAIN_RECEIPTS,
+        block.getHash().toArrayUnsafe(),
+        TransactionReceiptsStorageCodec.encode(receipts, false).toArrayUnsafe());
+    transaction.commit();
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isZero();
+
+    // opening the storage with the legacy format asks for a new conversion
+    new KeyValueStoragePrefixedKeyBlockchainStorage(
+        storage, variablesStorage, new MainnetBlockHeaderFunctions(), true, false);
+    assertThat(variablesStorage.isReceiptsCompactFormatConverted()).isFalse();
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isEqualTo(1);
+    assertThat(blockchainStorage.getTransactionReceipts(block.getHash())).contains(receipts);
+  }
+
+  @Test
+  public void receiptsAreConvertedInBatches() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+    final Bytes legacyReceipts = TransactionReceiptsStorageCodec.encode(receipts, false);
+    final Bytes compactReceipts = TransactionReceiptsStorageCodec.encodeCompact(receipts);
+    final int legacyBlocks = 2 * RECEIPTS_CONVERSION_BATCH_SIZE + 1;
+    final List<Bytes32> blockHashes = new ArrayList<>();
+    final var transaction = storage.startTransaction();
+    for (int i = 0; i < legacyBlocks + 10; i++) {
+      final Bytes32 blockHash = gen.hash();
+      blockHashes.add(blockHash);
+      transaction.put(
+          BLOCKCHAIN_RECEIPTS,
+          blockHash.toArrayUnsafe(),
+          (i < legacyBlocks ? legacyReceipts : compactReceipts).toArrayUnsafe());
+    }
+    transaction.commit();
+
+    final var blockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            storage, variablesStorage, new MainnetBlockHeaderFunctions(), true, true);
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat())
+        .isEqualTo(legacyBlocks);
+
+    for (final Bytes32 blockHash : blockHashes) {
+      assertThat(storage.get(BLOCKCHAIN_RECEIPTS, blockHash.toArrayUnsafe()))
+          .hasValueSatisfying(
+              bytes ->
+                  assertThat(TransactionReceiptsStorageCodec.isCompactFormat(Bytes.wrap(bytes)))
+                      .isTrue());
+    }
+  }
+
+  @Test
+  public void prefixedReceiptsAreConvertedToCompactFormat() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+    final var blockchainSegment = new SegmentedKeyValueStorageAdapter(BLOCKCHAIN, storage);
+    final var updater =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+                blockchainSegment, variablesStorage, new MainnetBlockHeaderFunctions(), false)
+            .updater();
+    putBlock(updater, block, receipts);
+    updater.commit();
+
+    final var blockchainStorage =
+        new KeyValueStoragePrefixedKeyBlockchainStorage(
+            blockchainSegment, variablesStorage, new MainnetBlockHeaderFunctions(), false, true);
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isEqualTo(1);
+    assertThat(blockchainStorage.convertTransactionReceiptsToCompactFormat()).isZero();
+
+    assertThat(blockchainStorage.get(TRANSACTION_RECEIPTS_PREFIX, block.getHash()))
+        .hasValueSatisfying(
+            bytes -> assertThat(TransactionReceiptsStorageCodec.isCompactFormat(bytes)).isTrue());
+    assertBlockPresent(blockchainStorage, block, receipts);
+  }
+
+  private KeyValueStoragePrefixedKeyBlockchainStorage createSegmentedBlockchainStorage() {
+    return new KeyValueStoragePrefixedKeyBlockchainStorage(
+        storage, variablesStorage, new MainnetBlockHeaderFunctions(), true, false);
+  }
+
+  private static void putBlock(
+      final BlockchainStorage.Updater updater,
+      final Block block,
+      final List<TransactionReceipt> receipts) {
+    final var hash = block.getHash();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockBody(hash, block.getBody());
+    updater.putTransactionReceipts(hash, receipts);
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.putTotalDifficulty(hash, Difficulty.of(42));
+    final var transactions = block.getBody().getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      updater.putTransactionLocation(
+          transactions.get(i).getHash(), new TransactionLocation(hash, i));
+    }
+  }
+
+  private static void assertBlockPresent(
+      final BlockchainStorage blockchainStorage,
+      final Block block,
+      final List<TransactionReceipt> receipts) {
+    final var hash = block.getHash();
+    assertThat(blockchainStorage.getBlockHeader(hash)).contains(block.getHeader());
+    assertThat(blockchainStorage.getBlockBody(hash)).contains(block.getBody());
+    assertThat(blockchainStorage.getTransactionReceipts(hash)).contains(receipts);
+    assertThat(blockchainStorage.getBlockHash(block.getHeader().getNumber())).contains(hash);
+    assertThat(blockchainStorage.getTotalDifficulty(hash)).contains(Difficulty.of(42));
+    final var transactions = block.getBody().getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      assertThat(blockchainStorage.getTransactionLocation(transactions.get(i).getHash()))
+          .contains(new TransactionLocation(hash, i));
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+public class TransactionReceiptsStorageCodecTest {
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+
+  @Test
+  public void compactFormatRoundTrip() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    final Bytes encoded = TransactionReceiptsStorageCodec.encodeCompact(receipts);
+    assertThat(TransactionReceiptsStorageCodec.isCompactFormat(encoded)).isTrue();
+
+    final List<TransactionReceipt> decoded = TransactionReceiptsStorageCodec.decode(encoded);
+    assertThat(decoded).isEqualTo(receipts);
+    for (int i = 0; i < receipts.size(); i++) {
+      assertThat(decoded.get(i).getBloomFilter()).isEqualTo(receipts.get(i).getBloomFilter());
+    }
+  }
+
+  @Test
+  public void legacyFormatsAreReadable() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    final Bytes withBlooms = TransactionReceiptsStorageCodec.encode(receipts, false);
+    final Bytes compacted = TransactionReceiptsStorageCodec.encode(receipts, true);
+    assertThat(TransactionReceiptsStorageCodec.isCompactFormat(withBlooms)).isFalse();
+    assertThat(TransactionReceiptsStorageCodec.isCompactFormat(compacted)).isFalse();
+
+    assertThat(TransactionReceiptsStorageCodec.decode(withBlooms)).isEqualTo(receipts);
+    assertThat(TransactionReceiptsStorageCodec.decode(compacted)).isEqualTo(receipts);
+  }
+
+  @Test
+  public void compactFormatIsSmallerThanFormatWithBlooms() {
+    final Block block = gen.block();
+    final List<TransactionReceipt> receipts = gen.receipts(block);
+
+    assertThat(TransactionReceiptsStorageCodec.encodeCompact(receipts).size())
+        .isLessThan(TransactionReceiptsStorageCodec.encode(receipts, false).size());
+  }
+
+  @Test
+  public void emptyReceiptsRoundTrip() {
+    assertThat(
+            TransactionReceiptsStorageCodec.decode(
+                TransactionReceiptsStorageCodec.encodeCompact(List.of())))
+        .isEmpty();
+  }
+}
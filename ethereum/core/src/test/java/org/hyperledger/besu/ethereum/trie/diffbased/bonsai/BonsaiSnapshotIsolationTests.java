@@ -134,6 +134,45 @@ public class BonsaiSnapshotIsolationTests extends AbstractIsolationTests {
     }
   }
 
+  @Test
+  public void testSharedHeadSnapshotReleasedWhenHeadMoves() {
+    archive.getCachedWorldStorageManager().setSharedHeadSnapshotEnabled(true);
+    Address testAddress = Address.fromHexString("0xdeadbeef");
+
+    var block1 = forTransactions(List.of(burnTransaction(sender1, 0L, testAddress)));
+    assertThat(executeBlock(archive.getMutable(), block1).isSuccessful()).isTrue();
+    // no snapshot is taken until the head is read
+    assertThat(archive.getCachedWorldStorageManager().contains(block1.getHash())).isFalse();
+
+    var headReader = archive.getMutable(block1.getHeader(), false);
+    var otherHeadReader = archive.getMutable(block1.getHeader(), false);
+    assertThat(archive.getCachedWorldStorageManager().contains(block1.getHash())).isTrue();
+
+    var block2 = forTransactions(List.of(burnTransaction(sender1, 1L, testAddress)));
+    assertThat(executeBlock(archive.getMutable(), block2).isSuccessful()).isTrue();
+    assertThat(archive.getCachedWorldStorageManager().contains(block1.getHash())).isFalse();
+
+    // readers of the released snapshot still see their block
+    assertThat(headReader.get().get(testAddress).getBalance())
+        .isEqualTo(Wei.of(1_000_000_000_000_000_000L));
+    assertThat(otherHeadReader.get().rootHash()).isEqualTo(block1.getHeader().getStateRoot());
+
+    // and the prior head is rolled back from the new head snapshot
+    var rolledBack = archive.getMutable(block1.getHeader(), false);
+    assertThat(archive.getCachedWorldStorageManager().contains(block2.getHash())).isTrue();
+    assertThat(rolledBack.get().get(testAddress).getBalance())
+        .isEqualTo(Wei.of(1_000_000_000_000_000_000L));
+    assertThat(rolledBack.get().rootHash()).isEqualTo(block1.getHeader().getStateRoot());
+
+    try {
+      headReader.get().close();
+      otherHeadReader.get().close();
+      rolledBack.get().close();
+    } catch (Exception ex) {
+      throw new RuntimeException("failed to close isolated worldstates");
+    }
+  }
+
   @Test
   public void assertCloseDisposesOfStateWithoutCommitting() {
     Address testAddress = Address.fromHexString("0xdeadbeef");
@@ -0,0 +1,118 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.datatypes.Hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class TrieNodeCacheTest {
+
+  private final Random random = new Random(42);
+  private final TrieNodeCache cache = new TrieNodeCache(TrieNodeCache.MINIMUM_SIZE);
+
+  @Test
+  void cachedNodesAreReadBack() {
+    final Bytes node = node(100);
+    cache.put(Hash.hash(node), node);
+
+    assertThat(cache.get(Hash.hash(node))).contains(node);
+    assertThat(cache.get(Hash.hash(node(100)))).isEmpty();
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+  }
+
+  @Test
+  void sizeIsBoundedInBytes() {
+    final List<Bytes> nodes = nodes(10_000, 100);
+    nodes.forEach(node -> cache.put(Hash.hash(node), node));
+
+    assertThat(cache.getUsedBytes()).isLessThanOrEqualTo(TrieNodeCache.MINIMUM_SIZE);
+    assertThat(cache.getEvictionCount()).isPositive();
+    assertThat(cache.getEntryCount() + cache.getEvictionCount()).isEqualTo(nodes.size());
+    for (final Bytes node : nodes) {
+      cache.get(Hash.hash(node)).ifPresent(cached -> assertThat(cached).isEqualTo(node));
+    }
+  }
+
+  @Test
+  void frequentlyReadNodesSurviveAScan() {
+    final List<Bytes> hotNodes = nodes(200, 100);
+    hotNodes.forEach(node -> cache.put(Hash.hash(node), node));
+    hotNodes.forEach(node -> cache.get(Hash.hash(node)));
+
+    nodes(10_000, 100).forEach(node -> cache.put(Hash.hash(node), node));
+
+    assertThat(cache.getEvictionCount()).isPositive();
+    hotNodes.forEach(node -> assertThat(cache.get(Hash.hash(node))).contains(node));
+  }
+
+  @Test
+  void concurrentReadsNeverReturnAnotherNode() {
+    final List<Bytes> nodes = nodes(20_000, 120);
+    final AtomicBoolean writing = new AtomicBoolean(true);
+    final List<CompletableFuture<Void>> readers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final int seed = i;
+      readers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                final Random readerRandom = new Random(seed);
+                while (writing.get()) {
+                  final Bytes node = nodes.get(readerRandom.nextInt(nodes.size()));
+                  cache
+                      .get(Hash.hash(node))
+                      .ifPresent(cached -> assertThat(cached).isEqualTo(node));
+                }
+              }));
+    }
+
+    nodes.forEach(node -> cache.put(Hash.hash(node), node));
+    writing.set(false);
+
+    CompletableFuture.allOf(readers.toArray(CompletableFuture[]::new)).join();
+  }
+
+  @Test
+  void sizeBelowMinimumIsRejected() {
+    assertThatThrownBy(() -> new TrieNodeCache(TrieNodeCache.MINIMUM_SIZE - 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private List<Bytes> nodes(final int count, final int size) {
+    final List<Bytes> nodes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      nodes.add(node(size));
+    }
+    return nodes;
+  }
+
+  private Bytes node(final int size) {
+    final byte[] node = new byte[size];
+    random.nextBytes(node);
+    return Bytes.wrap(node);
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogLayer;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BonsaiHistoricalStateIndexTest {
+
+  private static final Address ADDRESS = Address.fromHexString("0xdeadbeef");
+  private static final StorageSlotKey SLOT = new StorageSlotKey(UInt256.ONE);
+
+  private final Blockchain blockchain = mock(Blockchain.class);
+  private final TrieLogManager trieLogManager = mock(TrieLogManager.class);
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage =
+      mock(BonsaiWorldStateKeyValueStorage.class);
+  private final BonsaiHistoricalStateIndex index =
+      new BonsaiHistoricalStateIndex(
+          new SegmentedInMemoryKeyValueStorage(), worldStateStorage, blockchain, trieLogManager);
+
+  private final BlockHeader genesis = header(0, Hash.ZERO, 0);
+  private final BlockHeader block1 = header(1, genesis.getHash(), 0);
+  private final BlockHeader block2 = header(2, block1.getHash(), 0);
+  private final BlockHeader block3 = header(3, block2.getHash(), 0);
+
+  @BeforeEach
+  void setUp() {
+    when(blockchain.getBlockHashByNumber(0)).thenReturn(Optional.of(genesis.getHash()));
+    // block 1 creates the account, block 2 updates it, block 3 does not touch it
+    addBlock(
+        block1,
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, null, account(1))
+            .addStorageChange(ADDRESS, SLOT, null, UInt256.ONE));
+    addBlock(
+        block2,
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, account(1), account(2))
+            .addStorageChange(ADDRESS, SLOT, UInt256.ONE, UInt256.valueOf(2)));
+    addBlock(block3, new TrieLogLayer());
+    setFlatState(block3, account(2), UInt256.valueOf(2));
+  }
+
+  @Test
+  void answersFromThePriorValueOfTheNextChange() {
+    assertThat(index.getBalance(ADDRESS, genesis)).contains(Wei.ZERO);
+    assertThat(index.getBalance(ADDRESS, block1)).contains(Wei.of(1));
+    assertThat(index.getBalance(ADDRESS, block2)).contains(Wei.of(2));
+    assertThat(index.getBalance(ADDRESS, block3)).contains(Wei.of(2));
+
+    assertThat(index.getStorageValue(ADDRESS, UInt256.ONE, genesis)).contains(UInt256.ZERO);
+    assertThat(index.getStorageValue(ADDRESS, UInt256.ONE, block1)).contains(UInt256.ONE);
+    assertThat(index.getStorageValue(ADDRESS, UInt256.ONE, block3)).contains(UInt256.valueOf(2));
+  }
+
+  @Test
+  void reorgUnwindsTheRemovedBlocks() {
+    final BlockHeader forkBlock2 = header(2, block1.getHash(), 1);
+    final BlockHeader forkBlock3 = header(3, forkBlock2.getHash(), 1);
+    when(blockchain.getBlockHeader(forkBlock2.getHash())).thenReturn(Optional.of(forkBlock2));
+    when(blockchain.getBlockHeader(forkBlock3.getHash())).thenReturn(Optional.of(forkBlock3));
+    when(blockchain.getBlockHashByNumber(2)).thenReturn(Optional.of(forkBlock2.getHash()));
+    when(blockchain.getBlockHashByNumber(3)).thenReturn(Optional.of(forkBlock3.getHash()));
+    when(trieLogManager.getTrieLogLayer(forkBlock2.getHash()))
+        .thenReturn(
+            Optional.of(
+                new TrieLogLayer()
+                    .addStorageChange(ADDRESS, SLOT, UInt256.ONE, UInt256.MAX_VALUE)));
+    when(trieLogManager.getTrieLogLayer(forkBlock3.getHash()))
+        .thenReturn(Optional.of(new TrieLogLayer()));
+    setFlatState(forkBlock3, account(1), UInt256.MAX_VALUE);
+
+    index.onBlockAdded(
+        BlockAddedEvent.createForChainReorg(
+            block(forkBlock3), List.of(), List.of(), List.of(), List.of(), block1.getHash()));
+
+    assertThat(index.getHead().map(BonsaiHistoricalStateIndex.Head::blockHash))
+        .contains(forkBlock3.getHash());
+    assertThat(index.getBalance(ADDRESS, block1)).contains(Wei.of(1));
+    assertThat(index.getBalance(ADDRESS, forkBlock2)).contains(Wei.of(1));
+    assertThat(index.getStorageValue(ADDRESS, UInt256.ONE, block1)).contains(UInt256.ONE);
+    assertThat(index.getStorageValue(ADDRESS, UInt256.ONE, forkBlock2))
+        .contains(UInt256.MAX_VALUE);
+  }
+
+  @Test
+  void doesNotAnswerWhenTheFlatDatabaseIsNotAtTheIndexHead() {
+    when(worldStateStorage.getWorldStateBlockHash()).thenReturn(Optional.of(block2.getHash()));
+
+    assertThat(index.getBalance(ADDRESS, block1)).isEmpty();
+  }
+
+  @Test
+  void doesNotAnswerForBlocksThatAreNotCanonical() {
+    assertThat(index.getBalance(ADDRESS, header(2, block1.getHash(), 1))).isEmpty();
+  }
+
+  @Test
+  void stopsAndRestartsAfterTheGapWhenATrieLogIsMissing() {
+    final BlockHeader block4 = header(4, block3.getHash(), 0);
+    final BlockHeader block5 = header(5, block4.getHash(), 0);
+    addBlockWithoutTrieLog(block4);
+    assertThat(index.getHead())
+        .contains(new BonsaiHistoricalStateIndex.Head(0, 3, block3.getHash(), 4));
+
+    addBlock(block5, new TrieLogLayer());
+    setFlatState(block5, account(2), UInt256.valueOf(2));
+
+    assertThat(index.getHead())
+        .contains(new BonsaiHistoricalStateIndex.Head(4, 5, block5.getHash(), 5));
+    assertThat(index.getBalance(ADDRESS, block3)).isEmpty();
+    assertThat(index.getBalance(ADDRESS, block4)).contains(Wei.of(2));
+  }
+
+  @Test
+  void keepsTheIndexedChangesWhenIndexingFails() {
+    final BlockHeader block4 = header(4, block3.getHash(), 0);
+    when(blockchain.getBlockHeader(block4.getHash())).thenReturn(Optional.of(block4));
+    when(trieLogManager.getTrieLogLayer(block4.getHash()))
+        .thenThrow(new IllegalStateException("unreadable trie log"));
+    index.onBlockAdded(
+        BlockAddedEvent.createForHeadAdvancement(block(block4), List.of(), List.of()));
+
+    assertThat(index.getHead())
+        .contains(new BonsaiHistoricalStateIndex.Head(0, 3, block3.getHash(), 4));
+    // the flat database has not moved past the index head, so the changes can still be read
+    assertThat(index.getBalance(ADDRESS, block1)).contains(Wei.of(1));
+    assertThat(index.getStorageValue(ADDRESS, UInt256.ONE, block1)).contains(UInt256.ONE);
+  }
+
+  @Test
+  void onlyRestartsAboveTheHighestBlockItMayHoldChangesFor() {
+    final BlockHeader block4 = header(4, block3.getHash(), 0);
+    final BlockHeader block5 = header(5, block4.getHash(), 0);
+    final BlockHeader forkBlock5 = header(5, block4.getHash(), 1);
+    final BlockHeader block6 = header(6, forkBlock5.getHash(), 0);
+    addBlockWithoutTrieLog(block4);
+    addBlockWithoutTrieLog(block5);
+    assertThat(index.getHead())
+        .contains(new BonsaiHistoricalStateIndex.Head(0, 3, block3.getHash(), 5));
+
+    when(blockchain.getBlockHeader(forkBlock5.getHash())).thenReturn(Optional.of(forkBlock5));
+    when(blockchain.getBlockHashByNumber(5)).thenReturn(Optional.of(forkBlock5.getHash()));
+    when(trieLogManager.getTrieLogLayer(forkBlock5.getHash()))
+        .thenReturn(Optional.of(new TrieLogLayer()));
+    index.onBlockAdded(
+        BlockAddedEvent.createForChainReorg(
+            block(forkBlock5), List.of(), List.of(), List.of(), List.of(), block4.getHash()));
+    assertThat(index.getHead())
+        .contains(new BonsaiHistoricalStateIndex.Head(0, 3, block3.getHash(), 5));
+
+    addBlock(block6, new TrieLogLayer());
+    assertThat(index.getHead())
+        .contains(new BonsaiHistoricalStateIndex.Head(5, 6, block6.getHash(), 6));
+  }
+
+  private void addBlockWithoutTrieLog(final BlockHeader header) {
+    when(blockchain.getBlockHeader(header.getHash())).thenReturn(Optional.of(header));
+    when(blockchain.getBlockHashByNumber(header.getNumber()))
+        .thenReturn(Optional.of(header.getHash()));
+    index.onBlockAdded(
+        BlockAddedEvent.createForHeadAdvancement(block(header), List.of(), List.of()));
+  }
+
+  private void addBlock(final BlockHeader header, final TrieLogLayer trieLog) {
+    when(blockchain.getBlockHeader(header.getHash())).thenReturn(Optional.of(header));
+    when(blockchain.getBlockHashByNumber(header.getNumber()))
+        .thenReturn(Optional.of(header.getHash()));
+    when(trieLogManager.getTrieLogLayer(header.getHash())).thenReturn(Optional.of(trieLog));
+    index.onBlockAdded(
+        BlockAddedEvent.createForHeadAdvancement(block(header), List.of(), List.of()));
+  }
+
+  private void setFlatState(
+      final BlockHeader head, final StateTrieAccountValue account, final UInt256 slotValue) {
+    when(worldStateStorage.getWorldStateBlockHash()).thenReturn(Optional.of(head.getHash()));
+    when(worldStateStorage.getAccount(ADDRESS.addressHash()))
+        .thenReturn(Optional.of(RLP.encode(account::writeTo)));
+    when(worldStateStorage.getStorageValueByStorageSlotKey(ADDRESS.addressHash(), SLOT))
+        .thenReturn(Optional.of(slotValue.toMinimalBytes()));
+  }
+
+  private static BlockHeader header(final long number, final Hash parentHash, final long fork) {
+    return new BlockHeaderTestFixture()
+        .number(number)
+        .parentHash(parentHash)
+        .extraData(Bytes.ofUnsignedLong(fork))
+        .buildHeader();
+  }
+
+  private static Block block(final BlockHeader header) {
+    return new Block(header, BlockBody.empty());
+  }
+
+  private static StateTrieAccountValue account(final long balance) {
+    return new StateTrieAccountValue(0, Wei.of(balance), Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+  }
+}
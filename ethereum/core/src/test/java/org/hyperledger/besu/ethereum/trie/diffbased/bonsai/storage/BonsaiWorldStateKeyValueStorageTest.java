@@ -15,6 +15,8 @@
 package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
 import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
 import static org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage.WORLD_ROOT_HASH_KEY;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
@@ -45,9 +47,11 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.TreeMap;
 
@@ -172,6 +176,28 @@ public class BonsaiWorldStateKeyValueStorageTest {
     assertThat(storage.getAccountStateTrieNode(location, Hash.hash(bytes))).contains(bytes);
   }
 
+  @ParameterizedTest
+  @MethodSource("flatDbMode")
+  void getTrieNodesUnsafe_returnsNodesInKeyOrder(final FlatDbMode flatDbMode) {
+    setUp(flatDbMode);
+    final Bytes bytesA = Bytes.fromHexString("0x123456");
+    final Bytes bytesB = Bytes.fromHexString("0x7890");
+
+    storage
+        .updater()
+        .putAccountStateTrieNode(Bytes.fromHexString("0x01"), Hash.hash(bytesA), bytesA)
+        .putAccountStateTrieNode(Bytes.fromHexString("0x02"), Hash.hash(bytesB), bytesB)
+        .commit();
+
+    assertThat(
+            storage.getTrieNodesUnsafe(
+                List.of(
+                    Bytes.fromHexString("0x02"),
+                    Bytes.fromHexString("0x03"),
+                    Bytes.fromHexString("0x01"))))
+        .containsExactly(Optional.of(bytesB), Optional.empty(), Optional.of(bytesA));
+  }
+
   @ParameterizedTest
   @MethodSource("flatDbMode")
   void getAccountStorageTrieNode_saveAndGetSpecialValues(final FlatDbMode flatDbMode) {
@@ -418,6 +444,62 @@ public class BonsaiWorldStateKeyValueStorageTest {
     assertThat(storage.getCode(Hash.hash(bytesC), accountHashD)).contains(bytesC);
   }
 
+  @Test
+  void readCache_followsCommittedUpdates() {
+    storage = storageWithReadCache();
+    final Hash accountHash = Address.fromHexString("0x1").addressHash();
+    final StorageSlotKey slotKey = new StorageSlotKey(UInt256.ONE);
+    assertThat(storage.getAccount(accountHash)).isEmpty();
+    assertThat(storage.getStorageValueByStorageSlotKey(accountHash, slotKey)).isEmpty();
+
+    storage
+        .updater()
+        .putAccountInfoState(accountHash, Bytes.of(1))
+        .putStorageValueBySlotHash(accountHash, slotKey.getSlotHash(), Bytes.of(2))
+        .commit();
+    assertThat(storage.getAccount(accountHash)).contains(Bytes.of(1));
+    assertThat(storage.getStorageValueByStorageSlotKey(accountHash, slotKey)).contains(Bytes.of(2));
+
+    final BonsaiWorldStateKeyValueStorage.Updater rolledBack = storage.updater();
+    rolledBack.removeAccountInfoState(accountHash);
+    rolledBack.rollback();
+    assertThat(storage.getAccount(accountHash)).contains(Bytes.of(1));
+
+    storage.clearFlatDatabase();
+    assertThat(storage.getAccount(accountHash)).isEmpty();
+    assertThat(storage.getStorageValueByStorageSlotKey(accountHash, slotKey)).isEmpty();
+  }
+
+  @Test
+  void readCache_servesPrefetchedValues() {
+    storage = storageWithReadCache();
+    final Hash accountHash = Address.fromHexString("0x1").addressHash();
+    final Hash missingAccountHash = Address.fromHexString("0x2").addressHash();
+    final StorageSlotKey slotKey = new StorageSlotKey(UInt256.ONE);
+    storage
+        .updater()
+        .putAccountInfoState(accountHash, Bytes.of(1))
+        .putStorageValueBySlotHash(accountHash, slotKey.getSlotHash(), Bytes.of(2))
+        .commit();
+
+    storage.prefetchFlatAccounts(List.of(accountHash, missingAccountHash));
+    storage.prefetchFlatStorage(accountHash, List.of(slotKey));
+
+    // written behind the read cache, so only values it did not get from the prefetch are seen
+    final SegmentedKeyValueStorageTransaction tx =
+        storage.getComposedWorldStateStorage().startTransaction();
+    tx.remove(ACCOUNT_INFO_STATE, accountHash.toArrayUnsafe());
+    tx.put(ACCOUNT_INFO_STATE, missingAccountHash.toArrayUnsafe(), Bytes.of(3).toArrayUnsafe());
+    tx.remove(
+        ACCOUNT_STORAGE_STORAGE,
+        Bytes.concatenate(accountHash, slotKey.getSlotHash()).toArrayUnsafe());
+    tx.commit();
+
+    assertThat(storage.getAccount(accountHash)).contains(Bytes.of(1));
+    assertThat(storage.getAccount(missingAccountHash)).isEmpty();
+    assertThat(storage.getStorageValueByStorageSlotKey(accountHash, slotKey)).contains(Bytes.of(2));
+  }
+
   @ParameterizedTest
   @MethodSource("flatDbMode")
   void isWorldStateAvailable_defaultIsFalse(final FlatDbMode flatDbMode) {
@@ -466,6 +548,23 @@ public class BonsaiWorldStateKeyValueStorageTest {
         DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
   }
 
+  private BonsaiWorldStateKeyValueStorage storageWithReadCache() {
+    final BonsaiWorldStateKeyValueStorage cachedStorage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            ImmutableDataStorageConfiguration.builder()
+                .dataStorageFormat(DataStorageFormat.BONSAI)
+                .bonsaiMaxLayersToLoad(DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD)
+                .unstable(
+                    ImmutableDataStorageConfiguration.Unstable.builder()
+                        .bonsaiFlatDbReadCacheSize(1000)
+                        .build())
+                .build());
+    cachedStorage.upgradeToFullFlatDbMode();
+    return cachedStorage;
+  }
+
   private BonsaiWorldStateKeyValueStorage emptyStorage(final boolean useCodeHashStorage) {
     return new BonsaiWorldStateKeyValueStorage(
         new InMemoryKeyValueStorageProvider(),
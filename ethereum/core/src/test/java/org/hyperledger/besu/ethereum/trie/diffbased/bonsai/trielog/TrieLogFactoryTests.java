@@ -71,4 +71,45 @@ public class TrieLogFactoryTests {
     TrieLog layer = factory.deserialize(rlp);
     assertThat(layer).isEqualTo(trieLogFixture);
   }
+
+  @Test
+  public void testCompactSerializeDeserializeAreEqual() {
+    final TrieLogLayer trieLog =
+        new TrieLogLayer()
+            .setBlockHash(headerFixture.getBlockHash())
+            .setBlockNumber(42)
+            .addAccountChange(
+                accountFixture,
+                new StateTrieAccountValue(7, Wei.fromEth(2), Hash.EMPTY_TRIE_HASH, Hash.EMPTY),
+                new StateTrieAccountValue(
+                    8, Wei.fromEth(1), Hash.EMPTY_TRIE_HASH, Hash.hash(Bytes.of(1))))
+            .addAccountChange(
+                Address.ZERO,
+                new StateTrieAccountValue(1, Wei.ONE, Hash.hash(Bytes.of(2)), Hash.EMPTY),
+                null)
+            .addCodeChange(accountFixture, null, Bytes.of(1), headerFixture.getBlockHash())
+            .addCodeChange(Address.ZERO, Bytes.of(1), null, headerFixture.getBlockHash())
+            .addStorageChange(Address.ZERO, new StorageSlotKey(UInt256.ZERO), UInt256.ONE, null)
+            .addStorageChange(
+                accountFixture, new StorageSlotKey(UInt256.ONE), UInt256.ZERO, UInt256.MAX_VALUE);
+
+    final TrieLogFactory factory = new TrieLogFactoryImpl(true);
+    final byte[] compact = factory.serialize(trieLog);
+    assertThat(TrieLogFactoryImpl.isCompactFormat(compact)).isTrue();
+
+    final TrieLog layer = factory.deserialize(compact);
+    assertThat(layer).isEqualTo(trieLog);
+    assertThat(layer.getBlockNumber()).contains(42L);
+    assertThat(layer.getCodeChanges().get(Address.ZERO).isLastStepCleared()).isTrue();
+  }
+
+  @Test
+  public void testBothFormatsAreReadable() {
+    final byte[] rlp = new TrieLogFactoryImpl(false).serialize(trieLogFixture);
+    final byte[] compact = new TrieLogFactoryImpl(true).serialize(trieLogFixture);
+
+    assertThat(TrieLogFactoryImpl.isCompactFormat(rlp)).isFalse();
+    assertThat(new TrieLogFactoryImpl(true).deserialize(rlp)).isEqualTo(trieLogFixture);
+    assertThat(new TrieLogFactoryImpl(false).deserialize(compact)).isEqualTo(trieLogFixture);
+  }
 }
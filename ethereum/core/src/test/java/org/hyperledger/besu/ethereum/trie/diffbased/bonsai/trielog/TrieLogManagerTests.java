@@ -15,24 +15,38 @@
 package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.trielog;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldState;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview.BonsaiWorldStateUpdateAccumulator;
+import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogLayer;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.plugin.BesuContext;
+import org.hyperledger.besu.plugin.services.TrieLogService;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLogProvider;
 
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -71,4 +85,36 @@ class TrieLogManagerTests {
 
     assertThat(eventFired.get()).isTrue();
   }
+
+  @Test
+  void pluginTrieLogProviderReadsCompactTrieLogsAsRlp() {
+    final TrieLogService trieLogService = mock(TrieLogService.class);
+    final BesuContext pluginContext = mock(BesuContext.class);
+    when(pluginContext.getService(TrieLogService.class)).thenReturn(Optional.of(trieLogService));
+    when(trieLogService.getTrieLogFactory()).thenReturn(Optional.empty());
+    final TrieLogManager manager =
+        new TrieLogManager(blockchain, bonsaiWorldStateKeyValueStorage, 512, pluginContext);
+    manager.setCompactTrieLogFormatEnabled(true);
+    final ArgumentCaptor<TrieLogProvider> provider =
+        ArgumentCaptor.forClass(TrieLogProvider.class);
+    verify(trieLogService).configureTrieLogProvider(provider.capture());
+
+    final TrieLogLayer trieLog =
+        new TrieLogLayer()
+            .setBlockHash(blockHeader.getHash())
+            .setBlockNumber(blockHeader.getNumber())
+            .addStorageChange(
+                Address.ZERO, new StorageSlotKey(UInt256.ONE), UInt256.ONE, UInt256.valueOf(2));
+    final byte[] compactTrieLog = new TrieLogFactoryImpl(true).serialize(trieLog);
+    assertThat(TrieLogFactoryImpl.isCompactFormat(compactTrieLog)).isTrue();
+    when(bonsaiWorldStateKeyValueStorage.getTrieLog(blockHeader.getHash()))
+        .thenReturn(Optional.of(compactTrieLog));
+
+    final Optional<Bytes> rawTrieLog =
+        provider.getValue().getRawTrieLogLayer(blockHeader.getHash());
+
+    assertThat(rawTrieLog).contains(Bytes.wrap(new TrieLogFactoryImpl(false).serialize(trieLog)));
+    assertThat(TrieLogFactoryImpl.readFrom(new BytesValueRLPInput(rawTrieLog.get(), false)))
+        .isEqualTo(trieLog);
+  }
 }
@@ -14,25 +14,41 @@
  */
 package org.hyperledger.besu.ethereum.trie.diffbased.bonsai.worldview;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiSnapshotWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.diffbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.DiffBasedValue;
 import org.hyperledger.besu.ethereum.trie.diffbased.common.worldview.DiffBasedWorldStateConfig;
+import org.hyperledger.besu.evm.account.MutableAccount;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -126,6 +142,77 @@ class BonsaiWorldStateTest {
     verify(bonsaiUpdater).putCode(Address.fromHexString("0x3").addressHash(), CODE_HASH, CODE);
   }
 
+  @Test
+  void storageTriesUpdatedInParallelGiveTheSameStateRoot() {
+    final Hash sequentialRoot = persistAccountsWithStorage(1);
+    final Hash parallelRoot = persistAccountsWithStorage(4);
+
+    assertThat(parallelRoot).isEqualTo(sequentialRoot);
+  }
+
+  @Test
+  void prefetchRunsOnTheConfiguredExecutor() {
+    final List<Runnable> submitted = new ArrayList<>();
+    final BonsaiWorldState snapshot = snapshotWorldStateWithPrefetch(submitted);
+
+    final List<StorageSlotKey> slotKeys = List.of(new StorageSlotKey(UInt256.ONE));
+
+    snapshot.prefetch(List.of(ACCOUNT), Map.of(ACCOUNT, slotKeys));
+    submitted.forEach(Runnable::run);
+
+    verify(snapshot.getWorldStateStorage()).prefetchFlatAccounts(List.of(ACCOUNT.addressHash()));
+    verify(snapshot.getWorldStateStorage()).prefetchFlatStorage(ACCOUNT.addressHash(), slotKeys);
+  }
+
+  @Test
+  void prefetchesNotStartedBeforeCloseAreSkipped() {
+    final List<Runnable> submitted = new ArrayList<>();
+    final BonsaiWorldState snapshot = snapshotWorldStateWithPrefetch(submitted);
+
+    snapshot.prefetch(List.of(ACCOUNT), Map.of());
+    snapshot.close();
+    submitted.forEach(Runnable::run);
+
+    verify(snapshot.getWorldStateStorage(), never()).prefetchFlatAccounts(any());
+  }
+
+  private BonsaiWorldState snapshotWorldStateWithPrefetch(final List<Runnable> submitted) {
+    final ExecutorService executor = mock(ExecutorService.class);
+    doAnswer(invocation -> submitted.add(invocation.getArgument(0))).when(executor).execute(any());
+    final DiffBasedWorldStateConfig config = new DiffBasedWorldStateConfig();
+    config.setStatePrefetchExecutor(Optional.of(executor));
+    return new BonsaiWorldState(
+        InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(blockchain),
+        mock(BonsaiSnapshotWorldStateKeyValueStorage.class),
+        EvmConfiguration.DEFAULT,
+        config);
+  }
+
+  private Hash persistAccountsWithStorage(final int stateRootParallelism) {
+    final BonsaiWorldStateProvider archive =
+        InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(blockchain);
+    archive.setStateRootParallelism(stateRootParallelism);
+    final MutableWorldState mutableWorldState = archive.getMutable();
+    final WorldUpdater updater = mutableWorldState.updater();
+    for (int i = 1; i <= 16; i++) {
+      final MutableAccount account = updater.createAccount(address(i), 0, Wei.ONE);
+      for (int slot = 1; slot <= i; slot++) {
+        account.setStorageValue(UInt256.valueOf(slot), UInt256.valueOf(i * slot));
+      }
+    }
+    updater.commit();
+    mutableWorldState.persist(null);
+
+    // the slots are persisted after the storage tries have been updated
+    assertThat(archive.getMutable().get(address(16)).getStorageValue(UInt256.valueOf(16)))
+        .isEqualTo(UInt256.valueOf(256));
+    return mutableWorldState.rootHash();
+  }
+
+  private static Address address(final int i) {
+    return Address.fromHexString("0x" + Integer.toHexString(i));
+  }
+
   private static Stream<Bytes> emptyAndNullBytes() {
     return Stream.of(Bytes.EMPTY, null);
   }
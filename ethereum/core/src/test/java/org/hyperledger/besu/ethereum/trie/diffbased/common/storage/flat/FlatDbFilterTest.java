@@ -0,0 +1,159 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
+import static org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage.WORLD_BLOCK_HASH_KEY;
+import static org.hyperledger.besu.ethereum.trie.diffbased.common.storage.DiffBasedWorldStateKeyValueStorage.WORLD_ROOT_HASH_KEY;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FlatDbFilterTest {
+  private static final long FILTER_SIZE = 64 * 1024;
+
+  private final SegmentedKeyValueStorage worldStateStorage =
+      new SegmentedInMemoryKeyValueStorage(
+          List.of(ACCOUNT_INFO_STATE, ACCOUNT_STORAGE_STORAGE, TRIE_BRANCH_STORAGE));
+  private final KeyValueStorage filterStorage = new InMemoryKeyValueStorage();
+
+  @BeforeEach
+  void setUp() {
+    final SegmentedKeyValueStorageTransaction transaction = worldStateStorage.startTransaction();
+    for (int i = 0; i < 1000; i++) {
+      transaction.put(ACCOUNT_INFO_STATE, account(i).toArrayUnsafe(), new byte[] {1});
+      transaction.put(
+          ACCOUNT_STORAGE_STORAGE,
+          Bytes.concatenate(account(i), slot(i)).toArrayUnsafe(),
+          new byte[] {1});
+    }
+    transaction.put(TRIE_BRANCH_STORAGE, WORLD_BLOCK_HASH_KEY, Hash.hash(Bytes.of(1)).toArray());
+    transaction.put(TRIE_BRANCH_STORAGE, WORLD_ROOT_HASH_KEY, Hash.hash(Bytes.of(2)).toArray());
+    transaction.commit();
+  }
+
+  @Test
+  void readsAreNotFilteredUntilTheFilterIsBuilt() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+
+    assertThat(filter.mightContainAccount(worldStateStorage, account(5000))).isTrue();
+    assertThat(filter.mightContainStorage(worldStateStorage, account(0), slot(5000))).isTrue();
+  }
+
+  @Test
+  void existingKeysAreNeverFilteredOut() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    filter.rebuild();
+    filter.addAccount(account(2000));
+    filter.addStorage(account(2000), slot(2000));
+
+    assertThat(filter.isReady()).isTrue();
+    for (int i = 0; i < 1000; i++) {
+      assertThat(filter.mightContainAccount(worldStateStorage, account(i))).isTrue();
+      assertThat(filter.mightContainStorage(worldStateStorage, account(i), slot(i))).isTrue();
+    }
+    assertThat(filter.mightContainAccount(worldStateStorage, account(2000))).isTrue();
+    assertThat(filter.mightContainStorage(worldStateStorage, account(2000), slot(2000))).isTrue();
+  }
+
+  @Test
+  void missingKeysAreMostlyFilteredOut() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    filter.rebuild();
+
+    int falsePositives = 0;
+    for (int i = 1000; i < 11000; i++) {
+      if (filter.mightContainAccount(worldStateStorage, account(i))) {
+        falsePositives++;
+      }
+      if (filter.mightContainStorage(worldStateStorage, account(0), slot(i))) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(100);
+  }
+
+  @Test
+  void otherStoragesAreNotFiltered() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    filter.rebuild();
+
+    final SegmentedKeyValueStorage otherStorage =
+        new SegmentedInMemoryKeyValueStorage(List.of(ACCOUNT_INFO_STATE));
+    assertThat(filter.mightContainAccount(otherStorage, account(5000))).isTrue();
+  }
+
+  @Test
+  void savedFilterIsLoadedForTheSameWorldState() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    filter.rebuild();
+    filter.close();
+
+    final FlatDbFilter loaded = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    loaded.start();
+
+    assertThat(loaded.isReady()).isTrue();
+    for (int i = 0; i < 1000; i++) {
+      assertThat(loaded.mightContainAccount(worldStateStorage, account(i))).isTrue();
+    }
+    assertThat(loaded.mightContainAccount(worldStateStorage, account(5000))).isFalse();
+    // a crash before the next clean shutdown must not load the filter again
+    assertThat(new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage).load()).isFalse();
+  }
+
+  @Test
+  void savedFilterIsNotLoadedForAnotherWorldState() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    filter.rebuild();
+    filter.close();
+
+    final SegmentedKeyValueStorageTransaction transaction = worldStateStorage.startTransaction();
+    transaction.put(TRIE_BRANCH_STORAGE, WORLD_BLOCK_HASH_KEY, Hash.hash(Bytes.of(3)).toArray());
+    transaction.commit();
+
+    assertThat(new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage).load()).isFalse();
+  }
+
+  @Test
+  void savedFilterIsNotLoadedWithAnotherSize() {
+    final FlatDbFilter filter = new FlatDbFilter(FILTER_SIZE, worldStateStorage, filterStorage);
+    filter.rebuild();
+    filter.close();
+
+    assertThat(new FlatDbFilter(2 * FILTER_SIZE, worldStateStorage, filterStorage).load())
+        .isFalse();
+  }
+
+  private static Hash account(final int i) {
+    return Hash.hash(Bytes.ofUnsignedInt(i));
+  }
+
+  private static Hash slot(final int i) {
+    return Hash.hash(Bytes.ofUnsignedLong(i));
+  }
+}
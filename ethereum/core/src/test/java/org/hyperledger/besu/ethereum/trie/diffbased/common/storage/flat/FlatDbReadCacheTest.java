@@ -0,0 +1,130 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.storage.flat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class FlatDbReadCacheTest {
+  private static final Hash ACCOUNT = Hash.hash(Bytes.of(1));
+  private static final Hash SLOT = Hash.hash(Bytes.of(2));
+
+  private final FlatDbReadCache cache = new FlatDbReadCache(1000, new NoOpMetricsSystem());
+  private final AtomicInteger reads = new AtomicInteger();
+
+  @Test
+  void presentAndAbsentValuesAreReadOnce() {
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(1))))).contains(Bytes.of(1));
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.empty()))).contains(Bytes.of(1));
+    assertThat(cache.getStorageValue(ACCOUNT, SLOT, read(Optional.empty()))).isEmpty();
+    assertThat(cache.getStorageValue(ACCOUNT, SLOT, read(Optional.of(Bytes.of(1))))).isEmpty();
+
+    assertThat(reads.get()).isEqualTo(2);
+  }
+
+  @Test
+  void committedChangesRefreshCachedValues() {
+    cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(1))));
+    cache.getStorageValue(ACCOUNT, SLOT, read(Optional.of(Bytes.of(1))));
+
+    final FlatDbReadCache.Changes changes = cache.newChanges();
+    changes.removeAccount(ACCOUNT);
+    changes.putStorageValue(ACCOUNT, SLOT, Bytes.of(2));
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.empty()))).contains(Bytes.of(1));
+
+    changes.committed();
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(1))))).isEmpty();
+    assertThat(cache.getStorageValue(ACCOUNT, SLOT, read(Optional.empty()))).contains(Bytes.of(2));
+    assertThat(reads.get()).isEqualTo(2);
+  }
+
+  @Test
+  void changesToValuesNotCachedAreNotAdded() {
+    final FlatDbReadCache.Changes changes = cache.newChanges();
+    changes.putAccount(ACCOUNT, Bytes.of(2));
+    changes.committed();
+
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(3))))).contains(Bytes.of(3));
+    assertThat(reads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void clearedChangesAreNotApplied() {
+    cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(1))));
+
+    final FlatDbReadCache.Changes changes = cache.newChanges();
+    changes.putAccount(ACCOUNT, Bytes.of(2));
+    changes.clear();
+    changes.committed();
+
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.empty()))).contains(Bytes.of(1));
+  }
+
+  @Test
+  void valuesReadBeforeAWriteAreNotAdded() {
+    final long readGeneration = cache.getGeneration();
+    final FlatDbReadCache.Changes changes = cache.newChanges();
+    changes.putAccount(ACCOUNT, Bytes.of(2));
+    changes.committed();
+
+    cache.putAccountIfUnchanged(readGeneration, ACCOUNT, Optional.of(Bytes.of(1)));
+    cache.putStorageValueIfUnchanged(readGeneration, ACCOUNT, SLOT, Optional.of(Bytes.of(1)));
+
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(2))))).contains(Bytes.of(2));
+    assertThat(cache.getStorageValue(ACCOUNT, SLOT, read(Optional.empty()))).isEmpty();
+    assertThat(reads.get()).isEqualTo(2);
+  }
+
+  @Test
+  void valuesReadWithoutAWriteAreAddedUnlessCached() {
+    cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(1))));
+    final long readGeneration = cache.getGeneration();
+
+    cache.putAccountIfUnchanged(readGeneration, ACCOUNT, Optional.of(Bytes.of(2)));
+    cache.putStorageValueIfUnchanged(readGeneration, ACCOUNT, SLOT, Optional.of(Bytes.of(3)));
+
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.empty()))).contains(Bytes.of(1));
+    assertThat(cache.getStorageValue(ACCOUNT, SLOT, read(Optional.empty()))).contains(Bytes.of(3));
+    assertThat(reads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void invalidateAllForgetsEveryValue() {
+    cache.getAccount(ACCOUNT, read(Optional.of(Bytes.of(1))));
+    cache.getStorageValue(ACCOUNT, SLOT, read(Optional.of(Bytes.of(1))));
+
+    cache.invalidateAll();
+
+    assertThat(cache.getAccount(ACCOUNT, read(Optional.empty()))).isEmpty();
+    assertThat(cache.getStorageValue(ACCOUNT, SLOT, read(Optional.empty()))).isEmpty();
+    assertThat(reads.get()).isEqualTo(4);
+  }
+
+  private Supplier<Optional<Bytes>> read(final Optional<Bytes> value) {
+    return () -> {
+      reads.incrementAndGet();
+      return value;
+    };
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.diffbased.common.trielog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+class TrieLogMergerTest {
+
+  private static final Address ADDRESS = Address.fromHexString("0xdeadbeef");
+  private static final StorageSlotKey SLOT = new StorageSlotKey(UInt256.ONE);
+  private static final Hash FROM = Hash.hash(Bytes.of(1));
+  private static final Hash TO = Hash.hash(Bytes.of(2));
+
+  private final TrieLogMerger merger = new TrieLogMerger();
+
+  @Test
+  void keepsFirstPriorAndLastUpdatedValue() {
+    final TrieLog first =
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, null, account(1))
+            .addCodeChange(ADDRESS, null, Bytes.of(1), FROM)
+            .addStorageChange(ADDRESS, SLOT, null, UInt256.ONE);
+    final TrieLog second =
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, account(1), account(2))
+            .addStorageChange(ADDRESS, SLOT, UInt256.ONE, UInt256.valueOf(2));
+    final TrieLog third =
+        new TrieLogLayer().addStorageChange(ADDRESS, SLOT, UInt256.valueOf(2), null);
+
+    final TrieLog diff = merger.merge(FROM, TO, List.of(), List.of(first, second, third));
+
+    assertThat(diff.getBlockHash()).isEqualTo(TO);
+    assertThat(diff.getPriorAccount(ADDRESS)).isEmpty();
+    assertThat(diff.getAccount(ADDRESS)).contains(account(2));
+    assertThat(diff.getCode(ADDRESS)).contains(Bytes.of(1));
+    assertThat(diff.getStorageChanges(ADDRESS)).hasSize(1);
+    assertThat(diff.getPriorStorageByStorageSlotKey(ADDRESS, SLOT)).isEmpty();
+    assertThat(diff.getStorageByStorageSlotKey(ADDRESS, SLOT)).isEmpty();
+  }
+
+  @Test
+  void rollBacksAreReversedBeforeRollForwards() {
+    final TrieLog forkA = new TrieLogLayer().addAccountChange(ADDRESS, account(1), account(2));
+    final TrieLog forkB =
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, account(1), account(3))
+            .addStorageChange(ADDRESS, SLOT, UInt256.ZERO, UInt256.ONE);
+
+    final TrieLog diff = merger.merge(FROM, TO, List.of(forkA), List.of(forkB));
+
+    assertThat(diff.getPriorAccount(ADDRESS)).contains(account(2));
+    assertThat(diff.getAccount(ADDRESS)).contains(account(3));
+    assertThat(diff.getPriorStorageByStorageSlotKey(ADDRESS, SLOT)).contains(UInt256.ZERO);
+    assertThat(diff.getStorageByStorageSlotKey(ADDRESS, SLOT)).contains(UInt256.ONE);
+  }
+
+  @Test
+  void onlyDiffsOfSeveralTrieLogsAreCached() {
+    final TrieLog trieLog = new TrieLogLayer().addAccountChange(ADDRESS, account(1), account(2));
+
+    merger.merge(FROM, TO, List.of(trieLog), List.of());
+    assertThat(merger.getCachedDiff(FROM, TO)).isEmpty();
+
+    final TrieLog diff = merger.merge(FROM, TO, List.of(trieLog), List.of(trieLog));
+    assertThat(merger.getCachedDiff(FROM, TO)).containsSame(diff);
+    assertThat(merger.getCachedDiff(TO, FROM)).isEmpty();
+  }
+
+  private static StateTrieAccountValue account(final long nonce) {
+    return new StateTrieAccountValue(nonce, Wei.of(nonce), Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+  }
+}
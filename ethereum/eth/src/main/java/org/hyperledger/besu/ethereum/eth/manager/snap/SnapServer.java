@@ -71,6 +71,7 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
   private static final int MAX_RESPONSE_SIZE = 2 * 1024 * 1024;
   private static final int MAX_CODE_LOOKUPS_PER_REQUEST = 1024;
   private static final int MAX_TRIE_LOOKUPS_PER_REQUEST = 1024;
+  static final int STORAGE_TRIE_NODES_PER_READ = 128;
   private static final AccountRangeMessage EMPTY_ACCOUNT_RANGE =
       AccountRangeMessage.create(new HashMap<>(), new ArrayDeque<>());
   private static final StorageRangeMessage EMPTY_STORAGE_RANGE =
@@ -543,26 +544,53 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                     // otherwise the first element should be account hash, and subsequent paths
                     // are compact encoded account storage paths
 
+                    if (isTrieNodesResponseFull(trieNodes, maxResponseBytes, stopWatch)) {
+                      break;
+                    }
                     final Bytes32 accountPrefix = Bytes32.leftPad(triePath.getFirst());
                     var optAccount = storage.getAccount(Hash.wrap(accountPrefix));
                     if (optAccount.isEmpty()) {
                       continue;
                     }
 
+                    // the storage paths of an account are read in batches of bounded size, so a
+                    // request cannot make a single read of any number of trie nodes
                     List<Bytes> storagePaths = triePath.subList(1, triePath.size());
-                    for (var path : storagePaths) {
-                      final Bytes location = CompactEncoding.decode(path);
-                      var optStorage =
-                          storage.getTrieNodeUnsafe(Bytes.concatenate(accountPrefix, location));
-                      if (optStorage.isEmpty() && location.isEmpty()) {
-                        optStorage = Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
-                      }
-                      var trieNode = optStorage.orElse(Bytes.EMPTY);
-                      if (!trieNodes.isEmpty()
-                          && sumListBytes(trieNodes) + trieNode.size() > maxResponseBytes) {
+                    boolean responseFull = false;
+                    for (int start = 0;
+                        start < storagePaths.size() && !responseFull;
+                        start += STORAGE_TRIE_NODES_PER_READ) {
+                      if (isTrieNodesResponseFull(trieNodes, maxResponseBytes, stopWatch)) {
                         break;
                       }
-                      trieNodes.add(trieNode);
+                      final List<Bytes> locations =
+                          storagePaths
+                              .subList(
+                                  start,
+                                  Math.min(
+                                      start + STORAGE_TRIE_NODES_PER_READ, storagePaths.size()))
+                              .stream()
+                              .map(CompactEncoding::decode)
+                              .toList();
+                      final List<Optional<Bytes>> storageTrieNodes =
+                          storage.getTrieNodesUnsafe(
+                              locations.stream()
+                                  .map(location -> Bytes.concatenate(accountPrefix, location))
+                                  .toList());
+                      for (int i = 0; i < locations.size(); i++) {
+                        final Bytes location = locations.get(i);
+                        var optStorage = storageTrieNodes.get(i);
+                        if (optStorage.isEmpty() && location.isEmpty()) {
+                          optStorage = Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
+                        }
+                        var trieNode = optStorage.orElse(Bytes.EMPTY);
+                        if (!trieNodes.isEmpty()
+                            && sumListBytes(trieNodes) + trieNode.size() > maxResponseBytes) {
+                          responseFull = true;
+                          break;
+                        }
+                        trieNodes.add(trieNode);
+                      }
                     }
                   }
                 }
@@ -689,6 +717,14 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
         .orElse(Hash.EMPTY_TRIE_HASH);
   }
 
+  // do not read another batch of trie nodes once the response is full or out of time
+  private static boolean isTrieNodesResponseFull(
+      final List<Bytes> trieNodes, final int maxResponseBytes, final StopWatch stopWatch) {
+    return !trieNodes.isEmpty()
+        && (sumListBytes(trieNodes) >= maxResponseBytes
+            || stopWatch.getTime() > ResponseSizePredicate.MAX_MILLIS_PER_REQUEST);
+  }
+
   private static int sumListBytes(final List<Bytes> listOfBytes) {
     // TODO: remove hack, 10% is a fudge factor to account for the overhead of rlp encoding
     return listOfBytes.stream().map(Bytes::size).reduce((a, b) -> a + b).orElse(0) * 11 / 10;
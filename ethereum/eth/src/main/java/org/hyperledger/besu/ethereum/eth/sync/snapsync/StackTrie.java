@@ -138,9 +138,9 @@ public class StackTrie {
                 snapStoredNodeFactory,
                 proofs.isEmpty() ? MerkleTrie.EMPTY_TRIE_NODE_HASH : rootHash);
 
-        for (Map.Entry<Bytes32, Bytes> entry : keys.entrySet()) {
-          trie.put(entry.getKey(), entry.getValue());
-        }
+        final Map<Bytes, Optional<Bytes>> changes = new HashMap<>();
+        keys.forEach((key, value) -> changes.put(key, Optional.of(value)));
+        trie.putAll(changes);
 
         keys.forEach(flatDatabaseUpdater::update);
 
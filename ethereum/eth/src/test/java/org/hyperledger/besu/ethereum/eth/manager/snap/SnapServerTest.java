@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.eth.manager.snap;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hyperledger.besu.ethereum.eth.manager.snap.SnapServer.HASH_LAST;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -52,6 +53,7 @@ import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.NavigableMap;
@@ -65,6 +67,7 @@ import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 public class SnapServerTest {
   static Random rand = new Random();
@@ -657,6 +660,55 @@ public class SnapServerTest {
     assertThat(trieNodes.size()).isEqualTo(1);
   }
 
+  @Test
+  public void assertOversizedStoragePathListIsReadInBoundedBatches() {
+    insertTestAccounts(acct1, acct2, acct3, acct4);
+    var pathToSlot11 = CompactEncoding.encode(Bytes.fromHexStringLenient("0x0101"));
+    final int trieNodeSize =
+        requestTrieNodes(
+                storageTrie.getRootHash(), List.of(List.of(acct3.addressHash, pathToSlot11)))
+            .nodes(false)
+            .get(0)
+            .size();
+    final int trieNodeLimit = 300;
+    final BonsaiWorldStateKeyValueStorage spyStorage = spy(inMemoryStorage);
+    final SnapServer server =
+        new SnapServer(new EthMessages(), storageCoordinator, __ -> Optional.of(spyStorage))
+            .start();
+
+    final List<Bytes> triePath = new ArrayList<>();
+    triePath.add(acct3.addressHash);
+    triePath.addAll(Collections.nCopies(10_000, pathToSlot11));
+
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeBigIntegerScalar(BigInteger.ONE);
+    tmp.writeBytes(storageTrie.getRootHash());
+    tmp.writeList(
+        List.of(triePath),
+        (path, rlpOutput) ->
+            rlpOutput.writeList(path, (b, subRlpOutput) -> subRlpOutput.writeBytes(b)));
+    tmp.writeBigIntegerScalar(BigInteger.valueOf(trieNodeLimit * trieNodeSize));
+    tmp.endList();
+
+    var trieNodeRequest =
+        (TrieNodesMessage)
+            server.constructGetTrieNodesResponse(new GetTrieNodesMessage(tmp.encoded()));
+
+    assertThat(trieNodeRequest).isNotNull();
+    List<Bytes> trieNodes = trieNodeRequest.nodes(false);
+    assertThat(trieNodes.size()).isEqualTo(trieNodeLimit);
+
+    // only the batches needed to fill the response were read
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<List<Bytes>> reads = ArgumentCaptor.forClass(List.class);
+    verify(spyStorage, atLeastOnce()).getTrieNodesUnsafe(reads.capture());
+    final int batchSize = SnapServer.STORAGE_TRIE_NODES_PER_READ;
+    assertThat(reads.getAllValues().size()).isEqualTo((trieNodeLimit + batchSize - 1) / batchSize);
+    assertThat(reads.getAllValues().stream().mapToInt(List::size).max().orElseThrow())
+        .isEqualTo(batchSize);
+  }
+
   @Test
   public void assertCodePresent() {
     insertTestAccounts(acct1, acct2, acct3, acct4);
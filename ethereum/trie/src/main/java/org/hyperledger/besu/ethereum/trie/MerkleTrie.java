@@ -100,6 +100,15 @@ public interface MerkleTrie<K, V> {
    */
   void removePath(K path, PathNodeVisitor<V> removeVisitor);
 
+  /**
+   * Updates the values mapped to several keys at once, an empty value deleting its key.
+   *
+   * @param changes The values to associate the keys with.
+   */
+  default void putAll(final Map<K, Optional<V>> changes) {
+    changes.forEach((key, value) -> value.ifPresentOrElse(v -> put(key, v), () -> remove(key)));
+  }
+
   /**
    * Returns the KECCAK256 hash of the root node of the trie.
    *
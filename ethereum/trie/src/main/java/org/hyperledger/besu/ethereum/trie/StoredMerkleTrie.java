@@ -18,6 +18,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.hyperledger.besu.ethereum.trie.CompactEncoding.bytesToPath;
 
+import org.hyperledger.besu.ethereum.trie.patricia.PutAllVisitor;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredNodeFactory;
 
 import java.util.List;
@@ -127,6 +128,20 @@ public abstract class StoredMerkleTrie<K extends Bytes, V> implements MerkleTrie
     this.root = root.accept(putVisitor, bytesToPath(key));
   }
 
+  @Override
+  public void putAll(final Map<K, Optional<V>> changes) {
+    checkNotNull(changes);
+    if (changes.isEmpty()) {
+      return;
+    }
+    final List<Map.Entry<Bytes, Optional<V>>> sortedChanges =
+        changes.entrySet().stream()
+            .map(change -> Map.entry(bytesToPath(change.getKey()), change.getValue()))
+            .sorted((change, other) -> PutAllVisitor.compare(change.getKey(), other.getKey()))
+            .toList();
+    this.root = root.accept(getPutAllVisitor(sortedChanges), Bytes.EMPTY);
+  }
+
   @Override
   public void remove(final K key) {
     checkNotNull(key);
@@ -212,4 +227,7 @@ public abstract class StoredMerkleTrie<K extends Bytes, V> implements MerkleTrie
   public abstract PathNodeVisitor<V> getRemoveVisitor();
 
   public abstract PathNodeVisitor<V> getPutVisitor(final V value);
+
+  public abstract PathNodeVisitor<V> getPutAllVisitor(
+      final List<Map.Entry<Bytes, Optional<V>>> sortedChanges);
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.patricia;
+
+import org.hyperledger.besu.ethereum.trie.CompactEncoding;
+import org.hyperledger.besu.ethereum.trie.Node;
+import org.hyperledger.besu.ethereum.trie.NodeFactory;
+import org.hyperledger.besu.ethereum.trie.NullNode;
+import org.hyperledger.besu.ethereum.trie.PathNodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Applies a batch of changes to a trie in a single descent. Each node is visited once for all the
+ * changes below it rather than once per change, and the subtries that only hold new values are
+ * built directly instead of splitting leaves one insert at a time.
+ *
+ * <p>The changes are sorted by path and an empty value removes its path. The path given to each
+ * visit is the location of the visited node, which prefixes the path of every change it receives.
+ */
+public class PutAllVisitor<V> implements PathNodeVisitor<V> {
+  private static final int RADIX = 16;
+  private static final Node<?> NULL_NODE = NullNode.instance();
+
+  private final NodeFactory<V> nodeFactory;
+  private final List<Map.Entry<Bytes, Optional<V>>> changes;
+  private final int from;
+  private final int to;
+
+  public PutAllVisitor(
+      final NodeFactory<V> nodeFactory, final List<Map.Entry<Bytes, Optional<V>>> changes) {
+    this(nodeFactory, changes, 0, changes.size());
+  }
+
+  private PutAllVisitor(
+      final NodeFactory<V> nodeFactory,
+      final List<Map.Entry<Bytes, Optional<V>>> changes,
+      final int from,
+      final int to) {
+    this.nodeFactory = nodeFactory;
+    this.changes = changes;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public Node<V> visit(final ExtensionNode<V> extensionNode, final Bytes location) {
+    final Bytes extensionPath = extensionNode.getPath();
+    // the changes are sorted, so they all go through the extension if the first and last do
+    if (!startsWith(from, location, extensionPath)
+        || !startsWith(to - 1, location, extensionPath)) {
+      return applyEach(extensionNode, location);
+    }
+    final Node<V> child = extensionNode.getChild();
+    final Node<V> updatedChild = child.accept(this, Bytes.concatenate(location, extensionPath));
+    return updatedChild == child ? extensionNode : extensionNode.replaceChild(updatedChild);
+  }
+
+  @Override
+  public Node<V> visit(final BranchNode<V> branchNode, final Bytes location) {
+    final List<Node<V>> children = new ArrayList<>(branchNode.getChildren());
+    Optional<V> value = branchNode.getValue();
+    boolean updated = false;
+    for (int groupStart = from; groupStart < to; ) {
+      final int groupEnd = groupEnd(groupStart, location.size());
+      final byte index = path(groupStart).get(location.size());
+      if (index == CompactEncoding.LEAF_TERMINATOR) {
+        updated |= !value.equals(value(groupStart));
+        value = value(groupStart);
+      } else {
+        final Node<V> child = children.get(index);
+        final Node<V> updatedChild =
+            child.accept(
+                new PutAllVisitor<>(nodeFactory, changes, groupStart, groupEnd),
+                Bytes.concatenate(location, Bytes.of(index)));
+        if (updatedChild != child) {
+          children.set(index, updatedChild);
+          updated = true;
+        }
+      }
+      groupStart = groupEnd;
+    }
+    if (!updated) {
+      return branchNode;
+    }
+
+    final boolean hasChildren = children.stream().anyMatch(child -> child != NULL_NODE);
+    if (!hasChildren && value.isPresent()) {
+      return nodeFactory.createLeaf(Bytes.of(CompactEncoding.LEAF_TERMINATOR), value.get());
+    } else if (!hasChildren) {
+      return NullNode.instance();
+    } else if (value.isEmpty()) {
+      final Optional<Node<V>> flattened = branchNode.maybeFlatten(children);
+      if (flattened.isPresent()) {
+        return flattened.get();
+      }
+    }
+    return nodeFactory.createBranch(children, value);
+  }
+
+  @Override
+  public Node<V> visit(final LeafNode<V> leafNode, final Bytes location) {
+    // rebuild the subtrie from the changes and the leaf, unless a change replaces the leaf
+    final Bytes leafPath = Bytes.concatenate(location, leafNode.getPath());
+    final List<Map.Entry<Bytes, Optional<V>>> merged = new ArrayList<>(to - from + 1);
+    boolean leafMerged = false;
+    boolean updated = false;
+    for (int i = from; i < to; i++) {
+      updated |= value(i).isPresent();
+      if (!leafMerged) {
+        final int comparison = compare(path(i), leafPath);
+        if (comparison > 0) {
+          merged.add(Map.entry(leafPath, leafNode.getValue()));
+        }
+        leafMerged = comparison >= 0;
+        updated |= comparison == 0;
+      }
+      merged.add(changes.get(i));
+    }
+    if (!updated) {
+      return leafNode;
+    } else if (!leafMerged) {
+      merged.add(Map.entry(leafPath, leafNode.getValue()));
+    }
+    return new PutAllVisitor<>(nodeFactory, merged).build(NullNode.instance(), location);
+  }
+
+  @Override
+  public Node<V> visit(final NullNode<V> nullNode, final Bytes location) {
+    return build(nullNode, location);
+  }
+
+  /**
+   * Builds the subtrie holding the values put by the changes, ignoring the removals.
+   *
+   * @param empty the node to return when nothing is put, so a missing node is kept
+   * @param location the location of the subtrie
+   * @return the root of the subtrie
+   */
+  private Node<V> build(final Node<V> empty, final Bytes location) {
+    int first = from;
+    while (first < to && value(first).isEmpty()) {
+      first++;
+    }
+    if (first == to) {
+      return empty;
+    }
+    int last = to - 1;
+    while (value(last).isEmpty()) {
+      last--;
+    }
+
+    final Bytes firstPath = path(first).slice(location.size());
+    if (first == last) {
+      return nodeFactory.createLeaf(firstPath, value(first).get());
+    }
+    final int commonPathLength = firstPath.commonPrefixLength(path(last).slice(location.size()));
+    if (commonPathLength > 0) {
+      final Bytes extensionPath = firstPath.slice(0, commonPathLength);
+      final Node<V> child =
+          new PutAllVisitor<>(nodeFactory, changes, first, last + 1)
+              .build(NullNode.instance(), Bytes.concatenate(location, extensionPath));
+      return nodeFactory.createExtension(extensionPath, child);
+    }
+
+    final List<Node<V>> children =
+        new ArrayList<>(Collections.<Node<V>>nCopies(RADIX, NullNode.instance()));
+    Optional<V> value = Optional.empty();
+    for (int groupStart = first; groupStart <= last; ) {
+      final int groupEnd = groupEnd(groupStart, location.size());
+      final byte index = path(groupStart).get(location.size());
+      if (index == CompactEncoding.LEAF_TERMINATOR) {
+        value = value(groupStart);
+      } else {
+        children.set(
+            index,
+            new PutAllVisitor<>(nodeFactory, changes, groupStart, groupEnd)
+                .build(NullNode.instance(), Bytes.concatenate(location, Bytes.of(index))));
+      }
+      groupStart = groupEnd;
+    }
+    return nodeFactory.createBranch(children, value);
+  }
+
+  private Node<V> applyEach(final Node<V> node, final Bytes location) {
+    Node<V> updated = node;
+    for (int i = from; i < to; i++) {
+      final PathNodeVisitor<V> visitor =
+          value(i)
+              .<PathNodeVisitor<V>>map(v -> new PutVisitor<>(nodeFactory, v))
+              .orElseGet(RemoveVisitor::new);
+      updated = updated.accept(visitor, path(i).slice(location.size()));
+    }
+    return updated;
+  }
+
+  private boolean startsWith(final int change, final Bytes location, final Bytes prefix) {
+    return path(change).slice(location.size()).commonPrefixLength(prefix) == prefix.size();
+  }
+
+  private int groupEnd(final int groupStart, final int depth) {
+    final byte index = path(groupStart).get(depth);
+    int groupEnd = groupStart + 1;
+    while (groupEnd < to && path(groupEnd).get(depth) == index) {
+      groupEnd++;
+    }
+    return groupEnd;
+  }
+
+  private Bytes path(final int change) {
+    return changes.get(change).getKey();
+  }
+
+  private Optional<V> value(final int change) {
+    return changes.get(change).getValue();
+  }
+
+  /**
+   * Compares two paths in the order the changes are expected to be sorted.
+   *
+   * @param path a path
+   * @param other another path
+   * @return a negative number, zero or a positive number as the path is before, equal to or after
+   *     the other path
+   */
+  public static int compare(final Bytes path, final Bytes other) {
+    return Arrays.compare(path.toArrayUnsafe(), other.toArrayUnsafe());
+  }
+}
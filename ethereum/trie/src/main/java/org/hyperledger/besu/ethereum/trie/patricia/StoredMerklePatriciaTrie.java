@@ -20,6 +20,9 @@ import org.hyperledger.besu.ethereum.trie.NodeLoader;
 import org.hyperledger.besu.ethereum.trie.PathNodeVisitor;
 import org.hyperledger.besu.ethereum.trie.StoredMerkleTrie;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -81,4 +84,10 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> extends StoredMerkleTr
   public PathNodeVisitor<V> getPutVisitor(final V value) {
     return new PutVisitor<>(nodeFactory, value);
   }
+
+  @Override
+  public PathNodeVisitor<V> getPutAllVisitor(
+      final List<Map.Entry<Bytes, Optional<V>>> sortedChanges) {
+    return new PutAllVisitor<>(nodeFactory, sortedChanges);
+  }
 }
@@ -28,8 +28,12 @@ import org.hyperledger.besu.ethereum.trie.Proof;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -428,4 +432,66 @@ public abstract class AbstractMerklePatriciaTrieTest {
     final String nodeValue = new String(nodes.get(0).getValue().get().toArray(), UTF_8);
     assertThat(nodeValue).isEqualTo(value1);
   }
+
+  @Test
+  public void putAllMatchesSequentialUpdates() {
+    final Random random = new Random(42);
+    final List<Bytes> keys = new ArrayList<>();
+    final MerkleTrie<Bytes, String> sequentialTrie = createTrie();
+    for (int i = 0; i < 200; i++) {
+      final Bytes key = Bytes32.random(random);
+      keys.add(key);
+      trie.put(key, "value" + i);
+      sequentialTrie.put(key, "value" + i);
+    }
+
+    final Map<Bytes, Optional<String>> changes = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      changes.put(keys.get(random.nextInt(keys.size())), Optional.empty());
+      changes.put(keys.get(random.nextInt(keys.size())), Optional.of("updated" + i));
+      changes.put(Bytes32.random(random), Optional.of("new" + i));
+      changes.put(Bytes32.random(random), Optional.empty());
+    }
+    changes.forEach(
+        (key, value) ->
+            value.ifPresentOrElse(
+                v -> sequentialTrie.put(key, v), () -> sequentialTrie.remove(key)));
+    trie.putAll(changes);
+
+    assertThat(trie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+    changes.forEach((key, value) -> assertThat(trie.get(key)).isEqualTo(value));
+  }
+
+  @Test
+  public void putAllBuildsTrieWithNestedKeys() {
+    final Map<Bytes, Optional<String>> changes = new HashMap<>();
+    changes.put(Bytes.EMPTY, Optional.of("root"));
+    changes.put(Bytes.of(1), Optional.of("value1"));
+    changes.put(Bytes.of(1, 2), Optional.of("value2"));
+    changes.put(Bytes.of(1, 2, 3), Optional.of("value3"));
+    changes.put(Bytes.of(1, 3), Optional.of("value4"));
+    changes.put(Bytes.of(0x10, 2), Optional.empty());
+    changes.forEach((key, value) -> value.ifPresent(v -> trie.put(key, v)));
+    final Bytes32 expectedRootHash = trie.getRootHash();
+
+    final MerkleTrie<Bytes, String> batchTrie = createTrie();
+    batchTrie.putAll(changes);
+
+    assertThat(batchTrie.getRootHash()).isEqualTo(expectedRootHash);
+    changes.forEach((key, value) -> assertThat(batchTrie.get(key)).isEqualTo(value));
+  }
+
+  @Test
+  public void putAllRemovingEveryKeyEmptiesTrie() {
+    final Map<Bytes, Optional<String>> changes = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      final Bytes key = Bytes32.leftPad(Bytes.of(i));
+      trie.put(key, "value" + i);
+      changes.put(key, Optional.empty());
+    }
+
+    trie.putAll(changes);
+
+    assertThat(trie.getRootHash()).isEqualTo(MerkleTrie.EMPTY_TRIE_NODE_HASH);
+  }
 }
@@ -23,6 +23,8 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -123,4 +125,36 @@ public class StoredMerklePatriciaTrieTest extends AbstractMerklePatriciaTrieTest
     assertThat(trie.get(key2)).isEqualTo(Optional.of("value2"));
     assertThat(trie.get(key3)).isEqualTo(Optional.of("value3"));
   }
+
+  @Test
+  public void putAllUpdatesPersistedNodes() {
+    final Map<Bytes, Optional<String>> changes = new HashMap<>();
+    for (int i = 0; i < 50; i++) {
+      final Bytes key = Bytes32.leftPad(Bytes.ofUnsignedShort(i * 31));
+      trie.put(key, "value" + i);
+      changes.put(key, i % 3 == 0 ? Optional.empty() : Optional.of("updated" + i));
+      changes.put(Bytes32.leftPad(Bytes.ofUnsignedShort(i * 31 + 7)), Optional.of("new" + i));
+    }
+    final Bytes32 rootHash = trie.getRootHash();
+    trie.commit(merkleStorage::put);
+
+    final MerkleTrie<Bytes, String> sequentialTrie =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get, rootHash, valueSerializer, valueDeserializer);
+    changes.forEach(
+        (key, value) ->
+            value.ifPresentOrElse(
+                v -> sequentialTrie.put(key, v), () -> sequentialTrie.remove(key)));
+    trie =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get, rootHash, valueSerializer, valueDeserializer);
+    trie.putAll(changes);
+
+    assertThat(trie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+    trie.commit(merkleStorage::put);
+    trie =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get, sequentialTrie.getRootHash(), valueSerializer, valueDeserializer);
+    changes.forEach((key, value) -> assertThat(trie.get(key)).isEqualTo(value));
+  }
 }
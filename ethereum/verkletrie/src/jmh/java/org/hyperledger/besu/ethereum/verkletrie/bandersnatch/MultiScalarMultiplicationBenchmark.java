@@ -0,0 +1,66 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fr.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class MultiScalarMultiplicationBenchmark {
+
+  /** Number of basis points, a verkle node commits to 256 children. */
+  @Param({"16", "256"})
+  public int size;
+
+  /** Number of non-zero scalars, a sparse update only changes a few children. */
+  @Param({"1", "16", "256"})
+  public int nonZeroScalars;
+
+  private List<Point> basis;
+  private List<Element> scalars;
+  private FixedBasisMultiScalarMultiplication fixedBasis;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    basis = new ArrayList<>(size);
+    scalars = new ArrayList<>(size);
+    Point point = Point.GENERATOR;
+    for (int i = 0; i < size; i++) {
+      point = point.add(point).add(Point.GENERATOR);
+      basis.add(point);
+      scalars.add(i < nonZeroScalars ? Element.random() : Element.ZERO);
+    }
+    fixedBasis = new FixedBasisMultiScalarMultiplication(basis);
+  }
+
+  @Benchmark
+  public Point multiScalarMultiplication() {
+    return MultiScalarMultiplication.multiply(basis, scalars);
+  }
+
+  @Benchmark
+  public Point fixedBasisCommit() {
+    return fixedBasis.commit(scalars);
+  }
+}
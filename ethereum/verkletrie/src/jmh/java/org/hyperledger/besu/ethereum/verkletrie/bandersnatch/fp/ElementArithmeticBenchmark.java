@@ -0,0 +1,51 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class ElementArithmeticBenchmark {
+
+  private final ElementArithmetic arithmetic = new ElementArithmetic();
+  private final long[] xLimbs = ElementArithmetic.create();
+  private final long[] yLimbs = ElementArithmetic.create();
+  private final long[] result = ElementArithmetic.create();
+  private Element x;
+  private Element y;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    x = Element.random();
+    y = Element.random();
+    ElementArithmetic.set(xLimbs, x);
+    ElementArithmetic.set(yLimbs, y);
+  }
+
+  @Benchmark
+  public Element elementMultiply() {
+    return x.multiply(y);
+  }
+
+  @Benchmark
+  public long[] limbMultiply() {
+    arithmetic.multiply(result, xLimbs, yLimbs);
+    return result;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import java.util.Arrays;
+
+/** The buckets of one window of the bucket method, one per non-zero digit. */
+final class Buckets {
+
+  private final PointArithmetic arithmetic;
+  private final MutablePoint[] buckets;
+  private final boolean[] used;
+  private final MutablePoint running = new MutablePoint();
+  private final MutablePoint sum = new MutablePoint();
+
+  Buckets(final int windowBits, final PointArithmetic arithmetic) {
+    this.arithmetic = arithmetic;
+    this.buckets = new MutablePoint[1 << windowBits];
+    this.used = new boolean[buckets.length];
+    for (int digit = 1; digit < buckets.length; digit++) {
+      buckets[digit] = new MutablePoint();
+    }
+  }
+
+  void clear() {
+    Arrays.fill(used, false);
+  }
+
+  void add(final int digit, final MutablePoint point) {
+    if (digit == 0) {
+      return;
+    }
+    if (used[digit]) {
+      arithmetic.add(buckets[digit], buckets[digit], point);
+    } else {
+      buckets[digit].set(point);
+      used[digit] = true;
+    }
+  }
+
+  /**
+   * Adds the buckets, each multiplied by its digit, to the result. Summing the running sum of the
+   * buckets from the highest digit down adds each bucket once per digit up to its own.
+   *
+   * @param result the point to add the weighted buckets to
+   */
+  void addWeightedSumTo(final MutablePoint result) {
+    boolean runningUsed = false;
+    boolean sumUsed = false;
+    for (int digit = buckets.length - 1; digit > 0; digit--) {
+      if (used[digit] && runningUsed) {
+        arithmetic.add(running, running, buckets[digit]);
+      } else if (used[digit]) {
+        running.set(buckets[digit]);
+        runningUsed = true;
+      }
+      if (runningUsed && sumUsed) {
+        arithmetic.add(sum, sum, running);
+      } else if (runningUsed) {
+        sum.set(running);
+        sumUsed = true;
+      }
+    }
+    if (sumUsed) {
+      arithmetic.add(result, result, sum);
+    }
+  }
+}
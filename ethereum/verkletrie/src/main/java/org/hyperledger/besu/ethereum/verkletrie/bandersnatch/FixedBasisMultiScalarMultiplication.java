@@ -0,0 +1,114 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fr.Element;
+
+import java.util.List;
+
+/**
+ * Multi-scalar multiplication over a fixed basis, such as the basis of vector commitments, with
+ * precomputed tables.
+ *
+ * <p>For every basis point P and window w the table holds 2^(w * c) * P, so the digits of all the
+ * windows share a single set of buckets and no doubling is left to do when committing. The tables
+ * hold (253 / c) points per basis point and are read only, so commitments may be computed
+ * concurrently.
+ */
+public class FixedBasisMultiScalarMultiplication {
+
+  /** The number of bits of the windows by default. */
+  public static final int DEFAULT_WINDOW_BITS = 8;
+
+  private final int windowBits;
+  private final MutablePoint[][] tables;
+
+  /**
+   * Precomputes the tables of a basis with windows of the default size.
+   *
+   * @param basis the basis points
+   */
+  public FixedBasisMultiScalarMultiplication(final List<Point> basis) {
+    this(basis, DEFAULT_WINDOW_BITS);
+  }
+
+  /**
+   * Precomputes the tables of a basis.
+   *
+   * @param basis the basis points
+   * @param windowBits the number of bits of the windows
+   */
+  public FixedBasisMultiScalarMultiplication(final List<Point> basis, final int windowBits) {
+    checkArgument(
+        windowBits > 0 && windowBits <= 16, "Window bits must be between 1 and 16: %s", windowBits);
+    this.windowBits = windowBits;
+    this.tables = new MutablePoint[basis.size()][];
+    final PointArithmetic arithmetic = new PointArithmetic();
+    final int windows = MultiScalarMultiplication.windows(windowBits);
+    for (int i = 0; i < tables.length; i++) {
+      final MutablePoint[] table = new MutablePoint[windows];
+      table[0] = new MutablePoint(basis.get(i));
+      for (int window = 1; window < windows; window++) {
+        table[window] = new MutablePoint();
+        table[window].set(table[window - 1]);
+        for (int bit = 0; bit < windowBits; bit++) {
+          arithmetic.add(table[window], table[window], table[window]);
+        }
+      }
+      tables[i] = table;
+    }
+  }
+
+  /**
+   * Gets the number of basis points.
+   *
+   * @return the size of the basis
+   */
+  public int size() {
+    return tables.length;
+  }
+
+  /**
+   * Computes the sum of the basis points each multiplied by its scalar. Zero scalars are skipped,
+   * so sparse vectors are cheaper to commit to.
+   *
+   * @param scalars the scalars of the first basis points
+   * @return the sum of the scalar multiplications
+   */
+  public Point commit(final List<Element> scalars) {
+    checkArgument(
+        scalars.size() <= tables.length,
+        "Expected at most %s scalars but got %s",
+        tables.length,
+        scalars.size());
+    final PointArithmetic arithmetic = new PointArithmetic();
+    final Buckets buckets = new Buckets(windowBits, arithmetic);
+    for (int i = 0; i < scalars.size(); i++) {
+      if (scalars.get(i).isZero()) {
+        continue;
+      }
+      final long[] limbs = MultiScalarMultiplication.limbs(scalars.get(i));
+      final MutablePoint[] table = tables[i];
+      for (int window = 0; window < table.length; window++) {
+        buckets.add(MultiScalarMultiplication.digit(limbs, window, windowBits), table[window]);
+      }
+    }
+    final MutablePoint result = new MutablePoint();
+    buckets.addWeightedSumTo(result);
+    return result.toPoint();
+  }
+}
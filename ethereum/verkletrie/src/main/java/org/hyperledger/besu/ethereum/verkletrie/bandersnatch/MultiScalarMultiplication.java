@@ -0,0 +1,121 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fr.Element;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Multi-scalar multiplication of bandersnatch points with the bucket method of Pippenger.
+ *
+ * <p>The scalars are split in windows of c bits. In each window every point is added to the bucket
+ * of its digit and the buckets are then weighted by their digit with a running sum, which costs
+ * about n + 2^(c+1) additions per window instead of a scalar multiplication per point.
+ */
+public final class MultiScalarMultiplication {
+
+  static final int SCALAR_BITS = 253;
+
+  private MultiScalarMultiplication() {}
+
+  /**
+   * Computes the sum of the points each multiplied by its scalar.
+   *
+   * @param points the points
+   * @param scalars the scalars, one per point
+   * @return the sum of the scalar multiplications
+   */
+  public static Point multiply(final List<Point> points, final List<Element> scalars) {
+    checkArgument(
+        points.size() == scalars.size(),
+        "Expected one scalar per point but got %s points and %s scalars",
+        points.size(),
+        scalars.size());
+    final int windowBits = windowBits(points.size());
+    final MutablePoint[] bases = new MutablePoint[points.size()];
+    final long[][] scalarLimbs = new long[scalars.size()][];
+    for (int i = 0; i < bases.length; i++) {
+      bases[i] = new MutablePoint(points.get(i));
+      scalarLimbs[i] = limbs(scalars.get(i));
+    }
+
+    final PointArithmetic arithmetic = new PointArithmetic();
+    final Buckets buckets = new Buckets(windowBits, arithmetic);
+    final MutablePoint result = new MutablePoint();
+    final int windows = windows(windowBits);
+    for (int window = windows - 1; window >= 0; window--) {
+      if (window < windows - 1) {
+        for (int i = 0; i < windowBits; i++) {
+          arithmetic.add(result, result, result);
+        }
+      }
+      buckets.clear();
+      for (int i = 0; i < bases.length; i++) {
+        buckets.add(digit(scalarLimbs[i], window, windowBits), bases[i]);
+      }
+      buckets.addWeightedSumTo(result);
+    }
+    return result.toPoint();
+  }
+
+  // the usual choice of about ln(n) + 2 bits balances the bucket additions against the windows
+  private static int windowBits(final int size) {
+    return size < 32 ? 3 : (int) Math.log(size) + 2;
+  }
+
+  static int windows(final int windowBits) {
+    return (SCALAR_BITS + windowBits - 1) / windowBits;
+  }
+
+  /**
+   * Gets the little-endian limbs of the regular representation of a scalar.
+   *
+   * @param scalar the scalar
+   * @return the limbs
+   */
+  static long[] limbs(final Element scalar) {
+    final Bytes32 bytes = scalar.getBytes(ByteOrder.BIG_ENDIAN);
+    final long[] limbs = new long[4];
+    for (int i = 0; i < limbs.length; i++) {
+      limbs[i] = bytes.getLong(24 - 8 * i);
+    }
+    return limbs;
+  }
+
+  /**
+   * Gets the digit of a scalar in a window.
+   *
+   * @param limbs the little-endian limbs of the scalar
+   * @param window the index of the window, from the least significant bits
+   * @param windowBits the number of bits of the windows
+   * @return the digit
+   */
+  static int digit(final long[] limbs, final int window, final int windowBits) {
+    final int offset = window * windowBits;
+    final int limb = offset >>> 6;
+    final int shift = offset & 63;
+    long bits = limbs[limb] >>> shift;
+    if (shift + windowBits > 64 && limb + 1 < limbs.length) {
+      bits |= limbs[limb + 1] << (64 - shift);
+    }
+    return (int) (bits & ((1L << windowBits) - 1));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp.Element;
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp.ElementArithmetic;
+
+import java.util.Arrays;
+
+/** A point in projective coordinates held as field element limbs that are updated in place. */
+final class MutablePoint {
+
+  private static final long[] ONE = ElementArithmetic.create();
+
+  static {
+    ElementArithmetic.set(ONE, Element.ONE);
+  }
+
+  final long[] x = ElementArithmetic.create();
+  final long[] y = ElementArithmetic.create();
+  final long[] z = ElementArithmetic.create();
+
+  MutablePoint() {
+    setIdentity();
+  }
+
+  MutablePoint(final Point point) {
+    set(point);
+  }
+
+  void setIdentity() {
+    Arrays.fill(x, 0);
+    ElementArithmetic.copy(y, ONE);
+    ElementArithmetic.copy(z, ONE);
+  }
+
+  void set(final Point point) {
+    ElementArithmetic.set(x, point.x);
+    ElementArithmetic.set(y, point.y);
+    ElementArithmetic.set(z, point.z);
+  }
+
+  void set(final MutablePoint point) {
+    ElementArithmetic.copy(x, point.x);
+    ElementArithmetic.copy(y, point.y);
+    ElementArithmetic.copy(z, point.z);
+  }
+
+  Point toPoint() {
+    return new Point(
+        ElementArithmetic.toElement(x),
+        ElementArithmetic.toElement(y),
+        ElementArithmetic.toElement(z));
+  }
+}
@@ -19,11 +19,23 @@ import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp.Element;
 import java.nio.ByteOrder;
 
 import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
 
 public class Point {
 
   public static final Point EMPTY = new Point(Element.ZERO, Element.ZERO, Element.ZERO);
   public static final Point IDENTITY = new Point(Element.ZERO, Element.ONE, Element.ONE);
+  public static final Point GENERATOR =
+      new Point(
+          new Element(
+                  UInt256.fromHexString(
+                      "0x29c132cc2c0b34c5743711777bbe42f32b79c022ad998465e1e71866a252ae18"))
+              .toMontgomery(),
+          new Element(
+                  UInt256.fromHexString(
+                      "0x2a6c669eda123e0f157d8b50badcd586358cad81eee464605e3167b6cc974166"))
+              .toMontgomery(),
+          Element.ONE);
   public final Element x;
   public final Element y;
   public final Element z;
@@ -34,6 +46,12 @@ public class Point {
     this.z = z;
   }
 
+  public Point add(final Point other) {
+    final MutablePoint sum = new MutablePoint(this);
+    new PointArithmetic().add(sum, sum, new MutablePoint(other));
+    return sum.toPoint();
+  }
+
   @Override
   public String toString() {
     return "Point{" + "x=" + x + ", y=" + y + ", z=" + z + '}';
@@ -0,0 +1,91 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp.Element;
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp.ElementArithmetic;
+
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Allocation-free addition of points in projective coordinates on bandersnatch, the twisted Edwards
+ * curve a * x^2 + y^2 = 1 + d * x^2 * y^2 with a = -5. The same formula doubles a point.
+ *
+ * <p>An instance keeps scratch space, so it must not be shared between threads.
+ */
+final class PointArithmetic {
+
+  private static final long[] A = ElementArithmetic.create();
+  private static final long[] D = ElementArithmetic.create();
+
+  static {
+    ElementArithmetic.set(A, new Element(UInt256.valueOf(5)).toMontgomery().neg());
+    ElementArithmetic.set(
+        D,
+        new Element(
+                UInt256.fromHexString(
+                    "0x6389c12633c267cbc66e3bf86be3b6d8cb66677177e54f92b369f2f5188d58e7"))
+            .toMontgomery());
+  }
+
+  private final ElementArithmetic field = new ElementArithmetic();
+  private final long[] zz = ElementArithmetic.create();
+  private final long[] zzSquare = ElementArithmetic.create();
+  private final long[] xx = ElementArithmetic.create();
+  private final long[] yy = ElementArithmetic.create();
+  private final long[] dxxyy = ElementArithmetic.create();
+  private final long[] f = ElementArithmetic.create();
+  private final long[] g = ElementArithmetic.create();
+  private final long[] sumX = ElementArithmetic.create();
+  private final long[] sumY = ElementArithmetic.create();
+
+  /**
+   * Sets r = p + q, r may be p or q.
+   *
+   * @param r the sum
+   * @param p a point
+   * @param q another point
+   */
+  void add(final MutablePoint r, final MutablePoint p, final MutablePoint q) {
+    // add-2008-bbjlp from the explicit formulas database
+    field.multiply(zz, p.z, q.z);
+    field.multiply(zzSquare, zz, zz);
+    field.multiply(xx, p.x, q.x);
+    field.multiply(yy, p.y, q.y);
+    field.multiply(dxxyy, xx, yy);
+    field.multiply(dxxyy, dxxyy, D);
+    ElementArithmetic.subtract(f, zzSquare, dxxyy);
+    ElementArithmetic.add(g, zzSquare, dxxyy);
+
+    // x = zz * f * ((p.x + p.y) * (q.x + q.y) - xx - yy)
+    ElementArithmetic.add(sumX, p.x, p.y);
+    ElementArithmetic.add(sumY, q.x, q.y);
+    field.multiply(sumX, sumX, sumY);
+    ElementArithmetic.subtract(sumX, sumX, xx);
+    ElementArithmetic.subtract(sumX, sumX, yy);
+    field.multiply(sumX, sumX, zz);
+    field.multiply(sumX, sumX, f);
+
+    // y = zz * g * (yy - a * xx)
+    field.multiply(sumY, xx, A);
+    ElementArithmetic.subtract(sumY, yy, sumY);
+    field.multiply(sumY, sumY, zz);
+    field.multiply(sumY, sumY, g);
+
+    field.multiply(r.z, f, g);
+    ElementArithmetic.copy(r.x, sumX);
+    ElementArithmetic.copy(r.y, sumY);
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.MutableBytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Allocation-free arithmetic on base field elements held as four little-endian 64-bit limbs, in
+ * the Montgomery form used by {@link Element}. The result may be written to one of the operands.
+ *
+ * <p>An instance keeps the scratch space of the multiplication, so it must not be shared between
+ * threads.
+ */
+public final class ElementArithmetic {
+
+  /** The number of limbs of an element. */
+  public static final int LIMBS = 4;
+
+  private static final long[] Q = {
+    0xffffffff00000001L, 0x53bda402fffe5bfeL, 0x3339d80809a1d805L, 0x73eda753299d7d48L
+  };
+  // -q^-1 mod 2^64
+  private static final long Q_INV_NEG = 0xfffffffeffffffffL;
+
+  private final long[] t = new long[LIMBS + 2];
+
+  /**
+   * Creates the limbs of a zero element.
+   *
+   * @return the limbs
+   */
+  public static long[] create() {
+    return new long[LIMBS];
+  }
+
+  /**
+   * Sets the limbs to an element.
+   *
+   * @param z the limbs to set
+   * @param x the element
+   */
+  public static void set(final long[] z, final Element x) {
+    for (int i = 0; i < LIMBS; i++) {
+      z[i] = x.value.getLong(24 - 8 * i);
+    }
+  }
+
+  /**
+   * Creates the element held by the limbs.
+   *
+   * @param x the limbs
+   * @return the element
+   */
+  public static Element toElement(final long[] x) {
+    final MutableBytes32 bytes = MutableBytes32.create();
+    for (int i = 0; i < LIMBS; i++) {
+      bytes.setLong(24 - 8 * i, x[i]);
+    }
+    return new Element(UInt256.fromBytes(bytes));
+  }
+
+  /**
+   * Copies the limbs of an element.
+   *
+   * @param z the limbs to set
+   * @param x the limbs to copy
+   */
+  public static void copy(final long[] z, final long[] x) {
+    System.arraycopy(x, 0, z, 0, LIMBS);
+  }
+
+  /**
+   * Checks whether the limbs hold zero.
+   *
+   * @param x the limbs
+   * @return true if the element is zero
+   */
+  public static boolean isZero(final long[] x) {
+    return (x[0] | x[1] | x[2] | x[3]) == 0;
+  }
+
+  /**
+   * Sets z = x + y.
+   *
+   * @param z the sum
+   * @param x an element
+   * @param y another element
+   */
+  public static void add(final long[] z, final long[] x, final long[] y) {
+    // both operands are below q < 2^255, so the sum cannot overflow 256 bits
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long sum = x[i] + y[i] + carry;
+      carry = (Long.compareUnsigned(sum, x[i]) < 0 || (carry == 1 && sum == x[i])) ? 1 : 0;
+      z[i] = sum;
+    }
+    if (!lessThanModulus(z)) {
+      subtractModulus(z);
+    }
+  }
+
+  /**
+   * Sets z = x - y.
+   *
+   * @param z the difference
+   * @param x an element
+   * @param y the element to subtract
+   */
+  public static void subtract(final long[] z, final long[] x, final long[] y) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long xi = x[i];
+      final long yi = y[i];
+      z[i] = xi - yi - borrow;
+      borrow = (Long.compareUnsigned(xi, yi) < 0 || (xi == yi && borrow == 1)) ? 1 : 0;
+    }
+    if (borrow == 1) {
+      long carry = 0;
+      for (int i = 0; i < LIMBS; i++) {
+        final long sum = z[i] + Q[i] + carry;
+        carry = (Long.compareUnsigned(sum, z[i]) < 0 || (carry == 1 && sum == z[i])) ? 1 : 0;
+        z[i] = sum;
+      }
+    }
+  }
+
+  /**
+   * Sets z = x * y with a Montgomery multiplication.
+   *
+   * @param z the product
+   * @param x an element
+   * @param y another element
+   */
+  public void multiply(final long[] z, final long[] x, final long[] y) {
+    // coarsely integrated operand scanning, accumulating in t before writing z
+    final long[] t = this.t;
+    Arrays.fill(t, 0);
+    for (int i = 0; i < LIMBS; i++) {
+      long carry = 0;
+      for (int j = 0; j < LIMBS; j++) {
+        carry = multiplyAdd(t, j, j, x[j], y[i], carry);
+      }
+      t[LIMBS] += carry;
+      t[LIMBS + 1] = Long.compareUnsigned(t[LIMBS], carry) < 0 ? 1 : 0;
+
+      final long m = t[0] * Q_INV_NEG;
+      carry = multiplyAdd(t, 0, 0, m, Q[0], 0);
+      for (int j = 1; j < LIMBS; j++) {
+        carry = multiplyAdd(t, j, j - 1, m, Q[j], carry);
+      }
+      t[LIMBS - 1] = t[LIMBS] + carry;
+      t[LIMBS] = t[LIMBS + 1] + (Long.compareUnsigned(t[LIMBS - 1], carry) < 0 ? 1 : 0);
+    }
+    System.arraycopy(t, 0, z, 0, LIMBS);
+    if (t[LIMBS] != 0 || !lessThanModulus(z)) {
+      subtractModulus(z);
+    }
+  }
+
+  // t[to] = low word of t[from] + a * b + carry, returning the high word
+  private static long multiplyAdd(
+      final long[] t, final int from, final int to, final long a, final long b, final long carry) {
+    long low = a * b;
+    long high = Math.unsignedMultiplyHigh(a, b);
+    low += t[from];
+    high += Long.compareUnsigned(low, t[from]) < 0 ? 1 : 0;
+    low += carry;
+    high += Long.compareUnsigned(low, carry) < 0 ? 1 : 0;
+    t[to] = low;
+    return high;
+  }
+
+  private static boolean lessThanModulus(final long[] x) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      if (x[i] != Q[i]) {
+        return Long.compareUnsigned(x[i], Q[i]) < 0;
+      }
+    }
+    return false;
+  }
+
+  private static void subtractModulus(final long[] z) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long zi = z[i];
+      z[i] = zi - Q[i] - borrow;
+      borrow = (Long.compareUnsigned(zi, Q[i]) < 0 || (zi == Q[i] && borrow == 1)) ? 1 : 0;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fr.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class MultiScalarMultiplicationTest {
+
+  private static final UInt256 SUBGROUP_ORDER =
+      UInt256.fromHexString("0x1cfb69d4ca675f520cce760202687600ff8f87007419047174fd06b52876e7e1");
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void testGeneratorHasSubgroupOrder() {
+    final Element orderMinusOne = new Element(SUBGROUP_ORDER.subtract(1)).toMontgomery();
+
+    final Point point =
+        MultiScalarMultiplication.multiply(
+            List.of(Point.GENERATOR, Point.GENERATOR), List.of(orderMinusOne, Element.ONE));
+
+    assertThat(point.bytes()).isEqualTo(Point.IDENTITY.bytes());
+  }
+
+  @Test
+  public void testMatchesScalarMultiplications() {
+    for (final int size : new int[] {1, 5, 40}) {
+      final List<Point> points = points(size);
+      final List<Element> scalars = new ArrayList<>();
+      Point expected = Point.IDENTITY;
+      for (final Point point : points) {
+        final long scalar = random.nextInt(1 << 20);
+        scalars.add(new Element(UInt256.valueOf(scalar)).toMontgomery());
+        expected = expected.add(doubleAndAdd(point, scalar));
+      }
+
+      assertThat(MultiScalarMultiplication.multiply(points, scalars).bytes())
+          .isEqualTo(expected.bytes());
+    }
+  }
+
+  @Test
+  public void testFixedBasisMatchesMultiScalarMultiplication() {
+    final List<Point> basis = points(64);
+    final List<Element> scalars = new ArrayList<>();
+    for (int i = 0; i < 48; i++) {
+      scalars.add(i % 5 == 0 ? Element.ZERO : Element.random());
+    }
+    final Point expected =
+        MultiScalarMultiplication.multiply(basis.subList(0, scalars.size()), scalars);
+
+    assertThat(new FixedBasisMultiScalarMultiplication(basis).commit(scalars).bytes())
+        .isEqualTo(expected.bytes());
+    assertThat(new FixedBasisMultiScalarMultiplication(basis, 3).commit(scalars).bytes())
+        .isEqualTo(expected.bytes());
+  }
+
+  @Test
+  public void testRejectsMissingScalars() {
+    assertThatThrownBy(() -> MultiScalarMultiplication.multiply(points(2), List.of(Element.ONE)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                new FixedBasisMultiScalarMultiplication(points(1))
+                    .commit(List.of(Element.ONE, Element.ONE)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<Point> points(final int size) {
+    final List<Point> points = new ArrayList<>(size);
+    Point point = Point.GENERATOR;
+    for (int i = 0; i < size; i++) {
+      point = point.add(point).add(Point.GENERATOR);
+      points.add(point);
+    }
+    return points;
+  }
+
+  private static Point doubleAndAdd(final Point point, final long scalar) {
+    Point result = Point.IDENTITY;
+    Point base = point;
+    for (long bits = scalar; bits != 0; bits >>= 1) {
+      if ((bits & 1) == 1) {
+        result = result.add(base);
+      }
+      base = base.add(base);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.verkletrie.bandersnatch.fp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class ElementArithmeticTest {
+
+  private final ElementArithmetic arithmetic = new ElementArithmetic();
+
+  @Test
+  public void testMultiplyMatchesElement() {
+    for (int i = 0; i < 100; i++) {
+      final Element x = Element.random();
+      final Element y = Element.random();
+      final long[] product = ElementArithmetic.create();
+      arithmetic.multiply(product, limbs(x), limbs(y));
+      assertThat(ElementArithmetic.toElement(product)).isEqualTo(x.multiply(y));
+    }
+  }
+
+  @Test
+  public void testMultiplyIntoOperand() {
+    final Element x = Element.random();
+    final long[] square = limbs(x);
+    arithmetic.multiply(square, square, square);
+    assertThat(ElementArithmetic.toElement(square)).isEqualTo(x.multiply(x));
+  }
+
+  @Test
+  public void testSubtractUndoesAdd() {
+    for (int i = 0; i < 100; i++) {
+      final long[] x = limbs(Element.random());
+      final long[] y = limbs(Element.random());
+      final long[] result = ElementArithmetic.create();
+      ElementArithmetic.add(result, x, y);
+      ElementArithmetic.subtract(result, result, y);
+      assertThat(result).isEqualTo(x);
+    }
+  }
+
+  @Test
+  public void testAddWrapsAroundModulus() {
+    final long[] result = limbs(new Element(Element.Q_MODULUS.value.subtract(1)));
+    ElementArithmetic.add(result, result, limbs(new Element(UInt256.valueOf(2))));
+    assertThat(ElementArithmetic.toElement(result)).isEqualTo(new Element(UInt256.ONE));
+  }
+
+  @Test
+  public void testSubtractWrapsAroundModulus() {
+    final long[] result = ElementArithmetic.create();
+    ElementArithmetic.subtract(result, limbs(Element.ZERO), limbs(new Element(UInt256.ONE)));
+    assertThat(ElementArithmetic.toElement(result))
+        .isEqualTo(new Element(Element.Q_MODULUS.value.subtract(1)));
+    ElementArithmetic.subtract(result, result, result);
+    assertThat(ElementArithmetic.isZero(result)).isTrue();
+  }
+
+  private static long[] limbs(final Element element) {
+    final long[] limbs = ElementArithmetic.create();
+    ElementArithmetic.set(limbs, element);
+    return limbs;
+  }
+}
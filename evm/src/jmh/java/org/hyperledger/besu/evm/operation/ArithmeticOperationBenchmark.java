@@ -0,0 +1,132 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class ArithmeticOperationBenchmark {
+
+  @Param({
+    "ADD", "MUL", "SUB", "DIV", "SDIV", "MOD", "SMOD", "ADDMOD", "MULMOD", "EXP", "SIGNEXTEND",
+    "LT", "GT", "SLT", "SGT", "EQ", "ISZERO", "AND", "OR", "XOR", "NOT", "BYTE", "SHL", "SHR",
+    "SAR"
+  })
+  public String operation;
+
+  /** Width in bytes of the random operands. */
+  @Param({"8", "32"})
+  public int operandSize;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(42);
+    final Bytes a = OperationBenchmarkHelper.randomOperand(random, operandSize);
+    final Bytes b = OperationBenchmarkHelper.randomOperand(random, operandSize);
+    final Bytes c = OperationBenchmarkHelper.randomOperand(random, operandSize);
+
+    final Bytes prologue;
+    final Bytes body;
+    switch (operation) {
+      case "ADDMOD", "MULMOD" -> {
+        prologue = pushAll(c, b, a);
+        // DUP3 DUP3 DUP3 <op> POP
+        body = Bytes.of(0x82, 0x82, 0x82, opcode(operation), 0x50);
+      }
+      case "ISZERO", "NOT" -> {
+        prologue = pushAll(a);
+        // DUP1 <op> POP
+        body = Bytes.of(0x80, opcode(operation), 0x50);
+      }
+      default -> {
+        // shifts, BYTE and SIGNEXTEND take a small index on top of the stack
+        final Bytes top =
+            switch (operation) {
+              case "SHL", "SHR", "SAR" -> Bytes.of(0x10);
+              case "BYTE" -> Bytes.of(0x07);
+              case "SIGNEXTEND" -> Bytes.of(0x0f);
+              default -> b;
+            };
+        prologue = pushAll(a, top);
+        // DUP2 DUP2 <op> POP
+        body = Bytes.of(0x81, 0x81, opcode(operation), 0x50);
+      }
+    }
+    executor =
+        OperationBenchmarkHelper.executor(
+            EvmSpecVersion.CANCUN, OperationBenchmarkHelper.code(prologue, body));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+
+  private static Bytes pushAll(final Bytes... values) {
+    final Bytes[] pushes = new Bytes[values.length];
+    for (int i = 0; i < values.length; i++) {
+      pushes[i] = OperationBenchmarkHelper.push(values[i]);
+    }
+    return Bytes.concatenate(pushes);
+  }
+
+  private static int opcode(final String operation) {
+    return switch (operation) {
+      case "ADD" -> 0x01;
+      case "MUL" -> 0x02;
+      case "SUB" -> 0x03;
+      case "DIV" -> 0x04;
+      case "SDIV" -> 0x05;
+      case "MOD" -> 0x06;
+      case "SMOD" -> 0x07;
+      case "ADDMOD" -> 0x08;
+      case "MULMOD" -> 0x09;
+      case "EXP" -> 0x0a;
+      case "SIGNEXTEND" -> 0x0b;
+      case "LT" -> 0x10;
+      case "GT" -> 0x11;
+      case "SLT" -> 0x12;
+      case "SGT" -> 0x13;
+      case "EQ" -> 0x14;
+      case "ISZERO" -> 0x15;
+      case "AND" -> 0x16;
+      case "OR" -> 0x17;
+      case "XOR" -> 0x18;
+      case "NOT" -> 0x19;
+      case "BYTE" -> 0x1a;
+      case "SHL" -> 0x1b;
+      case "SHR" -> 0x1c;
+      case "SAR" -> 0x1d;
+      default -> throw new IllegalArgumentException("Unknown operation " + operation);
+    };
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class CallOperationBenchmark {
+
+  @Param({"CALL", "CALLCODE", "DELEGATECALL", "STATICCALL", "CREATE", "CREATE2"})
+  public String operation;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Bytes callee = OperationBenchmarkHelper.push(OperationBenchmarkHelper.CALLEE_ADDRESS);
+    final Bytes body =
+        switch (operation) {
+          // no input or output, zero value, all remaining gas, to a callee that just stops
+          case "CALL" -> call(0xf1, Bytes.of(0x5f, 0x5f, 0x5f, 0x5f, 0x5f), callee);
+          case "CALLCODE" -> call(0xf2, Bytes.of(0x5f, 0x5f, 0x5f, 0x5f, 0x5f), callee);
+          case "DELEGATECALL" -> call(0xf4, Bytes.of(0x5f, 0x5f, 0x5f, 0x5f), callee);
+          case "STATICCALL" -> call(0xfa, Bytes.of(0x5f, 0x5f, 0x5f, 0x5f), callee);
+          // empty init code, the nonce or the GAS salt keeps the new addresses distinct
+          case "CREATE" -> Bytes.of(0x5f, 0x5f, 0x5f, 0xf0, 0x50);
+          case "CREATE2" -> Bytes.of(0x5a, 0x5f, 0x5f, 0x5f, 0xf5, 0x50);
+          default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    executor =
+        OperationBenchmarkHelper.executor(
+            EvmSpecVersion.CANCUN, OperationBenchmarkHelper.code(Bytes.EMPTY, body));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+
+  private static Bytes call(final int opcode, final Bytes arguments, final Bytes callee) {
+    // <arguments> PUSH20 <callee> GAS <op> POP
+    return Bytes.concatenate(arguments, callee, Bytes.of(0x5a, opcode, 0x50));
+  }
+}
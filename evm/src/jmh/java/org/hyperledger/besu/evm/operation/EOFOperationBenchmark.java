@@ -0,0 +1,90 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class EOFOperationBenchmark {
+
+  @Param({"RJUMP", "RJUMPI", "RJUMPV", "CALLF", "DATALOADN", "DUPN", "SWAPN", "EXCHANGE"})
+  public String operation;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    // every jump has a zero offset, so it lands on the next body
+    final Bytes body =
+        switch (operation) {
+          case "RJUMP" -> Bytes.fromHexString("0xe00000");
+          case "RJUMPI" -> Bytes.fromHexString("0x5fe10000");
+          case "RJUMPV" -> Bytes.fromHexString("0x5fe2000000");
+          case "CALLF" -> Bytes.fromHexString("0xe30001");
+          case "DATALOADN" -> Bytes.fromHexString("0xd1000050");
+          case "DUPN" -> Bytes.fromHexString("0xe60050");
+          case "SWAPN" -> Bytes.fromHexString("0xe700");
+          case "EXCHANGE" -> Bytes.fromHexString("0xe800");
+          default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    final int bodyStackGrowth =
+        switch (operation) {
+          case "RJUMPI", "RJUMPV", "DATALOADN", "DUPN" -> 1;
+          default -> 0;
+        };
+
+    // three stack items for the swaps, then the bodies and a STOP
+    final Bytes mainSection =
+        OperationBenchmarkHelper.code(Bytes.fromHexString("0x5f5f5f"), body)
+            .concat(Bytes.of(0x00));
+    final Bytes container =
+        Bytes.concatenate(
+            Bytes.fromHexString("0xef0001010008020002"),
+            Bytes.ofUnsignedShort(mainSection.size()),
+            Bytes.fromHexString("0x0001040020000080"),
+            Bytes.ofUnsignedShort(3 + bodyStackGrowth),
+            Bytes.fromHexString("0x00000000"),
+            mainSection,
+            // the CALLF target only returns
+            Bytes.of(0xe4),
+            Bytes.repeat((byte) 0x5a, 32));
+
+    final Code code = MainnetEVMs.pragueEOF(EvmConfiguration.DEFAULT).getCodeUncached(container);
+    if (!code.isValid()) {
+      throw new IllegalStateException("Benchmark container for " + operation + " is invalid");
+    }
+    executor = OperationBenchmarkHelper.executor(EvmSpecVersion.PRAGUE_EOF, container);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class EnvironmentOperationBenchmark {
+
+  @Param({
+    "ADDRESS", "BALANCE", "ORIGIN", "CALLER", "CALLVALUE", "CALLDATALOAD", "CALLDATASIZE",
+    "CODESIZE", "GASPRICE", "EXTCODESIZE", "EXTCODEHASH", "RETURNDATASIZE", "BLOCKHASH",
+    "COINBASE", "TIMESTAMP", "NUMBER", "PREVRANDAO", "GASLIMIT", "CHAINID", "SELFBALANCE",
+    "BASEFEE", "BLOBHASH", "BLOBBASEFEE", "PC", "MSIZE", "GAS"
+  })
+  public String operation;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Bytes body =
+        switch (operation) {
+          case "BALANCE" -> withAddress(0x31);
+          case "EXTCODESIZE" -> withAddress(0x3b);
+          case "EXTCODEHASH" -> withAddress(0x3f);
+          // PUSH0 <op> POP
+          case "CALLDATALOAD" -> Bytes.of(0x5f, 0x35, 0x50);
+          case "BLOCKHASH" -> Bytes.of(0x5f, 0x40, 0x50);
+          case "BLOBHASH" -> Bytes.of(0x5f, 0x49, 0x50);
+          default -> Bytes.of(opcode(operation), 0x50);
+        };
+    executor =
+        OperationBenchmarkHelper.executor(
+                EvmSpecVersion.CANCUN, OperationBenchmarkHelper.code(Bytes.EMPTY, body))
+            .callData(Bytes.repeat((byte) 0x5a, 32));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+
+  private static Bytes withAddress(final int opcode) {
+    // PUSH20 <callee> <op> POP, the callee stays warm after the first access
+    return Bytes.concatenate(
+        OperationBenchmarkHelper.push(OperationBenchmarkHelper.CALLEE_ADDRESS),
+        Bytes.of(opcode, 0x50));
+  }
+
+  private static int opcode(final String operation) {
+    return switch (operation) {
+      case "ADDRESS" -> 0x30;
+      case "ORIGIN" -> 0x32;
+      case "CALLER" -> 0x33;
+      case "CALLVALUE" -> 0x34;
+      case "CALLDATASIZE" -> 0x36;
+      case "CODESIZE" -> 0x38;
+      case "GASPRICE" -> 0x3a;
+      case "RETURNDATASIZE" -> 0x3d;
+      case "COINBASE" -> 0x41;
+      case "TIMESTAMP" -> 0x42;
+      case "NUMBER" -> 0x43;
+      case "PREVRANDAO" -> 0x44;
+      case "GASLIMIT" -> 0x45;
+      case "CHAINID" -> 0x46;
+      case "SELFBALANCE" -> 0x47;
+      case "BASEFEE" -> 0x48;
+      case "BLOBBASEFEE" -> 0x4a;
+      case "PC" -> 0x58;
+      case "MSIZE" -> 0x59;
+      case "GAS" -> 0x5a;
+      default -> throw new IllegalArgumentException("Unknown operation " + operation);
+    };
+  }
+}
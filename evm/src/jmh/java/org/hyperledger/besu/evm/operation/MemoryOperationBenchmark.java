@@ -0,0 +1,78 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class MemoryOperationBenchmark {
+
+  @Param({
+    "MLOAD", "MSTORE", "MSTORE8", "MCOPY", "KECCAK256", "CALLDATACOPY", "CODECOPY", "LOG0",
+    "LOG4"
+  })
+  public String operation;
+
+  /** Bytes of memory touched by each operation, or the offset of the word for loads and stores. */
+  @Param({"32", "1024", "32768"})
+  public int size;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Bytes length = OperationBenchmarkHelper.push(size);
+    final Bytes lastWord = OperationBenchmarkHelper.push(size - 32);
+    final Bytes body =
+        switch (operation) {
+          case "MLOAD" -> Bytes.concatenate(lastWord, Bytes.of(0x51, 0x50));
+          case "MSTORE" -> Bytes.concatenate(Bytes.of(0x5f), lastWord, Bytes.of(0x52));
+          case "MSTORE8" ->
+              Bytes.concatenate(
+                  Bytes.of(0x5f), OperationBenchmarkHelper.push(size - 1), Bytes.of(0x53));
+          // length, source 0, destination right after the source
+          case "MCOPY" -> Bytes.concatenate(length, Bytes.of(0x5f), length, Bytes.of(0x5e));
+          case "KECCAK256" -> Bytes.concatenate(length, Bytes.of(0x5f, 0x20, 0x50));
+          case "CALLDATACOPY" -> Bytes.concatenate(length, Bytes.of(0x5f, 0x5f, 0x37));
+          case "CODECOPY" -> Bytes.concatenate(length, Bytes.of(0x5f, 0x5f, 0x39));
+          case "LOG0" -> Bytes.concatenate(length, Bytes.of(0x5f, 0xa0));
+          case "LOG4" ->
+              Bytes.concatenate(Bytes.of(0x5f, 0x5f, 0x5f, 0x5f), length, Bytes.of(0x5f, 0xa4));
+          default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    executor =
+        OperationBenchmarkHelper.executor(
+                EvmSpecVersion.CANCUN, OperationBenchmarkHelper.code(Bytes.EMPTY, body))
+            .callData(Bytes.repeat((byte) 0x5a, size));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+import org.hyperledger.besu.evm.fluent.SimpleWorld;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Builds the straight line code the opcode benchmarks execute: a prologue that sets up operands,
+ * then the same stack neutral body repeated {@link #OPERATIONS} times, so the score of a benchmark
+ * annotated with {@code @OperationsPerInvocation(OPERATIONS)} is the cost of one body.
+ */
+public class OperationBenchmarkHelper {
+
+  public static final int OPERATIONS = 256;
+
+  public static final Address CONTRACT_ADDRESS = Address.fromHexString("0x1000");
+  public static final Address CALLEE_ADDRESS = Address.fromHexString("0x2000");
+
+  private OperationBenchmarkHelper() {}
+
+  public static Bytes push(final Bytes value) {
+    if (value.isEmpty()) {
+      return Bytes.of(PushOperation.PUSH_BASE);
+    }
+    return Bytes.concatenate(Bytes.of(PushOperation.PUSH_BASE + value.size()), value);
+  }
+
+  public static Bytes push(final long value) {
+    return push(Bytes.minimalBytes(value));
+  }
+
+  public static Bytes randomOperand(final Random random, final int size) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    // keep the operand full width and non-zero, so division and modulo take their real paths
+    bytes[0] |= 0x01;
+    return Bytes.wrap(bytes);
+  }
+
+  public static Bytes code(final Bytes prologue, final Bytes body) {
+    final Bytes[] parts = new Bytes[OPERATIONS + 1];
+    parts[0] = prologue;
+    for (int i = 1; i <= OPERATIONS; i++) {
+      parts[i] = body;
+    }
+    return Bytes.concatenate(parts);
+  }
+
+  public static SimpleWorld createWorld() {
+    final SimpleWorld world = new SimpleWorld();
+    world.createAccount(CONTRACT_ADDRESS, 1, Wei.fromEth(1000));
+    final MutableAccount callee = world.createAccount(CALLEE_ADDRESS, 1, Wei.ZERO);
+    callee.setCode(Bytes.of(0x00));
+    return world;
+  }
+
+  public static EVMExecutor executor(final EvmSpecVersion fork, final Bytes code) {
+    return EVMExecutor.evm(fork, BigInteger.ONE, EvmConfiguration.DEFAULT)
+        .worldUpdater(createWorld())
+        .sender(CONTRACT_ADDRESS)
+        .receiver(CONTRACT_ADDRESS)
+        .contract(CONTRACT_ADDRESS)
+        .code(code);
+  }
+}
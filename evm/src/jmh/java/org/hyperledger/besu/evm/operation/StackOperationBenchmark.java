@@ -0,0 +1,81 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class StackOperationBenchmark {
+
+  @Param({"PUSH0", "PUSH1", "PUSH32", "DUP1", "DUP16", "SWAP1", "SWAP16", "JUMPDEST"})
+  public String operation;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Bytes prologue =
+        switch (operation) {
+          case "DUP1" -> fill(1);
+          case "DUP16", "SWAP1" -> fill(16);
+          case "SWAP16" -> fill(17);
+          default -> Bytes.EMPTY;
+        };
+    final Bytes body =
+        switch (operation) {
+          // the pushes are followed by POP to keep the stack flat
+          case "PUSH0" -> Bytes.of(0x5f, 0x50);
+          case "PUSH1" -> Bytes.of(0x60, 0x01, 0x50);
+          case "PUSH32" ->
+              Bytes.concatenate(
+                  OperationBenchmarkHelper.push(Bytes.repeat((byte) 0x5a, 32)), Bytes.of(0x50));
+          case "DUP1" -> Bytes.of(0x80, 0x50);
+          case "DUP16" -> Bytes.of(0x8f, 0x50);
+          case "SWAP1" -> Bytes.of(0x90);
+          case "SWAP16" -> Bytes.of(0x9f);
+          case "JUMPDEST" -> Bytes.of(0x5b);
+          default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    executor =
+        OperationBenchmarkHelper.executor(
+            EvmSpecVersion.CANCUN, OperationBenchmarkHelper.code(prologue, body));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+
+  private static Bytes fill(final int depth) {
+    final Bytes[] pushes = new Bytes[depth];
+    for (int i = 0; i < depth; i++) {
+      pushes[i] = OperationBenchmarkHelper.push(i + 1);
+    }
+    return Bytes.concatenate(pushes);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.hyperledger.besu.evm.operation.OperationBenchmarkHelper.OPERATIONS;
+
+import org.hyperledger.besu.evm.EvmSpecVersion;
+import org.hyperledger.besu.evm.fluent.EVMExecutor;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class StorageOperationBenchmark {
+
+  @Param({"SLOAD", "SSTORE", "TLOAD", "TSTORE"})
+  public String operation;
+
+  /** Whether every operation hits the same warm slot or a fresh cold one. */
+  @Param({"warm", "cold"})
+  public String access;
+
+  private EVMExecutor executor;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Bytes[] bodies = new Bytes[OPERATIONS];
+    for (int i = 0; i < OPERATIONS; i++) {
+      final Bytes slot = OperationBenchmarkHelper.push("cold".equals(access) ? i + 1 : 1);
+      bodies[i] =
+          switch (operation) {
+            case "SLOAD" -> Bytes.concatenate(slot, Bytes.of(0x54, 0x50));
+            case "TLOAD" -> Bytes.concatenate(slot, Bytes.of(0x5c, 0x50));
+            // GAS as the value, so repeated writes to a warm slot keep changing it
+            case "SSTORE" -> Bytes.concatenate(Bytes.of(0x5a), slot, Bytes.of(0x55));
+            case "TSTORE" -> Bytes.concatenate(Bytes.of(0x5a), slot, Bytes.of(0x5d));
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+          };
+    }
+    executor =
+        OperationBenchmarkHelper.executor(EvmSpecVersion.CANCUN, Bytes.concatenate(bodies));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public Bytes executeOperation() {
+    return executor.execute();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.ALTBN128_G1_POINT;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_FP;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_FP2;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_G1_POINT;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_G2_POINT;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_SCALAR;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.ECREC;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.KZG_POINT_EVALUATION;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.frame;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.pragueContract;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Precompiles with fixed size inputs, see {@link PrecompileInputSizeBenchmark} for the rest. */
+@State(Scope.Thread)
+public class PrecompileBenchmark {
+
+  @Param({
+    "ECREC", "ALTBN128_ADD", "ALTBN128_MUL", "KZG_POINT_EVAL", "BLS12_G1ADD", "BLS12_G1MUL",
+    "BLS12_G2ADD", "BLS12_G2MUL", "BLS12_MAP_FP_TO_G1", "BLS12_MAP_FP2_TO_G2"
+  })
+  public String precompile;
+
+  private PrecompiledContract contract;
+  private Bytes input;
+  private MessageFrame frame;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Address address =
+        switch (precompile) {
+          case "ECREC" -> Address.ECREC;
+          case "ALTBN128_ADD" -> Address.ALTBN128_ADD;
+          case "ALTBN128_MUL" -> Address.ALTBN128_MUL;
+          case "KZG_POINT_EVAL" -> Address.KZG_POINT_EVAL;
+          case "BLS12_G1ADD" -> Address.BLS12_G1ADD;
+          case "BLS12_G1MUL" -> Address.BLS12_G1MUL;
+          case "BLS12_G2ADD" -> Address.BLS12_G2ADD;
+          case "BLS12_G2MUL" -> Address.BLS12_G2MUL;
+          case "BLS12_MAP_FP_TO_G1" -> Address.BLS12_MAP_FP_TO_G1;
+          case "BLS12_MAP_FP2_TO_G2" -> Address.BLS12_MAP_FP2_TO_G2;
+          default -> throw new IllegalArgumentException("Unknown precompile " + precompile);
+        };
+    input =
+        switch (precompile) {
+          case "ECREC" -> ECREC;
+          case "ALTBN128_ADD" -> Bytes.concatenate(ALTBN128_G1_POINT, ALTBN128_G1_POINT);
+          case "ALTBN128_MUL" -> Bytes.concatenate(ALTBN128_G1_POINT, Bytes.repeat((byte) -1, 32));
+          case "KZG_POINT_EVAL" -> KZG_POINT_EVALUATION;
+          case "BLS12_G1ADD" -> Bytes.concatenate(BLS12_G1_POINT, BLS12_G1_POINT);
+          case "BLS12_G1MUL" -> Bytes.concatenate(BLS12_G1_POINT, BLS12_SCALAR);
+          case "BLS12_G2ADD" -> Bytes.concatenate(BLS12_G2_POINT, BLS12_G2_POINT);
+          case "BLS12_G2MUL" -> Bytes.concatenate(BLS12_G2_POINT, BLS12_SCALAR);
+          case "BLS12_MAP_FP_TO_G1" -> BLS12_FP;
+          default -> BLS12_FP2;
+        };
+    if ("KZG_POINT_EVAL".equals(precompile)) {
+      KZGPointEvalPrecompiledContract.init();
+    }
+    contract = pragueContract(address);
+    frame = frame();
+  }
+
+  @Benchmark
+  public PrecompiledContract.PrecompileContractResult compute() {
+    return contract.computePrecompile(input, frame);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.code.CodeV0;
+import org.hyperledger.besu.evm.fluent.SimpleBlockValues;
+import org.hyperledger.besu.evm.fluent.SimpleWorld;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.gascalculator.PragueGasCalculator;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/** Known good precompile inputs, taken from the reference test vectors. */
+final class PrecompileBenchmarkInputs {
+
+  static final Bytes ECREC =
+      Bytes.fromHexString(
+          "0x0049872459827432342344987245982743234234498724598274323423429943"
+              + "000000000000000000000000000000000000000000000000000000000000001b"
+              + "e8359c341771db7f9ea3a662a1741d27775ce277961470028e054ed3285aab8e"
+              + "31f63eaac35c4e6178abbc2a1073040ac9bbb0b67f2bc89a2e9593ba9abe8c53");
+
+  static final Bytes ALTBN128_G1_POINT =
+      Bytes.fromHexString(
+          "0x17c139df0efee0f766bc0204762b774362e4ded88953a39ce849a8a7fa163fa9"
+              + "01e0559bacb160664764a357af8a9fe70baa9258e0b959273ffc5718c6d4cc7c");
+
+  static final Bytes ALTBN128_PAIR =
+      Bytes.fromHexString(
+          "0x0fc6ebd1758207e311a99674dc77d28128643c057fb9ca2c92b4205b6bf57ed2"
+              + "1e50042f97b7a1f2768fa15f6683eca9ee7fa8ee655d94246ab85fb1da3f0b90"
+              + "198e9393920d483a7260bfb731fb5d25f1aa493335a9e71297e485b7aef312c2"
+              + "1800deef121f1e76426a00665e5c4479674322d4f75edadd46debd5cd992f6ed"
+              + "090689d0585ff075ec9e99ad690c3395bc4b313370b38ef355acdadcd122975b"
+              + "12c85ea5db8c6deb4aab71808dcb408fe3d1e7690c43d37b4ce6cc0166fa7daa");
+
+  static final Bytes BLAKE2F_STATE =
+      Bytes.fromHexString(
+          "0x48c9bdf267e6096a3ba7ca8485ae67bb2bf894fe72f36e3cf1361d5f3af54fa5"
+              + "d182e6ad7f520e511f6c3e2b8c68059b6bbd41fbabd9831f79217e1319cde05b"
+              + "6162630000000000000000000000000000000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "0300000000000000000000000000000001");
+
+  static final Bytes KZG_POINT_EVALUATION =
+      Bytes.fromHexString(
+          "0x010657f37554c781402a22917dee2f75def7ab966d7b770905398eba3c444014"
+              + "623ce31cf9759a5c8daf3a357992f9f3dd7f9339d8998bc8e68373e54f00b75e"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "c000000000000000000000000000000000000000000000000000000000000000"
+              + "00000000000000000000000000000000c0000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000");
+
+  static final Bytes BLS12_G1_POINT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000012196c5a43d69224d8713389285f26b9"
+              + "8f86ee910ab3dd668e413738282003cc5b7357af9a7af54bb713d62255e80f56"
+              + "0000000000000000000000000000000006ba8102bfbeea4416b710c73e8cce30"
+              + "32c31c6269c44906f8ac4f7874ce99fb17559992486528963884ce429a992fee");
+
+  static final Bytes BLS12_G2_POINT =
+      Bytes.fromHexString(
+          "0x00000000000000000000000000000000039b10ccd664da6f273ea134bb55ee48"
+              + "f09ba585a7e2bb95b5aec610631ac49810d5d616f67ba0147e6d1be476ea220e"
+              + "0000000000000000000000000000000000fbcdff4e48e07d1f73ec42fe7eb026"
+              + "f5c30407cfd2f22bbbfe5b2a09e8a7bb4884178cb6afd1c95f80e646929d3004"
+              + "0000000000000000000000000000000001ed3b0e71acb0adbf44643374edbf44"
+              + "05af87cfc0507db7e8978889c6c3afbe9754d1182e98ac3060d64994d31ef576"
+              + "000000000000000000000000000000001681a2bf65b83be5a2ca50430949b6e2"
+              + "a099977482e9405b593f34d2ed877a3f0d1bddc37d0cec4d59d7df74b2b8f2df");
+
+  static final Bytes BLS12_SCALAR =
+      Bytes.fromHexString(
+          "0xb3c940fe79b6966489b527955de7599194a9ac69a6ff58b8d99e7b1084f0464e");
+
+  static final Bytes BLS12_FP =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000014406e5bfb9209256a3820879a29ac2f"
+              + "62d6aca82324bf3ae2aa7d3c54792043bd8c791fccdb080c1a52dc68b8b69350");
+
+  static final Bytes BLS12_FP2 =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000014406e5bfb9209256a3820879a29ac2f"
+              + "62d6aca82324bf3ae2aa7d3c54792043bd8c791fccdb080c1a52dc68b8b69350"
+              + "000000000000000000000000000000000e885bb33996e12f07da69073e2c0cc8"
+              + "80bc8eff26d2a724299eb12d54f4bcf26f4748bb020e80a7e3794a7b0e47a641");
+
+  private PrecompileBenchmarkInputs() {}
+
+  static PrecompiledContract pragueContract(final Address address) {
+    return MainnetPrecompiledContracts.prague(new PragueGasCalculator()).get(address);
+  }
+
+  static Bytes repeat(final Bytes value, final int times) {
+    final Bytes[] parts = new Bytes[times];
+    Arrays.fill(parts, value);
+    return Bytes.concatenate(parts);
+  }
+
+  static MessageFrame frame() {
+    return MessageFrame.builder()
+        .type(MessageFrame.Type.MESSAGE_CALL)
+        .contract(Address.ZERO)
+        .inputData(Bytes.EMPTY)
+        .sender(Address.ZERO)
+        .value(Wei.ZERO)
+        .apparentValue(Wei.ZERO)
+        .code(CodeV0.EMPTY_CODE)
+        .completer(__ -> {})
+        .address(Address.ZERO)
+        .blockHashLookup(n -> null)
+        .blockValues(new SimpleBlockValues())
+        .gasPrice(Wei.ZERO)
+        .miningBeneficiary(Address.ZERO)
+        .originator(Address.ZERO)
+        .initialGas(Long.MAX_VALUE)
+        .worldUpdater(new SimpleWorld())
+        .build();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.ALTBN128_PAIR;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLAKE2F_STATE;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_G1_POINT;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_G2_POINT;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.BLS12_SCALAR;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.frame;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.pragueContract;
+import static org.hyperledger.besu.evm.precompile.PrecompileBenchmarkInputs.repeat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Precompiles whose cost depends on the input size. The scale is 128 bytes of input for the hashes
+ * and the identity, 32 byte operands for MODEXP, the number of pairs for pairings and multi scalar
+ * multiplications, and 12 rounds for BLAKE2F.
+ */
+@State(Scope.Thread)
+public class PrecompileInputSizeBenchmark {
+
+  @Param({
+    "SHA256", "RIPEMD160", "ID", "MODEXP", "ALTBN128_PAIRING", "BLAKE2F", "BLS12_G1MULTIEXP",
+    "BLS12_G2MULTIEXP", "BLS12_PAIRING"
+  })
+  public String precompile;
+
+  @Param({"1", "4", "16"})
+  public int scale;
+
+  private PrecompiledContract contract;
+  private Bytes input;
+  private MessageFrame frame;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(42);
+    final Address address =
+        switch (precompile) {
+          case "SHA256" -> Address.SHA256;
+          case "RIPEMD160" -> Address.RIPEMD160;
+          case "ID" -> Address.ID;
+          case "MODEXP" -> Address.MODEXP;
+          case "ALTBN128_PAIRING" -> Address.ALTBN128_PAIRING;
+          case "BLAKE2F" -> Address.BLAKE2B_F_COMPRESSION;
+          case "BLS12_G1MULTIEXP" -> Address.BLS12_G1MULTIEXP;
+          case "BLS12_G2MULTIEXP" -> Address.BLS12_G2MULTIEXP;
+          case "BLS12_PAIRING" -> Address.BLS12_PAIRING;
+          default -> throw new IllegalArgumentException("Unknown precompile " + precompile);
+        };
+    input =
+        switch (precompile) {
+          case "SHA256", "RIPEMD160", "ID" -> randomBytes(random, 128 * scale);
+          case "MODEXP" -> modExpInput(random, 32 * scale);
+          case "ALTBN128_PAIRING" -> repeat(ALTBN128_PAIR, scale);
+          case "BLAKE2F" -> Bytes.concatenate(Bytes.ofUnsignedInt(12L * scale), BLAKE2F_STATE);
+          case "BLS12_G1MULTIEXP" -> repeat(Bytes.concatenate(BLS12_G1_POINT, BLS12_SCALAR), scale);
+          case "BLS12_G2MULTIEXP" -> repeat(Bytes.concatenate(BLS12_G2_POINT, BLS12_SCALAR), scale);
+          default -> repeat(Bytes.concatenate(BLS12_G1_POINT, BLS12_G2_POINT), scale);
+        };
+    contract = pragueContract(address);
+    frame = frame();
+  }
+
+  @Benchmark
+  public PrecompiledContract.PrecompileContractResult compute() {
+    return contract.computePrecompile(input, frame);
+  }
+
+  private static Bytes randomBytes(final Random random, final int size) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return Bytes.wrap(bytes);
+  }
+
+  private static Bytes modExpInput(final Random random, final int size) {
+    final Bytes length = Bytes32.leftPad(Bytes.ofUnsignedInt(size));
+    final byte[] modulus = randomBytes(random, size).toArray();
+    // a full width odd modulus, the common case for RSA style verification
+    modulus[0] |= (byte) 0x80;
+    modulus[size - 1] |= 0x01;
+    return Bytes.concatenate(
+        length,
+        length,
+        length,
+        randomBytes(random, size),
+        randomBytes(random, size),
+        Bytes.wrap(modulus));
+  }
+}
@@ -16,6 +16,7 @@ package org.hyperledger.besu.evm;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.code.CodeSection;
+import org.hyperledger.besu.evm.code.DecodedCode;
 
 import java.util.Optional;
 
@@ -158,4 +159,12 @@ public interface Code {
    * @return The pretty printed code
    */
   String prettyPrint();
+
+  /**
+   * The pre-decoded instruction stream of this code. It is built on first use and then retained
+   * for as long as the code itself, including while it sits in the code cache.
+   *
+   * @return the decoded code
+   */
+  DecodedCode getDecodedCode();
 }
@@ -20,6 +20,7 @@ import static org.hyperledger.besu.evm.operation.SwapOperation.SWAP_BASE;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.code.CodeFactory;
+import org.hyperledger.besu.evm.code.DecodedCode;
 import org.hyperledger.besu.evm.code.EOFLayout;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -36,6 +37,7 @@ import org.hyperledger.besu.evm.operation.ByteOperation;
 import org.hyperledger.besu.evm.operation.ChainIdOperation;
 import org.hyperledger.besu.evm.operation.DivOperation;
 import org.hyperledger.besu.evm.operation.DupOperation;
+import org.hyperledger.besu.evm.operation.EqOperation;
 import org.hyperledger.besu.evm.operation.ExpOperation;
 import org.hyperledger.besu.evm.operation.GtOperation;
 import org.hyperledger.besu.evm.operation.InvalidOperation;
@@ -59,6 +61,9 @@ import org.hyperledger.besu.evm.operation.SDivOperation;
 import org.hyperledger.besu.evm.operation.SGtOperation;
 import org.hyperledger.besu.evm.operation.SLtOperation;
 import org.hyperledger.besu.evm.operation.SModOperation;
+import org.hyperledger.besu.evm.operation.SarOperation;
+import org.hyperledger.besu.evm.operation.ShlOperation;
+import org.hyperledger.besu.evm.operation.ShrOperation;
 import org.hyperledger.besu.evm.operation.SignExtendOperation;
 import org.hyperledger.besu.evm.operation.StopOperation;
 import org.hyperledger.besu.evm.operation.SubOperation;
@@ -88,12 +93,14 @@ public class EVM {
   private final OperationRegistry operations;
   private final GasCalculator gasCalculator;
   private final Operation endOfScriptStop;
+  private final int[] fixedCosts;
   private final CodeFactory codeFactory;
   private final CodeCache codeCache;
   private final EvmConfiguration evmConfiguration;
   private final EvmSpecVersion evmSpecVersion;
 
   // Optimized operation flags
+  private final boolean enableConstantinople;
   private final boolean enableShanghai;
 
   /**
@@ -112,6 +119,7 @@ public class EVM {
     this.operations = operations;
     this.gasCalculator = gasCalculator;
     this.endOfScriptStop = new VirtualOperation(new StopOperation(gasCalculator));
+    this.fixedCosts = DecodedCode.fixedCosts(gasCalculator);
     this.evmConfiguration = evmConfiguration;
     this.codeCache = new CodeCache(evmConfiguration);
     this.evmSpecVersion = evmSpecVersion;
@@ -121,6 +129,8 @@ public class EVM {
             evmSpecVersion.maxEofVersion,
             evmConfiguration.maxInitcodeSizeOverride().orElse(evmSpecVersion.maxInitcodeSize));
 
+    // some classic forks re-order mainnet features, so look at the registry rather than the version
+    enableConstantinople = operations.get(0x1b) instanceof ShlOperation;
     enableShanghai = EvmSpecVersion.SHANGHAI.ordinal() <= evmSpecVersion.ordinal();
   }
 
@@ -189,18 +199,41 @@ public class EVM {
     evmSpecVersion.maybeWarnVersion();
 
     var operationTracer = tracing == OperationTracer.NO_TRACING ? null : tracing;
-    byte[] code = frame.getCode().getBytes().toArrayUnsafe();
+    final Code frameCode = frame.getCode();
+    byte[] code = frameCode.getBytes().toArrayUnsafe();
+    final DecodedCode decodedCode = frameCode.getDecodedCode();
+    final int[] instructions = decodedCode.getInstructionsUnsafe();
+    final int[] blockCosts = decodedCode.getBlockCostsUnsafe(fixedCosts);
     Operation[] operationArray = operations.getOperations();
+    // true while executing a basic block whose static gas was charged up front
+    boolean blockPrepaid = false;
     while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
       Operation currentOperation;
       int opcode;
+      int argument;
       int pc = frame.getPC();
       try {
-        opcode = code[pc] & 0xff;
+        final int instruction = instructions[pc];
+        opcode = instruction & DecodedCode.OPCODE_MASK;
+        argument = DecodedCode.getArgument(instruction);
         currentOperation = operationArray[opcode];
+        final int blockCost = blockCosts[pc];
+        if (blockCost != 0) {
+          // Charge a whole block only when it cannot run out of gas part way, otherwise each
+          // operation is charged on its own so out of gas still halts at the exact opcode. Any
+          // other halt inside the block consumes all remaining gas anyway. Tracers observe the
+          // gas of every step, so they always get per operation charging.
+          blockPrepaid =
+              blockCost > 0 && operationTracer == null && frame.getRemainingGas() >= blockCost;
+          if (blockPrepaid) {
+            frame.decrementRemainingGas(blockCost);
+          }
+        }
       } catch (ArrayIndexOutOfBoundsException aiiobe) {
         opcode = 0;
+        argument = 0;
         currentOperation = endOfScriptStop;
+        blockPrepaid = false;
       }
       frame.setCurrentOperation(currentOperation);
       if (operationTracer != null) {
@@ -228,15 +261,34 @@ public class EVM {
               case 0x11 -> GtOperation.staticOperation(frame);
               case 0x12 -> SLtOperation.staticOperation(frame);
               case 0x13 -> SGtOperation.staticOperation(frame);
+              case 0x14 -> EqOperation.staticOperation(frame);
               case 0x15 -> IsZeroOperation.staticOperation(frame);
               case 0x16 -> AndOperation.staticOperation(frame);
               case 0x17 -> OrOperation.staticOperation(frame);
               case 0x18 -> XorOperation.staticOperation(frame);
               case 0x19 -> NotOperation.staticOperation(frame);
               case 0x1a -> ByteOperation.staticOperation(frame);
+              case 0x1b ->
+                  enableConstantinople
+                      ? ShlOperation.staticOperation(frame)
+                      : InvalidOperation.INVALID_RESULT;
+              case 0x1c ->
+                  enableConstantinople
+                      ? ShrOperation.staticOperation(frame)
+                      : InvalidOperation.INVALID_RESULT;
+              case 0x1d ->
+                  enableConstantinople
+                      ? SarOperation.staticOperation(frame)
+                      : InvalidOperation.INVALID_RESULT;
               case 0x50 -> PopOperation.staticOperation(frame);
-              case 0x56 -> JumpOperation.staticOperation(frame);
-              case 0x57 -> JumpiOperation.staticOperation(frame);
+              case 0x56 ->
+                  argument == 0
+                      ? JumpOperation.staticOperation(frame)
+                      : JumpOperation.staticOperation(frame, argument - 1);
+              case 0x57 ->
+                  argument == 0
+                      ? JumpiOperation.staticOperation(frame)
+                      : JumpiOperation.staticOperation(frame, argument - 1);
               case 0x5b -> JumpDestOperation.JUMPDEST_SUCCESS;
               case 0x5f ->
                   enableShanghai
@@ -274,7 +326,10 @@ public class EVM {
                       0x7d,
                       0x7e,
                       0x7f ->
-                  PushOperation.staticOperation(frame, code, pc, opcode - PUSH_BASE);
+                  argument == 0
+                      ? PushOperation.staticOperation(frame, code, pc, opcode - PUSH_BASE)
+                      : PushOperation.staticOperation(
+                          frame, decodedCode.getPushValue(argument), pc, opcode - PUSH_BASE);
               case 0x80, // DUP1-16
                       0x81,
                       0x82,
@@ -324,7 +379,7 @@ public class EVM {
         LOG.trace("MessageFrame evaluation halted because of {}", haltReason);
         frame.setExceptionalHaltReason(Optional.of(haltReason));
         frame.setState(State.EXCEPTIONAL_HALT);
-      } else if (frame.decrementRemainingGas(result.getGasCost()) < 0) {
+      } else if (!blockPrepaid && frame.decrementRemainingGas(result.getGasCost()) < 0) {
         frame.setExceptionalHaltReason(Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
         frame.setState(State.EXCEPTIONAL_HALT);
       }
@@ -32,6 +32,7 @@ import org.apache.tuweni.bytes.Bytes;
 public class CodeInvalid implements Code {
 
   private final Supplier<Hash> codeHash;
+  private final Supplier<DecodedCode> decodedCode;
   private final Bytes codeBytes;
 
   private final String invalidReason;
@@ -45,6 +46,7 @@ public class CodeInvalid implements Code {
   public CodeInvalid(final Bytes codeBytes, final String invalidReason) {
     this.codeBytes = codeBytes;
     this.codeHash = Suppliers.memoize(() -> Hash.hash(codeBytes));
+    this.decodedCode = Suppliers.memoize(() -> DecodedCode.decodeLegacy(codeBytes));
     this.invalidReason = invalidReason;
   }
 
@@ -141,4 +143,9 @@ public class CodeInvalid implements Code {
   public String prettyPrint() {
     return codeBytes.toHexString();
   }
+
+  @Override
+  public DecodedCode getDecodedCode() {
+    return decodedCode.get();
+  }
 }
@@ -35,6 +35,7 @@ import org.apache.tuweni.bytes.MutableBytes;
 public class CodeV1 implements Code {
 
   private final Supplier<Hash> codeHash;
+  private final Supplier<DecodedCode> decodedCode;
   EOFLayout eofLayout;
 
   /**
@@ -45,6 +46,7 @@ public class CodeV1 implements Code {
   CodeV1(final EOFLayout eofLayout) {
     this.eofLayout = eofLayout;
     this.codeHash = Suppliers.memoize(() -> Hash.hash(eofLayout.container()));
+    this.decodedCode = Suppliers.memoize(() -> DecodedCode.decodeEOF(eofLayout));
   }
 
   @Override
@@ -179,6 +181,11 @@ public class CodeV1 implements Code {
     return sw.toString();
   }
 
+  @Override
+  public DecodedCode getDecodedCode() {
+    return decodedCode.get();
+  }
+
   /**
    * The EOFLayout object for the code
    *
@@ -0,0 +1,364 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_BASE;
+import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_MAX;
+
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.operation.JumpDestOperation;
+import org.hyperledger.besu.evm.operation.JumpOperation;
+import org.hyperledger.besu.evm.operation.JumpiOperation;
+import org.hyperledger.besu.evm.operation.RelativeJumpVectorOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A pre-decoded form of EVM bytecode, built once per code instance and executed by {@link
+ * org.hyperledger.besu.evm.EVM#runToHalt}.
+ *
+ * <p>The instruction stream is an int array indexed by PC, so the frame's program counter, tracers
+ * and PC-relative operations keep working unchanged. Each entry holds the opcode in the low 8 bits
+ * and an operation specific argument in bits 8 to 30:
+ *
+ * <ul>
+ *   <li>PUSH1-PUSH32: one plus the index of the already sliced immediate in {@link
+ *       #getPushValue(int)}
+ *   <li>JUMP/JUMPI directly preceded by a PUSH of a valid JUMPDEST: one plus the jump target
+ *   <li>anything else: zero, meaning the operation reads its inputs as usual
+ * </ul>
+ *
+ * <p>Bytes that are not the start of an instruction (PUSH immediates, EOF headers and data) carry
+ * the {@link #NOT_INSTRUCTION_START} flag so they can never match a JUMPDEST.
+ *
+ * <p>Legacy code is also split into basic blocks of fixed cost operations, see {@link
+ * #getBlockCostsUnsafe(int[])}. A block starts at a JUMPDEST or after any other operation and ends
+ * with a JUMP or JUMPI, so it can only be entered at its first instruction. The cost of a block
+ * depends on the gas calculator of the fork executing it, so it is computed on first use for the
+ * given cost table rather than while decoding. A block must cost exactly what its operations are
+ * charged one by one, so forks pricing the statically dispatched operations differently from the
+ * costs those operations report are not block metered at all.
+ */
+public final class DecodedCode {
+
+  /** Flag set on entries that are not the start of an instruction. */
+  public static final int NOT_INSTRUCTION_START = 0x8000_0000;
+
+  /** Mask for the opcode of an entry. */
+  public static final int OPCODE_MASK = 0xff;
+
+  /** Mask for the argument of an entry, after shifting by {@link #ARGUMENT_SHIFT}. */
+  public static final int ARGUMENT_MASK = 0x7f_ffff;
+
+  /** Shift for the argument of an entry. */
+  public static final int ARGUMENT_SHIFT = 8;
+
+  /** Block cost of an instruction that is not part of a fixed cost block. */
+  public static final int NOT_METERED = -1;
+
+  // keep blocks small enough that their cost can never overflow
+  private static final int MAX_BLOCK_COST = 1 << 24;
+
+  // the costs the statically dispatched operations report when they are charged one by one
+  private static final int[] STATIC_OPERATION_COSTS = costTable(3, 5, 2, 8, 10, 1);
+
+  private final int[] instructions;
+  private final Bytes[] pushValues;
+  private final boolean blockMetered;
+  private volatile BlockCosts blockCosts;
+
+  private record BlockCosts(int[] fixedCosts, int[] costs) {}
+
+  private DecodedCode(
+      final int[] instructions, final Bytes[] pushValues, final boolean blockMetered) {
+    this.instructions = instructions;
+    this.pushValues = pushValues;
+    this.blockMetered = blockMetered;
+  }
+
+  /**
+   * The gas charged by the fixed cost operations that {@link
+   * org.hyperledger.besu.evm.EVM#runToHalt} dispatches statically, as priced by the given gas
+   * calculator. Indexed by opcode, zero for operations that are not part of a fixed cost block.
+   * All zero, which turns block metering off, when the calculator prices these operations
+   * differently from the fixed results they report.
+   *
+   * @param gasCalculator the gas calculator of the executing fork
+   * @return the fixed costs, indexed by opcode
+   */
+  public static int[] fixedCosts(final GasCalculator gasCalculator) {
+    final int[] fixedCosts =
+        costTable(
+            Math.toIntExact(gasCalculator.getVeryLowTierGasCost()),
+            Math.toIntExact(gasCalculator.getLowTierGasCost()),
+            Math.toIntExact(gasCalculator.getBaseTierGasCost()),
+            Math.toIntExact(gasCalculator.getMidTierGasCost()),
+            Math.toIntExact(gasCalculator.getHighTierGasCost()),
+            Math.toIntExact(gasCalculator.getJumpDestOperationGasCost()));
+    // without tracing runToHalt charges these operations their own fixed results, so a prepaid
+    // block priced differently would change the gas used depending on the gas left
+    return Arrays.equals(fixedCosts, STATIC_OPERATION_COSTS) ? fixedCosts : new int[256];
+  }
+
+  private static int[] costTable(
+      final int veryLow,
+      final int low,
+      final int base,
+      final int mid,
+      final int high,
+      final int jumpDest) {
+    final int[] fixedCosts = new int[256];
+    fixedCosts[0x01] = veryLow; // ADD
+    fixedCosts[0x02] = low; // MUL
+    fixedCosts[0x03] = veryLow; // SUB
+    for (int opcode = 0x04; opcode <= 0x07; opcode++) {
+      fixedCosts[opcode] = low; // DIV, SDIV, MOD, SMOD
+    }
+    fixedCosts[0x08] = mid; // ADDMOD
+    fixedCosts[0x09] = mid; // MULMOD
+    fixedCosts[0x0b] = low; // SIGNEXTEND
+    for (int opcode = 0x10; opcode <= 0x1d; opcode++) {
+      fixedCosts[opcode] = veryLow; // comparison, bitwise and shifts
+    }
+    fixedCosts[0x50] = base; // POP
+    fixedCosts[JumpOperation.OPCODE] = mid;
+    fixedCosts[JumpiOperation.OPCODE] = high;
+    fixedCosts[JumpDestOperation.OPCODE] = jumpDest;
+    fixedCosts[PUSH_BASE] = base; // PUSH0
+    for (int opcode = PUSH_BASE + 1; opcode <= 0x9f; opcode++) {
+      fixedCosts[opcode] = veryLow; // PUSH1-32, DUP1-16, SWAP1-16
+    }
+    return fixedCosts;
+  }
+
+  /**
+   * Decode legacy code, where every byte not inside a PUSH immediate starts an instruction.
+   *
+   * @param code the code bytes
+   * @return the decoded code
+   */
+  public static DecodedCode decodeLegacy(final Bytes code) {
+    final byte[] rawCode = code.toArrayUnsafe();
+    final int[] instructions = new int[rawCode.length];
+    final List<Bytes> pushValues = new ArrayList<>();
+    decodeRange(rawCode, 0, rawCode.length, instructions, pushValues, false);
+    resolveStaticJumps(instructions, pushValues);
+    return new DecodedCode(instructions, pushValues.toArray(Bytes[]::new), true);
+  }
+
+  /**
+   * Decode EOF code, walking each code section from its entry point. Bytes outside any code section
+   * are flagged as not being the start of an instruction.
+   *
+   * @param eofLayout the layout of the container
+   * @return the decoded code
+   */
+  public static DecodedCode decodeEOF(final EOFLayout eofLayout) {
+    final byte[] rawCode = eofLayout.container().toArrayUnsafe();
+    final int[] instructions = new int[rawCode.length];
+    for (int i = 0; i < rawCode.length; i++) {
+      instructions[i] = NOT_INSTRUCTION_START | (rawCode[i] & OPCODE_MASK);
+    }
+    final List<Bytes> pushValues = new ArrayList<>();
+    for (int i = 0; i < eofLayout.getCodeSectionCount(); i++) {
+      final CodeSection section = eofLayout.getCodeSection(i);
+      final int start = section.getEntryPoint();
+      final int end = Math.min(rawCode.length, start + section.getLength());
+      decodeRange(rawCode, start, end, instructions, pushValues, true);
+    }
+    // relative jumps and function returns can enter anywhere, so EOF code is metered per operation
+    return new DecodedCode(instructions, pushValues.toArray(Bytes[]::new), false);
+  }
+
+  private static void decodeRange(
+      final byte[] rawCode,
+      final int start,
+      final int end,
+      final int[] instructions,
+      final List<Bytes> pushValues,
+      final boolean eof) {
+    int pc = start;
+    while (pc < end) {
+      final int opcode = rawCode[pc] & OPCODE_MASK;
+      final int advance;
+      if (opcode > PUSH_BASE && opcode <= PUSH_MAX) {
+        final int pushSize = opcode - PUSH_BASE;
+        // mirror PushOperation, which pushes only the bytes actually present in the code
+        final int copyStart = pc + 1;
+        final Bytes value =
+            rawCode.length <= copyStart
+                ? Bytes.EMPTY
+                : Bytes.wrap(rawCode, copyStart, Math.min(pushSize, rawCode.length - copyStart));
+        instructions[pc] = encode(opcode, pushValues.size() + 1);
+        pushValues.add(value);
+        advance = 1 + pushSize;
+      } else {
+        instructions[pc] = opcode;
+        if (!eof) {
+          advance = 1;
+        } else if (opcode == RelativeJumpVectorOperation.OPCODE && pc + 1 < rawCode.length) {
+          advance = 2 + 2 * RelativeJumpVectorOperation.getVectorSize(Bytes.wrap(rawCode), pc + 1);
+        } else {
+          advance = Math.max(1, OpcodeInfo.V1_OPCODES[opcode].pcAdvance());
+        }
+      }
+      final int next = Math.min(end, pc + advance);
+      for (int i = pc + 1; i < next; i++) {
+        instructions[i] = NOT_INSTRUCTION_START | (rawCode[i] & OPCODE_MASK);
+      }
+      pc = next;
+    }
+  }
+
+  private static void resolveStaticJumps(final int[] instructions, final List<Bytes> pushValues) {
+    int previousPush = -1;
+    for (int pc = 0; pc < instructions.length; pc++) {
+      final int insn = instructions[pc];
+      if ((insn & NOT_INSTRUCTION_START) != 0) {
+        continue;
+      }
+      final int opcode = insn & OPCODE_MASK;
+      if ((opcode == JumpOperation.OPCODE || opcode == JumpiOperation.OPCODE)
+          && previousPush >= 0) {
+        final int pushIndex = getArgument(instructions[previousPush]);
+        if (pushIndex > 0) {
+          final Bytes target = pushValues.get(pushIndex - 1).trimLeadingZeros();
+          if (target.size() <= 3) {
+            final int destination = target.isEmpty() ? 0 : target.toInt();
+            if (destination < instructions.length
+                && destination < ARGUMENT_MASK
+                && instructions[destination] == JumpDestOperation.OPCODE) {
+              instructions[pc] = encode(opcode, destination + 1);
+            }
+          }
+        }
+      }
+      previousPush = opcode > PUSH_BASE && opcode <= PUSH_MAX ? pc : -1;
+    }
+  }
+
+  private int[] computeBlockCosts(final int[] fixedCosts) {
+    final int[] blockCosts = new int[instructions.length];
+    if (!blockMetered) {
+      Arrays.fill(blockCosts, NOT_METERED);
+      return blockCosts;
+    }
+    int blockStart = -1;
+    for (int pc = 0; pc < instructions.length; pc++) {
+      final int insn = instructions[pc];
+      if ((insn & NOT_INSTRUCTION_START) != 0) {
+        continue;
+      }
+      final int opcode = insn & OPCODE_MASK;
+      final int cost = fixedCosts[opcode];
+      if (cost == 0) {
+        blockCosts[pc] = NOT_METERED;
+        blockStart = -1;
+        continue;
+      }
+      if (blockStart < 0
+          || opcode == JumpDestOperation.OPCODE
+          || blockCosts[blockStart] > MAX_BLOCK_COST) {
+        blockStart = pc;
+      }
+      blockCosts[blockStart] += cost;
+      if (opcode == JumpOperation.OPCODE || opcode == JumpiOperation.OPCODE) {
+        blockStart = -1;
+      }
+    }
+    return blockCosts;
+  }
+
+  private static int encode(final int opcode, final int argument) {
+    // arguments that do not fit are left unresolved, the operation then takes its slow path
+    return argument > ARGUMENT_MASK ? opcode : opcode | (argument << ARGUMENT_SHIFT);
+  }
+
+  /**
+   * Extract the argument of an instruction entry.
+   *
+   * @param instruction the instruction entry
+   * @return the argument, zero if there is none
+   */
+  public static int getArgument(final int instruction) {
+    return (instruction >>> ARGUMENT_SHIFT) & ARGUMENT_MASK;
+  }
+
+  /**
+   * The instruction stream, indexed by PC. Callers must not modify the returned array.
+   *
+   * @return the instruction stream
+   */
+  public int[] getInstructionsUnsafe() {
+    return instructions;
+  }
+
+  /**
+   * The immediate value of a PUSH instruction.
+   *
+   * @param argument the argument of the PUSH instruction entry
+   * @return the value to push
+   */
+  public Bytes getPushValue(final int argument) {
+    return pushValues[argument - 1];
+  }
+
+  /**
+   * The static gas of the basic blocks, indexed by PC. The first instruction of a block holds the
+   * summed cost of all its operations, the other instructions of the block hold zero, and
+   * instructions outside any block hold {@link #NOT_METERED}. The result is kept for the last cost
+   * table asked for. Callers must not modify the returned array.
+   *
+   * @param fixedCosts the fixed costs of the executing fork, see {@link #fixedCosts(GasCalculator)}
+   * @return the block costs
+   */
+  public int[] getBlockCostsUnsafe(final int[] fixedCosts) {
+    BlockCosts current = blockCosts;
+    if (current == null
+        || (blockMetered
+            && current.fixedCosts() != fixedCosts
+            && !Arrays.equals(current.fixedCosts(), fixedCosts))) {
+      current = new BlockCosts(fixedCosts, computeBlockCosts(fixedCosts));
+      blockCosts = current;
+    }
+    return current.costs();
+  }
+
+  /**
+   * Is the destination a JUMPDEST that starts an instruction?
+   *
+   * @param destination the jump destination
+   * @return true if the destination is not a valid JUMPDEST
+   */
+  public boolean isJumpDestInvalid(final int destination) {
+    return destination < 0
+        || destination >= instructions.length
+        || instructions[destination] != JumpDestOperation.OPCODE;
+  }
+
+  /**
+   * Approximate retained size in bytes, used to weigh cache entries.
+   *
+   * @return the estimated size in bytes
+   */
+  public int estimatedSize() {
+    // the block costs, once computed, are as long as the instruction stream
+    return 2 * instructions.length * Integer.BYTES + pushValues.length * 16;
+  }
+}
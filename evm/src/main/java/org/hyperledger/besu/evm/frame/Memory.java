@@ -134,14 +134,25 @@ public class Memory {
 
     int neededSize = newActiveWords * Bytes32.SIZE;
     if (neededSize > memBytes.length) {
-      int newSize = Math.max(neededSize, memBytes.length * 2);
-      byte[] newMem = new byte[newSize];
-      System.arraycopy(memBytes, 0, newMem, 0, memBytes.length);
-      memBytes = newMem;
+      // grow in power of two chunks, so a reused memory settles on a size after a few expansions
+      int newSize = Integer.highestOneBit(neededSize - 1) << 1;
+      if (newSize < neededSize) {
+        newSize = neededSize;
+      }
+      memBytes = Arrays.copyOf(memBytes, newSize);
     }
     activeWords = newActiveWords;
   }
 
+  /**
+   * Clears the active words so this memory can be reused by another frame. The backing array is
+   * kept, only the bytes that were in use are zeroed.
+   */
+  void reset() {
+    Arrays.fill(memBytes, 0, getActiveBytes(), (byte) 0);
+    activeWords = 0;
+  }
+
   /**
    * Returns true if the object is equal to this memory instance; otherwise false.
    *
@@ -0,0 +1,76 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.frame;
+
+import org.hyperledger.besu.evm.internal.OperandStack;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pools the memory and operand stacks of the message frames of a single transaction.
+ *
+ * <p>A transaction executes its frames on one thread and at most one frame per call depth is live
+ * at a time, so a completed frame hands its buffers back here and the next frame at that depth
+ * picks them up again, already grown. Not thread safe.
+ */
+public class MemoryArena {
+
+  private final int maxStackSize;
+  private final Deque<Memory> memories = new ArrayDeque<>();
+  private final Deque<OperandStack> stacks = new ArrayDeque<>();
+
+  /**
+   * Instantiates a new Memory arena.
+   *
+   * @param maxStackSize the max size of the operand stacks handed out
+   */
+  public MemoryArena(final int maxStackSize) {
+    this.maxStackSize = maxStackSize;
+  }
+
+  /**
+   * Take a cleared memory from the arena, or create one if none is free.
+   *
+   * @return the memory
+   */
+  public Memory acquireMemory() {
+    final Memory memory = memories.pollFirst();
+    return memory == null ? new Memory() : memory;
+  }
+
+  /**
+   * Take an empty operand stack from the arena, or create one if none is free.
+   *
+   * @return the operand stack
+   */
+  public OperandStack acquireStack() {
+    final OperandStack stack = stacks.pollFirst();
+    return stack == null ? new OperandStack(maxStackSize) : stack;
+  }
+
+  /**
+   * Clear the memory and operand stack of a completed frame and return them to the arena.
+   *
+   * @param memory the memory
+   * @param stack the operand stack
+   */
+  public void release(final Memory memory, final OperandStack stack) {
+    memory.reset();
+    stack.reset();
+    memories.addFirst(memory);
+    stacks.addFirst(stack);
+  }
+}
@@ -210,8 +210,9 @@ public class MessageFrame {
   private long gasRemaining;
   private int pc;
   private int section = 0;
-  private final Memory memory = new Memory();
+  private final Memory memory;
   private final OperandStack stack;
+  private boolean resourcesReleased = false;
   private final Supplier<ReturnStack> returnStack;
   private Bytes output = Bytes.EMPTY;
   private Bytes returnData = Bytes.EMPTY;
@@ -276,7 +277,8 @@ public class MessageFrame {
     this.type = type;
     this.worldUpdater = worldUpdater;
     this.gasRemaining = initialGas;
-    this.stack = new OperandStack(txValues.maxStackSize());
+    this.memory = txValues.memoryArena().acquireMemory();
+    this.stack = txValues.memoryArena().acquireStack();
     this.returnStack = Suppliers.memoize(ReturnStack::new);
     this.pc = code.isValid() ? code.getCodeSection(0).getEntryPoint() : 0;
     this.recipient = recipient;
@@ -496,6 +498,15 @@ public class MessageFrame {
     return stack.size();
   }
 
+  /**
+   * The operand stack, for operations that work directly on its 256-bit limb representation.
+   *
+   * @return the operand stack
+   */
+  public OperandStack getOperandStack() {
+    return stack;
+  }
+
   /**
    * Return the current return stack size.
    *
@@ -1132,6 +1143,20 @@ public class MessageFrame {
     completer.accept(this);
   }
 
+  /**
+   * Returns the memory and operand stack of a completed frame to the transaction's arena, so the
+   * next frame can reuse them. Neither may be read through this frame afterwards, and views
+   * obtained from {@link #readMutableMemory(long, long)} must not outlive it; anything kept longer,
+   * such as a child's input data, is taken with {@link #readMemory(long, long)}. Output data, logs
+   * and gas are unaffected. Releasing more than once has no effect.
+   */
+  public void releaseResources() {
+    if (!resourcesReleased) {
+      resourcesReleased = true;
+      txValues.memoryArena().release(memory, stack);
+    }
+  }
+
   /**
    * Returns the current message frame stack.
    *
@@ -1682,7 +1707,8 @@ public class MessageFrame {
                 UndoTable.of(HashBasedTable.create()),
                 UndoSet.of(new BytesTrieSet<>(Address.SIZE)),
                 UndoSet.of(new BytesTrieSet<>(Address.SIZE)),
-                new UndoScalar<>(0L));
+                new UndoScalar<>(0L),
+                new MemoryArena(maxStackSize));
         updater = worldUpdater;
         newStatic = isStatic;
       } else {
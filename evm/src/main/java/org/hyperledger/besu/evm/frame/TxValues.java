@@ -49,6 +49,7 @@ import org.apache.tuweni.bytes.Bytes32;
  * @param creates The set of addresses that creates
  * @param selfDestructs The set of addresses that self-destructs
  * @param gasRefunds The gas refunds
+ * @param memoryArena The pool of memory and operand stacks reused by the frames
  */
 public record TxValues(
     BlockHashLookup blockHashLookup,
@@ -65,7 +66,8 @@ public record TxValues(
     UndoTable<Address, Bytes32, Bytes32> transientStorage,
     UndoSet<Address> creates,
     UndoSet<Address> selfDestructs,
-    UndoScalar<Long> gasRefunds) {
+    UndoScalar<Long> gasRefunds,
+    MemoryArena memoryArena) {
 
   /**
    * For all data stored in this record, undo the changes since the mark.
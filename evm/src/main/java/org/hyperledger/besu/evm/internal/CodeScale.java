@@ -22,6 +22,7 @@ import com.github.benmanes.caffeine.cache.Weigher;
 class CodeScale implements Weigher<Hash, Code> {
   @Override
   public int weigh(final Hash key, final Code code) {
-    return ((code.getSize() * 9 + 7) / 8) + key.size();
+    // the decoded instruction stream is several times larger than the code it is decoded from
+    return code.getDecodedCode().estimatedSize() + code.getSize() + key.size();
   }
 }
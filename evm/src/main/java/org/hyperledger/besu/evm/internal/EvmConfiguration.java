@@ -28,13 +28,15 @@ import java.util.OptionalInt;
  * @param maxCodeSizeOverride An optional override of the maximum code size set by the EVM fork
  * @param maxInitcodeSizeOverride An optional override of the maximum initcode size set by the EVM
  *     fork
+ * @param precompileResultCacheSize the number of precompile results to cache, zero disables it
  */
 public record EvmConfiguration(
     long jumpDestCacheWeightKB,
     WorldUpdaterMode worldUpdaterMode,
     Integer evmStackSize,
     Optional<Integer> maxCodeSizeOverride,
-    Optional<Integer> maxInitcodeSizeOverride) {
+    Optional<Integer> maxInitcodeSizeOverride,
+    long precompileResultCacheSize) {
 
   /** How should the world state update be handled within transactions? */
   public enum WorldUpdaterMode {
@@ -58,12 +60,27 @@ public record EvmConfiguration(
    */
   public EvmConfiguration(
       final Long jumpDestCacheWeightKilobytes, final WorldUpdaterMode worldstateUpdateMode) {
+    this(jumpDestCacheWeightKilobytes, worldstateUpdateMode, 0L);
+  }
+
+  /**
+   * Create an EVM Configuration without any overrides
+   *
+   * @param jumpDestCacheWeightKilobytes the jump dest cache weight (in kibibytes)
+   * @param worldstateUpdateMode the workd update mode
+   * @param precompileResultCacheSize the number of precompile results to cache, zero disables it
+   */
+  public EvmConfiguration(
+      final Long jumpDestCacheWeightKilobytes,
+      final WorldUpdaterMode worldstateUpdateMode,
+      final long precompileResultCacheSize) {
     this(
         jumpDestCacheWeightKilobytes,
         worldstateUpdateMode,
         MessageFrame.DEFAULT_MAX_STACK_SIZE,
         Optional.empty(),
-        Optional.empty());
+        Optional.empty(),
+        precompileResultCacheSize);
   }
 
   /**
@@ -95,6 +112,7 @@ public record EvmConfiguration(
         newMaxCodeSize.isPresent() ? Optional.of(newMaxCodeSize.getAsInt()) : Optional.empty(),
         newMaxInitcodeSize.isPresent()
             ? Optional.of(newMaxInitcodeSize.getAsInt())
-            : Optional.empty());
+            : Optional.empty(),
+        precompileResultCacheSize);
   }
 }
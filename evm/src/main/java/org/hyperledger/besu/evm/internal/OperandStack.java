@@ -14,10 +14,38 @@
  */
 package org.hyperledger.besu.evm.internal;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * The operand stack of the EVM. Each slot holds a 256-bit word as four primitive {@code long}
+ * limbs, least significant limb first, so arithmetic, comparison and bitwise operations can work
+ * on the stack without allocating.
+ *
+ * <p>Operations that need objects push and pop {@link Bytes}. A pushed object is kept as is and
+ * only converted to limbs when a limb operation reads it; a word produced by a limb operation is
+ * only materialized as {@link Bytes} when an object is requested. Like {@link FlexStack}, storage
+ * grows 32 entries at a time up to the maximum size.
+ */
+public class OperandStack {
+
+  /** Number of limbs per stack slot. */
+  public static final int LIMBS = 4;
+
+  private static final int INCREMENT = 32;
 
-/** The Operand stack. */
-public class OperandStack extends FlexStack<Bytes> {
+  private long[] limbs;
+  private Bytes[] objects;
+  private boolean[] limbsCurrent;
+
+  private final int maxSize;
+  private int currentCapacity;
+
+  private int top;
 
   /**
    * Instantiates a new Operand stack.
@@ -25,6 +53,367 @@ public class OperandStack extends FlexStack<Bytes> {
    * @param maxSize the max size
    */
   public OperandStack(final int maxSize) {
-    super(maxSize, Bytes.class);
+    checkArgument(maxSize > 0, "max size must be positive");
+
+    this.currentCapacity = Math.min(INCREMENT, maxSize);
+    this.limbs = new long[currentCapacity * LIMBS];
+    this.objects = new Bytes[currentCapacity];
+    this.limbsCurrent = new boolean[currentCapacity];
+    this.maxSize = maxSize;
+    this.top = -1;
+  }
+
+  /**
+   * Get operand.
+   *
+   * @param offset the offset
+   * @return the operand
+   */
+  public Bytes get(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+    final int slot = top - offset;
+    Bytes value = objects[slot];
+    if (value == null) {
+      value = materialize(slot);
+      objects[slot] = value;
+    }
+    return value;
+  }
+
+  /**
+   * Pop operand.
+   *
+   * @return the operand
+   */
+  public Bytes pop() {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+
+    final Bytes removed = objects[top] == null ? materialize(top) : objects[top];
+    objects[top] = null;
+    limbsCurrent[top--] = false;
+    return removed;
+  }
+
+  /**
+   * Peek and return the top operand.
+   *
+   * @return the top operand, or null if the stack is empty
+   */
+  public Bytes peek() {
+    if (top < 0) {
+      return null;
+    } else {
+      return get(0);
+    }
+  }
+
+  /**
+   * Pops the specified number of operands from the stack.
+   *
+   * @param items the number of operands to pop off the stack
+   * @throws IllegalArgumentException if the items to pop is negative.
+   * @throws UnderflowException when the items to pop is greater than {@link #size()}
+   */
+  public void bulkPop(final int items) {
+    checkArgument(items > 0, "number of items to pop must be greater than 0");
+    if (items > size()) {
+      throw new UnderflowException();
+    }
+
+    Arrays.fill(objects, top - items + 1, top + 1, null);
+    Arrays.fill(limbsCurrent, top - items + 1, top + 1, false);
+    top -= items;
+  }
+
+  /**
+   * Trims the "middle" section of items out of the stack. Items below the cutpoint remains, and of
+   * the items above only the itemsToKeep items remain. All items in the middle are removed.
+   *
+   * @param cutPoint Point at which to start removing items
+   * @param itemsToKeep itemsToKeep Number of items on top to place at the cutPoint
+   * @throws IllegalArgumentException if the cutPoint or items to keep is negative.
+   * @throws UnderflowException If there are less than itemsToKeep above the cutPoint
+   */
+  public void preserveTop(final int cutPoint, final int itemsToKeep) {
+    checkArgument(cutPoint >= 0, "cutPoint must be positive");
+    checkArgument(itemsToKeep >= 0, "itemsToKeep must be positive");
+    if (itemsToKeep == 0) {
+      if (cutPoint < size()) {
+        bulkPop(top - cutPoint);
+      }
+    } else {
+      int targetSize = cutPoint + itemsToKeep;
+      int currentSize = size();
+      if (targetSize > currentSize) {
+        throw new UnderflowException();
+      } else if (targetSize < currentSize) {
+        final int from = currentSize - itemsToKeep;
+        System.arraycopy(objects, from, objects, cutPoint, itemsToKeep);
+        System.arraycopy(limbsCurrent, from, limbsCurrent, cutPoint, itemsToKeep);
+        System.arraycopy(limbs, from * LIMBS, limbs, cutPoint * LIMBS, itemsToKeep * LIMBS);
+        Arrays.fill(objects, targetSize, currentSize, null);
+        Arrays.fill(limbsCurrent, targetSize, currentSize, false);
+        top = targetSize - 1;
+      }
+    }
+  }
+
+  /** Removes all operands, keeping the storage already grown so the stack can be reused. */
+  public void reset() {
+    Arrays.fill(objects, 0, top + 1, null);
+    Arrays.fill(limbsCurrent, 0, top + 1, false);
+    top = -1;
+  }
+
+  private void expandEntries(final int nextSize) {
+    limbs = Arrays.copyOf(limbs, nextSize * LIMBS);
+    objects = Arrays.copyOf(objects, nextSize);
+    limbsCurrent = Arrays.copyOf(limbsCurrent, nextSize);
+    currentCapacity = nextSize;
+  }
+
+  private int nextSlot() {
+    final int nextTop = top + 1;
+    if (nextTop >= maxSize) {
+      throw new OverflowException();
+    }
+    if (nextTop >= currentCapacity) {
+      expandEntries(Math.min(currentCapacity + INCREMENT, maxSize));
+    }
+    return nextTop;
+  }
+
+  /**
+   * Push operand.
+   *
+   * @param operand the operand
+   */
+  public void push(final Bytes operand) {
+    final int nextTop = nextSlot();
+    objects[nextTop] = operand;
+    limbsCurrent[nextTop] = false;
+    top = nextTop;
+  }
+
+  /**
+   * Set operand.
+   *
+   * @param offset the offset
+   * @param operand the operand
+   */
+  public void set(final int offset, final Bytes operand) {
+    if (offset < 0) {
+      throw new UnderflowException();
+    } else if (offset > top) {
+      throw new OverflowException();
+    }
+
+    final int slot = top - offset;
+    objects[slot] = operand;
+    limbsCurrent[slot] = false;
+  }
+
+  /**
+   * Push a copy of the operand at the given offset, without converting its representation.
+   *
+   * @param offset the offset of the operand to duplicate
+   */
+  public void dup(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+    final int slot = top - offset;
+    final int nextTop = nextSlot();
+    objects[nextTop] = objects[slot];
+    limbsCurrent[nextTop] = limbsCurrent[slot];
+    System.arraycopy(limbs, slot * LIMBS, limbs, nextTop * LIMBS, LIMBS);
+    top = nextTop;
+  }
+
+  /**
+   * Exchange the operands at the two offsets, without converting their representation.
+   *
+   * @param offsetA the offset of the first operand
+   * @param offsetB the offset of the second operand
+   */
+  public void swap(final int offsetA, final int offsetB) {
+    if (offsetA < 0 || offsetA >= size() || offsetB < 0 || offsetB >= size()) {
+      throw new UnderflowException();
+    }
+    final int a = top - offsetA;
+    final int b = top - offsetB;
+    final Bytes object = objects[a];
+    objects[a] = objects[b];
+    objects[b] = object;
+    final boolean current = limbsCurrent[a];
+    limbsCurrent[a] = limbsCurrent[b];
+    limbsCurrent[b] = current;
+    final int limbsA = a * LIMBS;
+    final int limbsB = b * LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = limbs[limbsA + i];
+      limbs[limbsA + i] = limbs[limbsB + i];
+      limbs[limbsB + i] = limb;
+    }
+  }
+
+  /**
+   * The backing limb array. Slot {@code i} occupies indices {@code i * LIMBS} to {@code i * LIMBS
+   * + 3}, least significant limb first. The array may be replaced when the stack grows, so it must
+   * be fetched again after any push.
+   *
+   * @return the backing limb array
+   */
+  public long[] limbsUnsafe() {
+    return limbs;
+  }
+
+  /**
+   * Make sure the operand at the offset is available as limbs and return where they start.
+   *
+   * @param offset the offset of the operand
+   * @return the index of the least significant limb of the operand in {@link #limbsUnsafe()}
+   * @throws UnderflowException if the offset is out of range
+   */
+  public int limbIndex(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+    final int slot = top - offset;
+    if (!limbsCurrent[slot]) {
+      load(slot);
+    }
+    return slot * LIMBS;
+  }
+
+  /**
+   * Pop the given number of operands and push a single result in their place, to be written as
+   * limbs by the caller. Operands must be read before the result is written, as the result reuses
+   * the slot of the deepest operand.
+   *
+   * @param inputs the number of operands consumed, at least one
+   * @return the index of the least significant limb of the result in {@link #limbsUnsafe()}
+   * @throws UnderflowException if there are fewer than inputs operands
+   */
+  public int replaceTop(final int inputs) {
+    if (inputs > size()) {
+      throw new UnderflowException();
+    }
+    final int slot = top - inputs + 1;
+    for (int i = slot + 1; i <= top; i++) {
+      objects[i] = null;
+      limbsCurrent[i] = false;
+    }
+    objects[slot] = null;
+    limbsCurrent[slot] = true;
+    top = slot;
+    return slot * LIMBS;
+  }
+
+  private void load(final int slot) {
+    final Bytes value = objects[slot];
+    final int base = slot * LIMBS;
+    final int size = value.size();
+    if (size == 32) {
+      limbs[base] = value.getLong(24);
+      limbs[base + 1] = value.getLong(16);
+      limbs[base + 2] = value.getLong(8);
+      limbs[base + 3] = value.getLong(0);
+    } else {
+      limbs[base] = 0L;
+      limbs[base + 1] = 0L;
+      limbs[base + 2] = 0L;
+      limbs[base + 3] = 0L;
+      // words wider than 256 bits are truncated, as the EVM would
+      final int significant = Math.min(size, 32);
+      for (int i = 0; i < significant; i++) {
+        limbs[base + (i >>> 3)] |= (value.get(size - 1 - i) & 0xffL) << ((i & 7) << 3);
+      }
+    }
+    limbsCurrent[slot] = true;
+  }
+
+  private Bytes materialize(final int slot) {
+    final byte[] result = new byte[32];
+    final int base = slot * LIMBS;
+    for (int limb = 0; limb < LIMBS; limb++) {
+      final long value = limbs[base + limb];
+      final int end = 31 - (limb << 3);
+      for (int i = 0; i < 8; i++) {
+        result[end - i] = (byte) (value >>> (i << 3));
+      }
+    }
+    return Bytes32.wrap(result);
+  }
+
+  /**
+   * Size of entries.
+   *
+   * @return the size
+   */
+  public int size() {
+    return top + 1;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i <= top; ++i) {
+      builder.append(String.format("%n0x%04X ", i)).append(get(top - i));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i <= top; i++) {
+      final int base = limbIndex(top - i);
+      for (int j = 0; j < LIMBS; j++) {
+        result = 31 * result + Long.hashCode(limbs[base + j]);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof OperandStack that)) {
+      return false;
+    }
+    if (this.size() != that.size()) {
+      return false;
+    }
+    for (int i = 0; i <= top; i++) {
+      final int thisBase = this.limbIndex(top - i);
+      final int thatBase = that.limbIndex(top - i);
+      if (!Arrays.equals(
+          this.limbs, thisBase, thisBase + LIMBS, that.limbs, thatBase, thatBase + LIMBS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Is stack full.
+   *
+   * @return the boolean
+   */
+  public boolean isFull() {
+    return top + 1 >= maxSize;
+  }
+
+  /**
+   * Is stack empty.
+   *
+   * @return the boolean
+   */
+  public boolean isEmpty() {
+    return top < 0;
   }
 }
@@ -205,7 +205,9 @@ public abstract class AbstractCallOperation extends AbstractOperation {
       return new OperationResult(cost, null);
     }
 
-    final Bytes inputData = frame.readMutableMemory(inputDataOffset(frame), inputDataLength(frame));
+    // the child keeps its input data beyond this frame's lifetime, and this frame's memory is
+    // recycled by the memory arena once it completes, so take a copy rather than a view
+    final Bytes inputData = frame.readMemory(inputDataOffset(frame), inputDataLength(frame));
 
     final Code code =
         contract == null
@@ -165,7 +165,8 @@ public abstract class AbstractExtCallOperation extends AbstractCallOperation {
     }
 
     // all checks passed, do the call
-    final Bytes inputData = frame.readMutableMemory(inputOffset, inputLength);
+    // copied, as this frame's memory is recycled by the memory arena once it completes
+    final Bytes inputData = frame.readMemory(inputOffset, inputLength);
 
     MessageFrame.builder()
         .parentMessageFrame(frame)
@@ -17,10 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import java.math.BigInteger;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Add operation. */
 public class AddOperation extends AbstractFixedCostOperation {
@@ -50,18 +47,34 @@ public class AddOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final BigInteger value0 = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-    final BigInteger value1 = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final int b = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
+    final long a0 = limbs[a];
+    final long a1 = limbs[a + 1];
+    final long a2 = limbs[a + 2];
+    final long a3 = limbs[a + 3];
+    final long b0 = limbs[b];
+    final long b1 = limbs[b + 1];
+    final long b2 = limbs[b + 2];
+    final long b3 = limbs[b + 3];
 
-    final BigInteger result = value0.add(value1);
+    final long r0 = a0 + b0;
+    long carry = Long.compareUnsigned(r0, a0) < 0 ? 1L : 0L;
+    final long s1 = a1 + b1;
+    final long r1 = s1 + carry;
+    carry = (Long.compareUnsigned(s1, a1) < 0 || Long.compareUnsigned(r1, s1) < 0) ? 1L : 0L;
+    final long s2 = a2 + b2;
+    final long r2 = s2 + carry;
+    carry = (Long.compareUnsigned(s2, a2) < 0 || Long.compareUnsigned(r2, s2) < 0) ? 1L : 0L;
+    final long r3 = a3 + b3 + carry;
 
-    byte[] resultArray = result.toByteArray();
-    int length = resultArray.length;
-    if (length > 32) {
-      frame.pushStackItem(Bytes.wrap(resultArray, length - 32, 32));
-    } else {
-      frame.pushStackItem(Bytes.wrap(resultArray));
-    }
+    final int r = stack.replaceTop(2);
+    limbs[r] = r0;
+    limbs[r + 1] = r1;
+    limbs[r + 2] = r2;
+    limbs[r + 3] = r3;
 
     return addSuccess;
   }
@@ -17,8 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Byte operation. */
 public class ByteOperation extends AbstractFixedCostOperation {
@@ -35,23 +34,6 @@ public class ByteOperation extends AbstractFixedCostOperation {
     super(0x1A, "BYTE", 2, 1, gasCalculator, gasCalculator.getVeryLowTierGasCost());
   }
 
-  private static Bytes getByte(final Bytes seq, final Bytes offset) {
-    Bytes trimmedOffset = offset.trimLeadingZeros();
-    if (trimmedOffset.size() > 1) {
-      return Bytes.EMPTY;
-    }
-    final int index = trimmedOffset.toInt();
-
-    int size = seq.size();
-    int pos = index - 32 + size;
-    if (pos >= size || pos < 0) {
-      return Bytes.EMPTY;
-    } else {
-      final byte b = seq.get(pos);
-      return Bytes.of(b);
-    }
-  }
-
   @Override
   public Operation.OperationResult executeFixedCostOperation(
       final MessageFrame frame, final EVM evm) {
@@ -65,13 +47,24 @@ public class ByteOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value0 = frame.popStackItem();
-    final Bytes value1 = frame.popStackItem();
+    final OperandStack stack = frame.getOperandStack();
+    final int o = stack.limbIndex(0);
+    final int v = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
 
-    // Stack items are reversed for the BYTE operation.
-    final Bytes result = getByte(value1, value0);
+    // Stack items are reversed for the BYTE operation: the offset is on top.
+    long result = 0L;
+    if ((limbs[o + 1] | limbs[o + 2] | limbs[o + 3]) == 0L
+        && Long.compareUnsigned(limbs[o], 32L) < 0) {
+      final int fromLeast = 31 - (int) limbs[o];
+      result = (limbs[v + (fromLeast >>> 3)] >>> ((fromLeast & 7) << 3)) & 0xffL;
+    }
 
-    frame.pushStackItem(result);
+    final int r = stack.replaceTop(2);
+    limbs[r] = result;
+    limbs[r + 1] = 0L;
+    limbs[r + 2] = 0L;
+    limbs[r + 3] = 0L;
 
     return byteSuccess;
   }
@@ -47,7 +47,7 @@ public class DupNOperation extends AbstractFixedCostOperation {
     int pc = frame.getPC();
 
     int depth = code.readU8(pc + 1);
-    frame.pushStackItem(frame.getStackItem(depth));
+    frame.getOperandStack().dup(depth);
     frame.setPC(pc + 1);
 
     return dupSuccess;
@@ -17,9 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.units.bigints.UInt256;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Eq operation. */
 public class EqOperation extends AbstractFixedCostOperation {
@@ -49,12 +47,21 @@ public class EqOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value0 = frame.popStackItem().trimLeadingZeros();
-    final Bytes value1 = frame.popStackItem().trimLeadingZeros();
-
-    final Bytes result = (value0.equals(value1) ? UInt256.ONE : UInt256.ZERO);
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final int b = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
+    final boolean result =
+        limbs[a] == limbs[b]
+            && limbs[a + 1] == limbs[b + 1]
+            && limbs[a + 2] == limbs[b + 2]
+            && limbs[a + 3] == limbs[b + 3];
 
-    frame.pushStackItem(result);
+    final int r = stack.replaceTop(2);
+    limbs[r] = result ? 1L : 0L;
+    limbs[r + 1] = 0L;
+    limbs[r + 2] = 0L;
+    limbs[r + 3] = 0L;
 
     return eqSuccess;
   }
@@ -19,8 +19,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /** The Exchange operation. */
 public class ExchangeOperation extends AbstractFixedCostOperation {
 
@@ -50,9 +48,7 @@ public class ExchangeOperation extends AbstractFixedCostOperation {
     int n = (imm >> 4) + 1;
     int m = (imm & 0x0F) + 1 + n;
 
-    final Bytes tmp = frame.getStackItem(n);
-    frame.setStackItem(n, frame.getStackItem(m));
-    frame.setStackItem(m, tmp);
+    frame.getOperandStack().swap(n, m);
     frame.setPC(pc + 1);
 
     return exchangeSuccess;
@@ -17,8 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The GT operation. */
 public class GtOperation extends AbstractFixedCostOperation {
@@ -48,12 +47,21 @@ public class GtOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value0 = frame.popStackItem().trimLeadingZeros();
-    final Bytes value1 = frame.popStackItem().trimLeadingZeros();
-
-    final Bytes result = (value0.compareTo(value1) > 0 ? BYTES_ONE : Bytes.EMPTY);
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final int b = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
+    int cmp = 0;
+    for (int i = OperandStack.LIMBS - 1; i >= 0 && cmp == 0; i--) {
+      cmp = Long.compareUnsigned(limbs[a + i], limbs[b + i]);
+    }
+    final boolean result = cmp > 0;
 
-    frame.pushStackItem(result);
+    final int r = stack.replaceTop(2);
+    limbs[r] = result ? 1L : 0L;
+    limbs[r + 1] = 0L;
+    limbs[r + 2] = 0L;
+    limbs[r + 3] = 0L;
 
     return gtSuccess;
   }
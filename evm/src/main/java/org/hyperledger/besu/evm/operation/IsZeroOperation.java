@@ -17,8 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Is zero operation. */
 public class IsZeroOperation extends AbstractFixedCostOperation {
@@ -48,9 +47,16 @@ public class IsZeroOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value = frame.popStackItem().trimLeadingZeros();
-
-    frame.pushStackItem((value.size() == 0) ? BYTES_ONE : Bytes.EMPTY);
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final long[] limbs = stack.limbsUnsafe();
+    final boolean result = (limbs[a] | limbs[a + 1] | limbs[a + 2] | limbs[a + 3]) == 0L;
+
+    final int r = stack.replaceTop(1);
+    limbs[r] = result ? 1L : 0L;
+    limbs[r + 1] = 0L;
+    limbs[r + 2] = 0L;
+    limbs[r + 3] = 0L;
 
     return isZeroSuccess;
   }
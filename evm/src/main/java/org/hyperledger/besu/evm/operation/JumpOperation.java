@@ -14,7 +14,6 @@
  */
 package org.hyperledger.besu.evm.operation;
 
-import org.hyperledger.besu.evm.Code;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -25,6 +24,9 @@ import org.apache.tuweni.bytes.Bytes;
 /** The Jump operation. */
 public class JumpOperation extends AbstractFixedCostOperation {
 
+  /** The constant OPCODE. */
+  public static final int OPCODE = 0x56;
+
   private static final Operation.OperationResult invalidJumpResponse =
       new Operation.OperationResult(8L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
   private static final OperationResult jumpResponse = new OperationResult(8L, null, 0);
@@ -35,7 +37,7 @@ public class JumpOperation extends AbstractFixedCostOperation {
    * @param gasCalculator the gas calculator
    */
   public JumpOperation(final GasCalculator gasCalculator) {
-    super(0x56, "JUMP", 2, 0, gasCalculator, gasCalculator.getMidTierGasCost());
+    super(OPCODE, "JUMP", 2, 0, gasCalculator, gasCalculator.getMidTierGasCost());
   }
 
   @Override
@@ -58,12 +60,26 @@ public class JumpOperation extends AbstractFixedCostOperation {
     } catch (final RuntimeException iae) {
       return invalidJumpResponse;
     }
-    final Code code = frame.getCode();
-    if (code.isJumpDestInvalid(jumpDestination)) {
+    if (frame.getCode().getDecodedCode().isJumpDestInvalid(jumpDestination)) {
       return invalidJumpResponse;
     } else {
       frame.setPC(jumpDestination);
       return jumpResponse;
     }
   }
+
+  /**
+   * Performs Jump operation to a destination already validated by code analysis. The destination
+   * is still popped off the stack.
+   *
+   * @param frame the frame
+   * @param jumpDestination the pre-resolved jump destination
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(
+      final MessageFrame frame, final int jumpDestination) {
+    frame.popStackItem();
+    frame.setPC(jumpDestination);
+    return jumpResponse;
+  }
 }
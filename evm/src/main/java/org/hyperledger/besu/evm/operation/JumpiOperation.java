@@ -14,7 +14,6 @@
  */
 package org.hyperledger.besu.evm.operation;
 
-import org.hyperledger.besu.evm.Code;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
@@ -25,6 +24,9 @@ import org.apache.tuweni.bytes.Bytes;
 /** The JUMPI operation. */
 public class JumpiOperation extends AbstractFixedCostOperation {
 
+  /** The constant OPCODE. */
+  public static final int OPCODE = 0x57;
+
   private static final OperationResult invalidJumpResponse =
       new Operation.OperationResult(10L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
   private static final OperationResult jumpiResponse = new OperationResult(10L, null, 0);
@@ -36,7 +38,7 @@ public class JumpiOperation extends AbstractFixedCostOperation {
    * @param gasCalculator the gas calculator
    */
   public JumpiOperation(final GasCalculator gasCalculator) {
-    super(0x57, "JUMPI", 2, 0, gasCalculator, gasCalculator.getHighTierGasCost());
+    super(OPCODE, "JUMPI", 2, 0, gasCalculator, gasCalculator.getHighTierGasCost());
   }
 
   @Override
@@ -64,12 +66,32 @@ public class JumpiOperation extends AbstractFixedCostOperation {
       } catch (final RuntimeException re) {
         return invalidJumpResponse;
       }
-      final Code code = frame.getCode();
-      if (code.isJumpDestInvalid(jumpDestination)) {
+      if (frame.getCode().getDecodedCode().isJumpDestInvalid(jumpDestination)) {
         return invalidJumpResponse;
       }
       frame.setPC(jumpDestination);
       return jumpiResponse;
     }
   }
+
+  /**
+   * Performs JUMPI operation to a destination already validated by code analysis. The destination
+   * is still popped off the stack.
+   *
+   * @param frame the frame
+   * @param jumpDestination the pre-resolved jump destination
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(
+      final MessageFrame frame, final int jumpDestination) {
+    frame.popStackItem();
+    final Bytes condition = frame.popStackItem().trimLeadingZeros();
+
+    // If condition is zero (false), no jump is will be performed.
+    if (condition.size() == 0) {
+      return nojumpResponse;
+    }
+    frame.setPC(jumpDestination);
+    return jumpiResponse;
+  }
 }
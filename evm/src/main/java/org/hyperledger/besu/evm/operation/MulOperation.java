@@ -17,10 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import java.math.BigInteger;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Mul operation. */
 public class MulOperation extends AbstractFixedCostOperation {
@@ -50,16 +47,54 @@ public class MulOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    BigInteger a = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-    BigInteger b = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-    BigInteger c = a.multiply(b);
-    byte[] cBytes = c.toByteArray();
-    Bytes result = Bytes.wrap(cBytes);
-    if (cBytes.length > 32) {
-      result = result.slice(cBytes.length - 32, 32);
-    }
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final int b = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
+    final long b0 = limbs[b];
+    final long b1 = limbs[b + 1];
+    final long b2 = limbs[b + 2];
+    final long b3 = limbs[b + 3];
+
+    // the result overwrites b, a stays readable in the slot above the new top
+    final int r = stack.replaceTop(2);
+    limbs[r] = 0L;
+    limbs[r + 1] = 0L;
+    limbs[r + 2] = 0L;
+    limbs[r + 3] = 0L;
+    multiplyRow(limbs, r, a, b0, 0);
+    multiplyRow(limbs, r, a, b1, 1);
+    multiplyRow(limbs, r, a, b2, 2);
+    multiplyRow(limbs, r, a, b3, 3);
 
-    frame.pushStackItem(result);
     return mulSuccess;
   }
+
+  /**
+   * Adds {@code a * multiplier}, shifted up by {@code shift} limbs, to the result, discarding
+   * anything above 256 bits.
+   */
+  private static void multiplyRow(
+      final long[] limbs, final int r, final int a, final long multiplier, final int shift) {
+    if (multiplier == 0L) {
+      return;
+    }
+    long carry = 0L;
+    for (int i = 0; i < OperandStack.LIMBS - shift; i++) {
+      final long x = limbs[a + i];
+      final long low = x * multiplier;
+      long high = Math.unsignedMultiplyHigh(x, multiplier);
+      final long withCarry = low + carry;
+      if (Long.compareUnsigned(withCarry, low) < 0) {
+        high++;
+      }
+      final int target = r + shift + i;
+      final long sum = withCarry + limbs[target];
+      if (Long.compareUnsigned(sum, withCarry) < 0) {
+        high++;
+      }
+      limbs[target] = sum;
+      carry = high;
+    }
+  }
 }
@@ -17,9 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Not operation. */
 public class NotOperation extends AbstractFixedCostOperation {
@@ -49,11 +47,15 @@ public class NotOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value = Bytes32.leftPad(frame.popStackItem());
-
-    final Bytes result = value.not();
-
-    frame.pushStackItem(result);
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final long[] limbs = stack.limbsUnsafe();
+
+    final int r = stack.replaceTop(1);
+    limbs[r] = ~limbs[a];
+    limbs[r + 1] = ~limbs[a + 1];
+    limbs[r + 2] = ~limbs[a + 2];
+    limbs[r + 3] = ~limbs[a + 3];
 
     return notSuccess;
   }
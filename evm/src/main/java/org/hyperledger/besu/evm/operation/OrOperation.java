@@ -17,8 +17,7 @@ package org.hyperledger.besu.evm.operation;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Or operation. */
 public class OrOperation extends AbstractFixedCostOperation {
@@ -48,12 +47,17 @@ public class OrOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value0 = frame.popStackItem();
-    final Bytes value1 = frame.popStackItem();
-
-    final Bytes result = value0.or(value1);
+    final OperandStack stack = frame.getOperandStack();
+    final int a = stack.limbIndex(0);
+    final int b = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
 
-    frame.pushStackItem(result);
+    // the result overwrites b limb by limb, each limb of b is read before it is written
+    final int r = stack.replaceTop(2);
+    limbs[r] = limbs[a] | limbs[b];
+    limbs[r + 1] = limbs[a + 1] | limbs[b + 1];
+    limbs[r + 2] = limbs[a + 2] | limbs[b + 2];
+    limbs[r + 3] = limbs[a + 3] | limbs[b + 3];
 
     return orSuccess;
   }
@@ -80,4 +80,20 @@ public class PushOperation extends AbstractFixedCostOperation {
     frame.setPC(pc + pushSize);
     return pushSuccess;
   }
+
+  /**
+   * Performs Push operation with an immediate value already sliced out of the code.
+   *
+   * @param frame the frame
+   * @param push the value to push
+   * @param pc the pc
+   * @param pushSize the push size
+   * @return the operation result
+   */
+  public static OperationResult staticOperation(
+      final MessageFrame frame, final Bytes push, final int pc, final int pushSize) {
+    frame.pushStackItem(push);
+    frame.setPC(pc + pushSize);
+    return pushSuccess;
+  }
 }
@@ -14,13 +14,10 @@
  */
 package org.hyperledger.besu.evm.operation;
 
-import static org.apache.tuweni.bytes.Bytes32.leftPad;
-
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Sar operation. */
 public class SarOperation extends AbstractFixedCostOperation {
@@ -28,9 +25,6 @@ public class SarOperation extends AbstractFixedCostOperation {
   /** The Sar operation success result. */
   static final OperationResult sarSuccess = new OperationResult(3, null);
 
-  private static final Bytes ALL_BITS =
-      Bytes.fromHexString("0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
-
   /**
    * Instantiates a new Sar operation.
    *
@@ -53,28 +47,55 @@ public class SarOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    Bytes shiftAmount = frame.popStackItem();
-    final Bytes value = leftPad(frame.popStackItem());
-    final boolean negativeNumber = value.get(0) < 0;
-    if (shiftAmount.size() > 4 && (shiftAmount = shiftAmount.trimLeadingZeros()).size() > 4) {
-      frame.pushStackItem(negativeNumber ? ALL_BITS : Bytes.EMPTY);
-    } else {
-      final int shiftAmountInt = shiftAmount.toInt();
+    final OperandStack stack = frame.getOperandStack();
+    final int s = stack.limbIndex(0);
+    final int v = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
+    final boolean fullShift =
+        (limbs[s + 1] | limbs[s + 2] | limbs[s + 3]) != 0L
+            || Long.compareUnsigned(limbs[s], 256L) >= 0;
+    final int shift = fullShift ? 256 : (int) limbs[s];
+    final long v0 = limbs[v];
+    final long v1 = limbs[v + 1];
+    final long v2 = limbs[v + 2];
+    final long v3 = limbs[v + 3];
+    final long fill = v3 >> 63;
 
-      if (shiftAmountInt >= 256 || shiftAmountInt < 0) {
-        frame.pushStackItem(negativeNumber ? ALL_BITS : Bytes.EMPTY);
-      } else {
-        // first perform standard shift right.
-        Bytes result = value.shiftRight(shiftAmountInt);
-
-        // if a negative number, carry through the sign.
-        if (negativeNumber) {
-          final Bytes significantBits = ALL_BITS.shiftLeft(256 - shiftAmountInt);
-          result = result.or(significantBits);
+    final int r = stack.replaceTop(2);
+    if (fullShift) {
+      limbs[r] = fill;
+      limbs[r + 1] = fill;
+      limbs[r + 2] = fill;
+      limbs[r + 3] = fill;
+    } else {
+      final int limbShift = shift >>> 6;
+      final int bitShift = shift & 63;
+      for (int i = 0; i < OperandStack.LIMBS; i++) {
+        final int source = i + limbShift;
+        long limb;
+        if (source < OperandStack.LIMBS - 1) {
+          limb = limb(v0, v1, v2, v3, source) >>> bitShift;
+          if (bitShift != 0) {
+            limb |= limb(v0, v1, v2, v3, source + 1) << (64 - bitShift);
+          }
+        } else if (source == OperandStack.LIMBS - 1) {
+          limb = v3 >> bitShift;
+        } else {
+          limb = fill;
         }
-        frame.pushStackItem(result);
+        limbs[r + i] = limb;
       }
     }
     return sarSuccess;
   }
+
+  private static long limb(
+      final long v0, final long v1, final long v2, final long v3, final int index) {
+    return switch (index) {
+      case 0 -> v0;
+      case 1 -> v1;
+      case 2 -> v2;
+      default -> v3;
+    };
+  }
 }
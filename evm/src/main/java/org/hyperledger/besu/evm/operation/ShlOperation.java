@@ -14,13 +14,10 @@
  */
 package org.hyperledger.besu.evm.operation;
 
-import static org.apache.tuweni.bytes.Bytes32.leftPad;
-
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
-
-import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 /** The Shl (Shift Left) operation. */
 public class ShlOperation extends AbstractFixedCostOperation {
@@ -50,20 +47,47 @@ public class ShlOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    Bytes shiftAmount = frame.popStackItem();
-    if (shiftAmount.size() > 4 && (shiftAmount = shiftAmount.trimLeadingZeros()).size() > 4) {
-      frame.popStackItem();
-      frame.pushStackItem(Bytes.EMPTY);
-    } else {
-      final int shiftAmountInt = shiftAmount.toInt();
-      final Bytes value = leftPad(frame.popStackItem());
+    final OperandStack stack = frame.getOperandStack();
+    final int s = stack.limbIndex(0);
+    final int v = stack.limbIndex(1);
+    final long[] limbs = stack.limbsUnsafe();
+    final boolean fullShift =
+        (limbs[s + 1] | limbs[s + 2] | limbs[s + 3]) != 0L
+            || Long.compareUnsigned(limbs[s], 256L) >= 0;
+    final int shift = fullShift ? 256 : (int) limbs[s];
+    final long v0 = limbs[v];
+    final long v1 = limbs[v + 1];
+    final long v2 = limbs[v + 2];
+    final long v3 = limbs[v + 3];
 
-      if (shiftAmountInt >= 256 || shiftAmountInt < 0) {
-        frame.pushStackItem(Bytes.EMPTY);
-      } else {
-        frame.pushStackItem(value.shiftLeft(shiftAmountInt));
+    final int r = stack.replaceTop(2);
+    if (fullShift) {
+      limbs[r] = 0L;
+      limbs[r + 1] = 0L;
+      limbs[r + 2] = 0L;
+      limbs[r + 3] = 0L;
+    } else {
+      final int limbShift = shift >>> 6;
+      final int bitShift = shift & 63;
+      for (int i = OperandStack.LIMBS - 1; i >= 0; i--) {
+        final int source = i - limbShift;
+        long limb = source >= 0 ? limb(v0, v1, v2, v3, source) << bitShift : 0L;
+        if (bitShift != 0 && source > 0) {
+          limb |= limb(v0, v1, v2, v3, source - 1) >>> (64 - bitShift);
+        }
+        limbs[r + i] = limb;
       }
     }
     return shlSuccess;
   }
+
+  private static long limb(
+      final long v0, final long v1, final long v2, final long v3, final int index) {
+    return switch (index) {
+      case 0 -> v0;
+      case 1 -> v1;
+      case 2 -> v2;
+      default -> v3;
+    };
+  }
 }
@@ -19,8 +19,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /** The SwapN operation. */
 public class SwapNOperation extends AbstractFixedCostOperation {
 
@@ -49,9 +47,7 @@ public class SwapNOperation extends AbstractFixedCostOperation {
     int pc = frame.getPC();
     int index = code.readU8(pc + 1);
 
-    final Bytes tmp = frame.getStackItem(0);
-    frame.setStackItem(0, frame.getStackItem(index + 1));
-    frame.setStackItem(index + 1, tmp);
+    frame.getOperandStack().swap(0, index + 1);
     frame.setPC(pc + 1);
 
     return swapSuccess;
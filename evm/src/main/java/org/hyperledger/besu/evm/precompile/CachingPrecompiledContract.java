@@ -0,0 +1,55 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import javax.annotation.Nonnull;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/** Serves the results of a deterministic precompile from a {@link PrecompileResultCache}. */
+class CachingPrecompiledContract implements PrecompiledContract {
+
+  private final PrecompiledContract delegate;
+  private final PrecompileResultCache resultCache;
+
+  CachingPrecompiledContract(
+      final PrecompiledContract delegate, final PrecompileResultCache resultCache) {
+    this.delegate = delegate;
+    this.resultCache = resultCache;
+  }
+
+  PrecompiledContract getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public long gasRequirement(final Bytes input) {
+    return delegate.gasRequirement(input);
+  }
+
+  @Nonnull
+  @Override
+  public PrecompileContractResult computePrecompile(
+      final Bytes input, @Nonnull final MessageFrame messageFrame) {
+    return resultCache.get(delegate, input, () -> delegate.computePrecompile(input, messageFrame));
+  }
+}
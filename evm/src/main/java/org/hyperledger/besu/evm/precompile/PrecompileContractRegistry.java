@@ -23,6 +23,7 @@ import java.util.Map;
 public class PrecompileContractRegistry {
 
   private final Map<Address, PrecompiledContract> precompiles;
+  private PrecompileResultCache resultCache;
 
   /** Instantiates a new Precompile contract registry. */
   public PrecompileContractRegistry() {
@@ -46,6 +47,29 @@ public class PrecompileContractRegistry {
    * @param precompile the precompile
    */
   public void put(final Address address, final PrecompiledContract precompile) {
-    precompiles.put(address, precompile);
+    precompiles.put(address, withResultCaching(address, precompile));
+  }
+
+  /**
+   * Serve the results of the cacheable precompiles in this registry, including those put later,
+   * from the given cache.
+   *
+   * @param resultCache the result cache, which may be shared with other registries
+   */
+  public void enableResultCaching(final PrecompileResultCache resultCache) {
+    this.resultCache = resultCache;
+    precompiles.replaceAll(this::withResultCaching);
+  }
+
+  private PrecompiledContract withResultCaching(
+      final Address address, final PrecompiledContract precompile) {
+    final PrecompiledContract uncached =
+        precompile instanceof CachingPrecompiledContract caching
+            ? caching.getDelegate()
+            : precompile;
+    if (resultCache == null || !PrecompileResultCache.isCacheable(address)) {
+      return uncached;
+    }
+    return new CachingPrecompiledContract(uncached, resultCache);
   }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A bounded cache of precompile results keyed by precompile implementation and input hash.
+ *
+ * <p>The same inputs are often evaluated when a transaction is simulated, when it is included in a
+ * block and when that block is imported. Only the precompiles whose result depends on nothing but
+ * their input, and that are expensive compared to hashing that input, are cached. Each fork has its
+ * own precompile instances, so a result computed under one fork is never served under another,
+ * while gas is still calculated on every call. Only successful results are cached, since a failing
+ * precompile also records its revert reason on the calling frame, which a cached result could not
+ * replay.
+ */
+public class PrecompileResultCache {
+
+  private static final Set<Address> CACHEABLE_PRECOMPILES =
+      Set.of(
+          Address.ECREC,
+          Address.MODEXP,
+          Address.ALTBN128_ADD,
+          Address.ALTBN128_MUL,
+          Address.ALTBN128_PAIRING,
+          Address.BLAKE2B_F_COMPRESSION,
+          Address.KZG_POINT_EVAL,
+          Address.BLS12_G1ADD,
+          Address.BLS12_G1MUL,
+          Address.BLS12_G1MULTIEXP,
+          Address.BLS12_G2ADD,
+          Address.BLS12_G2MUL,
+          Address.BLS12_G2MULTIEXP,
+          Address.BLS12_PAIRING,
+          Address.BLS12_MAP_FP_TO_G1,
+          Address.BLS12_MAP_FP2_TO_G2);
+
+  private record Key(PrecompiledContract precompile, Hash inputHash) {}
+
+  private final Cache<Key, PrecompiledContract.PrecompileContractResult> cache;
+  private final Runnable onHit;
+  private final Runnable onMiss;
+
+  /**
+   * Instantiates a new precompile result cache.
+   *
+   * @param maximumSize the maximum number of results to keep
+   * @param onHit called for each lookup answered from the cache
+   * @param onMiss called for each lookup that has to compute the result
+   */
+  public PrecompileResultCache(
+      final long maximumSize, final Runnable onHit, final Runnable onMiss) {
+    this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    this.onHit = onHit;
+    this.onMiss = onMiss;
+  }
+
+  /**
+   * Is the precompile at this address cacheable.
+   *
+   * @param address the precompile address
+   * @return true if its results may be cached
+   */
+  public static boolean isCacheable(final Address address) {
+    return CACHEABLE_PRECOMPILES.contains(address);
+  }
+
+  /**
+   * Returns the cached result for this precompile and input, computing it if absent. The computed
+   * result is cached only if it completed successfully.
+   *
+   * @param precompile the precompile implementation
+   * @param input the precompile input
+   * @param compute computes the result on a miss
+   * @return the result
+   */
+  PrecompiledContract.PrecompileContractResult get(
+      final PrecompiledContract precompile,
+      final Bytes input,
+      final Supplier<PrecompiledContract.PrecompileContractResult> compute) {
+    final Key key = new Key(precompile, Hash.hash(input));
+    final PrecompiledContract.PrecompileContractResult cached = cache.getIfPresent(key);
+    if (cached != null) {
+      onHit.run();
+      return cached;
+    }
+    onMiss.run();
+    final PrecompiledContract.PrecompileContractResult result = compute.get();
+    if (result.getState() == MessageFrame.State.COMPLETED_SUCCESS) {
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the approximate number of cached results.
+   *
+   * @return the size
+   */
+  public long size() {
+    return cache.estimatedSize();
+  }
+}
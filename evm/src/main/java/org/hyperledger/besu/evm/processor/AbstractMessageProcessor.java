@@ -152,6 +152,7 @@ public abstract class AbstractMessageProcessor {
     frame.getWorldUpdater().commit();
     frame.getMessageFrameStack().removeFirst();
     frame.notifyCompletion();
+    frame.releaseResources();
   }
 
   /**
@@ -162,6 +163,7 @@ public abstract class AbstractMessageProcessor {
   private void completedFailed(final MessageFrame frame) {
     frame.getMessageFrameStack().removeFirst();
     frame.notifyCompletion();
+    frame.releaseResources();
   }
 
   /**
@@ -0,0 +1,115 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.evm.code.DecodedCode;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.testutils.TestMessageFrameBuilder;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Runs code with every gas limit up to more than it needs, once with block metering and once with a
+ * tracer, which forces per operation metering, and expects identical outcomes.
+ */
+class BlockGasMeteringTest {
+
+  private final EVM evm = MainnetEVMs.cancun(EvmConfiguration.DEFAULT);
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        // count down from 5 in a loop, then MSTORE which is metered on its own
+        "0x60055b600190038060025760005200",
+        // arithmetic straight line code falling off the end
+        "0x6001600201600302600404600506600607",
+        // a jump to a non JUMPDEST inside a block
+        "0x6001600256",
+        // stack underflow in the middle of a block
+        "0x600101600101",
+      })
+  void blockMeteringMatchesPerOperationMetering(final String hex) {
+    final Code code = evm.getCodeUncached(Bytes.fromHexString(hex));
+
+    // every sample needs well under this much gas
+    for (long gas = 0; gas <= 300; gas++) {
+      final MessageFrame metered = run(code, gas, OperationTracer.NO_TRACING);
+      final MessageFrame traced = run(code, gas, new OperationTracer() {});
+
+      assertThat(metered.getState()).isEqualTo(traced.getState());
+      assertThat(metered.getExceptionalHaltReason()).isEqualTo(traced.getExceptionalHaltReason());
+      assertThat(metered.getPC()).isEqualTo(traced.getPC());
+      if (traced.getState() != MessageFrame.State.EXCEPTIONAL_HALT) {
+        assertThat(metered.getRemainingGas()).isEqualTo(traced.getRemainingGas());
+      }
+    }
+  }
+
+  @Test
+  void outOfGasPartWayThroughABlockHaltsAtThatOperation() {
+    // PUSH1 0x01 PUSH1 0x02 ADD PUSH1 0x03 MUL, a single block costing 3 + 3 + 3 + 3 + 5
+    final Code code = evm.getCodeUncached(Bytes.fromHexString("0x6001600201600302"));
+    assertThat(code.getDecodedCode().getBlockCostsUnsafe(fixedCosts())[0]).isEqualTo(17);
+
+    // enough for the first three operations only
+    final MessageFrame frame = run(code, 10, OperationTracer.NO_TRACING);
+
+    assertThat(frame.getState()).isEqualTo(MessageFrame.State.EXCEPTIONAL_HALT);
+    assertThat(frame.getExceptionalHaltReason())
+        .isEqualTo(Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
+    assertThat(frame.getPC()).isEqualTo(5);
+  }
+
+  @Test
+  void jumpingPastTheStartOfStraightLineCodeOnlyChargesWhatRuns() {
+    // PUSH1 0x05 JUMP PUSH1 0x01 JUMPDEST PUSH1 0x02 STOP
+    final Code jumping = evm.getCodeUncached(Bytes.fromHexString("0x60055660015b600200"));
+    final int[] blockCosts = jumping.getDecodedCode().getBlockCostsUnsafe(fixedCosts());
+    // the skipped PUSH1 is a block of its own, the JUMPDEST starts the block jumped to
+    assertThat(blockCosts[3]).isEqualTo(3);
+    assertThat(blockCosts[5]).isEqualTo(1 + 3);
+
+    final MessageFrame jumped = run(jumping, 100, OperationTracer.NO_TRACING);
+    assertThat(jumped.getState()).isEqualTo(MessageFrame.State.CODE_SUCCESS);
+    assertThat(jumped.getRemainingGas()).isEqualTo(100 - (3 + 8) - (1 + 3));
+
+    // PUSH1 0x01 JUMPDEST PUSH1 0x02 STOP, the same code entered by falling through
+    final Code fallingThrough = evm.getCodeUncached(Bytes.fromHexString("0x60015b600200"));
+    final MessageFrame fellThrough = run(fallingThrough, 100, OperationTracer.NO_TRACING);
+    assertThat(fellThrough.getState()).isEqualTo(MessageFrame.State.CODE_SUCCESS);
+    assertThat(fellThrough.getRemainingGas()).isEqualTo(100 - 3 - (1 + 3));
+  }
+
+  private int[] fixedCosts() {
+    return DecodedCode.fixedCosts(evm.getGasCalculator());
+  }
+
+  private MessageFrame run(final Code code, final long gas, final OperationTracer tracer) {
+    final MessageFrame frame = new TestMessageFrameBuilder().code(code).initialGas(gas).build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    evm.runToHalt(frame, tracer);
+    return frame;
+  }
+}
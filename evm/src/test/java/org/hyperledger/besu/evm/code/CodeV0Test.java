@@ -15,10 +15,12 @@
 package org.hyperledger.besu.evm.code;
 
 import static org.hyperledger.besu.evm.frame.MessageFrame.Type.MESSAGE_CALL;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.times;
 
 import org.hyperledger.besu.datatypes.Address;
 import org.hyperledger.besu.datatypes.Hash;
@@ -38,7 +40,6 @@ import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
 
 class CodeV0Test {
 
@@ -59,7 +60,7 @@ class CodeV0Test {
 
     OperationResult result = operation.execute(frame, evm);
     assertNull(result.getHaltReason());
-    Mockito.verify(getsCached, times(1)).calculateJumpDests();
+    final DecodedCode decodedCode = getsCached.getDecodedCode();
 
     // do it again to prove we don't recalculate, and we hit the cache
 
@@ -67,7 +68,17 @@ class CodeV0Test {
 
     result = operation.execute(frame, evm);
     assertNull(result.getHaltReason());
-    Mockito.verify(getsCached, times(1)).calculateJumpDests();
+    assertSame(decodedCode, getsCached.getDecodedCode());
+  }
+
+  @Test
+  void jumpDestInPushDataIsInvalid() {
+    // PUSH1 0x5b JUMPDEST
+    final CodeV0 code = (CodeV0) evm.getCodeUncached(Bytes.fromHexString("0x605b5b"));
+
+    assertTrue(code.isJumpDestInvalid(1));
+    assertFalse(code.isJumpDestInvalid(2));
+    assertTrue(code.isJumpDestInvalid(3));
   }
 
   @Nonnull
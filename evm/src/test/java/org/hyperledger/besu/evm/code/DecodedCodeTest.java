@@ -0,0 +1,186 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.code.DecodedCode.NOT_INSTRUCTION_START;
+import static org.hyperledger.besu.evm.code.DecodedCode.OPCODE_MASK;
+import static org.hyperledger.besu.evm.code.DecodedCode.getArgument;
+
+import org.hyperledger.besu.evm.gascalculator.BerlinGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.ByzantiumGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.CancunGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.ConstantinopleGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.FrontierGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.GasCalculator;
+import org.hyperledger.besu.evm.gascalculator.HomesteadGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.IstanbulGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.LondonGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.PetersburgGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.PragueGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.ShanghaiGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.SpuriousDragonGasCalculator;
+import org.hyperledger.besu.evm.gascalculator.TangerineWhistleGasCalculator;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class DecodedCodeTest {
+
+  private static final int[] CANCUN_COSTS = DecodedCode.fixedCosts(new CancunGasCalculator());
+
+  @Test
+  void pushImmediatesAreSlicedOnce() {
+    // PUSH2 0x1234 PUSH1 0x5b STOP
+    final DecodedCode decoded = DecodedCode.decodeLegacy(Bytes.fromHexString("0x611234605b00"));
+    final int[] instructions = decoded.getInstructionsUnsafe();
+
+    assertThat(instructions[0] & OPCODE_MASK).isEqualTo(0x61);
+    assertThat(decoded.getPushValue(getArgument(instructions[0])))
+        .isEqualTo(Bytes.fromHexString("0x1234"));
+    assertThat(instructions[1] & NOT_INSTRUCTION_START).isNotZero();
+    assertThat(instructions[2] & NOT_INSTRUCTION_START).isNotZero();
+    assertThat(decoded.getPushValue(getArgument(instructions[3])))
+        .isEqualTo(Bytes.fromHexString("0x5b"));
+    assertThat(instructions[5]).isZero();
+  }
+
+  @Test
+  void pushDataIsNotAJumpDest() {
+    // PUSH1 0x5b JUMPDEST
+    final DecodedCode decoded = DecodedCode.decodeLegacy(Bytes.fromHexString("0x605b5b"));
+
+    assertThat(decoded.isJumpDestInvalid(1)).isTrue();
+    assertThat(decoded.isJumpDestInvalid(2)).isFalse();
+    assertThat(decoded.isJumpDestInvalid(3)).isTrue();
+    assertThat(decoded.isJumpDestInvalid(-1)).isTrue();
+  }
+
+  @Test
+  void truncatedPushKeepsAvailableBytes() {
+    final DecodedCode decoded = DecodedCode.decodeLegacy(Bytes.fromHexString("0x63aabb"));
+    final int[] instructions = decoded.getInstructionsUnsafe();
+
+    assertThat(decoded.getPushValue(getArgument(instructions[0])))
+        .isEqualTo(Bytes.fromHexString("0xaabb"));
+  }
+
+  @Test
+  void staticJumpsAreResolved() {
+    // PUSH1 0x04 JUMP INVALID JUMPDEST PUSH1 0x01 PUSH1 0x04 JUMPI
+    final DecodedCode decoded =
+        DecodedCode.decodeLegacy(Bytes.fromHexString("0x600456fe5b6001600457"));
+    final int[] instructions = decoded.getInstructionsUnsafe();
+
+    assertThat(instructions[2] & OPCODE_MASK).isEqualTo(0x56);
+    assertThat(getArgument(instructions[2])).isEqualTo(4 + 1);
+    assertThat(instructions[9] & OPCODE_MASK).isEqualTo(0x57);
+    assertThat(getArgument(instructions[9])).isEqualTo(4 + 1);
+  }
+
+  @Test
+  void invalidStaticJumpsAreLeftUnresolved() {
+    // PUSH1 0x03 JUMP INVALID, the target is not a JUMPDEST
+    final DecodedCode invalidTarget = DecodedCode.decodeLegacy(Bytes.fromHexString("0x600356fe"));
+    assertThat(getArgument(invalidTarget.getInstructionsUnsafe()[2])).isZero();
+
+    // CALLVALUE JUMP, the target is only known at runtime
+    final DecodedCode dynamicTarget = DecodedCode.decodeLegacy(Bytes.fromHexString("0x34565b"));
+    assertThat(getArgument(dynamicTarget.getInstructionsUnsafe()[1])).isZero();
+  }
+
+  @Test
+  void fixedCostBlocksAreSummedAtTheirStart() {
+    // PUSH1 0x04 JUMP INVALID JUMPDEST PUSH1 0x01 PUSH1 0x04 JUMPI
+    final DecodedCode decoded =
+        DecodedCode.decodeLegacy(Bytes.fromHexString("0x600456fe5b6001600457"));
+    final int[] blockCosts = decoded.getBlockCostsUnsafe(CANCUN_COSTS);
+
+    assertThat(blockCosts[0]).isEqualTo(3 + 8);
+    assertThat(blockCosts[2]).isZero();
+    assertThat(blockCosts[3]).isEqualTo(DecodedCode.NOT_METERED);
+    assertThat(blockCosts[4]).isEqualTo(1 + 3 + 3 + 10);
+    assertThat(blockCosts[7]).isZero();
+  }
+
+  @Test
+  void dynamicCostOperationsEndBlocks() {
+    // PUSH1 0x00 SLOAD PUSH1 0x01 ADD
+    final DecodedCode decoded = DecodedCode.decodeLegacy(Bytes.fromHexString("0x60005460010100"));
+    final int[] blockCosts = decoded.getBlockCostsUnsafe(CANCUN_COSTS);
+
+    assertThat(blockCosts[0]).isEqualTo(3);
+    assertThat(blockCosts[2]).isEqualTo(DecodedCode.NOT_METERED);
+    assertThat(blockCosts[3]).isEqualTo(3 + 3);
+    assertThat(blockCosts[6]).isEqualTo(DecodedCode.NOT_METERED);
+  }
+
+  @Test
+  void blockMeteringIsOffWhenTheGasCalculatorRepricesStaticOperations() {
+    final GasCalculator repriced =
+        new CancunGasCalculator() {
+          @Override
+          public long getVeryLowTierGasCost() {
+            return 4;
+          }
+        };
+    // PUSH1 0x01 PUSH1 0x02 ADD POP
+    final DecodedCode decoded = DecodedCode.decodeLegacy(Bytes.fromHexString("0x600160020150"));
+
+    assertThat(decoded.getBlockCostsUnsafe(DecodedCode.fixedCosts(repriced)))
+        .containsOnly(DecodedCode.NOT_METERED);
+    assertThat(decoded.getBlockCostsUnsafe(CANCUN_COSTS)[0]).isEqualTo(3 + 3 + 3 + 2);
+  }
+
+  @Test
+  void everyMainnetForkIsBlockMetered() {
+    assertThat(CANCUN_COSTS[0x01]).isEqualTo(3);
+    for (final GasCalculator gasCalculator :
+        List.of(
+            new FrontierGasCalculator(),
+            new HomesteadGasCalculator(),
+            new TangerineWhistleGasCalculator(),
+            new SpuriousDragonGasCalculator(),
+            new ByzantiumGasCalculator(),
+            new ConstantinopleGasCalculator(),
+            new PetersburgGasCalculator(),
+            new IstanbulGasCalculator(),
+            new BerlinGasCalculator(),
+            new LondonGasCalculator(),
+            new ShanghaiGasCalculator(),
+            new PragueGasCalculator())) {
+      assertThat(DecodedCode.fixedCosts(gasCalculator)).isEqualTo(CANCUN_COSTS);
+    }
+  }
+
+  @Test
+  void eofHeaderAndDataAreNotInstructions() {
+    final EOFLayout layout =
+        EOFLayout.parseEOF(
+            Bytes.fromHexString("0xef000101000402000100040400020000800001600100000bad"));
+    final DecodedCode decoded = DecodedCode.decodeEOF(layout);
+    final int[] instructions = decoded.getInstructionsUnsafe();
+    final int entryPoint = layout.getCodeSection(0).getEntryPoint();
+
+    assertThat(instructions[0] & NOT_INSTRUCTION_START).isNotZero();
+    assertThat(instructions[entryPoint] & OPCODE_MASK).isEqualTo(0x60);
+    assertThat(decoded.getPushValue(getArgument(instructions[entryPoint])))
+        .isEqualTo(Bytes.fromHexString("0x01"));
+    assertThat(instructions[entryPoint + 2]).isZero();
+    assertThat(instructions[instructions.length - 1] & NOT_INSTRUCTION_START).isNotZero();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.frame;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.evm.internal.OperandStack;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class MemoryArenaTest {
+
+  private final MemoryArena arena = new MemoryArena(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+
+  @Test
+  void releasedInstancesAreReusedCleared() {
+    final Memory memory = arena.acquireMemory();
+    final OperandStack stack = arena.acquireStack();
+    memory.setWord(64, Bytes32.fromHexStringLenient("0x1234"));
+    stack.push(Bytes.of(1));
+    stack.push(Bytes.of(2));
+
+    arena.release(memory, stack);
+
+    final Memory reusedMemory = arena.acquireMemory();
+    final OperandStack reusedStack = arena.acquireStack();
+    assertThat(reusedMemory).isSameAs(memory);
+    assertThat(reusedStack).isSameAs(stack);
+    assertThat(reusedMemory.getActiveWords()).isZero();
+    assertThat(reusedMemory.getWord(64)).isEqualTo(Bytes32.ZERO);
+    assertThat(reusedStack.isEmpty()).isTrue();
+  }
+
+  @Test
+  void acquiresFreshInstancesWhenNoneAreFree() {
+    final Memory first = arena.acquireMemory();
+    final Memory second = arena.acquireMemory();
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(arena.acquireStack()).isNotSameAs(arena.acquireStack());
+  }
+
+  @Test
+  void memoryGrowsInPowerOfTwoChunks() {
+    final Memory memory = arena.acquireMemory();
+    memory.setBytes(100, 1, Bytes.of(1));
+    memory.setBytes(128, 1, Bytes.of(2));
+
+    assertThat(memory.getActiveWords()).isEqualTo(5);
+    // toString renders the whole backing array, 160 active bytes round up to 256
+    assertThat(Bytes.fromHexString(memory.toString()).size()).isEqualTo(256);
+    assertThat(memory.getBytes(100, 1)).isEqualTo(Bytes.of(1));
+    assertThat(memory.getBytes(128, 1)).isEqualTo(Bytes.of(2));
+  }
+}
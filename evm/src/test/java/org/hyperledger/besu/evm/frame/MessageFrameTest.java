@@ -61,6 +61,18 @@ class MessageFrameTest {
             .completer(messageFrame -> {});
   }
 
+  @Test
+  void readMemorySurvivesRecyclingOfTheFrameMemory() {
+    final MessageFrame messageFrame = messageFrameBuilder.build();
+    final Bytes value = Bytes.concatenate(WORD1, WORD2);
+    messageFrame.writeMemory(0, value.size(), value);
+
+    final Bytes read = messageFrame.readMemory(0, value.size());
+    messageFrame.releaseResources();
+
+    assertThat(read).isEqualTo(value);
+  }
+
   @Test
   void shouldNotExpandMemory() {
     final MessageFrame messageFrame = messageFrameBuilder.build();
@@ -37,6 +37,9 @@ class CodeCacheTest {
     final Code contractCode = evm.getCodeUncached(contractBytes);
     final int weight = scale.weigh(contractCode.getCodeHash(), contractCode);
     assertThat(weight)
-        .isEqualTo(contractCode.getCodeHash().size() + (contractBytes.size() * 9 + 7) / 8);
+        .isEqualTo(
+            contractCode.getCodeHash().size()
+                + contractBytes.size()
+                + contractCode.getDecodedCode().estimatedSize());
   }
 }
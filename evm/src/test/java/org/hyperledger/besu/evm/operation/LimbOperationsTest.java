@@ -0,0 +1,163 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.OperandStack;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Checks the limb based operations against a {@link BigInteger} reference implementation. */
+class LimbOperationsTest {
+
+  private static final BigInteger TWO_256 = BigInteger.ONE.shiftLeft(256);
+  private static final BigInteger MASK = TWO_256.subtract(BigInteger.ONE);
+
+  static List<Arguments> operands() {
+    final List<Bytes> values = new ArrayList<>();
+    values.add(Bytes.EMPTY);
+    values.add(Bytes.of(1));
+    values.add(Bytes.fromHexString("0xffffffffffffffff"));
+    values.add(Bytes.fromHexString("0x010000000000000000"));
+    values.add(Bytes32.rightPad(Bytes.of(0x80)));
+    values.add(Bytes32.ZERO.not());
+    final Random random = new Random(0xdecafbadL);
+    for (int i = 0; i < 8; i++) {
+      values.add(Bytes32.random(random));
+      values.add(Bytes.random(1 + random.nextInt(31), random));
+    }
+    final List<Arguments> result = new ArrayList<>();
+    for (final Bytes a : values) {
+      for (final Bytes b : values) {
+        result.add(Arguments.of(a, b));
+      }
+    }
+    return result;
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void arithmetic(final Bytes a, final Bytes b) {
+    assertBinary(AddOperation::staticOperation, a, b, BigInteger::add);
+    assertBinary(SubOperation::staticOperation, a, b, BigInteger::subtract);
+    assertBinary(MulOperation::staticOperation, a, b, BigInteger::multiply);
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void comparison(final Bytes a, final Bytes b) {
+    assertBinary(LtOperation::staticOperation, a, b, (x, y) -> bool(x.compareTo(y) < 0));
+    assertBinary(GtOperation::staticOperation, a, b, (x, y) -> bool(x.compareTo(y) > 0));
+    assertBinary(EqOperation::staticOperation, a, b, (x, y) -> bool(x.equals(y)));
+    assertBinary(
+        SLtOperation::staticOperation, a, b, (x, y) -> bool(signed(x).compareTo(signed(y)) < 0));
+    assertBinary(
+        SGtOperation::staticOperation, a, b, (x, y) -> bool(signed(x).compareTo(signed(y)) > 0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void bitwise(final Bytes a, final Bytes b) {
+    assertBinary(AndOperation::staticOperation, a, b, BigInteger::and);
+    assertBinary(OrOperation::staticOperation, a, b, BigInteger::or);
+    assertBinary(XorOperation::staticOperation, a, b, BigInteger::xor);
+    assertUnary(NotOperation::staticOperation, a, x -> x.xor(MASK));
+    assertUnary(IsZeroOperation::staticOperation, a, x -> bool(x.signum() == 0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operands")
+  void byteAndShifts(final Bytes a, final Bytes b) {
+    final Bytes small = Bytes.of(a.isEmpty() ? 0 : a.get(a.size() - 1) & 0xff);
+    final Bytes index = Bytes.of(small.get(0) & 0x3f);
+    assertBinary(
+        ByteOperation::staticOperation,
+        index,
+        b,
+        (x, y) -> x.intValue() < 32 ? y.shiftRight(8 * (31 - x.intValue())) : BigInteger.ZERO,
+        BigInteger.valueOf(0xff));
+    assertBinary(ShlOperation::staticOperation, small, b, (x, y) -> y.shiftLeft(x.intValue()));
+    assertBinary(ShrOperation::staticOperation, small, b, (x, y) -> y.shiftRight(x.intValue()));
+    assertBinary(
+        SarOperation::staticOperation, small, b, (x, y) -> signed(y).shiftRight(x.intValue()));
+  }
+
+  private static BigInteger bool(final boolean value) {
+    return value ? BigInteger.ONE : BigInteger.ZERO;
+  }
+
+  private static BigInteger signed(final BigInteger value) {
+    return value.testBit(255) ? value.subtract(TWO_256) : value;
+  }
+
+  private static void assertBinary(
+      final Function<MessageFrame, Operation.OperationResult> operation,
+      final Bytes top,
+      final Bytes second,
+      final BinaryOperator<BigInteger> reference) {
+    assertBinary(operation, top, second, reference, MASK);
+  }
+
+  private static void assertBinary(
+      final Function<MessageFrame, Operation.OperationResult> operation,
+      final Bytes top,
+      final Bytes second,
+      final BinaryOperator<BigInteger> reference,
+      final BigInteger resultMask) {
+    final OperandStack stack = new OperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+    stack.push(second);
+    stack.push(top);
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getOperandStack()).thenReturn(stack);
+
+    operation.apply(frame);
+
+    final BigInteger x = new BigInteger(1, top.toArrayUnsafe());
+    final BigInteger y = new BigInteger(1, second.toArrayUnsafe());
+    final BigInteger expected = reference.apply(x, y).and(resultMask);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(new BigInteger(1, stack.pop().toArrayUnsafe())).isEqualTo(expected);
+  }
+
+  private static void assertUnary(
+      final Function<MessageFrame, Operation.OperationResult> operation,
+      final Bytes top,
+      final Function<BigInteger, BigInteger> reference) {
+    final OperandStack stack = new OperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+    stack.push(top);
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getOperandStack()).thenReturn(stack);
+
+    operation.apply(frame);
+
+    final BigInteger expected = reference.apply(new BigInteger(1, top.toArrayUnsafe())).and(MASK);
+    assertThat(new BigInteger(1, stack.pop().toArrayUnsafe())).isEqualTo(expected);
+  }
+}
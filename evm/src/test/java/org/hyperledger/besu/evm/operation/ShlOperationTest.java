@@ -16,12 +16,12 @@ package org.hyperledger.besu.evm.operation;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 import org.hyperledger.besu.evm.gascalculator.SpuriousDragonGasCalculator;
+import org.hyperledger.besu.evm.internal.OperandStack;
 
 import java.util.Arrays;
 
@@ -108,11 +108,12 @@ class ShlOperationTest {
     final MessageFrame frame = mock(MessageFrame.class);
     when(frame.stackSize()).thenReturn(2);
     when(frame.getRemainingGas()).thenReturn(100L);
-    when(frame.popStackItem())
-        .thenReturn(UInt256.fromBytes(Bytes32.fromHexStringLenient(shift)))
-        .thenReturn(UInt256.fromHexString(number));
+    final OperandStack stack = new OperandStack(MessageFrame.DEFAULT_MAX_STACK_SIZE);
+    stack.push(UInt256.fromHexString(number));
+    stack.push(UInt256.fromBytes(Bytes32.fromHexStringLenient(shift)));
+    when(frame.getOperandStack()).thenReturn(stack);
     operation.execute(frame, null);
-    verify(frame).pushStackItem(Bytes.fromHexString(expectedResult));
+    assertThat(stack.pop()).isEqualTo(Bytes32.leftPad(Bytes.fromHexString(expectedResult)));
   }
 
   @Test
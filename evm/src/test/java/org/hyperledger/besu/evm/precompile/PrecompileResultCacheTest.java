@@ -0,0 +1,150 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.precompile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class PrecompileResultCacheTest {
+
+  private final MessageFrame messageFrame = mock(MessageFrame.class);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final PrecompileResultCache cache =
+      new PrecompileResultCache(16, hits::increment, misses::increment);
+
+  @Test
+  void cacheableResultsAreComputedOnce() {
+    final PrecompiledContract ecrec = precompile(Bytes.of(1));
+    final PrecompileContractRegistry registry = new PrecompileContractRegistry();
+    registry.put(Address.ECREC, ecrec);
+    registry.enableResultCaching(cache);
+
+    final PrecompiledContract cached = registry.get(Address.ECREC);
+    assertThat(cached.computePrecompile(Bytes.of(7), messageFrame).getOutput())
+        .isEqualTo(Bytes.of(1));
+    assertThat(cached.computePrecompile(Bytes.of(7), messageFrame).getOutput())
+        .isEqualTo(Bytes.of(1));
+    cached.computePrecompile(Bytes.of(8), messageFrame);
+
+    verify(ecrec, times(2)).computePrecompile(any(), any());
+    assertThat(hits.sum()).isEqualTo(1);
+    assertThat(misses.sum()).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void resultsAreSharedBetweenRegistriesUsingTheSamePrecompile() {
+    final PrecompiledContract modexp = precompile(Bytes.of(1));
+    final PrecompileContractRegistry firstRegistry = new PrecompileContractRegistry();
+    final PrecompileContractRegistry secondRegistry = new PrecompileContractRegistry();
+    firstRegistry.enableResultCaching(cache);
+    secondRegistry.enableResultCaching(cache);
+    firstRegistry.put(Address.MODEXP, modexp);
+    secondRegistry.put(Address.MODEXP, modexp);
+
+    firstRegistry.get(Address.MODEXP).computePrecompile(Bytes.of(7), messageFrame);
+    secondRegistry.get(Address.MODEXP).computePrecompile(Bytes.of(7), messageFrame);
+
+    verify(modexp, times(1)).computePrecompile(any(), any());
+  }
+
+  @Test
+  void resultsAreNotSharedBetweenForksWithDifferentPrecompiles() {
+    final PrecompiledContract cancunModexp = precompile(Bytes.of(1));
+    final PrecompiledContract osakaModexp = precompile(Bytes.of(2));
+    final PrecompileContractRegistry cancun = new PrecompileContractRegistry();
+    final PrecompileContractRegistry osaka = new PrecompileContractRegistry();
+    cancun.enableResultCaching(cache);
+    osaka.enableResultCaching(cache);
+    cancun.put(Address.MODEXP, cancunModexp);
+    osaka.put(Address.MODEXP, osakaModexp);
+
+    cancun.get(Address.MODEXP).computePrecompile(Bytes.of(7), messageFrame);
+
+    final PrecompiledContract cached = osaka.get(Address.MODEXP);
+    assertThat(cached.computePrecompile(Bytes.of(7), messageFrame).getOutput())
+        .isEqualTo(Bytes.of(2));
+    verify(osakaModexp, times(1)).computePrecompile(any(), any());
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void failedResultsAreNotCached() {
+    final PrecompiledContract pairing = mock(PrecompiledContract.class);
+    when(pairing.computePrecompile(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              invocation.<MessageFrame>getArgument(1).setRevertReason(Bytes.of(0xee));
+              return PrecompiledContract.PrecompileContractResult.halt(
+                  null, Optional.of(ExceptionalHaltReason.PRECOMPILE_ERROR));
+            });
+    final PrecompileContractRegistry registry = new PrecompileContractRegistry();
+    registry.put(Address.ALTBN128_PAIRING, pairing);
+    registry.enableResultCaching(cache);
+
+    final PrecompiledContract cached = registry.get(Address.ALTBN128_PAIRING);
+    cached.computePrecompile(Bytes.of(7), messageFrame);
+    cached.computePrecompile(Bytes.of(7), messageFrame);
+
+    verify(pairing, times(2)).computePrecompile(any(), any());
+    verify(messageFrame, times(2)).setRevertReason(Bytes.of(0xee));
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void cheapPrecompilesAreNotCached() {
+    final PrecompiledContract identity = precompile(Bytes.of(1));
+    final PrecompileContractRegistry registry = new PrecompileContractRegistry();
+    registry.put(Address.ID, identity);
+    registry.enableResultCaching(cache);
+
+    assertThat(registry.get(Address.ID)).isSameAs(identity);
+  }
+
+  @Test
+  void enablingTwiceDoesNotWrapTwice() {
+    final PrecompiledContract ecrec = precompile(Bytes.of(1));
+    final PrecompileContractRegistry registry = new PrecompileContractRegistry();
+    registry.put(Address.ECREC, ecrec);
+    registry.enableResultCaching(cache);
+    registry.enableResultCaching(cache);
+
+    final PrecompiledContract cached = registry.get(Address.ECREC);
+    assertThat(cached).isInstanceOf(CachingPrecompiledContract.class);
+    assertThat(((CachingPrecompiledContract) cached).getDelegate()).isSameAs(ecrec);
+  }
+
+  private static PrecompiledContract precompile(final Bytes output) {
+    final PrecompiledContract precompile = mock(PrecompiledContract.class);
+    when(precompile.computePrecompile(any(), any()))
+        .thenReturn(PrecompiledContract.PrecompileContractResult.success(output));
+    return precompile;
+  }
+}
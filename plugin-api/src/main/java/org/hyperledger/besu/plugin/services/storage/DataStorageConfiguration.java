@@ -36,4 +36,15 @@ public interface DataStorageConfiguration {
    */
   @Unstable
   boolean getReceiptCompactionEnabled();
+
+  /**
+   * Whether the blockchain data is stored with each kind of data in a dedicated segment, instead of
+   * all together in the blockchain segment.
+   *
+   * @return Whether the blockchain segments are enabled
+   */
+  @Unstable
+  default boolean getBlockchainSegmentsEnabled() {
+    return false;
+  }
 }
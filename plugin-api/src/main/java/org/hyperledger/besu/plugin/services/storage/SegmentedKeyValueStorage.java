@@ -17,8 +17,12 @@ package org.hyperledger.besu.plugin.services.storage;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -38,6 +42,38 @@ public interface SegmentedKeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(SegmentIdentifier segment, byte[] key) throws StorageException;
 
+  /**
+   * Get the values of several keys from the associated segment in one batch. Storage that can read
+   * several keys at once, such as RocksDB, does so in a single call instead of one call per key.
+   *
+   * @param segment the segment
+   * @param keys the keys to read
+   * @return the values persisted at the keys, in the order of the keys
+   * @throws StorageException the storage exception
+   */
+  default List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(segment, key));
+    }
+    return values;
+  }
+
+  /**
+   * Get the values of several keys from the associated segment in one batch, read on the given
+   * executor.
+   *
+   * @param segment the segment
+   * @param keys the keys to read
+   * @param executor the executor to read on
+   * @return a future of the values persisted at the keys, in the order of the keys
+   */
+  default CompletableFuture<List<Optional<byte[]>>> multiGetAsync(
+      final SegmentIdentifier segment, final List<byte[]> keys, final Executor executor) {
+    return CompletableFuture.supplyAsync(() -> multiGet(segment, keys), executor);
+  }
+
   /**
    * Find the key and corresponding value "nearest to" the specified key. Nearest is defined as
    * either matching the supplied key or the key lexicographically prior to it.
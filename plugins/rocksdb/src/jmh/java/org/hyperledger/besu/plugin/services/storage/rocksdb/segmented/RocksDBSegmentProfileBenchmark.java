@@ -0,0 +1,137 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.DEFAULT;
+
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the column family profiles on the reads and writes of the flat account state: point
+ * lookups and misses as done when serving RPC and executing blocks, range scans as done by snap
+ * sync, and the batch writes of a block import.
+ */
+@State(Scope.Thread)
+public class RocksDBSegmentProfileBenchmark {
+
+  private static final int KEY_SIZE = 32;
+  private static final int VALUE_SIZE = 110;
+  private static final int BATCH_SIZE = 1_000;
+  private static final int RANGE_SIZE = 100;
+
+  @Param({"DEFAULT", "POINT_LOOKUP", "APPEND_ONLY", "SEQUENTIAL"})
+  public RocksDBSegmentProfile profile;
+
+  /** Number of accounts loaded before measuring, enough to spill out of the memtables. */
+  @Param({"500000"})
+  public int accounts;
+
+  private final Random random = new Random(42);
+  private Path databaseDir;
+  private SegmentedKeyValueStorage storage;
+  private byte[][] keys;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void prepare() throws IOException {
+    databaseDir = Files.createTempDirectory("segment-profile");
+    storage =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder()
+                .databaseDir(databaseDir)
+                .isSegmentProfilesEnabled(true)
+                .segmentProfileOverrides(Map.of(ACCOUNT_INFO_STATE.getName(), profile))
+                .build(),
+            List.of(DEFAULT, ACCOUNT_INFO_STATE),
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    keys = new byte[accounts][];
+    for (int i = 0; i < accounts; i += BATCH_SIZE) {
+      final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+      for (int j = i; j < Math.min(i + BATCH_SIZE, accounts); j++) {
+        keys[j] = randomBytes(KEY_SIZE);
+        tx.put(ACCOUNT_INFO_STATE, keys[j], randomBytes(VALUE_SIZE));
+      }
+      tx.commit();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    storage.close();
+    MoreFiles.deleteRecursively(databaseDir, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public Optional<byte[]> pointLookup() {
+    return storage.get(ACCOUNT_INFO_STATE, nextKey());
+  }
+
+  @Benchmark
+  public Optional<byte[]> missingLookup() {
+    return storage.get(ACCOUNT_INFO_STATE, randomBytes(KEY_SIZE));
+  }
+
+  @Benchmark
+  public long rangeScan() {
+    return storage.streamFromKey(ACCOUNT_INFO_STATE, nextKey()).limit(RANGE_SIZE).count();
+  }
+
+  @Benchmark
+  public void batchWrite() {
+    final SegmentedKeyValueStorageTransaction tx = storage.startTransaction();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      tx.put(ACCOUNT_INFO_STATE, nextKey(), randomBytes(VALUE_SIZE));
+    }
+    tx.commit();
+  }
+
+  private byte[] nextKey() {
+    next = (next + 1) % keys.length;
+    return keys[next];
+  }
+
+  private byte[] randomBytes(final int size) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
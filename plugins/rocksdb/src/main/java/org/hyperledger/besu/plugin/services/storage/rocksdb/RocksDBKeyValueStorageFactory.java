@@ -14,8 +14,10 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb;
 
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat.BONSAI_WITH_BLOCKCHAIN_SEGMENTS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat.BONSAI_WITH_RECEIPT_COMPACTION;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat.BONSAI_WITH_VARIABLES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat.FOREST_WITH_BLOCKCHAIN_SEGMENTS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat.FOREST_WITH_RECEIPT_COMPACTION;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat.FOREST_WITH_VARIABLES;
 
@@ -28,6 +30,7 @@ import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.DatabaseMetadata;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
@@ -43,6 +46,7 @@ import java.nio.file.Path;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -60,8 +64,10 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
       EnumSet.of(
           FOREST_WITH_VARIABLES,
           FOREST_WITH_RECEIPT_COMPACTION,
+          FOREST_WITH_BLOCKCHAIN_SEGMENTS,
           BONSAI_WITH_VARIABLES,
-          BONSAI_WITH_RECEIPT_COMPACTION);
+          BONSAI_WITH_RECEIPT_COMPACTION,
+          BONSAI_WITH_BLOCKCHAIN_SEGMENTS);
   private static final String NAME = "rocksdb";
   private final RocksDBMetricsFactory rocksDBMetricsFactory;
   private DatabaseMetadata databaseMetadata;
@@ -141,6 +147,7 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     }
 
     if (segmentedStorage == null) {
+      checkSegmentProfileOverrides();
       final List<SegmentIdentifier> segmentsForFormat =
           configuredSegments.stream()
               .filter(
@@ -179,6 +186,25 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     return segmentedStorage;
   }
 
+  private void checkSegmentProfileOverrides() {
+    final Set<String> segmentNames =
+        configuredSegments.stream().map(SegmentIdentifier::getName).collect(Collectors.toSet());
+    final List<String> unknownSegments =
+        rocksDBConfiguration.getSegmentProfileOverrides().keySet().stream()
+            .filter(segmentName -> !segmentNames.contains(segmentName))
+            .sorted()
+            .toList();
+    if (!unknownSegments.isEmpty()) {
+      throw new StorageException(
+          "Unknown segments in "
+              + RocksDBCLIOptions.SEGMENT_PROFILE_FLAG
+              + ": "
+              + String.join(", ", unknownSegments)
+              + ". Valid segments are: "
+              + segmentNames.stream().sorted().collect(Collectors.joining(", ")));
+    }
+  }
+
   /**
    * Storage path.
    *
@@ -297,6 +323,15 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     // In case we do an automated downgrade, then we also need to update the metadata on disk to
     // reflect the change to the runtime version, and return it.
 
+    // the blockchain data is only in the dedicated column families
+    if (isWithBlockchainSegments(existingMetadata.getVersionedStorageFormat())) {
+      throw new StorageException(
+          String.format(
+              "Database at %s stores the blockchain data in dedicated column families, "
+                  + "it can only be opened with --Xblockchain-segments-enabled=true.",
+              dataDir));
+    }
+
     // Besu supports both formats of receipts so no downgrade is needed
     if (runtimeVersion == BONSAI_WITH_VARIABLES || runtimeVersion == FOREST_WITH_VARIABLES) {
       LOG.warn(
@@ -340,6 +375,16 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
       }
     }
 
+    // the blockchain data has to be copied to the dedicated column families offline
+    if (isWithBlockchainSegments(runtimeVersion)) {
+      throw new StorageException(
+          String.format(
+              "Database at %s stores the blockchain data in a single column family, "
+                  + "run `besu storage migrate-blockchain-segments` without "
+                  + "--Xblockchain-segments-enabled before enabling it.",
+              dataDir));
+    }
+
     // for the moment there are no planned automated upgrades, so we just fail.
     String error =
         String.format(
@@ -353,6 +398,11 @@ public class RocksDBKeyValueStorageFactory implements KeyValueStorageFactory {
     throw new StorageException(error);
   }
 
+  private static boolean isWithBlockchainSegments(
+      final VersionedStorageFormat versionedStorageFormat) {
+    return versionedStorageFormat.getVersion() == BONSAI_WITH_BLOCKCHAIN_SEGMENTS.getVersion();
+  }
+
   private boolean isSupportedVersionedFormat(final VersionedStorageFormat versionedStorageFormat) {
     return SUPPORTED_VERSIONED_FORMATS.stream()
         .anyMatch(
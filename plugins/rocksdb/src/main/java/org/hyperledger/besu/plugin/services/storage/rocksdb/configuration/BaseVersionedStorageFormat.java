@@ -33,6 +33,11 @@ public enum BaseVersionedStorageFormat implements VersionedStorageFormat {
    * space
    */
   FOREST_WITH_RECEIPT_COMPACTION(DataStorageFormat.FOREST, 3),
+  /**
+   * Forest version with each kind of blockchain data in a dedicated column family, in order to
+   * compact and tune them separately
+   */
+  FOREST_WITH_BLOCKCHAIN_SEGMENTS(DataStorageFormat.FOREST, 4),
   /** Original Bonsai version, not used since replace by BONSAI_WITH_VARIABLES */
   BONSAI_ORIGINAL(DataStorageFormat.BONSAI, 1),
   /**
@@ -44,7 +49,12 @@ public enum BaseVersionedStorageFormat implements VersionedStorageFormat {
    * Current Bonsai version, with receipts using compaction, in order to make Receipts use less disk
    * space
    */
-  BONSAI_WITH_RECEIPT_COMPACTION(DataStorageFormat.BONSAI, 3);
+  BONSAI_WITH_RECEIPT_COMPACTION(DataStorageFormat.BONSAI, 3),
+  /**
+   * Bonsai version with each kind of blockchain data in a dedicated column family, in order to
+   * compact and tune them separately
+   */
+  BONSAI_WITH_BLOCKCHAIN_SEGMENTS(DataStorageFormat.BONSAI, 4);
 
   private final DataStorageFormat format;
   private final int version;
@@ -62,6 +72,9 @@ public enum BaseVersionedStorageFormat implements VersionedStorageFormat {
    */
   public static BaseVersionedStorageFormat defaultForNewDB(
       final DataStorageConfiguration configuration) {
+    if (configuration.getBlockchainSegmentsEnabled()) {
+      return withBlockchainSegments(configuration.getDatabaseFormat());
+    }
     return switch (configuration.getDatabaseFormat()) {
       case FOREST ->
           configuration.getReceiptCompactionEnabled()
@@ -74,6 +87,19 @@ public enum BaseVersionedStorageFormat implements VersionedStorageFormat {
     };
   }
 
+  /**
+   * Return the version with the blockchain data in dedicated column families for a specific format
+   *
+   * @param format data storage format
+   * @return the version with blockchain segments
+   */
+  public static BaseVersionedStorageFormat withBlockchainSegments(final DataStorageFormat format) {
+    return switch (format) {
+      case FOREST -> FOREST_WITH_BLOCKCHAIN_SEGMENTS;
+      case BONSAI -> BONSAI_WITH_BLOCKCHAIN_SEGMENTS;
+    };
+  }
+
   @Override
   public DataStorageFormat getFormat() {
     return format;
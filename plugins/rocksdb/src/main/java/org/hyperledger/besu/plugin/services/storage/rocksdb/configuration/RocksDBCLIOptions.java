@@ -14,6 +14,9 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.google.common.base.MoreObjects;
 import picocli.CommandLine;
 
@@ -32,6 +35,9 @@ public class RocksDBCLIOptions {
   /** The constant DEFAULT_IS_HIGH_SPEC. */
   public static final boolean DEFAULT_IS_HIGH_SPEC = false;
 
+  /** The constant DEFAULT_IS_SEGMENT_PROFILES_ENABLED. */
+  public static final boolean DEFAULT_IS_SEGMENT_PROFILES_ENABLED = false;
+
   /** The constant MAX_OPEN_FILES_FLAG. */
   public static final String MAX_OPEN_FILES_FLAG = "--Xplugin-rocksdb-max-open-files";
 
@@ -45,6 +51,13 @@ public class RocksDBCLIOptions {
   /** The constant IS_HIGH_SPEC. */
   public static final String IS_HIGH_SPEC = "--Xplugin-rocksdb-high-spec-enabled";
 
+  /** The constant SEGMENT_PROFILES_ENABLED_FLAG. */
+  public static final String SEGMENT_PROFILES_ENABLED_FLAG =
+      "--Xplugin-rocksdb-segment-profiles-enabled";
+
+  /** The constant SEGMENT_PROFILE_FLAG. */
+  public static final String SEGMENT_PROFILE_FLAG = "--Xplugin-rocksdb-segment-profile";
+
   /** The Max open files. */
   @CommandLine.Option(
       names = {MAX_OPEN_FILES_FLAG},
@@ -81,6 +94,25 @@ public class RocksDBCLIOptions {
           "Use this flag to boost Besu performance if you have a 16 GiB RAM hardware or more (default: ${DEFAULT-VALUE})")
   boolean isHighSpec;
 
+  /** The Is segment profiles enabled. */
+  @CommandLine.Option(
+      names = {SEGMENT_PROFILES_ENABLED_FLAG},
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Tune the RocksDB column family of each segment for the way it is accessed (default: ${DEFAULT-VALUE})")
+  boolean isSegmentProfilesEnabled = DEFAULT_IS_SEGMENT_PROFILES_ENABLED;
+
+  /** The Segment profile overrides. */
+  @CommandLine.Option(
+      names = {SEGMENT_PROFILE_FLAG},
+      hidden = true,
+      split = ",",
+      paramLabel = "<SEGMENT=PROFILE>",
+      description =
+          "Profile to use for a segment instead of its default one when segment profiles are enabled, one of ${COMPLETION-CANDIDATES}")
+  Map<String, RocksDBSegmentProfile> segmentProfileOverrides = new HashMap<>();
+
   private RocksDBCLIOptions() {}
 
   /**
@@ -104,6 +136,8 @@ public class RocksDBCLIOptions {
     options.cacheCapacity = config.getCacheCapacity();
     options.backgroundThreadCount = config.getBackgroundThreadCount();
     options.isHighSpec = config.isHighSpec();
+    options.isSegmentProfilesEnabled = config.isSegmentProfilesEnabled();
+    options.segmentProfileOverrides = new HashMap<>(config.getSegmentProfileOverrides());
     return options;
   }
 
@@ -114,7 +148,12 @@ public class RocksDBCLIOptions {
    */
   public RocksDBFactoryConfiguration toDomainObject() {
     return new RocksDBFactoryConfiguration(
-        maxOpenFiles, backgroundThreadCount, cacheCapacity, isHighSpec);
+        maxOpenFiles,
+        backgroundThreadCount,
+        cacheCapacity,
+        isHighSpec,
+        isSegmentProfilesEnabled,
+        segmentProfileOverrides);
   }
 
   /**
@@ -133,6 +172,8 @@ public class RocksDBCLIOptions {
         .add("cacheCapacity", cacheCapacity)
         .add("backgroundThreadCount", backgroundThreadCount)
         .add("isHighSpec", isHighSpec)
+        .add("isSegmentProfilesEnabled", isSegmentProfilesEnabled)
+        .add("segmentProfileOverrides", segmentProfileOverrides)
         .toString();
   }
 }
@@ -14,7 +14,10 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
 import java.nio.file.Path;
+import java.util.Map;
 
 /** The Rocks db configuration. */
 public class RocksDBConfiguration {
@@ -25,6 +28,8 @@ public class RocksDBConfiguration {
   private final int backgroundThreadCount;
   private final long cacheCapacity;
   private final boolean isHighSpec;
+  private final boolean isSegmentProfilesEnabled;
+  private final Map<String, RocksDBSegmentProfile> segmentProfileOverrides;
 
   /**
    * Instantiates a new RocksDb configuration.
@@ -43,12 +48,46 @@ public class RocksDBConfiguration {
       final long cacheCapacity,
       final String label,
       final boolean isHighSpec) {
+    this(
+        databaseDir,
+        maxOpenFiles,
+        backgroundThreadCount,
+        cacheCapacity,
+        label,
+        isHighSpec,
+        false,
+        Map.of());
+  }
+
+  /**
+   * Instantiates a new RocksDb configuration.
+   *
+   * @param databaseDir the database dir
+   * @param maxOpenFiles the max open files
+   * @param backgroundThreadCount the background thread count
+   * @param cacheCapacity the cache capacity
+   * @param label the label
+   * @param isHighSpec the is high spec
+   * @param isSegmentProfilesEnabled whether each segment is tuned with its own profile
+   * @param segmentProfileOverrides the profiles to use instead of the default ones, by segment name
+   */
+  public RocksDBConfiguration(
+      final Path databaseDir,
+      final int maxOpenFiles,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final String label,
+      final boolean isHighSpec,
+      final boolean isSegmentProfilesEnabled,
+      final Map<String, RocksDBSegmentProfile> segmentProfileOverrides) {
     this.backgroundThreadCount = backgroundThreadCount;
     this.databaseDir = databaseDir;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
     this.label = label;
     this.isHighSpec = isHighSpec;
+    this.isSegmentProfilesEnabled = isSegmentProfilesEnabled;
+    this.segmentProfileOverrides = Map.copyOf(segmentProfileOverrides);
   }
 
   /**
@@ -104,4 +143,37 @@ public class RocksDBConfiguration {
   public boolean isHighSpec() {
     return isHighSpec;
   }
+
+  /**
+   * Is segment profiles enabled.
+   *
+   * @return true if each segment is tuned with its own profile
+   */
+  public boolean isSegmentProfilesEnabled() {
+    return isSegmentProfilesEnabled;
+  }
+
+  /**
+   * Gets segment profile overrides.
+   *
+   * @return the profiles to use instead of the default ones, by segment name
+   */
+  public Map<String, RocksDBSegmentProfile> getSegmentProfileOverrides() {
+    return segmentProfileOverrides;
+  }
+
+  /**
+   * Gets the profile of the column family of a segment, which is {@link
+   * RocksDBSegmentProfile#DEFAULT} unless segment profiles are enabled.
+   *
+   * @param segment the segment
+   * @return the segment profile
+   */
+  public RocksDBSegmentProfile getSegmentProfile(final SegmentIdentifier segment) {
+    if (!isSegmentProfilesEnabled) {
+      return RocksDBSegmentProfile.DEFAULT;
+    }
+    return segmentProfileOverrides.getOrDefault(
+        segment.getName(), RocksDBSegmentProfile.forSegment(segment));
+  }
 }
@@ -17,9 +17,11 @@ package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_HIGH_SPEC;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_SEGMENT_PROFILES_ENABLED;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
 
 import java.nio.file.Path;
+import java.util.Map;
 
 /** The RocksDb configuration builder. */
 public class RocksDBConfigurationBuilder {
@@ -30,6 +32,8 @@ public class RocksDBConfigurationBuilder {
   private long cacheCapacity = DEFAULT_CACHE_CAPACITY;
   private int backgroundThreadCount = DEFAULT_BACKGROUND_THREAD_COUNT;
   private boolean isHighSpec = DEFAULT_IS_HIGH_SPEC;
+  private boolean isSegmentProfilesEnabled = DEFAULT_IS_SEGMENT_PROFILES_ENABLED;
+  private Map<String, RocksDBSegmentProfile> segmentProfileOverrides = Map.of();
 
   /** Instantiates a new Rocks db configuration builder. */
   public RocksDBConfigurationBuilder() {}
@@ -100,6 +104,30 @@ public class RocksDBConfigurationBuilder {
     return this;
   }
 
+  /**
+   * Is segment profiles enabled.
+   *
+   * @param isSegmentProfilesEnabled whether each segment is tuned with its own profile
+   * @return the rocks db configuration builder
+   */
+  public RocksDBConfigurationBuilder isSegmentProfilesEnabled(
+      final boolean isSegmentProfilesEnabled) {
+    this.isSegmentProfilesEnabled = isSegmentProfilesEnabled;
+    return this;
+  }
+
+  /**
+   * Segment profile overrides.
+   *
+   * @param segmentProfileOverrides the profiles to use instead of the default ones, by segment name
+   * @return the rocks db configuration builder
+   */
+  public RocksDBConfigurationBuilder segmentProfileOverrides(
+      final Map<String, RocksDBSegmentProfile> segmentProfileOverrides) {
+    this.segmentProfileOverrides = segmentProfileOverrides;
+    return this;
+  }
+
   /**
    * From.
    *
@@ -111,7 +139,9 @@ public class RocksDBConfigurationBuilder {
         .backgroundThreadCount(configuration.getBackgroundThreadCount())
         .cacheCapacity(configuration.getCacheCapacity())
         .maxOpenFiles(configuration.getMaxOpenFiles())
-        .isHighSpec(configuration.isHighSpec());
+        .isHighSpec(configuration.isHighSpec())
+        .isSegmentProfilesEnabled(configuration.isSegmentProfilesEnabled())
+        .segmentProfileOverrides(configuration.getSegmentProfileOverrides());
   }
 
   /**
@@ -121,6 +151,13 @@ public class RocksDBConfigurationBuilder {
    */
   public RocksDBConfiguration build() {
     return new RocksDBConfiguration(
-        databaseDir, maxOpenFiles, backgroundThreadCount, cacheCapacity, label, isHighSpec);
+        databaseDir,
+        maxOpenFiles,
+        backgroundThreadCount,
+        cacheCapacity,
+        label,
+        isHighSpec,
+        isSegmentProfilesEnabled,
+        segmentProfileOverrides);
   }
 }
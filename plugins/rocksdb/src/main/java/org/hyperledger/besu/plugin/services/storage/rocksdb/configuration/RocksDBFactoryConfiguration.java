@@ -14,6 +14,8 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import java.util.Map;
+
 /** The RocksDb factory configuration. */
 public class RocksDBFactoryConfiguration {
 
@@ -21,6 +23,8 @@ public class RocksDBFactoryConfiguration {
   private final int backgroundThreadCount;
   private final long cacheCapacity;
   private final boolean isHighSpec;
+  private final boolean isSegmentProfilesEnabled;
+  private final Map<String, RocksDBSegmentProfile> segmentProfileOverrides;
 
   /**
    * Instantiates a new RocksDb factory configuration.
@@ -35,10 +39,32 @@ public class RocksDBFactoryConfiguration {
       final int backgroundThreadCount,
       final long cacheCapacity,
       final boolean isHighSpec) {
+    this(maxOpenFiles, backgroundThreadCount, cacheCapacity, isHighSpec, false, Map.of());
+  }
+
+  /**
+   * Instantiates a new RocksDb factory configuration.
+   *
+   * @param maxOpenFiles the max open files
+   * @param backgroundThreadCount the background thread count
+   * @param cacheCapacity the cache capacity
+   * @param isHighSpec the is high spec
+   * @param isSegmentProfilesEnabled whether each segment is tuned with its own profile
+   * @param segmentProfileOverrides the profiles to use instead of the default ones, by segment name
+   */
+  public RocksDBFactoryConfiguration(
+      final int maxOpenFiles,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final boolean isHighSpec,
+      final boolean isSegmentProfilesEnabled,
+      final Map<String, RocksDBSegmentProfile> segmentProfileOverrides) {
     this.backgroundThreadCount = backgroundThreadCount;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
     this.isHighSpec = isHighSpec;
+    this.isSegmentProfilesEnabled = isSegmentProfilesEnabled;
+    this.segmentProfileOverrides = Map.copyOf(segmentProfileOverrides);
   }
 
   /**
@@ -76,4 +102,22 @@ public class RocksDBFactoryConfiguration {
   public boolean isHighSpec() {
     return isHighSpec;
   }
+
+  /**
+   * Is segment profiles enabled.
+   *
+   * @return true if each segment is tuned with its own profile
+   */
+  public boolean isSegmentProfilesEnabled() {
+    return isSegmentProfilesEnabled;
+  }
+
+  /**
+   * Gets segment profile overrides.
+   *
+   * @return the profiles to use instead of the default ones, by segment name
+   */
+  public Map<String, RocksDBSegmentProfile> getSegmentProfileOverrides() {
+    return segmentProfileOverrides;
+  }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import static org.rocksdb.CompressionType.LZ4_COMPRESSION;
+import static org.rocksdb.CompressionType.NO_COMPRESSION;
+import static org.rocksdb.CompressionType.ZSTD_COMPRESSION;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.rocksdb.CompressionType;
+
+/**
+ * The RocksDB column family settings tuned for the way a segment is accessed.
+ *
+ * <p>Every profile uses leveled compaction, as switching the compaction style of an existing
+ * column family requires rewriting all of it first.
+ */
+public enum RocksDBSegmentProfile {
+  /** The settings used for every segment when profiles are not enabled. */
+  DEFAULT(32_768, false, LZ4_COMPRESSION, LZ4_COMPRESSION, LZ4_COMPRESSION, -1, false),
+
+  /**
+   * Random reads of single keys, many of them missing, such as the flat state and the trie nodes.
+   * Small blocks and partitioned index and filters keep each read to a few cached blocks.
+   */
+  POINT_LOOKUP(16_384, true, NO_COMPRESSION, LZ4_COMPRESSION, LZ4_COMPRESSION, -1, false),
+
+  /**
+   * Data that is only appended and read back by keys that exist, such as the trie logs. The bottom
+   * level, holding the oldest and coldest data, is compressed harder.
+   */
+  APPEND_ONLY(65_536, true, LZ4_COMPRESSION, LZ4_COMPRESSION, ZSTD_COMPRESSION, -1, true),
+
+  /** Large values such as contract code, kept in blob files out of the LSM tree. */
+  BLOB(32_768, false, LZ4_COMPRESSION, LZ4_COMPRESSION, LZ4_COMPRESSION, 1_024, false),
+
+  /** Data mostly read in ranges of neighbouring keys, such as the blocks and their receipts. */
+  SEQUENTIAL(65_536, false, LZ4_COMPRESSION, LZ4_COMPRESSION, ZSTD_COMPRESSION, -1, false);
+
+  /** Number of levels of a column family, the RocksDB default. */
+  private static final int LEVELS = 7;
+
+  /** Number of upper levels, which hold the most recently written data. */
+  private static final int UPPER_LEVELS = 2;
+
+  private final long blockSize;
+  private final boolean partitionedIndexAndFilters;
+  private final CompressionType upperLevelsCompression;
+  private final CompressionType compression;
+  private final CompressionType bottommostCompression;
+  private final long minBlobSize;
+  private final boolean optimizeFiltersForHits;
+
+  RocksDBSegmentProfile(
+      final long blockSize,
+      final boolean partitionedIndexAndFilters,
+      final CompressionType upperLevelsCompression,
+      final CompressionType compression,
+      final CompressionType bottommostCompression,
+      final long minBlobSize,
+      final boolean optimizeFiltersForHits) {
+    this.blockSize = blockSize;
+    this.partitionedIndexAndFilters = partitionedIndexAndFilters;
+    this.upperLevelsCompression = upperLevelsCompression;
+    this.compression = compression;
+    this.bottommostCompression = bottommostCompression;
+    this.minBlobSize = minBlobSize;
+    this.optimizeFiltersForHits = optimizeFiltersForHits;
+  }
+
+  /**
+   * Gets the profile suited to a segment, based on the name Besu gives it.
+   *
+   * @param segment the segment
+   * @return the profile of the segment
+   */
+  public static RocksDBSegmentProfile forSegment(final SegmentIdentifier segment) {
+    return switch (segment.getName()) {
+      case "ACCOUNT_INFO_STATE",
+          "ACCOUNT_STORAGE_STORAGE",
+          "TRIE_BRANCH_STORAGE",
+          "WORLD_STATE",
+          "BLOCKCHAIN_CANONICAL_HASHES",
+          "BLOCKCHAIN_TOTAL_DIFFICULTY",
+          "BLOCKCHAIN_TRANSACTION_LOCATIONS" ->
+          POINT_LOOKUP;
+      case "TRIE_LOG_STORAGE", "BLOCKCHAIN_HEADERS", "BLOCKCHAIN_BODIES", "BLOCKCHAIN_RECEIPTS" ->
+          APPEND_ONLY;
+      case "CODE_STORAGE" -> BLOB;
+      case "BLOCKCHAIN" -> SEQUENTIAL;
+      default -> DEFAULT;
+    };
+  }
+
+  /**
+   * Gets the size of the data blocks.
+   *
+   * @return the block size in bytes
+   */
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Whether the index and the filters are partitioned, so only the top level index stays in memory
+   * and their partitions are cached like data blocks.
+   *
+   * @return true if the index and filters are partitioned
+   */
+  public boolean isPartitionedIndexAndFilters() {
+    return partitionedIndexAndFilters;
+  }
+
+  /**
+   * Gets the compression of the data below the upper levels.
+   *
+   * @return the compression type
+   */
+  public CompressionType getCompression() {
+    return compression;
+  }
+
+  /**
+   * Gets the compression of each level, empty when every level uses the same compression.
+   *
+   * @return the compression type by level
+   */
+  public List<CompressionType> getCompressionPerLevel() {
+    if (upperLevelsCompression == compression) {
+      return List.of();
+    }
+    final List<CompressionType> compressionPerLevel = new ArrayList<>(LEVELS);
+    compressionPerLevel.addAll(Collections.nCopies(UPPER_LEVELS, upperLevelsCompression));
+    compressionPerLevel.addAll(Collections.nCopies(LEVELS - UPPER_LEVELS, compression));
+    return compressionPerLevel;
+  }
+
+  /**
+   * Gets the compression of the bottommost level.
+   *
+   * @return the compression type
+   */
+  public CompressionType getBottommostCompression() {
+    return bottommostCompression;
+  }
+
+  /**
+   * Gets the size from which values are written to blob files, negative when only segments of
+   * static data use blob files.
+   *
+   * @return the minimum blob size in bytes
+   */
+  public long getMinBlobSize() {
+    return minBlobSize;
+  }
+
+  /**
+   * Whether the filters of the bottommost level are skipped, for data whose reads almost always
+   * find the key.
+   *
+   * @return true if the filters are only built for hits
+   */
+  public boolean isOptimizeFiltersForHits() {
+    return optimizeFiltersForHits;
+  }
+}
@@ -27,10 +27,12 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbIterator;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbSegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -53,6 +55,7 @@ import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.CompressionType;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Env;
+import org.rocksdb.IndexType;
 import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
@@ -71,7 +74,6 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
 
   private static final Logger LOG = LoggerFactory.getLogger(RocksDBColumnarKeyValueStorage.class);
   private static final int ROCKSDB_FORMAT_VERSION = 5;
-  private static final long ROCKSDB_BLOCK_SIZE = 32768;
 
   /** RocksDb blockcache size when using the high spec option */
   protected static final long ROCKSDB_BLOCKCACHE_SIZE_HIGH_SPEC = 1_073_741_824L;
@@ -187,15 +189,34 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   private ColumnFamilyDescriptor createColumnDescriptor(
       final SegmentIdentifier segment, final RocksDBConfiguration configuration) {
 
-    BlockBasedTableConfig basedTableConfig = createBlockBasedTableConfig(segment, configuration);
+    final RocksDBSegmentProfile profile = configuration.getSegmentProfile(segment);
+    BlockBasedTableConfig basedTableConfig =
+        createBlockBasedTableConfig(segment, configuration, profile);
 
     final var options =
         new ColumnFamilyOptions()
             .setTtl(0)
-            .setCompressionType(CompressionType.LZ4_COMPRESSION)
+            .setCompressionType(profile.getCompression())
+            .setOptimizeFiltersForHits(profile.isOptimizeFiltersForHits())
             .setTableFormatConfig(basedTableConfig);
 
-    if (segment.containsStaticData()) {
+    final List<CompressionType> compressionPerLevel = profile.getCompressionPerLevel();
+    if (!compressionPerLevel.isEmpty()) {
+      options.setCompressionPerLevel(compressionPerLevel);
+    }
+    if (profile.getBottommostCompression() != profile.getCompression()) {
+      options.setBottommostCompressionType(profile.getBottommostCompression());
+    }
+
+    if (profile.getMinBlobSize() >= 0) {
+      // overwritten values leave garbage in the blob files, static data only when it is pruned
+      options
+          .setEnableBlobFiles(true)
+          .setEnableBlobGarbageCollection(
+              !segment.containsStaticData() || segment.isStaticDataGarbageCollectionEnabled())
+          .setMinBlobSize(profile.getMinBlobSize())
+          .setBlobCompressionType(CompressionType.LZ4_COMPRESSION);
+    } else if (segment.containsStaticData()) {
       options
           .setEnableBlobFiles(true)
           .setEnableBlobGarbageCollection(segment.isStaticDataGarbageCollectionEnabled())
@@ -212,22 +233,35 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
    *
    * @param segment The segment related to the column family
    * @param config RocksDB configuration
+   * @param profile The profile of the column family
    * @return Block Base Table configuration
    */
   private BlockBasedTableConfig createBlockBasedTableConfig(
-      final SegmentIdentifier segment, final RocksDBConfiguration config) {
+      final SegmentIdentifier segment,
+      final RocksDBConfiguration config,
+      final RocksDBSegmentProfile profile) {
     final LRUCache cache =
         new LRUCache(
             config.isHighSpec() && segment.isEligibleToHighSpecFlag()
                 ? ROCKSDB_BLOCKCACHE_SIZE_HIGH_SPEC
                 : config.getCacheCapacity());
-    return new BlockBasedTableConfig()
-        .setFormatVersion(ROCKSDB_FORMAT_VERSION)
-        .setBlockCache(cache)
-        .setFilterPolicy(new BloomFilter(10, false))
-        .setPartitionFilters(true)
-        .setCacheIndexAndFilterBlocks(false)
-        .setBlockSize(ROCKSDB_BLOCK_SIZE);
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig()
+            .setFormatVersion(ROCKSDB_FORMAT_VERSION)
+            .setBlockCache(cache)
+            .setFilterPolicy(new BloomFilter(10, false))
+            .setPartitionFilters(true)
+            .setCacheIndexAndFilterBlocks(false)
+            .setBlockSize(profile.getBlockSize());
+    if (profile.isPartitionedIndexAndFilters()) {
+      // only the top level index stays pinned, the partitions compete with data in the cache
+      tableConfig
+          .setIndexType(IndexType.kTwoLevelIndexSearch)
+          .setCacheIndexAndFilterBlocks(true)
+          .setCacheIndexAndFilterBlocksWithHighPriority(true)
+          .setPinTopLevelIndexAndFilter(true);
+    }
+    return tableConfig;
   }
 
   /***
@@ -353,6 +387,29 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final List<byte[]> values =
+          getDB()
+              .multiGetAsList(
+                  readOptions, Collections.nCopies(keys.size(), safeColumnHandle(segment)), keys);
+      final List<Optional<byte[]>> result = new ArrayList<>(values.size());
+      for (final byte[] value : values) {
+        result.add(Optional.ofNullable(value));
+      }
+      return result;
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestTo(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
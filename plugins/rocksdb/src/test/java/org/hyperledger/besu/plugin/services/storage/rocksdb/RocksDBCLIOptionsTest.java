@@ -19,12 +19,18 @@ import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_HIGH_SPEC;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_IS_SEGMENT_PROFILES_ENABLED;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.IS_HIGH_SPEC;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.MAX_OPEN_FILES_FLAG;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.SEGMENT_PROFILES_ENABLED_FLAG;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.SEGMENT_PROFILE_FLAG;
 
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
+
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
@@ -43,6 +49,9 @@ public class RocksDBCLIOptionsTest {
     assertThat(configuration.getCacheCapacity()).isEqualTo(DEFAULT_CACHE_CAPACITY);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(DEFAULT_MAX_OPEN_FILES);
     assertThat(configuration.isHighSpec()).isEqualTo(DEFAULT_IS_HIGH_SPEC);
+    assertThat(configuration.isSegmentProfilesEnabled())
+        .isEqualTo(DEFAULT_IS_SEGMENT_PROFILES_ENABLED);
+    assertThat(configuration.getSegmentProfileOverrides()).isEmpty();
   }
 
   @Test
@@ -104,4 +113,39 @@ public class RocksDBCLIOptionsTest {
     assertThat(configuration.getCacheCapacity()).isEqualTo(DEFAULT_CACHE_CAPACITY);
     assertThat(configuration.isHighSpec()).isEqualTo(Boolean.TRUE);
   }
+
+  @Test
+  public void customIsSegmentProfilesEnabled() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parseArgs(SEGMENT_PROFILES_ENABLED_FLAG);
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration).isNotNull();
+    assertThat(configuration.isHighSpec()).isEqualTo(DEFAULT_IS_HIGH_SPEC);
+    assertThat(configuration.isSegmentProfilesEnabled()).isTrue();
+    assertThat(configuration.getSegmentProfileOverrides()).isEmpty();
+  }
+
+  @Test
+  public void customSegmentProfiles() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options)
+        .parseArgs(
+            SEGMENT_PROFILES_ENABLED_FLAG,
+            SEGMENT_PROFILE_FLAG,
+            "BLOCKCHAIN=APPEND_ONLY,CODE_STORAGE=DEFAULT");
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration).isNotNull();
+    assertThat(configuration.isSegmentProfilesEnabled()).isTrue();
+    assertThat(configuration.getSegmentProfileOverrides())
+        .isEqualTo(
+            Map.of(
+                "BLOCKCHAIN",
+                RocksDBSegmentProfile.APPEND_ONLY,
+                "CODE_STORAGE",
+                RocksDBSegmentProfile.DEFAULT));
+  }
 }
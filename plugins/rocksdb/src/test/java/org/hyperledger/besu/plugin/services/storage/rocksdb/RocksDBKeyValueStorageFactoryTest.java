@@ -33,11 +33,13 @@ import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.BaseVersionedStorageFormat;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.DatabaseMetadata;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorageTest.TestSegment;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -107,6 +109,96 @@ public class RocksDBKeyValueStorageFactoryTest {
     }
   }
 
+  @ParameterizedTest
+  @EnumSource(DataStorageFormat.class)
+  public void shouldCreateCorrectMetadataFileForLatestVersionForNewDbWithBlockchainSegments(
+      final DataStorageFormat dataStorageFormat) throws Exception {
+    final Path tempDataDir = temporaryFolder.resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.resolve("db");
+    mockCommonConfiguration(tempDataDir, tempDatabaseDir, dataStorageFormat);
+    when(dataStorageConfiguration.getBlockchainSegmentsEnabled()).thenReturn(true);
+
+    final RocksDBKeyValueStorageFactory storageFactory =
+        new RocksDBKeyValueStorageFactory(
+            () -> rocksDbConfiguration, segments, RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    try (final var storage = storageFactory.create(segment, commonConfiguration, metricsSystem)) {
+      final BaseVersionedStorageFormat expectedVersion =
+          dataStorageFormat == BONSAI
+              ? BaseVersionedStorageFormat.BONSAI_WITH_BLOCKCHAIN_SEGMENTS
+              : BaseVersionedStorageFormat.FOREST_WITH_BLOCKCHAIN_SEGMENTS;
+      assertThat(DatabaseMetadata.lookUpFrom(tempDataDir).getVersionedStorageFormat())
+          .isEqualTo(expectedVersion);
+    }
+  }
+
+  @Test
+  public void shouldFailToEnableBlockchainSegmentsOnExistingDbNotMigrated() throws Exception {
+    final Path tempDataDir = temporaryFolder.resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.resolve("db");
+    Files.createDirectories(tempDatabaseDir);
+    Files.createDirectories(tempDataDir);
+    mockCommonConfiguration(tempDataDir, tempDatabaseDir, BONSAI);
+    when(dataStorageConfiguration.getBlockchainSegmentsEnabled()).thenReturn(true);
+
+    Utils.createDatabaseMetadataV2(tempDataDir, BONSAI, 3);
+
+    assertThatThrownBy(
+            () ->
+                new RocksDBKeyValueStorageFactory(
+                        () -> rocksDbConfiguration,
+                        segments,
+                        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS)
+                    .create(segment, commonConfiguration, metricsSystem))
+        .isInstanceOf(StorageException.class)
+        .hasMessageContaining("besu storage migrate-blockchain-segments");
+    assertThat(DatabaseMetadata.lookUpFrom(tempDataDir).getVersionedStorageFormat())
+        .isEqualTo(BaseVersionedStorageFormat.BONSAI_WITH_RECEIPT_COMPACTION);
+  }
+
+  @Test
+  public void shouldFailToOpenDbWithBlockchainSegmentsWhenDisabled() throws Exception {
+    final Path tempDataDir = temporaryFolder.resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.resolve("db");
+    Files.createDirectories(tempDatabaseDir);
+    Files.createDirectories(tempDataDir);
+    mockCommonConfiguration(tempDataDir, tempDatabaseDir, BONSAI);
+
+    Utils.createDatabaseMetadataV2(tempDataDir, BONSAI, 4);
+
+    assertThatThrownBy(
+            () ->
+                new RocksDBKeyValueStorageFactory(
+                        () -> rocksDbConfiguration,
+                        segments,
+                        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS)
+                    .create(segment, commonConfiguration, metricsSystem))
+        .isInstanceOf(StorageException.class)
+        .hasMessageContaining("--Xblockchain-segments-enabled=true");
+  }
+
+  @Test
+  public void shouldFailOnProfileOverrideOfUnknownSegment() {
+    final Path tempDataDir = temporaryFolder.resolve("data");
+    final Path tempDatabaseDir = temporaryFolder.resolve("db");
+    mockCommonConfiguration(tempDataDir, tempDatabaseDir, BONSAI);
+    when(rocksDbConfiguration.getSegmentProfileOverrides())
+        .thenReturn(
+            Map.of(
+                segment.getName(), RocksDBSegmentProfile.BLOB,
+                "NOT_A_SEGMENT", RocksDBSegmentProfile.BLOB));
+
+    assertThatThrownBy(
+            () ->
+                new RocksDBKeyValueStorageFactory(
+                        () -> rocksDbConfiguration,
+                        segments,
+                        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS)
+                    .create(segment, commonConfiguration, metricsSystem))
+        .isInstanceOf(StorageException.class)
+        .hasMessageContaining("--Xplugin-rocksdb-segment-profile: NOT_A_SEGMENT.");
+  }
+
   @Test
   public void shouldFailIfDbExistsAndNoMetadataFileFound() throws Exception {
     final Path tempDataDir = temporaryFolder.resolve("data");
@@ -0,0 +1,97 @@
+/*
+ * Copyright contributors to Hyperledger Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_BODIES;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.BLOCKCHAIN_TRANSACTION_LOCATIONS;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.CODE_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.TRIE_LOG_STORAGE;
+import static org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.VARIABLES;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.rocksdb.CompressionType;
+
+class RocksDBSegmentProfileTest {
+
+  @Test
+  void allSegmentsUseDefaultProfileWhenDisabled() {
+    final RocksDBConfiguration configuration =
+        new RocksDBConfigurationBuilder()
+            .segmentProfileOverrides(Map.of("BLOCKCHAIN", RocksDBSegmentProfile.BLOB))
+            .build();
+
+    assertThat(configuration.getSegmentProfile(ACCOUNT_INFO_STATE))
+        .isEqualTo(RocksDBSegmentProfile.DEFAULT);
+    assertThat(configuration.getSegmentProfile(BLOCKCHAIN))
+        .isEqualTo(RocksDBSegmentProfile.DEFAULT);
+  }
+
+  @Test
+  void segmentsUseProfileMatchingTheirAccessPattern() {
+    final RocksDBConfiguration configuration =
+        new RocksDBConfigurationBuilder().isSegmentProfilesEnabled(true).build();
+
+    assertThat(configuration.getSegmentProfile(ACCOUNT_INFO_STATE))
+        .isEqualTo(RocksDBSegmentProfile.POINT_LOOKUP);
+    assertThat(configuration.getSegmentProfile(TRIE_BRANCH_STORAGE))
+        .isEqualTo(RocksDBSegmentProfile.POINT_LOOKUP);
+    assertThat(configuration.getSegmentProfile(TRIE_LOG_STORAGE))
+        .isEqualTo(RocksDBSegmentProfile.APPEND_ONLY);
+    assertThat(configuration.getSegmentProfile(CODE_STORAGE))
+        .isEqualTo(RocksDBSegmentProfile.BLOB);
+    assertThat(configuration.getSegmentProfile(BLOCKCHAIN))
+        .isEqualTo(RocksDBSegmentProfile.SEQUENTIAL);
+    assertThat(configuration.getSegmentProfile(BLOCKCHAIN_BODIES))
+        .isEqualTo(RocksDBSegmentProfile.APPEND_ONLY);
+    assertThat(configuration.getSegmentProfile(BLOCKCHAIN_TRANSACTION_LOCATIONS))
+        .isEqualTo(RocksDBSegmentProfile.POINT_LOOKUP);
+    assertThat(configuration.getSegmentProfile(VARIABLES))
+        .isEqualTo(RocksDBSegmentProfile.DEFAULT);
+  }
+
+  @Test
+  void overrideReplacesDefaultProfileOfSegment() {
+    final RocksDBConfiguration configuration =
+        new RocksDBConfigurationBuilder()
+            .isSegmentProfilesEnabled(true)
+            .segmentProfileOverrides(Map.of("ACCOUNT_INFO_STATE", RocksDBSegmentProfile.DEFAULT))
+            .build();
+
+    assertThat(configuration.getSegmentProfile(ACCOUNT_INFO_STATE))
+        .isEqualTo(RocksDBSegmentProfile.DEFAULT);
+    assertThat(configuration.getSegmentProfile(TRIE_BRANCH_STORAGE))
+        .isEqualTo(RocksDBSegmentProfile.POINT_LOOKUP);
+  }
+
+  @Test
+  void upperLevelsAreCompressedSeparately() {
+    assertThat(RocksDBSegmentProfile.DEFAULT.getCompressionPerLevel()).isEmpty();
+    assertThat(RocksDBSegmentProfile.POINT_LOOKUP.getCompressionPerLevel())
+        .containsExactly(
+            CompressionType.NO_COMPRESSION,
+            CompressionType.NO_COMPRESSION,
+            CompressionType.LZ4_COMPRESSION,
+            CompressionType.LZ4_COMPRESSION,
+            CompressionType.LZ4_COMPRESSION,
+            CompressionType.LZ4_COMPRESSION,
+            CompressionType.LZ4_COMPRESSION);
+  }
+}
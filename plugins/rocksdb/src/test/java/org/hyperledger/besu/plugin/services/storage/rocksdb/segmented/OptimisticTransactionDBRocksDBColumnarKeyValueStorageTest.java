@@ -14,18 +14,24 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -33,6 +39,42 @@ import org.mockito.junit.jupiter.MockitoExtension;
 public class OptimisticTransactionDBRocksDBColumnarKeyValueStorageTest
     extends RocksDBColumnarKeyValueStorageTest {
 
+  @Test
+  public void canReadAndWriteWithEachSegmentProfile() throws Exception {
+    final List<SegmentIdentifier> segments =
+        List.of(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR, TestSegment.STATIC_DATA);
+    final SegmentedKeyValueStorage store =
+        new OptimisticRocksDBColumnarKeyValueStorage(
+            new RocksDBConfigurationBuilder()
+                .databaseDir(folder)
+                .isSegmentProfilesEnabled(true)
+                .segmentProfileOverrides(
+                    Map.of(
+                        TestSegment.DEFAULT.getName(),
+                        RocksDBSegmentProfile.SEQUENTIAL,
+                        TestSegment.FOO.getName(),
+                        RocksDBSegmentProfile.POINT_LOOKUP,
+                        TestSegment.BAR.getName(),
+                        RocksDBSegmentProfile.APPEND_ONLY,
+                        TestSegment.STATIC_DATA.getName(),
+                        RocksDBSegmentProfile.BLOB))
+                .build(),
+            segments,
+            List.of(),
+            new NoOpMetricsSystem(),
+            RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+
+    final byte[] key = bytesFromHexString("0001");
+    final byte[] value = new byte[2048];
+    Arrays.fill(value, (byte) 1);
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    segments.forEach(segment -> tx.put(segment, key, value));
+    tx.commit();
+
+    segments.forEach(segment -> assertThat(store.get(segment, key)).contains(value));
+    store.close();
+  }
+
   @Override
   protected SegmentedKeyValueStorage createSegmentedStore() throws Exception {
     return new OptimisticRocksDBColumnarKeyValueStorage(
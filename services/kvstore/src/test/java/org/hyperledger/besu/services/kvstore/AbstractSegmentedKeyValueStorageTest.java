@@ -21,6 +21,8 @@ import org.hyperledger.besu.kvstore.AbstractKeyValueStorageTest;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -78,4 +80,31 @@ public abstract class AbstractSegmentedKeyValueStorageTest extends AbstractKeyVa
       assertThat(val6).isNotPresent();
     }
   }
+
+  @Test
+  public void assertSegmentedMultiGet() throws Exception {
+    try (final var store = this.createSegmentedStore()) {
+      final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+      tx.put(SEGMENT_IDENTIFIER, bytesFromHexString("0001"), bytesFromHexString("0AAA"));
+      tx.put(SEGMENT_IDENTIFIER, bytesFromHexString("0003"), bytesFromHexString("0CCC"));
+      tx.commit();
+
+      final List<Optional<byte[]>> values =
+          store.multiGet(
+              SEGMENT_IDENTIFIER,
+              List.of(
+                  bytesFromHexString("0003"),
+                  bytesFromHexString("0002"),
+                  bytesFromHexString("0001"),
+                  bytesFromHexString("0003")));
+
+      assertThat(values.stream().map(value -> value.map(Bytes::wrap)))
+          .containsExactly(
+              Optional.of(Bytes.fromHexString("0CCC")),
+              Optional.empty(),
+              Optional.of(Bytes.fromHexString("0AAA")),
+              Optional.of(Bytes.fromHexString("0CCC")));
+      assertThat(store.multiGet(SEGMENT_IDENTIFIER, List.of())).isEmpty();
+    }
+  }
 }
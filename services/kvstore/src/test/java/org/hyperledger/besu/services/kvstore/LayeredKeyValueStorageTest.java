@@ -14,10 +14,18 @@
  */
 package org.hyperledger.besu.services.kvstore;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage.SEGMENT_IDENTIFIER;
 
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
 
 public class LayeredKeyValueStorageTest extends AbstractSegmentedKeyValueStorageTest {
   @Override
@@ -29,4 +37,36 @@ public class LayeredKeyValueStorageTest extends AbstractSegmentedKeyValueStorage
   public SegmentedKeyValueStorage createSegmentedStore() {
     return new LayeredKeyValueStorage(new SegmentedInMemoryKeyValueStorage());
   }
+
+  @Test
+  public void multiGetReadsKeysMissingFromTheLayerFromTheParent() {
+    final SegmentedInMemoryKeyValueStorage parent = new SegmentedInMemoryKeyValueStorage();
+    final SegmentedKeyValueStorageTransaction parentTx = parent.startTransaction();
+    parentTx.put(SEGMENT_IDENTIFIER, bytesFromHexString("0001"), bytesFromHexString("0AAA"));
+    parentTx.put(SEGMENT_IDENTIFIER, bytesFromHexString("0002"), bytesFromHexString("0BBB"));
+    parentTx.put(SEGMENT_IDENTIFIER, bytesFromHexString("0003"), bytesFromHexString("0CCC"));
+    parentTx.commit();
+
+    final LayeredKeyValueStorage layered = new LayeredKeyValueStorage(parent);
+    final SegmentedKeyValueStorageTransaction layeredTx = layered.startTransaction();
+    layeredTx.put(SEGMENT_IDENTIFIER, bytesFromHexString("0002"), bytesFromHexString("0DDD"));
+    layeredTx.remove(SEGMENT_IDENTIFIER, bytesFromHexString("0003"));
+    layeredTx.commit();
+
+    final List<Optional<byte[]>> values =
+        layered.multiGet(
+            SEGMENT_IDENTIFIER,
+            List.of(
+                bytesFromHexString("0001"),
+                bytesFromHexString("0002"),
+                bytesFromHexString("0003"),
+                bytesFromHexString("0004")));
+
+    assertThat(values.stream().map(value -> value.map(Bytes::wrap)))
+        .containsExactly(
+            Optional.of(Bytes.fromHexString("0AAA")),
+            Optional.of(Bytes.fromHexString("0DDD")),
+            Optional.empty(),
+            Optional.empty());
+  }
 }